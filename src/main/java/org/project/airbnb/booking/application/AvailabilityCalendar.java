@@ -0,0 +1,290 @@
+package org.project.airbnb.booking.application;
+
+import org.project.airbnb.booking.application.dto.BookedDateDTO;
+import org.project.airbnb.booking.domain.BookingInterval;
+import org.project.airbnb.booking.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * AvailabilityCalendar es un índice en memoria de los intervalos reservados de cada listado,
+ * indexado por el identificador público del listado.
+ * <p>
+ * Solo guarda las reservas de una ventana acotada: las que terminan después del momento de la carga y empiezan
+ * antes de que acabe el horizonte configurado. Se carga desde la tabla booking al arrancar la aplicación (antes
+ * de que el servidor web acepte peticiones), se actualiza tras confirmar cada creación o cancelación de reserva
+ * de esta instancia y se recarga periódicamente desde la base de datos. La recarga descarta las reservas ya
+ * terminadas, de modo que la memoria no crece con el historial, e incorpora las reservas escritas por otras
+ * instancias de la aplicación, que por tanto se reflejan con un retraso máximo del intervalo de recarga.
+ * Por eso el calendario solo se usa para responder lecturas y descartar reservas libres: BookingService vuelve
+ * a comprobar en la base de datos cada conflicto antes de rechazar una reserva, y la restricción de exclusión
+ * booking_no_overlap impide los solapamientos que el calendario todavía no conoce.
+ * <p>
+ * Cada listado se representa con una instantánea inmutable ordenada por fecha de inicio; las
+ * escrituras reemplazan la instantánea completa del listado (copy-on-write), por lo que las lecturas
+ * nunca se bloquean. Las escrituras que llegan durante una recarga se anotan y se aplican también sobre
+ * el índice recargado, para que no se pierdan si se confirmaron después de leer la base de datos.
+ */
+@Component
+public class AvailabilityCalendar implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityCalendar.class);
+
+    private final BookingRepository bookingRepository;
+    private final Duration horizon;
+
+    private volatile Index index;
+    // Escrituras recibidas durante una recarga en curso, protegidas por writeLock; null cuando no hay ninguna recarga
+    private final Lock writeLock = new ReentrantLock();
+    private List<Consumer<Index>> journal;
+
+    /**
+     * Constructor del calendario de disponibilidad.
+     *
+     * @param bookingRepository el repositorio de reservas usado para las cargas
+     * @param horizon el tiempo hacia el futuro, desde cada carga, cuyas reservas se guardan en memoria
+     */
+    public AvailabilityCalendar(BookingRepository bookingRepository,
+                                @Value("${application.availability-calendar.horizon:730d}") Duration horizon) {
+        this.bookingRepository = bookingRepository;
+        this.horizon = horizon;
+        this.index = new Index(OffsetDateTime.now(ZoneOffset.UTC).plus(horizon));
+    }
+
+    /**
+     * Carga las reservas existentes en el índice.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    /**
+     * Vuelve a cargar desde la base de datos las reservas de la ventana actual y sustituye el índice.
+     */
+    @Scheduled(initialDelayString = "${application.availability-calendar.refresh-interval-ms:300000}",
+            fixedDelayString = "${application.availability-calendar.refresh-interval-ms:300000}")
+    public void reload() {
+        writeLock.lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            writeLock.unlock();
+        }
+        Index reloaded = null;
+        try {
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+            Index loaded = new Index(now.plus(horizon));
+            List<BookingInterval> intervals = bookingRepository.findAllIntervalsOverlapping(now, loaded.horizonEnd());
+            intervals.stream()
+                    .collect(Collectors.groupingBy(BookingInterval::listingPublicId))
+                    .forEach((listingPublicId, listingIntervals) ->
+                            loaded.calendars.put(listingPublicId, ListingCalendar.of(listingIntervals)));
+            intervals.forEach(interval -> loaded.listingByBooking.put(interval.bookingPublicId(), interval.listingPublicId()));
+            reloaded = loaded;
+            log.info("Availability calendar loaded with {} bookings for {} listings", intervals.size(), loaded.calendars.size());
+        } finally {
+            writeLock.lock();
+            try {
+                // Si la carga falla se conserva el índice actual, que ya contiene las escrituras anotadas
+                if (reloaded != null) {
+                    for (Consumer<Index> change : journal) {
+                        change.accept(reloaded);
+                    }
+                    index = reloaded;
+                }
+                journal = null;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Indica si existe alguna reserva del listado que se solape con el intervalo [startDate, endDate).
+     * Un intervalo que termina después del horizonte se considera reservado, porque el calendario no
+     * conoce esas reservas: quien lo consulta debe confirmarlo en la base de datos.
+     *
+     * @param listingPublicId el identificador público del listado
+     * @param startDate la fecha de inicio del intervalo
+     * @param endDate la fecha de fin del intervalo
+     * @return true si el intervalo puede estar reservado, false si seguro que está libre según esta instancia
+     */
+    public boolean isBooked(UUID listingPublicId, OffsetDateTime startDate, OffsetDateTime endDate) {
+        Index current = index;
+        if (endDate.isAfter(current.horizonEnd())) {
+            return true;
+        }
+        ListingCalendar calendar = current.calendars.get(listingPublicId);
+        return calendar != null && calendar.overlaps(toMicros(startDate), toMicros(endDate));
+    }
+
+    /**
+     * Obtiene las fechas reservadas de un listado que no han terminado y empiezan antes del horizonte,
+     * ordenadas por fecha de inicio.
+     *
+     * @param listingPublicId el identificador público del listado
+     * @return una lista inmutable de BookedDateDTO
+     */
+    public List<BookedDateDTO> getBookedDates(UUID listingPublicId) {
+        ListingCalendar calendar = index.calendars.get(listingPublicId);
+        return calendar == null ? List.of() : calendar.bookedDates();
+    }
+
+    /**
+     * Registra una reserva confirmada en el índice. Las reservas que empiezan después del horizonte no se guardan.
+     *
+     * @param interval el intervalo de la reserva
+     */
+    public void reserve(BookingInterval interval) {
+        apply(current -> current.reserve(interval));
+    }
+
+    /**
+     * Elimina una reserva cancelada del índice.
+     *
+     * @param bookingPublicId el identificador público de la reserva
+     */
+    public void release(UUID bookingPublicId) {
+        apply(current -> current.release(bookingPublicId));
+    }
+
+    /**
+     * Elimina del índice todas las reservas de un listado, por ejemplo cuando el listado se borra.
+     *
+     * @param listingPublicId el identificador público del listado
+     */
+    public void evictListing(UUID listingPublicId) {
+        apply(current -> current.evictListing(listingPublicId));
+    }
+
+    // Aplica una escritura al índice actual y la anota si hay una recarga en curso
+    private void apply(Consumer<Index> change) {
+        writeLock.lock();
+        try {
+            change.accept(index);
+            if (journal != null) {
+                journal.add(change);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Reservas de la ventana cargada, por listado y por reserva. Las escrituras son idempotentes para que
+     * las anotadas durante una recarga se puedan aplicar sobre un índice que ya las contiene.
+     */
+    private record Index(OffsetDateTime horizonEnd, Map<UUID, ListingCalendar> calendars, Map<UUID, UUID> listingByBooking) {
+
+        Index(OffsetDateTime horizonEnd) {
+            this(horizonEnd, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+
+        void reserve(BookingInterval interval) {
+            if (!interval.startDate().isBefore(horizonEnd) || listingByBooking.containsKey(interval.bookingPublicId())) {
+                return;
+            }
+            listingByBooking.put(interval.bookingPublicId(), interval.listingPublicId());
+            calendars.compute(interval.listingPublicId(), (listingPublicId, calendar) -> calendar == null
+                    ? ListingCalendar.of(List.of(interval))
+                    : calendar.with(interval));
+        }
+
+        void release(UUID bookingPublicId) {
+            UUID listingPublicId = listingByBooking.remove(bookingPublicId);
+            if (listingPublicId != null) {
+                calendars.computeIfPresent(listingPublicId, (id, calendar) -> calendar.without(bookingPublicId));
+            }
+        }
+
+        void evictListing(UUID listingPublicId) {
+            ListingCalendar removed = calendars.remove(listingPublicId);
+            if (removed != null) {
+                Arrays.stream(removed.intervals()).forEach(interval -> listingByBooking.remove(interval.bookingPublicId()));
+            }
+        }
+    }
+
+    private static long toMicros(OffsetDateTime dateTime) {
+        return dateTime.toEpochSecond() * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    /**
+     * Instantánea inmutable de las reservas de un listado. Los intervalos están ordenados por inicio y
+     * maxEnds[i] guarda el mayor fin entre los intervalos 0..i, lo que permite responder a una consulta
+     * de solapamiento con una única búsqueda binaria aunque existan intervalos solapados.
+     */
+    private record ListingCalendar(BookingInterval[] intervals, long[] starts, long[] maxEnds,
+                                   List<BookedDateDTO> bookedDates) {
+
+        private static final Comparator<BookingInterval> BY_START =
+                Comparator.comparingLong((BookingInterval interval) -> toMicros(interval.startDate()))
+                        .thenComparingLong(interval -> toMicros(interval.endDate()));
+
+        static ListingCalendar of(List<BookingInterval> unsorted) {
+            BookingInterval[] intervals = unsorted.toArray(BookingInterval[]::new);
+            Arrays.sort(intervals, BY_START);
+            long[] starts = new long[intervals.length];
+            long[] maxEnds = new long[intervals.length];
+            List<BookedDateDTO> bookedDates = new ArrayList<>(intervals.length);
+            long maxEnd = Long.MIN_VALUE;
+            for (int i = 0; i < intervals.length; i++) {
+                starts[i] = toMicros(intervals[i].startDate());
+                maxEnd = Math.max(maxEnd, toMicros(intervals[i].endDate()));
+                maxEnds[i] = maxEnd;
+                bookedDates.add(new BookedDateDTO(intervals[i].startDate(), intervals[i].endDate()));
+            }
+            return new ListingCalendar(intervals, starts, maxEnds, List.copyOf(bookedDates));
+        }
+
+        boolean overlaps(long start, long end) {
+            // Último intervalo que empieza antes del fin solicitado.
+            int low = 0;
+            int high = starts.length - 1;
+            int candidate = -1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle] < end) {
+                    candidate = middle;
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return candidate >= 0 && maxEnds[candidate] > start;
+        }
+
+        ListingCalendar with(BookingInterval interval) {
+            List<BookingInterval> updated = new ArrayList<>(Arrays.asList(intervals));
+            updated.add(interval);
+            return of(updated);
+        }
+
+        ListingCalendar without(UUID bookingPublicId) {
+            List<BookingInterval> updated = Arrays.stream(intervals)
+                    .filter(interval -> !interval.bookingPublicId().equals(bookingPublicId))
+                    .toList();
+            return updated.isEmpty() ? null : of(updated);
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package org.project.airbnb.booking.application;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.project.airbnb.booking.application.dto.BookedDateDTO;
 import org.project.airbnb.booking.application.dto.BookedListingDTO;
 import org.project.airbnb.booking.application.dto.NewBookingDTO;
 import org.project.airbnb.booking.domain.Booking;
+import org.project.airbnb.booking.domain.BookingInterval;
 import org.project.airbnb.booking.mapper.BookingMapper;
 import org.project.airbnb.booking.repository.BookingRepository;
 import org.project.airbnb.infrastructure.config.SecurityUtils;
@@ -11,28 +15,59 @@ import org.project.airbnb.listing.application.LandlordService;
 import org.project.airbnb.listing.application.dto.DisplayCardListingDTO;
 import org.project.airbnb.listing.application.dto.ListingCreateBookingDTO;
 import org.project.airbnb.listing.application.dto.vo.PriceVO;
+import org.project.airbnb.sharedkernel.service.CursorPageDTO;
+import org.project.airbnb.sharedkernel.service.KeysetCursor;
 import org.project.airbnb.sharedkernel.service.State;
 import org.project.airbnb.user.application.UserService;
 import org.project.airbnb.user.application.dto.ReadUserDTO;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.locks.Lock;
 
 /**
  * BookingService es el servicio principal para gestionar las reservas en la aplicación.
  * Proporciona métodos para crear, cancelar y verificar la disponibilidad de las reservas.
+ * Publica los contadores {@code airbnb.booking.conflicts} (reservas rechazadas por solaparse con otra) y
+ * {@code airbnb.booking.cancellations} (cancelaciones confirmadas, por inquilino o por propietario).
  */
 @Service
 public class BookingService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Restricción de exclusión que impide solapar reservas de un listado y su SQLState en PostgreSQL
+    private static final String OVERLAP_CONSTRAINT = "booking_no_overlap";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    // Límites del intervalo de fechas cuando la petición no lo acota
+    private static final OffsetDateTime OPEN_WINDOW_START = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime OPEN_WINDOW_END = OffsetDateTime.of(9999, 12, 31, 0, 0, 0, 0, ZoneOffset.UTC);
+
     private final BookingRepository bookingRepository;
     private final BookingMapper bookingMapper;
     private final UserService userService;
     private final LandlordService landlordService;
+    private final AvailabilityCalendar availabilityCalendar;
+    private final ListingLocks listingLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter bookingConflicts;
+    private final Counter tenantCancellations;
+    private final Counter landlordCancellations;
 
     /**
      * Constructor del servicio BookingService.
@@ -41,22 +76,41 @@ public class BookingService {
      * @param bookingMapper el mapeador de reservas
      * @param userService el servicio de usuarios
      * @param landlordService el servicio de propietarios
+     * @param availabilityCalendar el calendario de disponibilidad en memoria
+     * @param listingLocks los cerrojos por listado para serializar las reservas
+     * @param transactionTemplate la plantilla para delimitar la transacción de creación
+     * @param meterRegistry el registro de las métricas de reservas
      */
     public BookingService(BookingRepository bookingRepository, BookingMapper bookingMapper,
-                          UserService userService, LandlordService landlordService) {
+                          UserService userService, LandlordService landlordService,
+                          AvailabilityCalendar availabilityCalendar, ListingLocks listingLocks,
+                          TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
         this.bookingRepository = bookingRepository;
         this.bookingMapper = bookingMapper;
         this.userService = userService;
         this.landlordService = landlordService;
+        this.availabilityCalendar = availabilityCalendar;
+        this.listingLocks = listingLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.bookingConflicts = Counter.builder("airbnb.booking.conflicts")
+                .description("Bookings rejected because they overlap an existing booking")
+                .register(meterRegistry);
+        this.tenantCancellations = cancellations(meterRegistry, "tenant");
+        this.landlordCancellations = cancellations(meterRegistry, "landlord");
     }
 
     /**
      * Crea una nueva reserva basada en los datos proporcionados.
+     * <p>
+     * Las reservas de un mismo listado se serializan con un cerrojo por franja que se mantiene hasta
+     * después de confirmar la transacción, de modo que la comprobación en el calendario y la inserción
+     * son atómicas en esta instancia. El calendario puede ir por detrás de otras instancias, por lo que un
+     * conflicto se confirma en la base de datos antes de rechazar la reserva, y la restricción de exclusión
+     * booking_no_overlap rechaza las reservas que se solapan con otras que el calendario todavía no conoce.
      *
      * @param newBookingDTO los datos de la nueva reserva
      * @return el estado de la operación
      */
-    @Transactional
     public State<Void, String> create(NewBookingDTO newBookingDTO) {
         Booking booking = bookingMapper.newBookingToBooking(newBookingDTO);
 
@@ -66,12 +120,6 @@ public class BookingService {
             return State.<Void, String>builder().forError("Landlord public id not found");
         }
 
-        boolean alreadyBooked = bookingRepository.bookingExistsAtInterval(newBookingDTO.startDate(), newBookingDTO.endDate(), newBookingDTO.listingPublicId());
-
-        if (alreadyBooked) {
-            return State.<Void, String>builder().forError("One booking already exists");
-        }
-
         ListingCreateBookingDTO listingCreateBookingDTO = listingOpt.get();
 
         booking.setFkListing(listingCreateBookingDTO.listingPublicId());
@@ -83,21 +131,45 @@ public class BookingService {
         long numberOfNights = ChronoUnit.DAYS.between(booking.getStartDate(), booking.getEndDate());
         booking.setTotalPrice((int) (numberOfNights * listingCreateBookingDTO.price().value()));
 
-        bookingRepository.save(booking);
+        Lock listingLock = listingLocks.forListing(booking.getFkListing());
+        listingLock.lock();
+        try {
+            // El calendario descarta sin consultar la base de datos los intervalos libres; los conflictos se confirman en ella
+            boolean alreadyBooked = availabilityCalendar.isBooked(booking.getFkListing(), booking.getStartDate(), booking.getEndDate())
+                    && bookingRepository.bookingExistsAtInterval(booking.getStartDate(), booking.getEndDate(), booking.getFkListing());
+
+            if (alreadyBooked) {
+                bookingConflicts.increment();
+                return State.<Void, String>builder().forError("One booking already exists");
+            }
+
+            Booking savedBooking = transactionTemplate.execute(status -> bookingRepository.saveAndFlush(booking));
+
+            availabilityCalendar.reserve(new BookingInterval(savedBooking.getPublicId(), savedBooking.getFkListing(),
+                    savedBooking.getStartDate(), savedBooking.getEndDate()));
+        } catch (DataIntegrityViolationException dive) {
+            if (!isOverlapViolation(dive)) {
+                throw dive;
+            }
+            // Otra instancia reservó el mismo intervalo: lo rechaza la restricción de exclusión
+            bookingConflicts.increment();
+            return State.<Void, String>builder().forError("One booking already exists");
+        } finally {
+            listingLock.unlock();
+        }
 
         return State.<Void, String>builder().forSuccess();
     }
 
     /**
      * Verifica la disponibilidad de un listado en función de su identificador público.
+     * Las fechas se obtienen del calendario en memoria, sin consultar la base de datos.
      *
      * @param publicId el identificador público del listado
      * @return una lista de BookedDateDTO que representa las fechas reservadas
      */
-    @Transactional(readOnly = true)
     public List<BookedDateDTO> checkAvailability(UUID publicId) {
-        return bookingRepository.findAllByFkListing(publicId)
-                .stream().map(bookingMapper::bookingToCheckAvailability).toList();
+        return availabilityCalendar.getBookedDates(publicId);
     }
 
     /**
@@ -109,24 +181,28 @@ public class BookingService {
     public List<BookedListingDTO> getBookedListing() {
         ReadUserDTO connectedUser = userService.getAuthenticatedUserFromSecurityContext();
         List<Booking> allBookings = bookingRepository.findAllByFkTenant(connectedUser.publicId());
-        List<UUID> allListingPublicIDs = allBookings.stream().map(Booking::getFkListing).toList();
+        // Un mismo listado puede tener varias reservas del inquilino: se piden sus tarjetas una sola vez
+        List<UUID> allListingPublicIDs = allBookings.stream().map(Booking::getFkListing).distinct().toList();
         List<DisplayCardListingDTO> allListings = landlordService.getCardDisplayByListingPublicId(allListingPublicIDs);
         return mapBookingToBookedListing(allBookings, allListings);
     }
 
     /**
      * Mapea las reservas y los listados a BookedListingDTO.
+     * Los listados se indexan por su identificador público (hash join en memoria), de modo que el coste
+     * es lineal en el número de reservas y de listados.
      *
      * @param allBookings una lista de todas las reservas
      * @param allListings una lista de todos los listados
      * @return una lista de BookedListingDTO
      */
-    private List<BookedListingDTO> mapBookingToBookedListing(List<Booking> allBookings, List<DisplayCardListingDTO> allListings) {
+    List<BookedListingDTO> mapBookingToBookedListing(List<Booking> allBookings, List<DisplayCardListingDTO> allListings) {
+        Map<UUID, DisplayCardListingDTO> listingsByPublicId = HashMap.newHashMap(allListings.size());
+        for (DisplayCardListingDTO listing : allListings) {
+            listingsByPublicId.putIfAbsent(listing.publicId(), listing);
+        }
         return allBookings.stream().map(booking -> {
-            DisplayCardListingDTO displayCardListingDTO = allListings
-                    .stream()
-                    .filter(listing -> listing.publicId().equals(booking.getFkListing()))
-                    .findFirst()
+            DisplayCardListingDTO displayCardListingDTO = Optional.ofNullable(listingsByPublicId.get(booking.getFkListing()))
                     .orElseThrow();
             BookedDateDTO dates = bookingMapper.bookingToCheckAvailability(booking);
             return new BookedListingDTO(displayCardListingDTO.cover(),
@@ -148,15 +224,22 @@ public class BookingService {
     public State<UUID, String> cancel(UUID bookingPublicId, UUID listingPublicId, boolean byLandlord) {
         ReadUserDTO connectedUser = userService.getAuthenticatedUserFromSecurityContext();
         int deleteSuccess = 0;
+        Counter cancellations;
 
         if (SecurityUtils.hasCurrentUserAnyOfAuthorities(SecurityUtils.ROLE_LANDLORD)
                 && byLandlord) {
             deleteSuccess = handleDeletionForLandlord(bookingPublicId, listingPublicId, connectedUser, deleteSuccess);
+            cancellations = landlordCancellations;
         } else {
             deleteSuccess = bookingRepository.deleteBookingByFkTenantAndPublicId(connectedUser.publicId(), bookingPublicId);
+            cancellations = tenantCancellations;
         }
 
         if (deleteSuccess >= 1) {
+            afterCommit(() -> {
+                availabilityCalendar.release(bookingPublicId);
+                cancellations.increment();
+            });
             return State.<UUID, String>builder().forSuccess(bookingPublicId);
         } else {
             return State.<UUID, String>builder().forError("Booking not found");
@@ -195,14 +278,124 @@ public class BookingService {
     }
 
     /**
-     * Obtiene los identificadores de los listados que coinciden con las fechas reservadas.
+     * Obtiene una página de las reservas en las propiedades del propietario autenticado que se solapan con
+     * un intervalo de fechas, ordenadas por fecha de inicio. Las páginas se recorren con un cursor opaco,
+     * de modo que el panel del propietario puede cargarlas de forma incremental sin leer todo el historial.
+     *
+     * @param from el inicio del intervalo, o null para no acotarlo
+     * @param to el fin del intervalo, o null para no acotarlo
+     * @param listingPublicId el listado por el que filtrar, o null para incluir todas las propiedades
+     * @param cursor el cursor devuelto por la página anterior, o null para la primera página
+     * @param size el número de reservas por página
+     * @return el estado con la página de reservas, o un error si los parámetros no son válidos
+     */
+    @Transactional(readOnly = true)
+    public State<CursorPageDTO<BookedListingDTO>, String> getBookedListingForLandlord(OffsetDateTime from, OffsetDateTime to,
+                                                                                      UUID listingPublicId, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return State.<CursorPageDTO<BookedListingDTO>, String>builder()
+                    .forError(String.format("Page size must be between 1 and %d", MAX_PAGE_SIZE));
+        }
+        OffsetDateTime windowStart = from == null ? OPEN_WINDOW_START : from;
+        OffsetDateTime windowEnd = to == null ? OPEN_WINDOW_END : to;
+        if (!windowStart.isBefore(windowEnd)) {
+            return State.<CursorPageDTO<BookedListingDTO>, String>builder().forError("The date window is empty");
+        }
+        Optional<KeysetCursor> after = cursor == null || cursor.isBlank() ? Optional.empty() : KeysetCursor.decode(cursor);
+        if (cursor != null && !cursor.isBlank() && after.isEmpty()) {
+            return State.<CursorPageDTO<BookedListingDTO>, String>builder()
+                    .forError(String.format("Invalid cursor: %s", cursor));
+        }
+
+        ReadUserDTO connectedUser = userService.getAuthenticatedUserFromSecurityContext();
+        Optional<DisplayCardListingDTO> filteredListing = Optional.empty();
+        if (listingPublicId != null) {
+            filteredListing = landlordService.getByPublicIdAndLandlordPublicId(listingPublicId, connectedUser.publicId());
+            if (filteredListing.isEmpty()) {
+                return State.<CursorPageDTO<BookedListingDTO>, String>builder()
+                        .forError(String.format("Listing doesn't exist for publicId: %s", listingPublicId));
+            }
+        }
+
+        // Pide una reserva más de las necesarias para saber si existe una página siguiente
+        Limit limit = Limit.of(size + 1);
+        List<Booking> bookings;
+        if (listingPublicId != null) {
+            List<UUID> listings = List.of(listingPublicId);
+            bookings = after
+                    .map(position -> bookingRepository.findWindowByFkListingInAfter(listings, windowStart, windowEnd,
+                            position.instant().atOffset(ZoneOffset.UTC), position.id(), limit))
+                    .orElseGet(() -> bookingRepository.findWindowByFkListingIn(listings, windowStart, windowEnd, limit));
+        } else {
+            // Las propiedades del arrendador se resuelven en una subconsulta, y sus reservas con el índice (fk_listing, start_date, id)
+            UUID landlordPublicId = connectedUser.publicId();
+            bookings = after
+                    .map(position -> bookingRepository.findWindowByLandlordPublicIdAfter(landlordPublicId, windowStart,
+                            windowEnd, position.instant().atOffset(ZoneOffset.UTC), position.id(), limit))
+                    .orElseGet(() -> bookingRepository.findWindowByLandlordPublicId(landlordPublicId, windowStart,
+                            windowEnd, limit));
+        }
+
+        boolean hasNext = bookings.size() > size;
+        List<Booking> page = hasNext ? bookings.subList(0, size) : bookings;
+        String nextCursor = hasNext
+                ? new KeysetCursor(page.getLast().getStartDate().toInstant(), page.getLast().getId()).encode()
+                : null;
+        // Solo se leen las tarjetas de los listados de la página, cada una una vez
+        List<DisplayCardListingDTO> listings;
+        if (filteredListing.isPresent()) {
+            listings = List.of(filteredListing.get());
+        } else if (page.isEmpty()) {
+            listings = List.of();
+        } else {
+            listings = landlordService.getCardDisplayByListingPublicId(
+                    page.stream().map(Booking::getFkListing).distinct().toList());
+        }
+        return State.<CursorPageDTO<BookedListingDTO>, String>builder()
+                .forSuccess(new CursorPageDTO<>(mapBookingToBookedListing(page, listings), nextCursor, hasNext));
+    }
+
+    /**
+     * Indica si una violación de integridad procede de la restricción de exclusión booking_no_overlap,
+     * por su SQLState (23P01, exclusion_violation) o por el nombre de la restricción.
+     * Las demás violaciones (claves foráneas, columnas obligatorias...) no son conflictos de reserva.
+     *
+     * @param dive la excepción lanzada al insertar la reserva
+     * @return true si la reserva se solapa con otra ya confirmada
+     */
+    static boolean isOverlapViolation(DataIntegrityViolationException dive) {
+        for (Throwable cause = dive; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && OVERLAP_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Contador de cancelaciones confirmadas según quién las realiza
+    private static Counter cancellations(MeterRegistry meterRegistry, String cancelledBy) {
+        return Counter.builder("airbnb.booking.cancellations")
+                .description("Committed booking cancellations")
+                .tag("cancelled.by", cancelledBy)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta una acción cuando la transacción actual se confirma, para que el calendario
+     * en memoria nunca refleje cambios que terminan revirtiéndose.
      *
-     * @param listingsId una lista de identificadores de listados
-     * @param bookedDateDTO las fechas reservadas
-     * @return una lista de identificadores de los listados que coinciden
+     * @param action la acción a ejecutar tras la confirmación
      */
-    public List<UUID> getBookingMatchByListingIdsAndBookedDate(List<UUID> listingsId, BookedDateDTO bookedDateDTO) {
-        return bookingRepository.findAllMatchWithDate(listingsId, bookedDateDTO.startDate(), bookedDateDTO.endDate())
-                .stream().map(Booking::getFkListing).toList();
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
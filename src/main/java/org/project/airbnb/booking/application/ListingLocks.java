@@ -0,0 +1,53 @@
+package org.project.airbnb.booking.application;
+
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ListingLocks reparte los listados entre un número fijo de cerrojos (lock striping) para serializar
+ * las escrituras de reservas de un mismo listado sin bloquear las de listados distintos.
+ * Dos listados pueden compartir cerrojo; eso solo afecta al paralelismo, nunca a la corrección.
+ */
+@Component
+public class ListingLocks {
+
+    private static final int DEFAULT_STRIPES = 256;
+
+    private final Lock[] stripes;
+
+    /**
+     * Crea el conjunto de cerrojos con el número de franjas por defecto.
+     */
+    public ListingLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Crea el conjunto de cerrojos con al menos el número de franjas indicado,
+     * redondeado a la siguiente potencia de dos.
+     *
+     * @param minimumStripes el número mínimo de franjas
+     */
+    ListingLocks(int minimumStripes) {
+        int size = Integer.highestOneBit(Math.max(1, minimumStripes - 1)) << 1;
+        this.stripes = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Obtiene el cerrojo asociado a un listado.
+     *
+     * @param listingPublicId el identificador público del listado
+     * @return el cerrojo de la franja a la que pertenece el listado
+     */
+    public Lock forListing(UUID listingPublicId) {
+        int hash = listingPublicId.hashCode();
+        hash ^= (hash >>> 16);
+        return stripes[hash & (stripes.length - 1)];
+    }
+}
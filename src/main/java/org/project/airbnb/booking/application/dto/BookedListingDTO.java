@@ -3,7 +3,7 @@ package org.project.airbnb.booking.application.dto;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
-import org.project.airbnb.listing.application.dto.sub.PictureDTO;
+import org.project.airbnb.listing.application.dto.sub.DisplayPictureDTO;
 import org.project.airbnb.listing.application.dto.vo.PriceVO;
 
 import java.util.UUID;
@@ -14,8 +14,8 @@ import java.util.UUID;
  * crear una clase inmutable con varios campos relacionados con la reserva.
  */
 public record BookedListingDTO(
-        // La imagen de portada del listado reservado. Debe ser válida.
-        @Valid PictureDTO cover,
+        // La referencia a la imagen de portada del listado reservado. Debe ser válida.
+        @Valid DisplayPictureDTO cover,
 
         // La ubicación del listado reservado. No puede estar vacía.
         @NotEmpty String location,
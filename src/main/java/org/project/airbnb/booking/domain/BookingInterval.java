@@ -0,0 +1,23 @@
+package org.project.airbnb.booking.domain;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * BookingInterval es una proyección ligera de una reserva que contiene únicamente
+ * los datos necesarios para calcular la disponibilidad de un listado.
+ */
+public record BookingInterval(
+        // El identificador público de la reserva.
+        UUID bookingPublicId,
+
+        // El identificador público del listado reservado.
+        UUID listingPublicId,
+
+        // La fecha y hora de inicio de la reserva.
+        OffsetDateTime startDate,
+
+        // La fecha y hora de fin de la reserva.
+        OffsetDateTime endDate
+) {
+}
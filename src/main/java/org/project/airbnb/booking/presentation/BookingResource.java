@@ -5,15 +5,18 @@ import org.project.airbnb.booking.application.dto.BookedDateDTO;
 import org.project.airbnb.booking.application.dto.BookedListingDTO;
 import org.project.airbnb.booking.application.dto.NewBookingDTO;
 import org.project.airbnb.infrastructure.config.SecurityUtils;
+import org.project.airbnb.sharedkernel.service.CursorPageDTO;
 import org.project.airbnb.sharedkernel.service.State;
 import org.project.airbnb.sharedkernel.service.StatusNotification;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -106,4 +109,33 @@ public class BookingResource {
     public ResponseEntity<List<BookedListingDTO>> getBookedListingForLandlord() {
         return ResponseEntity.ok(bookingService.getBookedListingForLandlord());
     }
+
+    /**
+     * Endpoint para que los propietarios obtengan sus reservas por páginas, ordenadas por fecha de inicio.
+     * Requiere que el usuario tenga el rol de propietario.
+     *
+     * @param from el inicio del intervalo de fechas; se omite para no acotarlo.
+     * @param to el fin del intervalo de fechas; se omite para no acotarlo.
+     * @param listingPublicId el ID público de la propiedad por la que filtrar; se omite para incluirlas todas.
+     * @param cursor el cursor devuelto por la página anterior; se omite para pedir la primera página.
+     * @param size el número de reservas por página.
+     * @return una página de DTOs con las reservas, o un detalle del problema si los parámetros no son válidos.
+     */
+    @GetMapping("get-booked-listing-for-landlord-page")
+    @PreAuthorize("hasAnyRole('" + SecurityUtils.ROLE_LANDLORD + "')")
+    public ResponseEntity<CursorPageDTO<BookedListingDTO>> getBookedListingForLandlordPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(required = false) UUID listingPublicId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        State<CursorPageDTO<BookedListingDTO>, String> pageState =
+                bookingService.getBookedListingForLandlord(from, to, listingPublicId, cursor, size);
+        if (pageState.getStatus().equals(StatusNotification.ERROR)) {
+            ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, pageState.getError());
+            return ResponseEntity.of(problemDetail).build();
+        } else {
+            return ResponseEntity.ok(pageState.getValue());
+        }
+    }
 }
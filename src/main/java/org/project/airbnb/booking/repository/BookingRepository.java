@@ -1,6 +1,8 @@
 package org.project.airbnb.booking.repository;
 
 import org.project.airbnb.booking.domain.Booking;
+import org.project.airbnb.booking.domain.BookingInterval;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -35,6 +37,19 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      */
     List<Booking> findAllByFkListing(UUID fkListing);
 
+    /**
+     * Obtiene los intervalos de las reservas que se solapan con [from, to) sin materializar las entidades completas.
+     * Se utiliza para cargar la ventana del calendario de disponibilidad en memoria.
+     *
+     * @param from el inicio de la ventana.
+     * @param to el fin de la ventana.
+     * @return una lista con el intervalo de cada reserva.
+     */
+    @Query("SELECT new org.project.airbnb.booking.domain.BookingInterval(" +
+            "booking.publicId, booking.fkListing, booking.startDate, booking.endDate) FROM Booking booking" +
+            " WHERE booking.endDate > :from AND booking.startDate < :to")
+    List<BookingInterval> findAllIntervalsOverlapping(OffsetDateTime from, OffsetDateTime to);
+
     /**
      * Encuentra todas las reservas para un inquilino específico.
      *
@@ -62,23 +77,89 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     int deleteBookingByPublicIdAndFkListing(UUID bookingPublicId, UUID listingPublicId);
 
     /**
-     * Encuentra todas las reservas para una lista de IDs de listas.
+     * Selección común de las reservas de un conjunto de listados que se solapan con un intervalo de fechas.
+     */
+    String WINDOW_SELECT = "SELECT booking FROM Booking booking WHERE booking.fkListing IN :listingPublicIds" +
+            " AND booking.endDate > :from AND booking.startDate < :to";
+
+    /**
+     * Orden de la paginación por cursor de las reservas: por fecha de inicio, desempatando por identificador.
+     */
+    String BY_START_DATE = " ORDER BY booking.startDate, booking.id";
+
+    /**
+     * Obtiene la primera página de las reservas de un conjunto de listados que se solapan con un intervalo de fechas.
+     * Con un solo listado, la consulta recorre en orden el índice (fk_listing, start_date, end_date).
      *
-     * @param allPropertyPublicIds una lista de IDs públicos de las listas.
-     * @return una lista de reservas.
+     * @param listingPublicIds los IDs públicos de los listados.
+     * @param from el inicio del intervalo.
+     * @param to el fin del intervalo.
+     * @param limit el número máximo de reservas.
+     * @return las reservas ordenadas por fecha de inicio.
      */
-    List<Booking> findAllByFkListingIn(List<UUID> allPropertyPublicIds);
+    @Query(WINDOW_SELECT + BY_START_DATE)
+    List<Booking> findWindowByFkListingIn(List<UUID> listingPublicIds, OffsetDateTime from, OffsetDateTime to, Limit limit);
 
     /**
-     * Encuentra todas las reservas que coinciden con una lista de IDs de listas y un intervalo de fechas.
+     * Obtiene las reservas de un conjunto de listados que se solapan con un intervalo de fechas y siguen al cursor indicado.
      *
-     * @param fkListings una lista de IDs públicos de las listas.
-     * @param startDate la fecha de inicio del intervalo.
-     * @param endDate la fecha de fin del intervalo.
-     * @return una lista de reservas que coinciden con los criterios.
+     * @param listingPublicIds los IDs públicos de los listados.
+     * @param from el inicio del intervalo.
+     * @param to el fin del intervalo.
+     * @param startDate la fecha de inicio de la última reserva de la página anterior.
+     * @param id el identificador de la última reserva de la página anterior.
+     * @param limit el número máximo de reservas.
+     * @return las reservas ordenadas por fecha de inicio.
      */
-    @Query("SELECT booking FROM Booking booking WHERE " +
-            "NOT (booking.endDate <= :startDate or booking.startDate >= :endDate) " +
-            "AND booking.fkListing IN :fkListings")
-    List<Booking> findAllMatchWithDate(List<UUID> fkListings, OffsetDateTime startDate, OffsetDateTime endDate);
+    @Query(WINDOW_SELECT + " AND (booking.startDate, booking.id) > (:startDate, :id)" + BY_START_DATE)
+    List<Booking> findWindowByFkListingInAfter(List<UUID> listingPublicIds, OffsetDateTime from, OffsetDateTime to,
+                                               OffsetDateTime startDate, Long id, Limit limit);
+
+    /**
+     * Selección común de las reservas en los listados de un arrendador que se solapan con un intervalo de fechas.
+     * Los listados del arrendador se obtienen con una subconsulta que solo lee sus identificadores públicos, sin
+     * materializar la lista en la aplicación; las tarjetas se siguen leyendo a través de LandlordService. Cada listado
+     * se recorre con el índice (fk_listing, start_date, id), de modo que el coste depende de las reservas del
+     * arrendador y no de las de todo el sistema.
+     */
+    String LANDLORD_WINDOW_SELECT = "SELECT booking FROM Booking booking" +
+            " WHERE booking.fkListing IN (SELECT listing.publicId FROM Listing listing" +
+            " WHERE listing.landlordPublicId = :landlordPublicId)" +
+            " AND booking.endDate > :from AND booking.startDate < :to";
+
+    /**
+     * Obtiene la primera página de las reservas en los listados de un arrendador que se solapan con un intervalo de fechas.
+     *
+     * @param landlordPublicId el ID público del arrendador.
+     * @param from el inicio del intervalo.
+     * @param to el fin del intervalo.
+     * @param limit el número máximo de reservas.
+     * @return las reservas ordenadas por fecha de inicio.
+     */
+    @Query(LANDLORD_WINDOW_SELECT + BY_START_DATE)
+    List<Booking> findWindowByLandlordPublicId(UUID landlordPublicId, OffsetDateTime from, OffsetDateTime to, Limit limit);
+
+    /**
+     * Obtiene las reservas en los listados de un arrendador que se solapan con un intervalo de fechas y siguen al
+     * cursor indicado.
+     *
+     * @param landlordPublicId el ID público del arrendador.
+     * @param from el inicio del intervalo.
+     * @param to el fin del intervalo.
+     * @param startDate la fecha de inicio de la última reserva de la página anterior.
+     * @param id el identificador de la última reserva de la página anterior.
+     * @param limit el número máximo de reservas.
+     * @return las reservas ordenadas por fecha de inicio.
+     */
+    @Query(LANDLORD_WINDOW_SELECT + " AND (booking.startDate, booking.id) > (:startDate, :id)" + BY_START_DATE)
+    List<Booking> findWindowByLandlordPublicIdAfter(UUID landlordPublicId, OffsetDateTime from, OffsetDateTime to,
+                                                    OffsetDateTime startDate, Long id, Limit limit);
+
+    /**
+     * Encuentra todas las reservas para una lista de IDs de listas.
+     *
+     * @param allPropertyPublicIds una lista de IDs públicos de las listas.
+     * @return una lista de reservas.
+     */
+    List<Booking> findAllByFkListingIn(List<UUID> allPropertyPublicIds);
 }
@@ -0,0 +1,47 @@
+package org.project.airbnb.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuración de la ejecución asíncrona de la aplicación.
+ * Cada tarea en segundo plano usa su propio ejecutor acotado, de modo que no compite con los hilos
+ * que atienden las peticiones HTTP.
+ * <p>
+ * Con el perfil {@code virtual-threads} ({@code spring.threads.virtual.enabled}) las peticiones HTTP, las tareas {@code @Scheduled} y las tareas
+ * {@code @Async} sin ejecutor explícito se ejecutan en hilos virtuales. Los ejecutores de esta clase siguen
+ * usando hilos de plataforma, porque su trabajo consume CPU y no se beneficia de los hilos virtuales.
+ */
+@Configuration
+@EnableAsync // Habilita la ejecución de métodos anotados con @Async.
+public class AsyncConfiguration {
+
+    /**
+     * Ejecutor para la generación de variantes de imágenes. El procesado de imágenes usa mucha CPU y
+     * memoria, por lo que el número de hilos y la cola están acotados; cuando la cola se llena, la tarea
+     * se ejecuta en el hilo que la publica, frenando así las subidas en lugar de descartar imágenes.
+     *
+     * @param threads       Número de hilos del ejecutor.
+     * @param queueCapacity Número máximo de tareas en espera.
+     * @return El ejecutor configurado.
+     */
+    @Bean(name = "pictureProcessingExecutor")
+    public ThreadPoolTaskExecutor pictureProcessingExecutor(
+            @Value("${application.picture-processing.threads:2}") int threads,
+            @Value("${application.picture-processing.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("picture-processing-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
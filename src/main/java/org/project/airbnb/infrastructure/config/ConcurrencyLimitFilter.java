@@ -0,0 +1,96 @@
+package org.project.airbnb.infrastructure.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limita las peticiones HTTP que se atienden a la vez con el perfil {@code virtual-threads}.
+ * <p>
+ * Con hilos virtuales Tomcat acepta miles de peticiones concurrentes, pero todas compiten por las conexiones de
+ * Hikari y las que no consiguen una a tiempo fallan con un error 500. Este filtro deja pasar tantas peticiones
+ * como conexiones tiene el pool ({@link ConcurrencyLimitProperties}); el resto espera turno en orden de llegada
+ * y, si la cola está llena o la espera supera su límite, se rechaza con 503 y {@code Retry-After} sin llegar a
+ * pedir una conexión.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final String REJECTED_COUNTER_NAME = "airbnb.http.server.rejected";
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ConcurrencyLimitProperties limit;
+    private final Counter rejected;
+
+    // Constructor para la inyección de dependencias
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties limit, MeterRegistry meterRegistry) {
+        this.limit = limit;
+        this.permits = new Semaphore(limit.maxConcurrentRequests(), true);
+        this.rejected = Counter.builder(REJECTED_COUNTER_NAME)
+                .description("HTTP requests rejected with 503 by the concurrency limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            // Se responde aquí mismo: sendError pasaría por /error, que exige autenticación
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Obtiene un turno sin esperar si hay uno libre; si no, espera en la cola mientras no esté llena
+    private boolean acquire() throws InterruptedException {
+        if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) { // Respeta el orden de llegada, a diferencia de tryAcquire()
+            return true;
+        }
+        if (queued.incrementAndGet() > limit.maxQueuedRequests()) {
+            queued.decrementAndGet();
+            return false;
+        }
+        try {
+            return permits.tryAcquire(limit.queueTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+}
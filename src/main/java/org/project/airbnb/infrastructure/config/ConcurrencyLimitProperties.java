@@ -0,0 +1,19 @@
+package org.project.airbnb.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Límite de peticiones HTTP concurrentes del perfil {@code virtual-threads} ({@code application.concurrency-limit}).
+ *
+ * @param maxConcurrentRequests Peticiones que se atienden a la vez; se dimensiona con el pool de conexiones.
+ * @param maxQueuedRequests     Peticiones que esperan turno; las siguientes se rechazan sin esperar.
+ * @param queueTimeout          Tiempo máximo que una petición espera turno antes de rechazarse.
+ */
+@ConfigurationProperties("application.concurrency-limit")
+public record ConcurrencyLimitProperties(@DefaultValue("10") int maxConcurrentRequests,
+                                         @DefaultValue("1000") int maxQueuedRequests,
+                                         @DefaultValue("10s") Duration queueTimeout) {
+}
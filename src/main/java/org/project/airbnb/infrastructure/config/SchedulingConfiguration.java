@@ -0,0 +1,12 @@
+package org.project.airbnb.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuración de las tareas programadas de la aplicación.
+ */
+@Configuration
+@EnableScheduling // Habilita la ejecución de métodos anotados con @Scheduled.
+public class SchedulingConfiguration {
+}
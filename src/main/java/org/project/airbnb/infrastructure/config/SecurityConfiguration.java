@@ -45,10 +45,17 @@ public class SecurityConfiguration {
         http.authorizeHttpRequests(authorize -> authorize
                         // Permite el acceso sin autenticación a estas rutas específicas.
                         .requestMatchers(HttpMethod.GET, "api/tenant-listing/get-all-by-category").permitAll()
+                        .requestMatchers(HttpMethod.GET, "api/tenant-listing/get-all-by-category-cursor").permitAll()
+                        .requestMatchers(HttpMethod.GET, "api/tenant-listing/get-facets-by-category").permitAll()
                         .requestMatchers(HttpMethod.GET, "api/tenant-listing/get-one").permitAll()
                         .requestMatchers(HttpMethod.POST, "api/tenant-listing/search").permitAll()
+                        .requestMatchers(HttpMethod.POST, "api/tenant-listing/search-text").permitAll()
+                        .requestMatchers(HttpMethod.POST, "api/tenant-listing/search-facets").permitAll()
                         .requestMatchers(HttpMethod.GET, "api/booking/check-availability").permitAll()
+                        .requestMatchers(HttpMethod.GET, "api/picture/*").permitAll()
                         .requestMatchers(HttpMethod.GET, "assets/*").permitAll()
+                        // El endpoint de Prometheus solo se publica en el puerto de gestión, enlazado a localhost
+                        .requestMatchers(HttpMethod.GET, "actuator/prometheus").permitAll()
                         // Requiere autenticación para cualquier otra solicitud.
                         .anyRequest()
                         .authenticated())
@@ -0,0 +1,41 @@
+package org.project.airbnb.infrastructure.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara durante cada petición HTTP.
+ * <p>
+ * Hibernate instancia la clase a partir de la propiedad
+ * {@code hibernate.session_factory.statement_inspector}, por lo que el estado es estático y se guarda por hilo.
+ * {@link StatementCountFilter} abre el recuento al empezar la petición y lo cierra al terminar; las sentencias
+ * ejecutadas fuera de una petición (tareas asíncronas o programadas) no se cuentan.
+ */
+public class RequestStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatements statements = CURRENT.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Empieza el recuento del hilo actual.
+     *
+     * @param statements Recuento de la petición.
+     */
+    static void start(RequestStatements statements) {
+        CURRENT.set(statements);
+    }
+
+    /**
+     * Termina el recuento del hilo actual.
+     */
+    static void stop() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,80 @@
+package org.project.airbnb.infrastructure.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sentencias SQL preparadas durante una petición HTTP: cuántas son, cuántas veces se repite cada una y el
+ * presupuesto del endpoint. La plantilla de URI del endpoint solo se conoce cuando el DispatcherServlet ha
+ * resuelto el controlador, así que se consulta en la petición hasta que está disponible.
+ */
+class RequestStatements {
+
+    private final HttpServletRequest request;
+    private final SqlBudgetProperties budget;
+    private final Map<String, Integer> repetitions = new HashMap<>();
+    private int count;
+    private String uriTemplate;
+
+    RequestStatements(HttpServletRequest request, SqlBudgetProperties budget) {
+        this.request = request;
+        this.budget = budget;
+    }
+
+    /**
+     * Registra una sentencia.
+     *
+     * @param sql Sentencia preparada.
+     * @throws SqlBudgetExceededException Si se supera el presupuesto en modo {@link SqlBudgetProperties.Mode#REJECT}.
+     */
+    void add(String sql) {
+        count++;
+        repetitions.merge(sql, 1, Integer::sum);
+        if (budget.mode() == SqlBudgetProperties.Mode.REJECT && count > maxStatements()) {
+            throw new SqlBudgetExceededException(endpoint(), maxStatements());
+        }
+    }
+
+    int count() {
+        return count;
+    }
+
+    int maxStatements() {
+        return budget.maxStatements(uriTemplate());
+    }
+
+    boolean overBudget() {
+        return count > maxStatements();
+    }
+
+    /**
+     * @return Las sentencias que se repiten al menos el número de veces configurado, con sus repeticiones.
+     */
+    Map<String, Integer> repeatedStatements() {
+        Map<String, Integer> repeated = new HashMap<>();
+        repetitions.forEach((sql, times) -> {
+            if (times >= budget.repeatedStatementThreshold()) {
+                repeated.put(sql, times);
+            }
+        });
+        return repeated;
+    }
+
+    /**
+     * @return La plantilla de URI del endpoint, o null si la petición no ha llegado a un controlador.
+     */
+    String uriTemplate() {
+        if (uriTemplate == null) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            uriTemplate = pattern == null ? null : pattern.toString();
+        }
+        return uriTemplate;
+    }
+
+    String endpoint() {
+        return request.getMethod() + " " + (uriTemplate() == null ? request.getRequestURI() : uriTemplate());
+    }
+}
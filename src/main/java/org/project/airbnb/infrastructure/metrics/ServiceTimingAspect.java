@@ -0,0 +1,63 @@
+package org.project.airbnb.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mide la duración de los métodos públicos de los servicios de la aplicación.
+ * <p>
+ * Cada método publica el temporizador {@value #TIMER_NAME} con las etiquetas {@code service} y {@code method};
+ * el histograma de percentiles se activa en la configuración ({@code management.metrics.distribution}).
+ * Los temporizadores se registran la primera vez que se invoca cada método y se guardan por método, de modo
+ * que en cada llamada solo se consulta un mapa y se registra una duración.
+ */
+@Aspect
+@Component
+public class ServiceTimingAspect {
+
+    static final String TIMER_NAME = "airbnb.service";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    // Constructor para la inyección de dependencias
+    public ServiceTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Registra la duración de la invocación, tanto si termina correctamente como si lanza una excepción.
+     *
+     * @param joinPoint Invocación del método del servicio.
+     * @return El resultado del método.
+     * @throws Throwable La excepción lanzada por el método.
+     */
+    @Around("within(@org.springframework.stereotype.Service org.project.airbnb..*) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timer timer = timers.computeIfAbsent(method, this::register);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            sample.stop(timer);
+        }
+    }
+
+    private Timer register(Method method) {
+        return Timer.builder(TIMER_NAME)
+                .description("Duration of the application service methods")
+                .tag("service", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .register(meterRegistry);
+    }
+}
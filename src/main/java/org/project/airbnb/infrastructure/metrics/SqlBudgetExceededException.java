@@ -0,0 +1,12 @@
+package org.project.airbnb.infrastructure.metrics;
+
+/**
+ * Se lanza, en modo {@link SqlBudgetProperties.Mode#REJECT}, cuando una petición va a preparar más sentencias SQL
+ * de las que permite su presupuesto.
+ */
+public class SqlBudgetExceededException extends RuntimeException {
+
+    public SqlBudgetExceededException(String endpoint, int maxStatements) {
+        super(String.format("%s exceeded its budget of %d SQL statements", endpoint, maxStatements));
+    }
+}
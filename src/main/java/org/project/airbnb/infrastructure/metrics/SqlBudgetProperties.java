@@ -0,0 +1,50 @@
+package org.project.airbnb.infrastructure.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Presupuesto de sentencias SQL por petición HTTP ({@code application.sql-budget}).
+ *
+ * @param mode                       Qué hacer con las peticiones que superan su presupuesto.
+ * @param defaultMaxStatements       Presupuesto de los endpoints sin presupuesto propio.
+ * @param repeatedStatementThreshold Repeticiones de una misma sentencia en una petición a partir de las cuales se
+ *                                   registra un posible problema N+1.
+ * @param endpoints                  Presupuestos propios, por plantilla de URI del endpoint.
+ */
+@ConfigurationProperties("application.sql-budget")
+public record SqlBudgetProperties(@DefaultValue("LOG") Mode mode,
+                                  @DefaultValue("10") int defaultMaxStatements,
+                                  @DefaultValue("3") int repeatedStatementThreshold,
+                                  Map<String, Integer> endpoints) {
+
+    public SqlBudgetProperties {
+        endpoints = endpoints == null ? Map.of() : Map.copyOf(endpoints);
+    }
+
+    /**
+     * Presupuesto de un endpoint.
+     *
+     * @param uriTemplate Plantilla de URI del endpoint, o null si aún no se conoce.
+     * @return El número máximo de sentencias de la petición.
+     */
+    public int maxStatements(String uriTemplate) {
+        return uriTemplate == null ? defaultMaxStatements : endpoints.getOrDefault(uriTemplate, defaultMaxStatements);
+    }
+
+    /**
+     * Tratamiento de las peticiones que superan su presupuesto.
+     */
+    public enum Mode {
+        /**
+         * La petición se completa y se registra un aviso.
+         */
+        LOG,
+        /**
+         * La sentencia que supera el presupuesto no se ejecuta: la petición falla y su transacción se revierte.
+         */
+        REJECT
+    }
+}
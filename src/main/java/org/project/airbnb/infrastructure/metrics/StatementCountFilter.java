@@ -0,0 +1,75 @@
+package org.project.airbnb.infrastructure.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Publica el número de sentencias SQL de cada petición HTTP en la distribución {@value #SUMMARY_NAME},
+ * etiquetada con el método y la plantilla de la URI, igual que {@code http.server.requests}.
+ * <p>
+ * Cada endpoint tiene un presupuesto de sentencias ({@link SqlBudgetProperties}): las peticiones que lo superan
+ * se registran como aviso o, en modo {@code REJECT}, fallan antes de ejecutar la sentencia que lo supera.
+ * Las sentencias idénticas que se repiten en una misma petición se registran como posible problema N+1.
+ */
+@Component
+@EnableConfigurationProperties(SqlBudgetProperties.class)
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementCountFilter.class);
+
+    static final String SUMMARY_NAME = "airbnb.http.server.statements";
+
+    private final MeterRegistry meterRegistry;
+    private final SqlBudgetProperties budget;
+
+    // Constructor para la inyección de dependencias
+    public StatementCountFilter(MeterRegistry meterRegistry, SqlBudgetProperties budget) {
+        this.meterRegistry = meterRegistry;
+        this.budget = budget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestStatements statements = new RequestStatements(request, budget);
+        RequestStatementCounter.start(statements);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestStatementCounter.stop();
+            // Las peticiones que no llegan a un controlador (recursos estáticos, 404) no se registran
+            String uriTemplate = statements.uriTemplate();
+            if (uriTemplate != null) {
+                DistributionSummary.builder(SUMMARY_NAME)
+                        .description("SQL statements prepared per HTTP request")
+                        .baseUnit("statements")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uriTemplate)
+                        .register(meterRegistry)
+                        .record(statements.count());
+                report(statements);
+            }
+        }
+    }
+
+    private void report(RequestStatements statements) {
+        if (statements.overBudget()) {
+            log.warn("{} prepared {} SQL statements, over its budget of {}",
+                    statements.endpoint(), statements.count(), statements.maxStatements());
+        }
+        statements.repeatedStatements().forEach((sql, times) ->
+                log.warn("Possible N+1 query in {}: the same statement was prepared {} times: {}",
+                        statements.endpoint(), times, sql));
+    }
+}
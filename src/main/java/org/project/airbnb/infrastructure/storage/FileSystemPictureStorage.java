@@ -0,0 +1,105 @@
+package org.project.airbnb.infrastructure.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Implementación de {@link PictureStorage} sobre el sistema de archivos local.
+ * Cada contenido se guarda en {@code <root>/<hash[0..2]>/<hash[2..4]>/<hash>}. La escritura se hace
+ * primero en un archivo temporal que se mueve de forma atómica a su ruta final, por lo que un
+ * archivo visible siempre está completo.
+ */
+@Component
+public class FileSystemPictureStorage implements PictureStorage {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern SHA_256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path tmp;
+
+    /**
+     * Constructor que prepara los directorios del almacenamiento.
+     *
+     * @param root Directorio raíz donde se guardan las imágenes.
+     */
+    public FileSystemPictureStorage(@Value("${application.picture-storage.root}") Path root) {
+        this.root = root.toAbsolutePath().normalize();
+        this.tmp = this.root.resolve("tmp");
+        try {
+            Files.createDirectories(tmp);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException("Cannot create picture storage at " + this.root, ioe);
+        }
+    }
+
+    @Override
+    public StoredPicture store(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        Path tmpFile = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            long size = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (OutputStream out = Files.newOutputStream(tmpFile)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                    size += read;
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                Files.move(tmpFile, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredPicture(hash, size);
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    @Override
+    public Optional<Resource> load(String hash) {
+        if (hash == null || !SHA_256_HEX.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        Path path = pathOf(hash);
+        return Files.isRegularFile(path) ? Optional.of(new FileSystemResource(path)) : Optional.empty();
+    }
+
+    @Override
+    public void delete(String hash) throws IOException {
+        if (hash != null && SHA_256_HEX.matcher(hash).matches()) {
+            Files.deleteIfExists(pathOf(hash));
+        }
+    }
+
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException("SHA-256 not available", nsae);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.project.airbnb.infrastructure.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Almacenamiento del contenido binario de las imágenes, direccionado por su hash SHA-256.
+ * Dos subidas con el mismo contenido comparten un único archivo almacenado.
+ */
+public interface PictureStorage {
+
+    /**
+     * Almacena el contenido leído del flujo y devuelve su hash y tamaño.
+     * El flujo se consume por completo pero no se cierra.
+     *
+     * @param content Flujo con el contenido de la imagen.
+     * @return Referencia al contenido almacenado.
+     * @throws IOException Si ocurre un error al leer o escribir el contenido.
+     */
+    StoredPicture store(InputStream content) throws IOException;
+
+    /**
+     * Obtiene el contenido almacenado para un hash.
+     *
+     * @param hash Hash SHA-256 en hexadecimal del contenido.
+     * @return Recurso con el contenido, o vacío si no existe.
+     */
+    Optional<Resource> load(String hash);
+
+    /**
+     * Elimina el contenido almacenado para un hash, si existe. Como el contenido se comparte entre
+     * subidas iguales, solo debe llamarse cuando ninguna imagen lo referencia.
+     *
+     * @param hash Hash SHA-256 en hexadecimal del contenido.
+     * @throws IOException Si ocurre un error al eliminar el contenido.
+     */
+    void delete(String hash) throws IOException;
+}
@@ -0,0 +1,10 @@
+package org.project.airbnb.infrastructure.storage;
+
+/**
+ * Referencia a un contenido guardado en {@link PictureStorage}.
+ *
+ * @param hash Hash SHA-256 en hexadecimal del contenido.
+ * @param size Tamaño del contenido en bytes.
+ */
+public record StoredPicture(String hash, long size) {
+}
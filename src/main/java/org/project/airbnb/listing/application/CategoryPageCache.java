@@ -0,0 +1,96 @@
+package org.project.airbnb.listing.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.project.airbnb.listing.application.dto.DisplayCardListingDTO;
+import org.project.airbnb.listing.domain.BookingCategory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria de las primeras páginas de la navegación por categorías.
+ * <p>
+ * Usa Caffeine (política W-TinyLFU) acotada por el número total de tarjetas retenidas, de modo que las
+ * páginas más pedidas permanecen en memoria aunque el tráfico recorra muchas combinaciones distintas.
+ * Al crear o eliminar un listado se invalidan las páginas de su categoría y las de {@link BookingCategory#ALL}.
+ * <p>
+ * Cada categoría tiene una generación que forma parte de la clave: una página que se estaba calculando
+ * mientras se invalidaba queda guardada con la generación anterior y ninguna petición posterior la lee.
+ * Las métricas de la caché (aciertos, fallos, desalojos) se publican con el nombre {@value #CACHE_NAME}.
+ */
+@Component
+public class CategoryPageCache implements MeterBinder {
+
+    static final String CACHE_NAME = "listing.category-pages";
+
+    private final Cache<Key, Page<DisplayCardListingDTO>> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(BookingCategory.values().length);
+    private final int cachedPages;
+
+    // Constructor para la inyección de la configuración
+    public CategoryPageCache(@Value("${application.category-page-cache.cached-pages:3}") int cachedPages,
+                             @Value("${application.category-page-cache.max-cards:20000}") long maxCards,
+                             @Value("${application.category-page-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cachedPages = cachedPages;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxCards)
+                .weigher((Key key, Page<DisplayCardListingDTO> page) -> page.getNumberOfElements() + 1)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Obtiene una página de la caché o la calcula con el cargador si no está guardada.
+     * Solo se guardan las primeras páginas configuradas; el resto se calcula siempre.
+     *
+     * @param category Categoría de reserva.
+     * @param pageable Paginación y ordenación pedidas.
+     * @param loader   Cálculo de la página cuando no está en caché.
+     * @return La página de tarjetas.
+     */
+    public Page<DisplayCardListingDTO> get(BookingCategory category, Pageable pageable, Supplier<Page<DisplayCardListingDTO>> loader) {
+        if (pageable.isUnpaged() || pageable.getPageNumber() >= cachedPages) {
+            return loader.get();
+        }
+        Key key = new Key(category, generations.get(category.ordinal()),
+                pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+        return cache.get(key, ignored -> loader.get());
+    }
+
+    /**
+     * Invalida las páginas de una categoría y las de todas las categorías.
+     *
+     * @param category Categoría de reserva modificada.
+     */
+    public void invalidate(BookingCategory category) {
+        generations.incrementAndGet(category.ordinal());
+        generations.incrementAndGet(BookingCategory.ALL.ordinal());
+        cache.asMap().keySet().removeIf(key -> key.category() == category || key.category() == BookingCategory.ALL);
+    }
+
+    // Invalida la categoría del listado una vez confirmada la transacción que lo modificó
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        invalidate(event.bookingCategory());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private record Key(BookingCategory category, long generation, int page, int size, Sort sort) {
+    }
+}
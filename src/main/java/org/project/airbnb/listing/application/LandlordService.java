@@ -1,19 +1,25 @@
 package org.project.airbnb.listing.application;
 
+import org.project.airbnb.booking.application.AvailabilityCalendar;
 import org.project.airbnb.listing.application.PictureService;
 import org.project.airbnb.listing.application.dto.CreatedListingDTO;
 import org.project.airbnb.listing.application.dto.DisplayCardListingDTO;
 import org.project.airbnb.listing.application.dto.ListingCreateBookingDTO;
 import org.project.airbnb.listing.application.dto.SaveListingDTO;
 import org.project.airbnb.listing.domain.Listing;
+import org.project.airbnb.listing.domain.ListingCardView;
+import org.project.airbnb.listing.domain.ListingSearchDocument;
 import org.project.airbnb.listing.mapper.ListingMapper;
 import org.project.airbnb.listing.repository.ListingRepository;
 import org.project.airbnb.sharedkernel.service.State;
 import org.project.airbnb.user.application.Auth0Service;
 import org.project.airbnb.user.application.UserService;
 import org.project.airbnb.user.application.dto.ReadUserDTO;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -27,17 +33,25 @@ public class LandlordService {
     private final UserService userService;
     private final Auth0Service auth0Service;
     private final PictureService pictureService;
+    private final AvailabilityCalendar availabilityCalendar;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ListingSearchIndex listingSearchIndex;
 
     // Constructor para la inyección de dependencias
-    public LandlordService(ListingRepository listingRepository, ListingMapper listingMapper, UserService userService, Auth0Service auth0Service, PictureService pictureService) {
+    public LandlordService(ListingRepository listingRepository, ListingMapper listingMapper, UserService userService, Auth0Service auth0Service, PictureService pictureService, AvailabilityCalendar availabilityCalendar, ApplicationEventPublisher eventPublisher, ListingSearchIndex listingSearchIndex) {
         this.listingRepository = listingRepository;
         this.listingMapper = listingMapper;
         this.userService = userService;
         this.auth0Service = auth0Service;
         this.pictureService = pictureService;
+        this.availabilityCalendar = availabilityCalendar;
+        this.eventPublisher = eventPublisher;
+        this.listingSearchIndex = listingSearchIndex;
     }
 
     // Método para crear un nuevo listado
+    // El listado, sus imágenes y la solicitud de rol de arrendador se confirman en la misma transacción
+    @Transactional
     public CreatedListingDTO create(SaveListingDTO saveListingDTO) {
         // Mapea el DTO a la entidad Listing
         Listing newListing = listingMapper.saveListingDTOToListing(saveListingDTO);
@@ -53,9 +67,21 @@ public class LandlordService {
         // Guarda todas las imágenes asociadas al listado
         pictureService.saveAll(saveListingDTO.getPictures(), savedListing);
 
-        // Asigna el rol de arrendador al usuario autenticado
+        // Solicita la asignación del rol de arrendador al usuario autenticado, que se envía a Auth0 en segundo plano
         auth0Service.addLandlordRoleToUser(userConnected);
 
+        // Invalida las páginas en caché de la categoría del nuevo listado
+        eventPublisher.publishEvent(new ListingChangedEvent(savedListing.getBookingCategory()));
+
+        // Añade el listado al índice de búsqueda de texto al confirmar
+        ListingSearchDocument searchDocument = ListingSearchDocument.of(savedListing);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                listingSearchIndex.add(searchDocument);
+            }
+        });
+
         // Retorna el DTO del listado creado
         return listingMapper.listingToCreatedListingDTO(savedListing);
     }
@@ -63,19 +89,34 @@ public class LandlordService {
     // Método para obtener todos los listados de un arrendador específico
     @Transactional(readOnly = true)
     public List<DisplayCardListingDTO> getAllProperties(ReadUserDTO landlord) {
-        // Busca todos los listados asociados al ID del arrendador y obtiene la imagen de portada
-        List<Listing> properties = listingRepository.findAllByLandlordPublicIdFetchCoverPicture(landlord.publicId());
-        // Mapea las entidades Listing a DTOs para mostrar en la interfaz de usuario
-        return listingMapper.listingToDisplayCardListingDTOs(properties);
+        // Obtiene solo las columnas de tarjeta y la portada de los listados del arrendador
+        List<ListingCardView> properties = listingRepository.findAllCardsByLandlordPublicId(landlord.publicId());
+        // Mapea las proyecciones a DTOs para mostrar en la interfaz de usuario
+        return listingMapper.listingCardViewsToDisplayCardListingDTOs(properties);
     }
 
     // Método para eliminar un listado basado en su ID y el ID del arrendador
     @Transactional
     public State<UUID, String> delete(UUID publicId, ReadUserDTO landlord) {
+        // Obtiene antes de eliminarlo el contenido de sus imágenes y variantes, que se borran en cascada
+        List<String> fileHashes = pictureService.getFileHashes(publicId, landlord.publicId());
         // Elimina el listado solo si coincide con el ID del arrendador
-        long deletedSuccessfully = listingRepository.deleteByPublicIdAndLandlordPublicId(publicId, landlord.publicId());
+        List<Listing> deletedListings = listingRepository.deleteByPublicIdAndLandlordPublicId(publicId, landlord.publicId());
         // Retorna el estado de la operación
-        if (deletedSuccessfully > 0) {
+        if (!deletedListings.isEmpty()) {
+            // Invalida las páginas en caché de la categoría del listado eliminado
+            deletedListings.forEach(listing -> eventPublisher.publishEvent(new ListingChangedEvent(listing.getBookingCategory())));
+
+            // Las reservas se borran en cascada en la base de datos; se retiran también del calendario al confirmar,
+            // junto con el listado del índice de búsqueda de texto y el contenido de sus imágenes que ya nadie referencia
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    availabilityCalendar.evictListing(publicId);
+                    deletedListings.forEach(listing -> listingSearchIndex.remove(listing.getId()));
+                    pictureService.deleteContent(fileHashes);
+                }
+            });
             return State.<UUID, String>builder().forSuccess(publicId);
         } else {
             return State.<UUID, String>builder().forUnauthorized("User not authorized to delete this listing");
@@ -89,19 +130,18 @@ public class LandlordService {
     }
 
     // Método para obtener tarjetas de visualización para una lista de IDs de listados
+    @Transactional(readOnly = true)
     public List<DisplayCardListingDTO> getCardDisplayByListingPublicId(List<UUID> allListingPublicIDs) {
-        // Busca todos los listados con los IDs proporcionados y mapea a DTOs de tarjetas
-        return listingRepository.findAllByPublicIdIn(allListingPublicIDs)
-                .stream()
-                .map(listingMapper::listingToDisplayCardListingDTO)
-                .toList();
+        // Busca las tarjetas de los listados con los IDs proporcionados y mapea a DTOs
+        return listingMapper.listingCardViewsToDisplayCardListingDTOs(
+                listingRepository.findAllCardsByPublicIdIn(allListingPublicIDs));
     }
 
     // Método para obtener un listado basado en su ID y el ID del arrendador
     @Transactional(readOnly = true)
     public Optional<DisplayCardListingDTO> getByPublicIdAndLandlordPublicId(UUID listingPublicId, UUID landlordPublicId) {
         // Busca el listado y verifica que pertenece al arrendador
-        return listingRepository.findOneByPublicIdAndLandlordPublicId(listingPublicId, landlordPublicId)
-                .map(listingMapper::listingToDisplayCardListingDTO);
+        return listingRepository.findCardByPublicIdAndLandlordPublicId(listingPublicId, landlordPublicId)
+                .map(listingMapper::listingCardViewToDisplayCardListingDTO);
     }
 }
@@ -0,0 +1,11 @@
+package org.project.airbnb.listing.application;
+
+import org.project.airbnb.listing.domain.BookingCategory;
+
+/**
+ * Evento publicado cuando se crea o elimina un listado, para invalidar las lecturas en caché de su categoría.
+ *
+ * @param bookingCategory Categoría de reserva del listado modificado.
+ */
+public record ListingChangedEvent(BookingCategory bookingCategory) {
+}
@@ -0,0 +1,192 @@
+package org.project.airbnb.listing.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.project.airbnb.listing.application.dto.ListingFacetsDTO;
+import org.project.airbnb.listing.application.dto.sub.PriceBucketDTO;
+import org.project.airbnb.listing.domain.BookingCategory;
+import org.project.airbnb.listing.domain.ListingCardView;
+import org.project.airbnb.listing.domain.ListingFacetCount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria de los recuentos de facetas, por consulta normalizada.
+ * <p>
+ * Guarda las filas de la agregación agrupada por categoría, tramo de precio y dormitorios
+ * ({@link ListingFacetCount}), de modo que todas las categorías de la navegación se resumen a partir de la
+ * misma entrada. Al crear o eliminar un listado se invalida toda la caché: cualquier búsqueda puede incluirlo.
+ * Las reservas no publican eventos, por lo que la disponibilidad de las facetas de búsqueda puede
+ * quedar desfasada como mucho el tiempo de vida configurado.
+ * <p>
+ * Como en {@link CategoryPageCache}, la generación forma parte de la clave para que una agregación calculada
+ * durante una invalidación no se sirva después. Las métricas se publican con el nombre {@value #CACHE_NAME}.
+ * <p>
+ * La búsqueda rellena la caché con lo que ya lee ({@link #refresh}): obtiene su total de la misma agregación o,
+ * si todos los resultados caben en una página, agrupa sus tarjetas. Las facetas de la búsqueda ya están en caché
+ * cuando se piden.
+ */
+@Component
+public class ListingFacetCache implements MeterBinder {
+
+    static final String CACHE_NAME = "listing.facets";
+
+    private final Cache<Key, List<ListingFacetCount>> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final int priceBucketWidth;
+    private final int priceBuckets;
+
+    // Constructor para la inyección de la configuración
+    public ListingFacetCache(@Value("${application.listing-facets.price-bucket-width:50}") int priceBucketWidth,
+                             @Value("${application.listing-facets.price-buckets:10}") int priceBuckets,
+                             @Value("${application.listing-facets.max-queries:10000}") long maxQueries,
+                             @Value("${application.listing-facets.expire-after-write:1m}") Duration expireAfterWrite) {
+        this.priceBucketWidth = priceBucketWidth;
+        this.priceBuckets = priceBuckets;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxQueries)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Obtiene las facetas de una consulta, calculando su agregación con el cargador si no está en caché.
+     *
+     * @param query    Consulta normalizada; debe implementar equals y hashCode, por ejemplo un record.
+     * @param category Categoría a la que se limitan los recuentos de precio y dormitorios.
+     * @param loader   Cálculo de la agregación, agrupada con el ancho de tramo {@link #priceBucketWidth()}.
+     * @return Las facetas de la consulta.
+     */
+    public ListingFacetsDTO get(Object query, BookingCategory category, Supplier<List<ListingFacetCount>> loader) {
+        List<ListingFacetCount> counts = cache.get(new Key(generation.get(), query), ignored -> loader.get());
+        return summarize(counts, category);
+    }
+
+    /**
+     * Prepara la recarga de la agregación de una consulta a partir de lo que la búsqueda lee de todos modos:
+     * su consulta de conteo o, si todos los resultados caben en una página, las propias tarjetas.
+     * La generación se fija al crearla, antes de leer la base de datos, para no guardar como vigente una
+     * agregación previa a una invalidación.
+     *
+     * @param query Consulta normalizada; debe implementar equals y hashCode, por ejemplo un record.
+     * @return La recarga de la consulta.
+     */
+    public Refresh refresh(Object query) {
+        return new Refresh(new Key(generation.get(), query));
+    }
+
+    /**
+     * @return Ancho de los tramos del histograma de precios.
+     */
+    public int priceBucketWidth() {
+        return priceBucketWidth;
+    }
+
+    // Invalida todas las facetas
+    public void invalidate() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    // Invalida las facetas una vez confirmada la transacción que modificó el listado
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        invalidate();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    // Suma las filas de la agregación en cada faceta; el último tramo de precio acumula los precios superiores
+    ListingFacetsDTO summarize(List<ListingFacetCount> counts, BookingCategory category) {
+        Map<BookingCategory, Long> categories = new EnumMap<>(BookingCategory.class);
+        for (BookingCategory value : BookingCategory.values()) {
+            categories.put(value, 0L);
+        }
+        long[] prices = new long[priceBuckets];
+        Map<Integer, Long> bedrooms = new TreeMap<>();
+        long total = 0;
+        for (ListingFacetCount count : counts) {
+            categories.merge(count.bookingCategory(), count.count(), Long::sum);
+            categories.merge(BookingCategory.ALL, count.count(), Long::sum);
+            if (category == BookingCategory.ALL || count.bookingCategory() == category) {
+                total += count.count();
+                prices[Math.min(count.priceBucket(), priceBuckets - 1)] += count.count();
+                bedrooms.merge(count.bedrooms(), count.count(), Long::sum);
+            }
+        }
+
+        List<PriceBucketDTO> priceHistogram = new ArrayList<>(priceBuckets);
+        for (int bucket = 0; bucket < priceBuckets; bucket++) {
+            Integer max = bucket == priceBuckets - 1 ? null : (bucket + 1) * priceBucketWidth;
+            priceHistogram.add(new PriceBucketDTO(bucket * priceBucketWidth, max, prices[bucket]));
+        }
+        return new ListingFacetsDTO(total, categories, priceHistogram, bedrooms);
+    }
+
+    private record Key(long generation, Object query) {
+    }
+
+    // Grupo de la agregación, con las mismas columnas que el GROUP BY de la consulta de facetas
+    private record Group(BookingCategory bookingCategory, int priceBucket, int bedrooms) {
+    }
+
+    /**
+     * Recarga de la agregación de una consulta, creada con {@link #refresh(Object)}.
+     */
+    public final class Refresh {
+
+        private final Key key;
+
+        private Refresh(Key key) {
+            this.key = key;
+        }
+
+        /**
+         * Calcula la agregación con el cargador, la guarda en caché y devuelve el total de listados.
+         * La búsqueda la usa como consulta de conteo.
+         *
+         * @param loader Cálculo de la agregación, agrupada con el ancho de tramo {@link #priceBucketWidth()}.
+         * @return El número de listados que cumplen la consulta.
+         */
+        public long total(Supplier<List<ListingFacetCount>> loader) {
+            List<ListingFacetCount> counts = loader.get();
+            cache.put(key, counts);
+            return counts.stream().mapToLong(ListingFacetCount::count).sum();
+        }
+
+        /**
+         * Agrupa en memoria todos los resultados de la consulta y guarda la agregación en caché.
+         *
+         * @param cards Todas las tarjetas que cumplen la consulta, no solo una página de ellas.
+         */
+        public void completeWith(List<ListingCardView> cards) {
+            Map<Group, Long> groups = new HashMap<>();
+            for (ListingCardView card : cards) {
+                groups.merge(new Group(card.bookingCategory(), card.price() / priceBucketWidth, card.bedrooms()),
+                        1L, Long::sum);
+            }
+            cache.put(key, groups.entrySet().stream()
+                    .map(group -> new ListingFacetCount(group.getKey().bookingCategory(), group.getKey().priceBucket(),
+                            group.getKey().bedrooms(), group.getValue()))
+                    .toList());
+        }
+    }
+}
@@ -0,0 +1,610 @@
+package org.project.airbnb.listing.application;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.project.airbnb.listing.domain.ListingSearchDocument;
+import org.project.airbnb.listing.repository.ListingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * ListingSearchIndex es un índice invertido en memoria sobre el título, la ubicación y la descripción de los
+ * listados, usado por la búsqueda de texto.
+ * <p>
+ * Cada término apunta a la lista ordenada de documentos que lo contienen, con el peso del campo más relevante en el
+ * que aparece (título, ubicación o descripción). Una búsqueda exige que el listado contenga todos los términos de la
+ * consulta, tolera prefijos y errores tipográficos, filtra por huéspedes, dormitorios y precio, y ordena los
+ * resultados por relevancia (peso del campo por la rareza del término).
+ * <p>
+ * Se carga desde la tabla listing al arrancar la aplicación y se actualiza tras confirmar cada creación o borrado de
+ * listado. Los listados borrados o reemplazados se marcan y se descartan al buscar; cuando superan
+ * la cuarta parte de los documentos ({@link #COMPACTION_THRESHOLD}), el índice se compacta: se retiran de las listas de términos y de
+ * los filtros, y los documentos restantes se renumeran conservando su orden. El índice solo refleja las escrituras
+ * de esta instancia de la aplicación.
+ */
+@Component
+public class ListingSearchIndex implements SmartInitializingSingleton, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ListingSearchIndex.class);
+
+    static final int TITLE_WEIGHT = 3;
+    static final int LOCATION_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    /**
+     * Número máximo de resultados de una búsqueda; las páginas posteriores se devuelven vacías.
+     */
+    public static final int MAX_RESULTS = 1_000;
+
+    /**
+     * Fracción de documentos borrados a partir de la cual se compacta el índice.
+     */
+    static final double COMPACTION_THRESHOLD = 0.25;
+
+    private static final int INITIAL_CAPACITY = 1_024;
+
+    // Longitud mínima de un término para buscarlo también como prefijo y como término con errores
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final int MIN_TYPO_LENGTH = 4;
+    // A partir de esta longitud se toleran dos errores en lugar de uno
+    private static final int TWO_TYPOS_LENGTH = 8;
+    // Términos del índice que puede sustituir, como mucho, cada término de la consulta
+    private static final int MAX_EXPANSIONS = 32;
+    private static final float PREFIX_FACTOR = 0.8f;
+    private static final float TYPO_FACTOR = 0.6f;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Peor resultado primero: menor puntuación y, a igualdad, el listado más antiguo
+    private static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score)
+            .thenComparingInt(Hit::document);
+
+    private final ListingRepository listingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> postingsByTerm = new TreeMap<>();
+    private final Map<Long, Integer> documentByListing = new HashMap<>();
+    private final BitSet removed = new BitSet();
+    private long[] listingIds = new long[INITIAL_CAPACITY];
+    private int[] guests = new int[INITIAL_CAPACITY];
+    private int[] bedrooms = new int[INITIAL_CAPACITY];
+    private int[] prices = new int[INITIAL_CAPACITY];
+    private int documents;
+    private int removedDocuments;
+
+    /**
+     * Constructor del índice de búsqueda.
+     *
+     * @param listingRepository   el repositorio de listados usado para la carga inicial
+     * @param transactionTemplate la plantilla de transacciones en la que se recorren los listados
+     */
+    public ListingSearchIndex(ListingRepository listingRepository, TransactionTemplate transactionTemplate) {
+        this.listingRepository = listingRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Carga todos los listados existentes en el índice.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ListingSearchDocument> searchDocuments = listingRepository.streamAllSearchDocuments()) {
+                searchDocuments.forEach(this::add);
+            }
+        });
+        log.info("Listing search index loaded with {} listings and {} terms", size(), terms());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("airbnb.listing.search.documents", this, ListingSearchIndex::size)
+                .description("Listings in the in-memory text search index")
+                .register(registry);
+        Gauge.builder("airbnb.listing.search.terms", this, ListingSearchIndex::terms)
+                .description("Distinct terms in the in-memory text search index")
+                .register(registry);
+        Gauge.builder("airbnb.listing.search.removed", this, ListingSearchIndex::removed)
+                .description("Removed listings still held by the in-memory text search index until it is compacted")
+                .register(registry);
+    }
+
+    /**
+     * Añade un listado al índice o reemplaza su versión anterior.
+     *
+     * @param document el documento de búsqueda del listado
+     */
+    public void add(ListingSearchDocument document) {
+        // El análisis del texto se hace fuera del bloqueo
+        Map<String, Integer> weights = new HashMap<>();
+        analyze(document.description(), DESCRIPTION_WEIGHT, weights);
+        analyze(document.location(), LOCATION_WEIGHT, weights);
+        analyze(document.title(), TITLE_WEIGHT, weights);
+
+        lock.writeLock().lock();
+        try {
+            markRemoved(document.id());
+            compactIfNeeded();
+            int ordinal = documents++;
+            ensureCapacity(documents);
+            listingIds[ordinal] = document.id();
+            guests[ordinal] = document.guests();
+            bedrooms[ordinal] = document.bedrooms();
+            prices[ordinal] = document.price();
+            documentByListing.put(document.id(), ordinal);
+            weights.forEach((term, weight) -> postingsByTerm.computeIfAbsent(term, key -> new Postings()).add(ordinal, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina un listado del índice.
+     *
+     * @param listingId el identificador interno del listado
+     */
+    public void remove(Long listingId) {
+        lock.writeLock().lock();
+        try {
+            markRemoved(listingId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca los listados que contienen todos los términos de la consulta y cumplen los filtros.
+     *
+     * @param criteria el texto de la consulta y los filtros
+     * @param limit    el número máximo de resultados, que no supera {@link #MAX_RESULTS}
+     * @return los identificadores internos de los listados, del más relevante al menos relevante
+     */
+    public List<Long> search(Criteria criteria, int limit) {
+        List<String> queryTerms = List.copyOf(new LinkedHashSet<>(tokenize(criteria.text())));
+        int maxHits = Math.min(limit, MAX_RESULTS);
+        if (queryTerms.isEmpty() || maxHits <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int live = documentByListing.size();
+            if (live == 0) {
+                return List.of();
+            }
+            List<TermMatches> matches = new ArrayList<>(queryTerms.size());
+            for (String term : queryTerms) {
+                TermMatches termMatches = expand(term, live);
+                if (termMatches.isEmpty()) {
+                    return List.of();
+                }
+                matches.add(termMatches);
+            }
+            // El término menos frecuente recorre sus documentos; los demás solo se consultan para esos documentos
+            matches.sort(Comparator.comparingLong(TermMatches::size));
+            return collect(matches, criteria, maxHits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Número de listados en el índice.
+     *
+     * @return los listados indexados, sin contar los borrados
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentByListing.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int terms() {
+        lock.readLock().lock();
+        try {
+            return postingsByTerm.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int removed() {
+        lock.readLock().lock();
+        try {
+            return removedDocuments;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Recorre los documentos del término menos frecuente del más reciente al más antiguo y consulta los demás términos
+    // solo para esos documentos. El recorrido termina en cuanto los mejores resultados alcanzan la puntuación máxima
+    // posible, porque ningún documento posterior puede superarlos (a igual puntuación gana el más reciente)
+    private List<Long> collect(List<TermMatches> matches, Criteria criteria, int maxHits) {
+        TermMatches driver = matches.getFirst();
+        float maxScore = 0;
+        for (TermMatches termMatches : matches) {
+            maxScore += termMatches.maxScore();
+        }
+        PriorityQueue<Hit> top = new PriorityQueue<>(maxHits + 1, WORST_FIRST);
+        candidates:
+        for (int document = driver.next(); document >= 0; document = driver.next()) {
+            if (top.size() == maxHits && top.peek().score() >= maxScore) {
+                break;
+            }
+            if (removed.get(document) || !criteria.accepts(guests[document], bedrooms[document], prices[document])) {
+                continue;
+            }
+            float score = driver.currentScore();
+            for (int m = 1; m < matches.size(); m++) {
+                float termScore = matches.get(m).scoreOf(document);
+                if (termScore == 0) {
+                    continue candidates;
+                }
+                score += termScore;
+            }
+            if (top.size() < maxHits) {
+                top.add(new Hit(document, score));
+            } else if (score > top.peek().score()) {
+                top.poll();
+                top.add(new Hit(document, score));
+            }
+        }
+
+        Long[] ids = new Long[top.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = listingIds[top.poll().document()];
+        }
+        return Arrays.asList(ids);
+    }
+
+    // Reúne los términos del índice que pueden sustituir a un término de la consulta: el propio término,
+    // los términos que empiezan por él y, solo si no hay ninguno de los anteriores, los que difieren en pocos errores
+    private TermMatches expand(String term, int live) {
+        TermMatches matches = new TermMatches();
+        Postings exact = postingsByTerm.get(term);
+        if (exact != null) {
+            matches.add(exact, idf(exact, live));
+        }
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            for (Postings postings : postingsByTerm.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+                if (matches.sources.size() >= MAX_EXPANSIONS) {
+                    break;
+                }
+                matches.add(postings, PREFIX_FACTOR * idf(postings, live));
+            }
+        }
+        if (matches.isEmpty() && term.length() >= MIN_TYPO_LENGTH) {
+            int maxEdits = term.length() >= TWO_TYPOS_LENGTH ? 2 : 1;
+            for (Map.Entry<String, Postings> entry : postingsByTerm.entrySet()) {
+                if (matches.sources.size() >= MAX_EXPANSIONS) {
+                    break;
+                }
+                if (withinEdits(term, entry.getKey(), maxEdits)) {
+                    matches.add(entry.getValue(), TYPO_FACTOR * idf(entry.getValue(), live));
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static float idf(Postings postings, int live) {
+        return (float) Math.log(1 + (double) live / postings.size);
+    }
+
+    private void markRemoved(Long listingId) {
+        Integer ordinal = documentByListing.remove(listingId);
+        if (ordinal != null) {
+            removed.set(ordinal);
+            removedDocuments++;
+        }
+    }
+
+    // Retira los documentos borrados cuando superan el umbral y renumera los restantes sin alterar su orden, del que
+    // dependen las listas de términos y el desempate por antigüedad. El coste es proporcional al tamaño del índice,
+    // pero el umbral hace que cada compactación se reparta entre muchos borrados
+    private void compactIfNeeded() {
+        if (removedDocuments == 0 || removedDocuments < documents * COMPACTION_THRESHOLD) {
+            return;
+        }
+        int[] ordinals = new int[documents];
+        int live = 0;
+        for (int document = 0; document < documents; document++) {
+            if (removed.get(document)) {
+                ordinals[document] = -1;
+            } else {
+                ordinals[document] = live;
+                listingIds[live] = listingIds[document];
+                guests[live] = guests[document];
+                bedrooms[live] = bedrooms[document];
+                prices[live] = prices[document];
+                live++;
+            }
+        }
+        postingsByTerm.values().removeIf(postings -> postings.compact(ordinals) == 0);
+        documentByListing.replaceAll((listingId, ordinal) -> ordinals[ordinal]);
+        log.debug("Listing search index compacted from {} to {} documents", documents, live);
+        removed.clear();
+        removedDocuments = 0;
+        documents = live;
+        if (listingIds.length > 2 * Math.max(live, INITIAL_CAPACITY)) {
+            resize(Math.max(live, INITIAL_CAPACITY));
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > listingIds.length) {
+            resize(Math.max(capacity, listingIds.length * 2));
+        }
+    }
+
+    private void resize(int length) {
+        listingIds = Arrays.copyOf(listingIds, length);
+        guests = Arrays.copyOf(guests, length);
+        bedrooms = Arrays.copyOf(bedrooms, length);
+        prices = Arrays.copyOf(prices, length);
+    }
+
+    private static void analyze(String text, int weight, Map<String, Integer> weights) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, weight, Math::max);
+        }
+    }
+
+    /**
+     * Divide un texto en términos: minúsculas, sin acentos y separados por cualquier carácter que no sea letra o número.
+     *
+     * @param text el texto, que puede ser null
+     * @return los términos en el orden en que aparecen
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Indica si dos términos están a una distancia de Damerau-Levenshtein (transposiciones de caracteres
+     * adyacentes incluidas) no mayor que maxEdits. El cálculo se abandona en cuanto una fila supera el límite.
+     */
+    static boolean withinEdits(String source, String target, int maxEdits) {
+        int sourceLength = source.length();
+        int targetLength = target.length();
+        if (Math.abs(sourceLength - targetLength) > maxEdits) {
+            return false;
+        }
+        int[] beforePrevious = new int[targetLength + 1];
+        int[] previous = new int[targetLength + 1];
+        int[] current = new int[targetLength + 1];
+        for (int j = 0; j <= targetLength; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= sourceLength; i++) {
+            current[0] = i;
+            int rowMinimum = i;
+            for (int j = 1; j <= targetLength; j++) {
+                int cost = source.charAt(i - 1) == target.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && source.charAt(i - 1) == target.charAt(j - 2)
+                        && source.charAt(i - 2) == target.charAt(j - 1)) {
+                    distance = Math.min(distance, beforePrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMinimum = Math.min(rowMinimum, distance);
+            }
+            if (rowMinimum > maxEdits) {
+                return false;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[targetLength] <= maxEdits;
+    }
+
+    /**
+     * Texto y filtros de una búsqueda.
+     *
+     * @param text        el texto de la consulta
+     * @param minGuests   número mínimo de huéspedes
+     * @param minBedrooms número mínimo de dormitorios
+     * @param minPrice    precio por noche mínimo
+     * @param maxPrice    precio por noche máximo
+     */
+    public record Criteria(String text, int minGuests, int minBedrooms, int minPrice, int maxPrice) {
+
+        /**
+         * Crea una búsqueda sin filtros.
+         *
+         * @param text el texto de la consulta
+         * @return la búsqueda
+         */
+        public static Criteria of(String text) {
+            return new Criteria(text, 0, 0, 0, Integer.MAX_VALUE);
+        }
+
+        boolean accepts(int guests, int bedrooms, int price) {
+            return guests >= minGuests && bedrooms >= minBedrooms && price >= minPrice && price <= maxPrice;
+        }
+    }
+
+    /**
+     * Lista de documentos de un término, en orden creciente de ordinal, con el peso del campo en el que aparece.
+     */
+    private static final class Postings {
+
+        private int[] documents = new int[4];
+        private byte[] weights = new byte[4];
+        private int size;
+        private int maxWeight;
+
+        void add(int document, int weight) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            documents[size] = document;
+            weights[size] = (byte) weight;
+            size++;
+            maxWeight = Math.max(maxWeight, weight);
+        }
+
+        // Retira los documentos sin ordinal nuevo (-1), renumera los demás y devuelve cuántos quedan
+        int compact(int[] ordinals) {
+            int kept = 0;
+            maxWeight = 0;
+            for (int i = 0; i < size; i++) {
+                int document = ordinals[documents[i]];
+                if (document >= 0) {
+                    documents[kept] = document;
+                    weights[kept] = weights[i];
+                    maxWeight = Math.max(maxWeight, weights[kept]);
+                    kept++;
+                }
+            }
+            size = kept;
+            if (documents.length > 2 * Math.max(size, 4)) {
+                documents = Arrays.copyOf(documents, Math.max(size, 4));
+                weights = Arrays.copyOf(weights, Math.max(size, 4));
+            }
+            return size;
+        }
+
+        // Última posición, hasta from, cuyo documento no es mayor que document, o -1 si no existe (búsqueda exponencial)
+        int retreat(int from, int document) {
+            if (from < 0 || documents[from] <= document) {
+                return from;
+            }
+            int bound = 1;
+            while (from - bound >= 0 && documents[from - bound] > document) {
+                bound <<= 1;
+            }
+            int index = Arrays.binarySearch(documents, Math.max(0, from - bound), from - (bound >> 1), document);
+            return index >= 0 ? index : -index - 2;
+        }
+    }
+
+    /**
+     * Términos del índice que sustituyen a un término de la consulta, cada uno con su multiplicador de puntuación.
+     * Un documento puntúa con el mejor de los términos que contiene. Los documentos se recorren y se consultan en
+     * orden decreciente, por lo que cada lista retrocede desde la posición de la consulta anterior.
+     */
+    private static final class TermMatches {
+
+        private final List<Postings> sources = new ArrayList<>();
+        private final List<Float> multipliers = new ArrayList<>();
+        private int[] cursors;
+        private long size;
+        private float maxScore;
+        private float currentScore;
+
+        void add(Postings postings, float multiplier) {
+            sources.add(postings);
+            multipliers.add(multiplier);
+            size += postings.size;
+            maxScore = Math.max(maxScore, postings.maxWeight * multiplier);
+        }
+
+        boolean isEmpty() {
+            return sources.isEmpty();
+        }
+
+        long size() {
+            return size;
+        }
+
+        float maxScore() {
+            return maxScore;
+        }
+
+        // Puntuación de un documento, o 0 si no contiene ninguno de los términos
+        float scoreOf(int document) {
+            initCursors();
+            float best = 0;
+            for (int s = 0; s < sources.size(); s++) {
+                Postings postings = sources.get(s);
+                int position = postings.retreat(cursors[s], document);
+                cursors[s] = position;
+                if (position >= 0 && postings.documents[position] == document) {
+                    best = Math.max(best, postings.weights[position] * multipliers.get(s));
+                }
+            }
+            return best;
+        }
+
+        // Siguiente documento de la unión de las listas, o -1 al terminar; su puntuación queda en currentScore()
+        int next() {
+            initCursors();
+            int document = -1;
+            for (int s = 0; s < sources.size(); s++) {
+                if (cursors[s] >= 0) {
+                    document = Math.max(document, sources.get(s).documents[cursors[s]]);
+                }
+            }
+            float best = 0;
+            for (int s = 0; s < sources.size(); s++) {
+                Postings postings = sources.get(s);
+                if (cursors[s] >= 0 && postings.documents[cursors[s]] == document) {
+                    best = Math.max(best, postings.weights[cursors[s]] * multipliers.get(s));
+                    cursors[s]--;
+                }
+            }
+            currentScore = best;
+            return document;
+        }
+
+        float currentScore() {
+            return currentScore;
+        }
+
+        private void initCursors() {
+            if (cursors == null) {
+                cursors = new int[sources.size()];
+                for (int s = 0; s < sources.size(); s++) {
+                    cursors[s] = sources.get(s).size - 1;
+                }
+            }
+        }
+    }
+
+    private record Hit(int document, float score) {
+    }
+}
@@ -0,0 +1,181 @@
+package org.project.airbnb.listing.application;
+
+import org.project.airbnb.infrastructure.storage.PictureStorage;
+import org.project.airbnb.infrastructure.storage.StoredPicture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tarea que traslada al {@link PictureStorage} el contenido de las imágenes que todavía se guardan
+ * en la columna {@code file} de {@code listing_picture}.
+ * <p>
+ * En PostgreSQL la columna es un objeto grande ({@code oid}); su contenido se lee por fragmentos de
+ * {@value #CHUNK_SIZE} bytes con {@code lo_get}, por lo que nunca hay más de un fragmento en memoria.
+ * Los identificadores pendientes se recorren por lotes de {@value #BATCH_SIZE}, y cada imagen se traslada en su
+ * propia transacción: se bloquea la fila, se copia el contenido, se guardan su hash y tamaño vaciando la columna
+ * {@code file} y se elimina el objeto grande.
+ * Una imagen ya trasladada, por ejemplo por otra instancia, se omite, y si la transacción falla se elimina la
+ * copia que ninguna otra imagen referencia, de modo que la tarea puede repetirse sin dejar archivos huérfanos.
+ */
+@Component
+@ConditionalOnProperty(name = "application.picture-storage.migrate-blobs", havingValue = "true")
+public class PictureBlobMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PictureBlobMigration.class);
+
+    private static final int BATCH_SIZE = 100;
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PictureStorage pictureStorage;
+    private final String selectPendingSql;
+    private final String lockPendingSql;
+    private final String selectChunkSql;
+    private final String updateSql;
+    private final String unlinkSql;
+    private final String referencedSql;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param jdbcTemplate        Acceso JDBC a la base de datos.
+     * @param transactionTemplate Plantilla para ejecutar el traslado de cada imagen en su propia transacción.
+     * @param pictureStorage      Almacenamiento de destino de las imágenes.
+     * @param schema              Esquema de la tabla {@code listing_picture}.
+     */
+    public PictureBlobMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                PictureStorage pictureStorage,
+                                @Value("${spring.jpa.properties.hibernate.default_schema}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.pictureStorage = pictureStorage;
+        String table = schema + ".listing_picture";
+        this.selectPendingSql = "SELECT id FROM " + table + " WHERE file_hash IS NULL AND id > ?" +
+                " ORDER BY id LIMIT " + BATCH_SIZE;
+        this.lockPendingSql = "SELECT file FROM " + table + " WHERE id = ? AND file_hash IS NULL FOR UPDATE";
+        this.selectChunkSql = "SELECT lo_get(file, ?, ?) FROM " + table + " WHERE id = ?";
+        this.updateSql = "UPDATE " + table + " SET file_hash = ?, file_size = ?, file = NULL WHERE id = ?";
+        this.unlinkSql = "SELECT lo_unlink(?)";
+        this.referencedSql = "SELECT EXISTS (SELECT 1 FROM " + table + " WHERE file_hash = ?)" +
+                " OR EXISTS (SELECT 1 FROM " + schema + ".listing_picture_variant WHERE file_hash = ?)";
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long migrated = 0;
+        long lastId = 0;
+        List<Long> ids;
+        while (!(ids = jdbcTemplate.queryForList(selectPendingSql, Long.class, lastId)).isEmpty()) {
+            for (Long id : ids) {
+                if (migrate(id)) {
+                    migrated++;
+                }
+            }
+            lastId = ids.getLast();
+            log.info("Moved {} listing pictures to the picture storage", migrated);
+        }
+        log.info("Listing picture migration finished, {} pictures moved", migrated);
+    }
+
+    // Traslada una imagen en su propia transacción; devuelve false si ya no estaba pendiente
+    private boolean migrate(Long id) {
+        AtomicReference<StoredPicture> copy = new AtomicReference<>();
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                List<Long> largeObject = jdbcTemplate.queryForList(lockPendingSql, Long.class, id);
+                if (largeObject.isEmpty()) {
+                    return false;
+                }
+                if (largeObject.getFirst() == null) {
+                    log.warn("Listing picture {} has neither stored content nor a file to move", id);
+                    return false;
+                }
+                try (InputStream content = new ChunkedContent(id)) {
+                    copy.set(pictureStorage.store(content));
+                } catch (IOException ioe) {
+                    throw new UncheckedIOException("Cannot move listing picture " + id, ioe);
+                }
+                jdbcTemplate.update(updateSql, copy.get().hash(), copy.get().size(), id);
+                jdbcTemplate.queryForObject(unlinkSql, Integer.class, largeObject.getFirst());
+                return true;
+            }));
+        } catch (RuntimeException e) {
+            if (copy.get() != null) {
+                deleteIfUnreferenced(copy.get().hash());
+            }
+            throw e;
+        }
+    }
+
+    // Elimina la copia de una imagen cuya transacción se revirtió, salvo que otra imagen comparta el contenido
+    private void deleteIfUnreferenced(String hash) {
+        try {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(referencedSql, Boolean.class, hash, hash))) {
+                pictureStorage.delete(hash);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot delete orphaned picture copy {}", hash, e);
+        }
+    }
+
+    /**
+     * Flujo sobre el objeto grande de la columna {@code file} de una imagen que consulta el contenido por
+     * fragmentos, para no tener nunca en memoria más de {@value #CHUNK_SIZE} bytes de la imagen.
+     */
+    private final class ChunkedContent extends InputStream {
+
+        private final Long id;
+        private long position;
+        private byte[] chunk = new byte[0];
+        private int offset;
+        private boolean last;
+
+        private ChunkedContent(Long id) {
+            this.id = id;
+        }
+
+        @Override
+        public int read() {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (offset == chunk.length) {
+                if (last) {
+                    return -1;
+                }
+                chunk = jdbcTemplate.queryForObject(selectChunkSql, byte[].class, position, CHUNK_SIZE, id);
+                offset = 0;
+                position += chunk.length;
+                // Un fragmento incompleto es el último del objeto
+                last = chunk.length < CHUNK_SIZE;
+                if (chunk.length == 0) {
+                    return -1;
+                }
+            }
+            int read = Math.min(len, chunk.length - offset);
+            System.arraycopy(chunk, offset, buffer, off, read);
+            offset += read;
+            return read;
+        }
+    }
+}
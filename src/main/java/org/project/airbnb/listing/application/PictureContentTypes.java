@@ -0,0 +1,50 @@
+package org.project.airbnb.listing.application;
+
+import java.util.Optional;
+
+/**
+ * Detecta el tipo de una imagen a partir de los primeros bytes de su contenido (firma del formato),
+ * sin confiar en el tipo declarado por el cliente.
+ */
+final class PictureContentTypes {
+
+    // Número de bytes necesarios para reconocer todos los formatos admitidos
+    static final int HEADER_LENGTH = 12;
+
+    private PictureContentTypes() {
+    }
+
+    /**
+     * Obtiene el tipo de contenido de una imagen admitida.
+     *
+     * @param header Primeros bytes del contenido; puede tener menos de {@link #HEADER_LENGTH} bytes.
+     * @return El tipo de contenido, o vacío si no es un formato de imagen admitido.
+     */
+    static Optional<String> detect(byte[] header) {
+        if (startsWith(header, 0, 0xFF, 0xD8, 0xFF)) {
+            return Optional.of("image/jpeg");
+        }
+        if (startsWith(header, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return Optional.of("image/png");
+        }
+        if (startsWith(header, 0, 'G', 'I', 'F', '8') && (startsWith(header, 4, '7', 'a') || startsWith(header, 4, '9', 'a'))) {
+            return Optional.of("image/gif");
+        }
+        if (startsWith(header, 0, 'R', 'I', 'F', 'F') && startsWith(header, 8, 'W', 'E', 'B', 'P')) {
+            return Optional.of("image/webp");
+        }
+        return Optional.empty();
+    }
+
+    private static boolean startsWith(byte[] header, int offset, int... signature) {
+        if (header.length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((header[offset + i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,47 +1,188 @@
 package org.project.airbnb.listing.application;
 
+import org.project.airbnb.infrastructure.storage.PictureStorage;
+import org.project.airbnb.infrastructure.storage.StoredPicture;
 import org.project.airbnb.listing.application.dto.sub.PictureDTO;
+import org.project.airbnb.listing.application.dto.sub.PictureFileDTO;
+import org.project.airbnb.listing.application.dto.sub.ServedPictureDTO;
 import org.project.airbnb.listing.domain.Listing;
 import org.project.airbnb.listing.domain.ListingPicture;
+import org.project.airbnb.listing.domain.PictureVariant;
 import org.project.airbnb.listing.mapper.ListingPictureMapper;
 import org.project.airbnb.listing.repository.ListingPictureRepository;
+import org.project.airbnb.listing.repository.ListingPictureVariantRepository;
+import org.project.airbnb.sharedkernel.service.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 @Service
 public class PictureService {
 
+    private static final Logger log = LoggerFactory.getLogger(PictureService.class);
+
     private final ListingPictureRepository listingPictureRepository;
     private final ListingPictureMapper listingPictureMapper;
+    private final ListingPictureVariantRepository listingPictureVariantRepository;
+    private final PictureStorage pictureStorage;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    // Subidas en curso: contenido ya almacenado cuya imagen todavía no se ha confirmado, con el número de subidas
+    // de cada hash. Las subidas lo registran con el cerrojo de lectura y los borrados lo consultan con el de escritura,
+    // de modo que un borrado no puede colarse entre el almacenamiento del contenido y su registro.
+    private final Map<String, Integer> uploadsInFlight = new ConcurrentHashMap<>();
+    private final ReadWriteLock uploadLock = new ReentrantReadWriteLock();
 
     // Constructor para la inyección de dependencias
-    public PictureService(ListingPictureRepository listingPictureRepository, ListingPictureMapper listingPictureMapper) {
+    public PictureService(ListingPictureRepository listingPictureRepository, ListingPictureMapper listingPictureMapper,
+                          ListingPictureVariantRepository listingPictureVariantRepository,
+                          PictureStorage pictureStorage, ApplicationEventPublisher applicationEventPublisher) {
         this.listingPictureRepository = listingPictureRepository;
         this.listingPictureMapper = listingPictureMapper;
+        this.listingPictureVariantRepository = listingPictureVariantRepository;
+        this.pictureStorage = pictureStorage;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    // Método para guardar en el almacenamiento una imagen subida, leyendo su contenido como un flujo.
+    // El tipo de contenido se detecta a partir de los primeros bytes y se rechaza cualquier formato
+    // que no sea una imagen admitida antes de escribir nada.
+    // El contenido queda registrado como subida en curso, y no se borra, hasta llamar a release o discard.
+    public State<PictureDTO, String> store(InputStream content, String fileName) throws IOException {
+        BufferedInputStream input = new BufferedInputStream(content, PictureContentTypes.HEADER_LENGTH);
+        input.mark(PictureContentTypes.HEADER_LENGTH);
+        byte[] header = input.readNBytes(PictureContentTypes.HEADER_LENGTH);
+        input.reset();
+
+        Optional<String> contentType = PictureContentTypes.detect(header);
+        if (contentType.isEmpty()) {
+            return State.<PictureDTO, String>builder()
+                    .forError(String.format("Unsupported picture format: %s", fileName));
+        }
+
+        StoredPicture storedPicture;
+        uploadLock.readLock().lock();
+        try {
+            storedPicture = pictureStorage.store(input);
+            uploadsInFlight.merge(storedPicture.hash(), 1, Integer::sum);
+        } finally {
+            uploadLock.readLock().unlock();
+        }
+        return State.<PictureDTO, String>builder()
+                .forSuccess(new PictureDTO(storedPicture.hash(), storedPicture.size(), contentType.get(), false));
+    }
+
+    // Método para eliminar del almacenamiento las imágenes subidas que no llegaron a guardarse en un listado,
+    // porque otra imagen de la petición no era válida o porque la creación del listado falló.
+    @Transactional(readOnly = true)
+    public void discard(List<PictureDTO> pictures) {
+        release(pictures);
+        deleteUnreferenced(pictures.stream().map(PictureDTO::fileHash).toList());
+    }
+
+    // Método para indicar que las imágenes subidas ya se han confirmado en un listado y dejan de estar en curso
+    public void release(List<PictureDTO> pictures) {
+        for (PictureDTO picture : pictures) {
+            uploadsInFlight.computeIfPresent(picture.fileHash(), (fileHash, uploads) -> uploads > 1 ? uploads - 1 : null);
+        }
+    }
+
+    // Método para obtener el contenido de las imágenes y variantes de un listado antes de eliminarlo
+    @Transactional(readOnly = true)
+    public List<String> getFileHashes(UUID listingPublicId, UUID landlordPublicId) {
+        return listingPictureRepository.findAllFileHashesByListing(listingPublicId, landlordPublicId);
+    }
+
+    // Método para eliminar del almacenamiento el contenido de las imágenes y variantes de un listado eliminado.
+    // Se llama después de confirmar el borrado, por lo que consulta las referencias en su propia transacción.
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void deleteContent(List<String> fileHashes) {
+        deleteUnreferenced(fileHashes);
+    }
+
+    // Como el almacenamiento comparte el contenido entre subidas iguales, se conserva el que ya referencia
+    // otra imagen o variante guardada y el de una subida en curso del mismo contenido. Las referencias se consultan
+    // con el cerrojo de escritura: una subida que se confirma antes de tomarlo ya es visible en la consulta.
+    private void deleteUnreferenced(List<String> fileHashes) {
+        uploadLock.writeLock().lock();
+        try {
+            List<String> candidates = fileHashes.stream().filter(fileHash -> !uploadsInFlight.containsKey(fileHash)).toList();
+            if (candidates.isEmpty()) {
+                return;
+            }
+            Set<String> referenced = listingPictureRepository.findReferencedFileHashes(candidates);
+            for (String fileHash : candidates) {
+                if (referenced.contains(fileHash)) {
+                    continue;
+                }
+                try {
+                    pictureStorage.delete(fileHash);
+                } catch (IOException ioe) {
+                    log.warn("Cannot delete unreferenced picture {}", fileHash, ioe);
+                }
+            }
+        } finally {
+            uploadLock.writeLock().unlock();
+        }
     }
 
     // Método para guardar todas las imágenes asociadas a un listado
-    public List<PictureDTO> saveAll(List<PictureDTO> pictures, Listing listing) {
-        // Mapea los DTOs de imágenes a entidades ListingPicture
-        Set<ListingPicture> listingPictures = listingPictureMapper.pictureDTOsToListingPictures(pictures);
+    public List<PictureFileDTO> saveAll(List<PictureDTO> pictures, Listing listing) {
+        List<ListingPicture> listingPictures = new ArrayList<>(pictures.size());
 
         boolean isFirst = true;
 
-        // Itera sobre las imágenes y las configura
-        for (ListingPicture listingPicture : listingPictures) {
+        // Itera sobre las imágenes, cuyo contenido ya está en el almacenamiento, y las configura
+        for (PictureDTO picture : pictures) {
+            ListingPicture listingPicture = listingPictureMapper.pictureDTOToListingPicture(picture);
             // Marca la primera imagen como portada
             listingPicture.setCover(isFirst);
             // Asocia la imagen con el listado
             listingPicture.setListing(listing);
             isFirst = false; // La primera imagen ya se ha marcado como portada
+            listingPictures.add(listingPicture);
         }
 
         // Guarda todas las imágenes en la base de datos
         listingPictureRepository.saveAll(listingPictures);
 
-        // Convierte las entidades ListingPicture de nuevo a DTOs y los retorna
-        return listingPictureMapper.listingPictureToPictureDTO(listingPictures.stream().toList());
+        // Solicita la generación de las variantes redimensionadas en segundo plano
+        applicationEventPublisher.publishEvent(
+                new PicturesUploadedEvent(listingPictures.stream().map(ListingPicture::getId).toList()));
+
+        // Convierte las entidades ListingPicture a DTOs con sus metadatos y los retorna
+        return listingPictureMapper.listingPicturesToPictureFileDTOs(listingPictures);
+    }
+
+    // Método para obtener los metadatos de la imagen que se sirve: la variante pedida si ya existe o, si no, el original
+    @Transactional(readOnly = true)
+    public Optional<ServedPictureDTO> getPictureFile(Long id, PictureVariant variant) {
+        return listingPictureRepository.findFileWithVariant(id, variant).map(view -> view.variantFileHash() == null
+                ? new ServedPictureDTO(new PictureFileDTO(view.fileHash(), view.fileSize(), view.fileContentType()),
+                        variant != null)
+                : new ServedPictureDTO(new PictureFileDTO(view.variantFileHash(), view.variantFileSize(),
+                        view.variantFileContentType()), false));
+    }
+
+    // Método para obtener el contenido almacenado de una imagen a partir de su hash
+    public Optional<Resource> loadContent(String fileHash) {
+        return pictureStorage.load(fileHash);
     }
 }
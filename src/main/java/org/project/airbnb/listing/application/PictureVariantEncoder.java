@@ -0,0 +1,155 @@
+package org.project.airbnb.listing.application;
+
+import org.project.airbnb.listing.domain.PictureVariant;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Genera las variantes redimensionadas de una imagen.
+ * <p>
+ * La imagen original se decodifica una única vez, submuestreada al leerla para no reservar más memoria
+ * de la necesaria para la variante más grande. Cada variante se reduce a partir de esa imagen y se
+ * recodifica como JPEG sin copiar los metadatos del original (EXIF, perfiles, miniaturas incrustadas).
+ */
+@Component
+public class PictureVariantEncoder {
+
+    static final String CONTENT_TYPE = PictureVariant.CONTENT_TYPE;
+
+    // Las imágenes con más píxeles se rechazan antes de decodificarlas
+    private static final long MAX_SOURCE_PIXELS = 100_000_000L;
+    private static final float JPEG_QUALITY = 0.82f;
+
+    /**
+     * Variante generada a partir de una imagen.
+     *
+     * @param variant La variante generada.
+     * @param content Contenido JPEG de la variante.
+     * @param width   Ancho en píxeles.
+     * @param height  Alto en píxeles.
+     */
+    public record EncodedVariant(PictureVariant variant, byte[] content, int width, int height) {
+    }
+
+    /**
+     * Genera todas las variantes de una imagen.
+     *
+     * @param original Flujo con el contenido de la imagen original. No se cierra.
+     * @return Las variantes generadas, o una lista vacía si el formato de la imagen no se puede decodificar.
+     * @throws IOException Si ocurre un error al leer la imagen.
+     */
+    public List<EncodedVariant> encode(InputStream original) throws IOException {
+        BufferedImage source = decode(original, largestDimension());
+        if (source == null) {
+            return List.of();
+        }
+        List<EncodedVariant> variants = new ArrayList<>(PictureVariant.values().length);
+        for (PictureVariant variant : PictureVariant.values()) {
+            BufferedImage resized = resize(source, variant.getMaxDimension());
+            variants.add(new EncodedVariant(variant, writeJpeg(resized), resized.getWidth(), resized.getHeight()));
+        }
+        return variants;
+    }
+
+    private static int largestDimension() {
+        int largest = 0;
+        for (PictureVariant variant : PictureVariant.values()) {
+            largest = Math.max(largest, variant.getMaxDimension());
+        }
+        return largest;
+    }
+
+    private static BufferedImage decode(InputStream original, int targetDimension) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original)) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Picture too large to process: " + width + "x" + height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                // Submuestreo entero que mantiene al menos el tamaño de la variante más grande
+                int subsampling = Math.max(1, Math.max(width, height) / targetDimension);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage source, int maxDimension) {
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        // Reducción progresiva a la mitad para evitar el aliasing de una única interpolación bilineal
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = draw(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        // JPEG no admite transparencia: se compone sobre fondo blanco en RGB
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] writeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            // Sin metadatos: el archivo resultante no conserva EXIF ni ningún otro bloque del original
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
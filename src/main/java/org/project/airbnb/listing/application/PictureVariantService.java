@@ -0,0 +1,103 @@
+package org.project.airbnb.listing.application;
+
+import org.project.airbnb.infrastructure.storage.PictureStorage;
+import org.project.airbnb.infrastructure.storage.StoredPicture;
+import org.project.airbnb.listing.application.PictureVariantEncoder.EncodedVariant;
+import org.project.airbnb.listing.domain.ListingPicture;
+import org.project.airbnb.listing.domain.ListingPictureVariant;
+import org.project.airbnb.listing.repository.ListingPictureRepository;
+import org.project.airbnb.listing.repository.ListingPictureVariantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Servicio que genera las variantes redimensionadas de las imágenes subidas.
+ * <p>
+ * Se ejecuta en el ejecutor acotado {@code pictureProcessingExecutor} una vez confirmada la transacción
+ * que guardó las imágenes, de modo que la petición de subida no espera al procesado. Mientras una
+ * variante no existe, el recurso de imágenes sirve la imagen original.
+ */
+@Service
+public class PictureVariantService {
+
+    private static final Logger log = LoggerFactory.getLogger(PictureVariantService.class);
+
+    private final ListingPictureRepository listingPictureRepository;
+    private final ListingPictureVariantRepository listingPictureVariantRepository;
+    private final PictureStorage pictureStorage;
+    private final PictureVariantEncoder pictureVariantEncoder;
+
+    // Constructor para la inyección de dependencias
+    public PictureVariantService(ListingPictureRepository listingPictureRepository,
+                                 ListingPictureVariantRepository listingPictureVariantRepository,
+                                 PictureStorage pictureStorage, PictureVariantEncoder pictureVariantEncoder) {
+        this.listingPictureRepository = listingPictureRepository;
+        this.listingPictureVariantRepository = listingPictureVariantRepository;
+        this.pictureStorage = pictureStorage;
+        this.pictureVariantEncoder = pictureVariantEncoder;
+    }
+
+    // Genera las variantes de las imágenes recién subidas
+    @Async("pictureProcessingExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPicturesUploaded(PicturesUploadedEvent event) {
+        for (Long pictureId : event.pictureIds()) {
+            try {
+                generateVariants(pictureId);
+            } catch (IOException | RuntimeException e) {
+                // Un fallo en una imagen no impide procesar las demás; se seguirá sirviendo el original
+                log.warn("Cannot generate variants for listing picture {}", pictureId, e);
+            }
+        }
+    }
+
+    // Genera y guarda las variantes que todavía no existen para una imagen
+    public void generateVariants(Long pictureId) throws IOException {
+        Optional<ListingPicture> picture = listingPictureRepository.findById(pictureId);
+        Optional<Resource> original = picture.map(ListingPicture::getFileHash).flatMap(pictureStorage::load);
+        if (original.isEmpty()) {
+            return;
+        }
+
+        List<EncodedVariant> encodedVariants;
+        try (InputStream content = original.get().getInputStream()) {
+            encodedVariants = pictureVariantEncoder.encode(content);
+        }
+        if (encodedVariants.isEmpty()) {
+            log.debug("Listing picture {} has a format that cannot be resized, serving the original", pictureId);
+            return;
+        }
+
+        for (EncodedVariant encodedVariant : encodedVariants) {
+            if (listingPictureVariantRepository.existsByPictureIdAndVariant(pictureId, encodedVariant.variant())) {
+                continue;
+            }
+            StoredPicture storedPicture = pictureStorage.store(new ByteArrayInputStream(encodedVariant.content()));
+            ListingPictureVariant variant = new ListingPictureVariant();
+            variant.setPictureId(pictureId);
+            variant.setVariant(encodedVariant.variant());
+            variant.setFileHash(storedPicture.hash());
+            variant.setFileSize(storedPicture.size());
+            variant.setFileContentType(PictureVariantEncoder.CONTENT_TYPE);
+            variant.setWidth(encodedVariant.width());
+            variant.setHeight(encodedVariant.height());
+            try {
+                listingPictureVariantRepository.saveAndFlush(variant);
+            } catch (DataIntegrityViolationException dive) {
+                // Otra ejecución ya ha guardado esta variante, o la imagen se ha eliminado entretanto
+                log.debug("Variant {} of listing picture {} not saved", encodedVariant.variant(), pictureId);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.project.airbnb.listing.application;
+
+import java.util.List;
+
+/**
+ * Evento publicado cuando se guardan nuevas imágenes de un listado, para generar sus variantes.
+ *
+ * @param pictureIds Identificadores de las imágenes guardadas.
+ */
+public record PicturesUploadedEvent(List<Long> pictureIds) {
+}
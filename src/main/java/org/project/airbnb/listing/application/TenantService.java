@@ -1,62 +1,165 @@
 package org.project.airbnb.listing.application;
 
-import org.project.airbnb.booking.application.BookingService;
 import org.project.airbnb.listing.application.dto.DisplayCardListingDTO;
 import org.project.airbnb.listing.application.dto.DisplayListingDTO;
+import org.project.airbnb.listing.application.dto.ListingFacetsDTO;
 import org.project.airbnb.listing.application.dto.SearchDTO;
+import org.project.airbnb.listing.application.dto.TextSearchDTO;
 import org.project.airbnb.listing.application.dto.sub.LandlordListingDTO;
+import org.project.airbnb.listing.application.dto.sub.PriceRangeDTO;
 import org.project.airbnb.listing.domain.BookingCategory;
 import org.project.airbnb.listing.domain.Listing;
+import org.project.airbnb.listing.domain.ListingCardView;
+import org.project.airbnb.listing.domain.ListingFacetCount;
 import org.project.airbnb.listing.mapper.ListingMapper;
 import org.project.airbnb.listing.repository.ListingRepository;
+import org.project.airbnb.listing.repository.ListingSpecifications;
+import org.project.airbnb.sharedkernel.service.CursorPageDTO;
+import org.project.airbnb.sharedkernel.service.KeysetCursor;
 import org.project.airbnb.sharedkernel.service.State;
 import org.project.airbnb.user.application.UserService;
 import org.project.airbnb.user.application.dto.ReadUserDTO;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TenantService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final ListingRepository listingRepository;
     private final ListingMapper listingMapper;
     private final UserService userService;
-    private final BookingService bookingService;
+    private final CategoryPageCache categoryPageCache;
+    private final ListingSearchIndex listingSearchIndex;
+    private final ListingFacetCache listingFacetCache;
+    private final TransactionTemplate readOnlyTransaction;
 
     // Constructor para la inyección de dependencias
-    public TenantService(ListingRepository listingRepository, ListingMapper listingMapper, UserService userService, BookingService bookingService) {
+    public TenantService(ListingRepository listingRepository, ListingMapper listingMapper, UserService userService,
+                         CategoryPageCache categoryPageCache, ListingSearchIndex listingSearchIndex,
+                         ListingFacetCache listingFacetCache, TransactionTemplate transactionTemplate) {
         this.listingRepository = listingRepository;
         this.listingMapper = listingMapper;
         this.userService = userService;
-        this.bookingService = bookingService;
+        this.categoryPageCache = categoryPageCache;
+        this.listingSearchIndex = listingSearchIndex;
+        this.listingFacetCache = listingFacetCache;
+        // Las lecturas que pueden resolverse desde una caché solo abren la transacción al consultar la base de datos
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     // Obtiene todas las propiedades por categoría de reserva con paginación
+    // Se resuelve en dos fases: primero se pagina en la base de datos solo la lista de identificadores y
+    // después se leen las tarjetas de esos identificadores, de modo que el coste no depende del tamaño del catálogo
+    // Las primeras páginas de cada categoría se sirven desde CategoryPageCache, sin abrir una transacción
+    // ni tomar una conexión del pool; solo la carga de una página que no está en caché se ejecuta en una transacción
     public Page<DisplayCardListingDTO> getAllByCategory(Pageable pageable, BookingCategory category) {
-        Page<Listing> allOrBookingCategory;
+        return categoryPageCache.get(category, pageable,
+                () -> readOnlyTransaction.execute(status -> loadByCategory(pageable, category)));
+    }
+
+    private Page<DisplayCardListingDTO> loadByCategory(Pageable pageable, BookingCategory category) {
+        Pageable stablePageable = withStableOrder(pageable);
+        Page<Long> ids;
         if (category == BookingCategory.ALL) {
-            // Obtiene todas las propiedades con solo la portada
-            allOrBookingCategory = listingRepository.findAllWithCoverOnly(pageable);
+            // Pagina los identificadores de todas las propiedades con portada
+            ids = listingRepository.findAllIds(stablePageable);
         } else {
-            // Obtiene las propiedades filtradas por categoría de reserva
-            allOrBookingCategory = listingRepository.findAllByBookingCategoryWithCoverOnly(pageable, category);
+            // Pagina los identificadores de las propiedades filtradas por categoría de reserva
+            ids = listingRepository.findAllIdsByBookingCategory(stablePageable, category);
         }
 
-        // Mapea las propiedades a DTOs para la respuesta
-        return allOrBookingCategory.map(listingMapper::listingToDisplayCardListingDTO);
+        // Mapea las tarjetas a una página para la respuesta
+        return new PageImpl<>(cardsInOrder(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    // Obtiene las tarjetas de los identificadores indicados, en el mismo orden que los identificadores
+    private List<DisplayCardListingDTO> cardsInOrder(List<Long> ids) {
+        Map<Long, ListingCardView> cardsById = ids.isEmpty() ? Map.of() : listingRepository.findAllCardsByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(ListingCardView::id, Function.identity(), (first, second) -> first));
+        return ids.stream()
+                .map(cardsById::get)
+                .filter(Objects::nonNull)
+                .map(listingMapper::listingCardViewToDisplayCardListingDTO)
+                .toList();
     }
 
-    // Obtiene un listado por ID público con información detallada
+    // Obtiene una página de la navegación por categorías con paginación por cursor (keyset).
+    // Cada página cuesta lo mismo con independencia de su profundidad y no se ejecuta ninguna consulta de conteo
+    @Transactional(readOnly = true)
+    public State<CursorPageDTO<DisplayCardListingDTO>, String> getAllByCategory(BookingCategory category, String cursor, int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            return State.<CursorPageDTO<DisplayCardListingDTO>, String>builder()
+                    .forError(String.format("Page size must be between 1 and %d", MAX_CURSOR_PAGE_SIZE));
+        }
+        Optional<KeysetCursor> after = cursor == null || cursor.isBlank() ? Optional.empty() : KeysetCursor.decode(cursor);
+        if (cursor != null && !cursor.isBlank() && after.isEmpty()) {
+            return State.<CursorPageDTO<DisplayCardListingDTO>, String>builder()
+                    .forError(String.format("Invalid cursor: %s", cursor));
+        }
+
+        // Pide un elemento más de los necesarios para saber si existe una página siguiente
+        Limit limit = Limit.of(size + 1);
+        List<ListingCardView> cards;
+        if (category == BookingCategory.ALL) {
+            cards = after.map(position -> listingRepository.findCardsNewestFirstAfter(position.instant(), position.id(), limit))
+                    .orElseGet(() -> listingRepository.findCardsNewestFirst(limit));
+        } else {
+            cards = after.map(position -> listingRepository.findCardsByBookingCategoryNewestFirstAfter(
+                            category, position.instant(), position.id(), limit))
+                    .orElseGet(() -> listingRepository.findCardsByBookingCategoryNewestFirst(category, limit));
+        }
+
+        boolean hasNext = cards.size() > size;
+        List<ListingCardView> page = hasNext ? cards.subList(0, size) : cards;
+        String nextCursor = hasNext
+                ? new KeysetCursor(page.getLast().createdDate(), page.getLast().id()).encode()
+                : null;
+        List<DisplayCardListingDTO> content = page.stream()
+                .map(listingMapper::listingCardViewToDisplayCardListingDTO)
+                .toList();
+        return State.<CursorPageDTO<DisplayCardListingDTO>, String>builder()
+                .forSuccess(new CursorPageDTO<>(content, nextCursor, hasNext));
+    }
+
+    // Completa la ordenación pedida con un desempate por identificador para que las páginas no se solapen;
+    // sin ordenación explícita se muestran primero los listados más recientes
+    private static Pageable withStableOrder(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return pageable;
+        }
+        Sort sort = pageable.getSort().isSorted()
+                ? pageable.getSort().and(Sort.by(Sort.Direction.DESC, "id"))
+                : Sort.by(Sort.Direction.DESC, "createdDate", "id");
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    // Obtiene un listado por ID público con información detallada; las imágenes se leen en la misma consulta
     @Transactional(readOnly = true)
     public State<DisplayListingDTO, String> getOne(UUID publicId) {
-        Optional<Listing> listingByPublicIdOpt = listingRepository.findByPublicId(publicId);
+        Optional<Listing> listingByPublicIdOpt = listingRepository.findWithPicturesByPublicId(publicId);
 
         if (listingByPublicIdOpt.isEmpty()) {
             // Retorna un estado de error si el listado no existe
@@ -77,31 +180,105 @@ public class TenantService {
     }
 
     // Realiza una búsqueda de listados según los parámetros proporcionados
+    // La capacidad pedida es un mínimo y el precio un intervalo opcional; todos los criterios, la portada y la
+    // disponibilidad en las fechas pedidas se resuelven en una sola consulta
+    // Cuando la página no basta para deducir el total, se calcula con la agregación de facetas en lugar de con una
+    // consulta de conteo; si la primera página contiene todos los resultados, la agregación se obtiene de sus tarjetas.
+    // En ambos casos se guarda en ListingFacetCache para las facetas de la misma búsqueda
     @Transactional(readOnly = true)
     public Page<DisplayCardListingDTO> search(Pageable pageable, SearchDTO newSearch) {
+        Specification<Listing> criteria = searchCriteria(newSearch);
+        ListingFacetCache.Refresh facets = listingFacetCache.refresh(searchFacetQuery(newSearch));
+        // Obtiene las tarjetas de las propiedades que coinciden, en un orden estable entre páginas
+        Page<ListingCardView> availableListings = listingRepository.findAllCards(criteria, withStableOrder(pageable),
+                () -> facets.total(() -> countFacets(criteria)));
+        if (availableListings.isFirst() && !availableListings.hasNext()) {
+            facets.completeWith(availableListings.getContent());
+        }
 
-        // Obtiene las propiedades que coinciden con los parámetros de búsqueda
-        Page<Listing> allMatchedListings = listingRepository.findAllByLocationAndBathroomsAndBedroomsAndGuestsAndBeds(
-                pageable, newSearch.location(),
-                newSearch.infos().baths().value(),
-                newSearch.infos().bedrooms().value(),
-                newSearch.infos().guests().value(),
-                newSearch.infos().beds().value()
-        );
-
-        // Obtiene los IDs de los listados coincidentes
-        List<UUID> listingUUIDs = allMatchedListings.stream().map(Listing::getPublicId).toList();
-
-        // Obtiene los IDs de las reservas que coinciden con los listados y las fechas de reserva
-        List<UUID> bookingUUIDs = bookingService.getBookingMatchByListingIdsAndBookedDate(listingUUIDs, newSearch.dates());
-
-        // Filtra los listados que no están reservados
-        List<DisplayCardListingDTO> listingsNotBooked = allMatchedListings.stream()
-                .filter(listing -> !bookingUUIDs.contains(listing.getPublicId()))
-                .map(listingMapper::listingToDisplayCardListingDTO)
-                .toList();
+        // Mapea las propiedades disponibles a DTOs para la respuesta
+        return availableListings.map(listingMapper::listingCardViewToDisplayCardListingDTO);
+    }
+
+    // Obtiene los recuentos por categoría, tramo de precio y dormitorios de los resultados de una búsqueda
+    // Todas las facetas salen de una única consulta agrupada con los mismos criterios que search, y se guardan
+    // en ListingFacetCache por consulta normalizada; si search ya la calculó, se sirven sin consultar
+    // la base de datos. Como en getAllByCategory, solo el cálculo se ejecuta en una transacción
+    public ListingFacetsDTO searchFacets(SearchDTO newSearch) {
+        return listingFacetCache.get(searchFacetQuery(newSearch), BookingCategory.ALL,
+                () -> countFacets(searchCriteria(newSearch)));
+    }
+
+    // Obtiene los recuentos de facetas de la navegación por categorías
+    // Todas las categorías comparten la misma agregación del catálogo completo: los recuentos por categoría
+    // no dependen de la categoría elegida y los de precio y dormitorios se limitan a ella
+    public ListingFacetsDTO getFacetsByCategory(BookingCategory category) {
+        return listingFacetCache.get(new BrowseFacetQuery(), category, () -> countFacets(Specification.allOf()));
+    }
+
+    // Calcula la agregación de facetas de unos criterios en una transacción de solo lectura, o en la transacción en curso
+    private List<ListingFacetCount> countFacets(Specification<Listing> criteria) {
+        return readOnlyTransaction.execute(status ->
+                listingRepository.countFacets(criteria, listingFacetCache.priceBucketWidth()));
+    }
+
+    // Normaliza los criterios de una búsqueda como clave de caché de sus facetas
+    private static SearchFacetQuery searchFacetQuery(SearchDTO newSearch) {
+        PriceRangeDTO price = priceRange(newSearch);
+        return new SearchFacetQuery(newSearch.location(),
+                newSearch.infos().guests().value(), newSearch.infos().bedrooms().value(),
+                newSearch.infos().beds().value(), newSearch.infos().baths().value(),
+                price.min(), price.max(),
+                newSearch.dates().startDate().toInstant(), newSearch.dates().endDate().toInstant());
+    }
+
+    // Construye los criterios de una búsqueda a partir de sus parámetros
+    private static Specification<Listing> searchCriteria(SearchDTO newSearch) {
+        PriceRangeDTO price = priceRange(newSearch);
+        return Specification.allOf(
+                ListingSpecifications.locatedIn(newSearch.location()),
+                ListingSpecifications.withAtLeastGuests(newSearch.infos().guests().value()),
+                ListingSpecifications.withAtLeastBedrooms(newSearch.infos().bedrooms().value()),
+                ListingSpecifications.withAtLeastBeds(newSearch.infos().beds().value()),
+                ListingSpecifications.withAtLeastBathrooms(newSearch.infos().baths().value()),
+                ListingSpecifications.pricedBetween(price.min(), price.max()),
+                ListingSpecifications.availableBetween(newSearch.dates().startDate(), newSearch.dates().endDate()));
+    }
+
+    // El intervalo de precios es opcional; sin él no se limita el precio
+    private static PriceRangeDTO priceRange(SearchDTO newSearch) {
+        return newSearch.price() == null ? new PriceRangeDTO(null, null) : newSearch.price();
+    }
+
+    // Realiza una búsqueda de texto en el título, la ubicación y la descripción de los listados
+    // Los identificadores se ordenan por relevancia en ListingSearchIndex, sin consultar la base de datos,
+    // y después se leen las tarjetas de la página; la ordenación de la paginación se ignora
+    @Transactional(readOnly = true)
+    public Slice<DisplayCardListingDTO> searchText(Pageable pageable, TextSearchDTO textSearch) {
+        Pageable page = pageable.isPaged() ? pageable : PageRequest.of(0, ListingSearchIndex.MAX_RESULTS);
+        ListingSearchIndex.Criteria criteria = new ListingSearchIndex.Criteria(textSearch.query(),
+                Objects.requireNonNullElse(textSearch.minGuests(), 0),
+                Objects.requireNonNullElse(textSearch.minBedrooms(), 0),
+                Objects.requireNonNullElse(textSearch.minPrice(), 0),
+                Objects.requireNonNullElse(textSearch.maxPrice(), Integer.MAX_VALUE));
+
+        // Pide un resultado más de los necesarios para saber si existe una página siguiente
+        long wanted = page.getOffset() + page.getPageSize() + 1;
+        List<Long> ids = wanted > ListingSearchIndex.MAX_RESULTS + 1
+                ? List.of()
+                : listingSearchIndex.search(criteria, (int) wanted);
+        int from = (int) Math.min(page.getOffset(), ids.size());
+        int to = (int) Math.min(page.getOffset() + page.getPageSize(), ids.size());
+        return new SliceImpl<>(cardsInOrder(ids.subList(from, to)), page, ids.size() > to);
+    }
+
+    // Clave de caché de las facetas de una búsqueda: las fechas se comparan como instantes, con independencia
+    // de la zona horaria en que se enviaron
+    private record SearchFacetQuery(String location, int guests, int bedrooms, int beds, int baths,
+                                    Integer minPrice, Integer maxPrice, Instant startDate, Instant endDate) {
+    }
 
-        // Retorna los listados no reservados como una página
-        return new PageImpl<>(listingsNotBooked, pageable, listingsNotBooked.size());
+    // Clave de caché de las facetas de la navegación por categorías
+    private record BrowseFacetQuery() {
     }
 }
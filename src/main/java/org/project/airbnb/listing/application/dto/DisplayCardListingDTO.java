@@ -1,6 +1,6 @@
 package org.project.airbnb.listing.application.dto;
 
-import org.project.airbnb.listing.application.dto.sub.PictureDTO;
+import org.project.airbnb.listing.application.dto.sub.DisplayPictureDTO;
 import org.project.airbnb.listing.application.dto.vo.PriceVO;
 import org.project.airbnb.listing.domain.BookingCategory;
 
@@ -12,7 +12,7 @@ import java.util.UUID;
 public record DisplayCardListingDTO(
         PriceVO price,                    // Precio del listado.
         String location,                 // Ubicación del listado.
-        PictureDTO cover,                // Imagen de portada del listado.
+        DisplayPictureDTO cover,         // Referencia a la imagen de portada del listado; nula si no tiene portada.
         BookingCategory bookingCategory, // Categoría de reserva del listado.
         UUID publicId                    // Identificador público del listado.
 ) {
@@ -1,9 +1,9 @@
 package org.project.airbnb.listing.application.dto;
 
 import org.project.airbnb.listing.application.dto.sub.DescriptionDTO;
+import org.project.airbnb.listing.application.dto.sub.DisplayPictureDTO;
 import org.project.airbnb.listing.application.dto.sub.LandlordListingDTO;
 import org.project.airbnb.listing.application.dto.sub.ListingInfoDTO;
-import org.project.airbnb.listing.application.dto.sub.PictureDTO;
 import org.project.airbnb.listing.application.dto.vo.PriceVO;
 import org.project.airbnb.listing.domain.BookingCategory;
 
@@ -15,7 +15,7 @@ import java.util.List;
 public class DisplayListingDTO {
 
     private DescriptionDTO description;  // Descripción del listado.
-    private List<PictureDTO> pictures;    // Lista de imágenes del listado.
+    private List<DisplayPictureDTO> pictures; // Lista de referencias a las imágenes del listado.
     private ListingInfoDTO infos;         // Información adicional sobre el listado.
     private PriceVO price;                // Precio del listado.
     private BookingCategory category;     // Categoría de reserva del listado.
@@ -31,11 +31,11 @@ public class DisplayListingDTO {
         this.description = description;
     }
 
-    public List<PictureDTO> getPictures() {
+    public List<DisplayPictureDTO> getPictures() {
         return pictures;
     }
 
-    public void setPictures(List<PictureDTO> pictures) {
+    public void setPictures(List<DisplayPictureDTO> pictures) {
         this.pictures = pictures;
     }
 
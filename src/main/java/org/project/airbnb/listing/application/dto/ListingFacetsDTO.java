@@ -0,0 +1,19 @@
+package org.project.airbnb.listing.application.dto;
+
+import org.project.airbnb.listing.application.dto.sub.PriceBucketDTO;
+import org.project.airbnb.listing.domain.BookingCategory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO con los recuentos de resultados por faceta que se muestran junto a una búsqueda o a la navegación por categorías.
+ * Los recuentos por categoría no aplican el filtro de categoría, para mostrar cuántos resultados tendría cada una;
+ * los de precio y dormitorios sí lo aplican.
+ */
+public record ListingFacetsDTO(
+        long total, // Número de listados que cumplen todos los filtros
+        Map<BookingCategory, Long> categories, // Listados por categoría de reserva; ALL es la suma de todas
+        List<PriceBucketDTO> prices, // Histograma de precios por noche, con todos los tramos
+        Map<Integer, Long> bedrooms) { // Listados por número de dormitorios, de menor a mayor
+}
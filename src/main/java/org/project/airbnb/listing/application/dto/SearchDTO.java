@@ -4,13 +4,16 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import org.project.airbnb.booking.application.dto.BookedDateDTO;
 import org.project.airbnb.listing.application.dto.sub.ListingInfoDTO;
+import org.project.airbnb.listing.application.dto.sub.PriceRangeDTO;
 
 /**
  * DTO utilizado para realizar una búsqueda de listados.
+ * Los valores de infos son mínimos: una búsqueda para 2 huéspedes también encuentra los listados para 4.
  */
 public record SearchDTO(
         @Valid BookedDateDTO dates, // Fechas de reserva validadas
-        @Valid ListingInfoDTO infos, // Información del listado validada
-        @NotEmpty String location) { // Ubicación, no puede estar vacío
+        @Valid ListingInfoDTO infos, // Capacidad mínima del listado validada
+        @NotEmpty String location, // Ubicación, no puede estar vacío
+        @Valid PriceRangeDTO price) { // Intervalo de precios por noche, opcional
 
 }
@@ -0,0 +1,17 @@
+package org.project.airbnb.listing.application.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO utilizado para realizar una búsqueda de texto de listados, con filtros opcionales.
+ */
+public record TextSearchDTO(
+        @NotBlank @Size(max = 256) String query, // Texto buscado en el título, la ubicación y la descripción
+        @Min(0) Integer minGuests, // Número mínimo de huéspedes, opcional
+        @Min(0) Integer minBedrooms, // Número mínimo de dormitorios, opcional
+        @Min(0) Integer minPrice, // Precio por noche mínimo, opcional
+        @Min(0) Integer maxPrice) { // Precio por noche máximo, opcional
+
+}
@@ -0,0 +1,14 @@
+package org.project.airbnb.listing.application.dto.sub;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO para referenciar una imagen desde las respuestas de lectura.
+ * En lugar del contenido del archivo lleva la URL desde la que el cliente puede descargarla y cachearla.
+ */
+public record DisplayPictureDTO(
+        @NotNull String url,                 // URL de descarga de la imagen. No puede ser nula.
+        @NotNull String fileContentType,     // Tipo de contenido de la variante a la que apunta la URL ("image/jpeg"). No puede ser nulo.
+        @NotNull boolean isCover              // Indica si la imagen es una portada. No puede ser nulo.
+) {
+}
@@ -0,0 +1,13 @@
+package org.project.airbnb.listing.application.dto.sub;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO con los metadatos de una imagen almacenada, necesarios para servir su contenido.
+ */
+public record PictureFileDTO(
+        @NotNull String fileHash,            // Hash SHA-256 del contenido, que lo identifica en el almacenamiento.
+        @NotNull Long fileSize,              // Tamaño del contenido en bytes.
+        @NotNull String fileContentType      // Tipo de contenido del archivo (por ejemplo, "image/jpeg").
+) {
+}
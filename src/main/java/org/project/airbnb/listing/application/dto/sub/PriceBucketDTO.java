@@ -0,0 +1,10 @@
+package org.project.airbnb.listing.application.dto.sub;
+
+/**
+ * DTO para un tramo del histograma de precios por noche [min, max).
+ */
+public record PriceBucketDTO(
+        int min, // Precio mínimo por noche del tramo, incluido
+        Integer max, // Precio máximo por noche del tramo, excluido; nulo en el último tramo, que no tiene límite
+        long count) { // Número de listados del tramo
+}
@@ -0,0 +1,22 @@
+package org.project.airbnb.listing.application.dto.sub;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+
+/**
+ * DTO para un intervalo de precios por noche [min, max]. Un límite nulo no restringe la búsqueda.
+ */
+public record PriceRangeDTO(
+        @Min(0) Integer min, // Precio mínimo por noche, opcional
+        @Min(0) Integer max) { // Precio máximo por noche, opcional
+
+    /**
+     * Comprueba que el intervalo no está invertido; con un límite nulo siempre es válido.
+     *
+     * @return true si min no es mayor que max.
+     */
+    @AssertTrue(message = "min must not be greater than max")
+    public boolean isOrdered() {
+        return min == null || max == null || min <= max;
+    }
+}
@@ -0,0 +1,12 @@
+package org.project.airbnb.listing.application.dto.sub;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO con la imagen que se sirve para una petición: la variante solicitada o, si todavía no se ha generado, el original.
+ */
+public record ServedPictureDTO(
+        @NotNull PictureFileDTO file,        // Metadatos del contenido que se sirve.
+        boolean pendingVariant               // true si se pidió una variante que aún no existe y se sirve el original.
+) {
+}
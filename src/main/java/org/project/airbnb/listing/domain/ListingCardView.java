@@ -0,0 +1,35 @@
+package org.project.airbnb.listing.domain;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * ListingCardView es una proyección de un listado con únicamente las columnas necesarias para
+ * mostrarlo en una tarjeta, junto con la referencia a su imagen de portada.
+ */
+public record ListingCardView(
+        // El identificador interno del listado.
+        Long id,
+
+        // El identificador público del listado.
+        UUID publicId,
+
+        // El precio por noche del listado.
+        int price,
+
+        // La ubicación del listado.
+        String location,
+
+        // La categoría de reserva del listado.
+        BookingCategory bookingCategory,
+
+        // El número de dormitorios del listado, con el que se calculan las facetas de una búsqueda de una sola página.
+        int bedrooms,
+
+        // El identificador de la imagen de portada; nulo en las consultas que admiten listados sin portada.
+        Long coverId,
+
+        // La fecha de creación del listado, usada como posición en la paginación por cursor.
+        Instant createdDate
+) {
+}
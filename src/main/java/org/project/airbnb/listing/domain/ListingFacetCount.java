@@ -0,0 +1,20 @@
+package org.project.airbnb.listing.domain;
+
+/**
+ * ListingFacetCount es una fila de la agregación de facetas: el número de listados que comparten
+ * categoría de reserva, tramo de precio y número de dormitorios.
+ */
+public record ListingFacetCount(
+        // La categoría de reserva de los listados.
+        BookingCategory bookingCategory,
+
+        // El tramo de precio: el precio por noche dividido (división entera) por el ancho de tramo.
+        int priceBucket,
+
+        // El número de dormitorios de los listados.
+        int bedrooms,
+
+        // El número de listados del grupo.
+        long count
+) {
+}
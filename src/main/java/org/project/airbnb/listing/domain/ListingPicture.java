@@ -4,7 +4,6 @@ import org.project.airbnb.listing.domain.Listing;
 import org.project.airbnb.sharedkernel.domain.AbstractAuditingEntity;
 import jakarta.persistence.*;
 
-import java.util.Arrays;
 import java.util.Objects;
 
 
@@ -17,17 +16,19 @@ public class ListingPicture extends AbstractAuditingEntity<Long> {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "listingPictureSequenceGenerator")
-    @SequenceGenerator(name = "listingPictureSequenceGenerator", sequenceName = "listing_picture_generator", allocationSize = 1)
+    @SequenceGenerator(name = "listingPictureSequenceGenerator", sequenceName = "listing_picture_generator", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "listing_fk", referencedColumnName = "id")
     private Listing listing;
 
-    @Lob
-    @Column(name = "file", nullable = false)
-    private byte[] file;
+    @Column(name = "file_hash")
+    private String fileHash;
+
+    @Column(name = "file_size")
+    private Long fileSize;
 
     @Column(name = "file_content_type")
     private String fileContentType;
@@ -52,12 +53,20 @@ public class ListingPicture extends AbstractAuditingEntity<Long> {
         this.listing = listing;
     }
 
-    public byte[] getFile() {
-        return file;
+    public String getFileHash() {
+        return fileHash;
+    }
+
+    public void setFileHash(String fileHash) {
+        this.fileHash = fileHash;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
     }
 
-    public void setFile(byte[] file) {
-        this.file = file;
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
     }
 
     public String getFileContentType() {
@@ -81,18 +90,19 @@ public class ListingPicture extends AbstractAuditingEntity<Long> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ListingPicture that = (ListingPicture) o;
-        return isCover == that.isCover && Objects.deepEquals(file, that.file) && Objects.equals(fileContentType, that.fileContentType);
+        return isCover == that.isCover && Objects.equals(fileHash, that.fileHash) && Objects.equals(fileContentType, that.fileContentType);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(Arrays.hashCode(file), fileContentType, isCover);
+        return Objects.hash(fileHash, fileContentType, isCover);
     }
 
     @Override
     public String toString() {
         return "ListingPicture{" +
-                "file=" + Arrays.toString(file) +
+                "fileHash='" + fileHash + '\'' +
+                ", fileSize=" + fileSize +
                 ", fileContentType='" + fileContentType + '\'' +
                 ", isCover=" + isCover +
                 '}';
@@ -0,0 +1,132 @@
+package org.project.airbnb.listing.domain;
+
+import jakarta.persistence.*;
+import org.project.airbnb.sharedkernel.domain.AbstractAuditingEntity;
+
+import java.util.Objects;
+
+/**
+ * Entidad que representa una variante redimensionada y recodificada de una imagen de un listado.
+ */
+@Entity
+@Table(name = "listing_picture_variant")
+public class ListingPictureVariant extends AbstractAuditingEntity<Long> {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "listingPictureVariantSequenceGenerator")
+    @SequenceGenerator(name = "listingPictureVariantSequenceGenerator", sequenceName = "listing_picture_variant_generator", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "picture_fk")
+    private Long pictureId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "variant")
+    private PictureVariant variant;
+
+    @Column(name = "file_hash")
+    private String fileHash;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "file_content_type")
+    private String fileContentType;
+
+    @Column(name = "width")
+    private int width;
+
+    @Column(name = "height")
+    private int height;
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getPictureId() {
+        return pictureId;
+    }
+
+    public void setPictureId(Long pictureId) {
+        this.pictureId = pictureId;
+    }
+
+    public PictureVariant getVariant() {
+        return variant;
+    }
+
+    public void setVariant(PictureVariant variant) {
+        this.variant = variant;
+    }
+
+    public String getFileHash() {
+        return fileHash;
+    }
+
+    public void setFileHash(String fileHash) {
+        this.fileHash = fileHash;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public String getFileContentType() {
+        return fileContentType;
+    }
+
+    public void setFileContentType(String fileContentType) {
+        this.fileContentType = fileContentType;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public void setHeight(int height) {
+        this.height = height;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ListingPictureVariant that = (ListingPictureVariant) o;
+        return Objects.equals(pictureId, that.pictureId) && variant == that.variant;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(pictureId, variant);
+    }
+
+    @Override
+    public String toString() {
+        return "ListingPictureVariant{" +
+                "pictureId=" + pictureId +
+                ", variant=" + variant +
+                ", fileHash='" + fileHash + '\'' +
+                ", fileSize=" + fileSize +
+                ", width=" + width +
+                ", height=" + height +
+                '}';
+    }
+}
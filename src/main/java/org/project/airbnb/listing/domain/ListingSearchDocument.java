@@ -0,0 +1,40 @@
+package org.project.airbnb.listing.domain;
+
+/**
+ * ListingSearchDocument es una proyección de un listado con las columnas que se indexan en la búsqueda de texto
+ * y los atributos por los que se pueden filtrar sus resultados.
+ */
+public record ListingSearchDocument(
+        // El identificador interno del listado.
+        Long id,
+
+        // El título del listado.
+        String title,
+
+        // La descripción del listado.
+        String description,
+
+        // La ubicación del listado.
+        String location,
+
+        // El número máximo de huéspedes.
+        int guests,
+
+        // El número de dormitorios.
+        int bedrooms,
+
+        // El precio por noche del listado.
+        int price
+) {
+
+    /**
+     * Crea el documento de búsqueda de un listado.
+     *
+     * @param listing el listado
+     * @return el documento con sus columnas indexadas
+     */
+    public static ListingSearchDocument of(Listing listing) {
+        return new ListingSearchDocument(listing.getId(), listing.getTitle(), listing.getDescription(),
+                listing.getLocation(), listing.getGuests(), listing.getBedrooms(), listing.getPrice());
+    }
+}
@@ -0,0 +1,26 @@
+package org.project.airbnb.listing.domain;
+
+/**
+ * PictureFileView es una proyección de los metadatos de una imagen junto con los de una de sus variantes,
+ * obtenidos en una única consulta. Las columnas de la variante son nulas mientras no se ha generado.
+ */
+public record PictureFileView(
+        // El hash SHA-256 del contenido de la imagen original.
+        String fileHash,
+
+        // El tamaño en bytes de la imagen original.
+        Long fileSize,
+
+        // El tipo de contenido de la imagen original.
+        String fileContentType,
+
+        // El hash SHA-256 del contenido de la variante; nulo si no se ha generado o no se pidió ninguna.
+        String variantFileHash,
+
+        // El tamaño en bytes de la variante.
+        Long variantFileSize,
+
+        // El tipo de contenido de la variante.
+        String variantFileContentType
+) {
+}
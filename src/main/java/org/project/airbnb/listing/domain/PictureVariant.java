@@ -0,0 +1,36 @@
+package org.project.airbnb.listing.domain;
+
+/**
+ * Enum que representa las variantes redimensionadas que se generan para cada imagen de un listado.
+ * Cada variante limita el lado mayor de la imagen; las imágenes más pequeñas no se amplían.
+ */
+public enum PictureVariant {
+    // Miniatura usada en las tarjetas de la cuadrícula de listados y de reservas
+    CARD(480),
+
+    // Imagen usada en la galería de la página de detalle del listado
+    GALLERY(1280),
+
+    // Imagen a tamaño completo, acotada para no servir el archivo original subido
+    FULL(2560);
+
+    /**
+     * Tipo de contenido con el que se codifican todas las variantes.
+     */
+    public static final String CONTENT_TYPE = "image/jpeg";
+
+    private final int maxDimension;
+
+    PictureVariant(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    /**
+     * Obtiene el tamaño máximo, en píxeles, del lado mayor de la variante.
+     *
+     * @return el tamaño máximo del lado mayor.
+     */
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+}
@@ -3,6 +3,7 @@ package org.project.airbnb.listing.mapper;
 import org.project.airbnb.listing.application.dto.*;
 import org.project.airbnb.listing.application.dto.vo.PriceVO;
 import org.project.airbnb.listing.domain.Listing;
+import org.project.airbnb.listing.domain.ListingCardView;
 import org.project.airbnb.listing.mapper.ListingPictureMapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -48,24 +49,22 @@ public interface ListingMapper {
     CreatedListingDTO listingToCreatedListingDTO(Listing listing);
 
     /**
-     * Convierte una lista de entidades `Listing` a una lista de `DisplayCardListingDTO`.
-     * Mapea la propiedad `cover` de cada DTO usando el conjunto de imágenes.
+     * Convierte una lista de proyecciones `ListingCardView` a una lista de `DisplayCardListingDTO`.
      *
-     * @param listings Lista de entidades `Listing` para convertir.
+     * @param cards Lista de proyecciones de tarjetas para convertir.
      * @return Lista de DTOs de tarjetas de visualización.
      */
-    @Mapping(target = "cover", source = "pictures")
-    List<DisplayCardListingDTO> listingToDisplayCardListingDTOs(List<Listing> listings);
+    List<DisplayCardListingDTO> listingCardViewsToDisplayCardListingDTOs(List<ListingCardView> cards);
 
     /**
-     * Convierte una entidad `Listing` a un `DisplayCardListingDTO`.
-     * Mapea la propiedad `cover` usando el nombre calificado `extract-cover`.
+     * Convierte una proyección `ListingCardView` a un `DisplayCardListingDTO`.
+     * Mapea la propiedad `cover` usando el nombre calificado `card-cover`.
      *
-     * @param listing Entidad `Listing` para convertir.
+     * @param card Proyección de la tarjeta para convertir.
      * @return DTO de tarjeta de visualización.
      */
-    @Mapping(target = "cover", source = "pictures", qualifiedByName = "extract-cover")
-    DisplayCardListingDTO listingToDisplayCardListingDTO(Listing listing);
+    @Mapping(target = "cover", source = "card", qualifiedByName = "card-cover")
+    DisplayCardListingDTO listingCardViewToDisplayCardListingDTO(ListingCardView card);
 
     /**
      * Convierte un valor de precio entero a un `PriceVO`.
@@ -1,13 +1,16 @@
 package org.project.airbnb.listing.mapper;
 
+import org.project.airbnb.listing.application.dto.sub.DisplayPictureDTO;
 import org.project.airbnb.listing.application.dto.sub.PictureDTO;
+import org.project.airbnb.listing.application.dto.sub.PictureFileDTO;
+import org.project.airbnb.listing.domain.ListingCardView;
 import org.project.airbnb.listing.domain.ListingPicture;
+import org.project.airbnb.listing.domain.PictureVariant;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
 
 import java.util.List;
-import java.util.Set;
 
 /**
  * Mapper para convertir entre `ListingPicture` y `PictureDTO`.
@@ -16,12 +19,14 @@ import java.util.Set;
 public interface ListingPictureMapper {
 
     /**
-     * Convierte una lista de `PictureDTO` a un conjunto de `ListingPicture`.
-     *
-     * @param pictureDTOs Lista de DTOs de imagen para convertir.
-     * @return Conjunto de entidades `ListingPicture`.
+     * Ruta base desde la que se sirven las imágenes (ver `PictureResource`).
      */
-    Set<ListingPicture> pictureDTOsToListingPictures(List<PictureDTO> pictureDTOs);
+    String PICTURE_PATH = "/api/picture/";
+
+    /**
+     * Parámetro de consulta con el que se pide una variante redimensionada de la imagen.
+     */
+    String VARIANT_PARAM = "?variant=";
 
     /**
      * Convierte un `PictureDTO` a una entidad `ListingPicture`.
@@ -39,32 +44,38 @@ public interface ListingPictureMapper {
     ListingPicture pictureDTOToListingPicture(PictureDTO pictureDTO);
 
     /**
-     * Convierte una lista de entidades `ListingPicture` a una lista de `PictureDTO`.
+     * Convierte una lista de entidades `ListingPicture` a una lista de `PictureFileDTO`.
      *
      * @param listingPictures Lista de entidades `ListingPicture` para convertir.
-     * @return Lista de DTOs de imagen.
+     * @return Lista de DTOs con los metadatos de cada imagen.
      */
-    List<PictureDTO> listingPictureToPictureDTO(List<ListingPicture> listingPictures);
+    List<PictureFileDTO> listingPicturesToPictureFileDTOs(List<ListingPicture> listingPictures);
 
     /**
-     * Convierte una entidad `ListingPicture` a un `PictureDTO`.
-     * Mapea el campo `cover` a `isCover`.
+     * Convierte una entidad `ListingPicture` a un `DisplayPictureDTO` con la URL de descarga y el tipo de contenido
+     * de la variante de galería de la imagen, sin incluir su contenido.
      *
      * @param listingPicture Entidad `ListingPicture` para convertir.
-     * @return DTO de imagen.
+     * @return DTO con la referencia a la imagen.
      */
-    @Mapping(target = "isCover", source = "cover")
-    PictureDTO convertToPictureDTO(ListingPicture listingPicture);
+    default DisplayPictureDTO convertToDisplayPictureDTO(ListingPicture listingPicture) {
+        return new DisplayPictureDTO(PICTURE_PATH + listingPicture.getId() + VARIANT_PARAM + PictureVariant.GALLERY,
+                PictureVariant.CONTENT_TYPE, listingPicture.isCover());
+    }
 
     /**
-     * Extrae la imagen de portada del conjunto de `ListingPicture`.
-     * Utiliza el método `convertToPictureDTO` para la conversión.
+     * Obtiene la referencia a la miniatura de la portada de una tarjeta de listado.
+     * Las portadas solo se muestran en tarjetas, por lo que apuntan a la variante `CARD`.
      *
-     * @param pictures Conjunto de entidades `ListingPicture`.
-     * @return DTO de la imagen de portada.
+     * @param card Proyección de la tarjeta del listado.
+     * @return DTO con la referencia a la miniatura de la imagen de portada, o null si el listado no tiene portada.
      */
-    @Named("extract-cover")
-    default PictureDTO extractCover(Set<ListingPicture> pictures) {
-        return pictures.stream().findFirst().map(this::convertToPictureDTO).orElseThrow();
+    @Named("card-cover")
+    default DisplayPictureDTO extractCardCover(ListingCardView card) {
+        if (card.coverId() == null) {
+            return null;
+        }
+        return new DisplayPictureDTO(PICTURE_PATH + card.coverId() + VARIANT_PARAM + PictureVariant.CARD,
+                PictureVariant.CONTENT_TYPE, true);
     }
 }
@@ -3,6 +3,7 @@ package org.project.airbnb.listing.presentation;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.project.airbnb.infrastructure.config.SecurityUtils;
 import org.project.airbnb.listing.application.LandlordService;
+import org.project.airbnb.listing.application.PictureService;
 import org.project.airbnb.listing.application.dto.CreatedListingDTO;
 import org.project.airbnb.listing.application.dto.DisplayCardListingDTO;
 import org.project.airbnb.listing.application.dto.SaveListingDTO;
@@ -24,10 +25,11 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -40,6 +42,7 @@ public class LandlordResource {
     private final LandlordService landlordService;
     private final Validator validator;
     private final UserService userService;
+    private final PictureService pictureService;
     private ObjectMapper objectMapper = new ObjectMapper();
 
     /**
@@ -48,16 +51,21 @@ public class LandlordResource {
      * @param landlordService Servicio para manejar la lógica de negocios de los anuncios.
      * @param validator       Validador para validar DTOs.
      * @param userService     Servicio para manejar la lógica relacionada con los usuarios.
+     * @param pictureService  Servicio para guardar las imágenes subidas.
      */
-    public LandlordResource(LandlordService landlordService, Validator validator, UserService userService) {
+    public LandlordResource(LandlordService landlordService, Validator validator, UserService userService,
+                            PictureService pictureService) {
         this.landlordService = landlordService;
         this.validator = validator;
         this.userService = userService;
+        this.pictureService = pictureService;
     }
 
     /**
      * Crea un nuevo anuncio a partir de los datos proporcionados.
      * Se espera que la solicitud contenga un archivo y un JSON para el DTO del anuncio.
+     * El DTO se valida antes de escribir ningún archivo; si después se rechaza una imagen o falla la creación
+     * del anuncio, se eliminan del almacenamiento las imágenes ya guardadas para no dejar archivos huérfanos.
      *
      * @param request                Solicitud multipart que contiene archivos.
      * @param saveListingDTOString   JSON del DTO del anuncio.
@@ -69,18 +77,12 @@ public class LandlordResource {
             MultipartHttpServletRequest request,
             @RequestPart(name = "dto") String saveListingDTOString
     ) throws IOException {
-        // Convierte los archivos en PictureDTO
-        List<PictureDTO> pictures = request.getFileMap()
-                .values()
-                .stream()
-                .map(mapMultipartFileToPictureDTO())
-                .toList();
-
         // Convierte el JSON del DTO a un objeto SaveListingDTO
         SaveListingDTO saveListingDTO = objectMapper.readValue(saveListingDTOString, SaveListingDTO.class);
-        saveListingDTO.setPictures(pictures);
 
-        // Valida el DTO
+        // Valida el DTO antes de guardar las imágenes, que todavía no forman parte de él
+        List<PictureDTO> pictures = new ArrayList<>();
+        saveListingDTO.setPictures(pictures);
         Set<ConstraintViolation<SaveListingDTO>> violations = validator.validate(saveListingDTO);
         if (!violations.isEmpty()) {
             // Construye un detalle del problema con las violaciones de validación
@@ -90,25 +92,44 @@ public class LandlordResource {
 
             ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, violationsJoined);
             return ResponseEntity.of(problemDetail).build();
-        } else {
-            // Llama al servicio para crear el anuncio y retorna el resultado
-            return ResponseEntity.ok(landlordService.create(saveListingDTO));
+        }
+
+        try {
+            // Guarda el contenido de cada archivo en el almacenamiento y obtiene su PictureDTO
+            for (MultipartFile multipartFile : request.getFileMap().values()) {
+                State<PictureDTO, String> pictureState = storePicture(multipartFile);
+                if (pictureState.getStatus().equals(StatusNotification.ERROR)) {
+                    pictureService.discard(pictures);
+                    ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, pictureState.getError());
+                    return ResponseEntity.of(problemDetail).build();
+                }
+                pictures.add(pictureState.getValue());
+            }
+
+            // Llama al servicio para crear el anuncio; una vez confirmado, sus imágenes dejan de estar en curso
+            CreatedListingDTO createdListing = landlordService.create(saveListingDTO);
+            pictureService.release(pictures);
+            return ResponseEntity.ok(createdListing);
+        } catch (RuntimeException e) {
+            // La transacción de creación ya se ha revertido: ninguna imagen nueva quedó referenciada
+            pictureService.discard(pictures);
+            throw e;
         }
     }
 
     /**
-     * Función para convertir un archivo multipart en un DTO de imagen.
+     * Guarda el contenido de un archivo multipart en el almacenamiento de imágenes.
+     * El contenido se lee como un flujo con un búfer acotado, sin cargar el archivo completo en memoria.
      *
-     * @return Función que mapea MultipartFile a PictureDTO.
+     * @param multipartFile Archivo subido.
+     * @return Estado con el DTO de la imagen guardada, o error si el archivo no es una imagen admitida.
      */
-    private static Function<MultipartFile, PictureDTO> mapMultipartFileToPictureDTO() {
-        return multipartFile -> {
-            try {
-                return new PictureDTO(multipartFile.getBytes(), multipartFile.getContentType(), false);
-            } catch (IOException ioe) {
-                throw new UserException(String.format("Cannot parse multipart file: %s", multipartFile.getOriginalFilename()));
-            }
-        };
+    private State<PictureDTO, String> storePicture(MultipartFile multipartFile) {
+        try (InputStream content = multipartFile.getInputStream()) {
+            return pictureService.store(content, multipartFile.getOriginalFilename());
+        } catch (IOException ioe) {
+            throw new UserException(String.format("Cannot parse multipart file: %s", multipartFile.getOriginalFilename()));
+        }
     }
 
     /**
@@ -0,0 +1,136 @@
+package org.project.airbnb.listing.presentation;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.project.airbnb.listing.application.PictureService;
+import org.project.airbnb.listing.application.dto.sub.PictureFileDTO;
+import org.project.airbnb.listing.application.dto.sub.ServedPictureDTO;
+import org.project.airbnb.listing.domain.PictureVariant;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controlador REST que sirve el contenido binario de las imágenes de los anuncios.
+ * Las imágenes no se modifican nunca una vez creadas, por lo que se sirven con un ETag fuerte
+ * (el hash de su contenido) y se pueden cachear indefinidamente. Las peticiones con cabecera Range
+ * reciben respuestas parciales.
+ * <p>
+ * Con el parámetro {@code variant} se pide una versión redimensionada de la imagen. Mientras esa
+ * variante no se ha generado se sirve el original, con una caché corta para que el cliente obtenga
+ * la variante en cuanto esté disponible.
+ * <p>
+ * Cuando el conector de Tomcat lo admite, el archivo se entrega mediante sendfile: el controlador
+ * solo escribe las cabeceras y el núcleo copia el archivo directamente al socket, sin pasar los
+ * bytes por la JVM.
+ * <p>
+ * El tamaño de cada imagen servida se publica en la distribución {@code airbnb.picture.served}, cuyo total
+ * son los bytes de imagen servidos.
+ */
+@RestController
+@RequestMapping("/api/picture")
+public class PictureResource {
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    private static final CacheControl PENDING_VARIANT = CacheControl.maxAge(1, TimeUnit.MINUTES).cachePublic();
+
+    // Atributos de petición con los que Tomcat negocia el envío mediante sendfile
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final PictureService pictureService;
+    private final DistributionSummary servedBytes;
+
+    /**
+     * Constructor para inicializar el recurso con el servicio necesario.
+     *
+     * @param pictureService Servicio para manejar la lógica de negocios de las imágenes.
+     * @param meterRegistry  Registro de la métrica de bytes servidos.
+     */
+    public PictureResource(PictureService pictureService, MeterRegistry meterRegistry) {
+        this.pictureService = pictureService;
+        this.servedBytes = DistributionSummary.builder("airbnb.picture.served")
+                .description("Size of the pictures served")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Obtiene el contenido de una imagen por su identificador.
+     *
+     * @param id         Identificador de la imagen.
+     * @param variant    Variante redimensionada solicitada; si no se indica se sirve la imagen original.
+     * @param webRequest Petición actual, usada para resolver las peticiones condicionales.
+     * @param request    Petición HTTP, usada para delegar el envío del archivo en el contenedor.
+     * @return Respuesta HTTP con el contenido de la imagen, 304 si el cliente ya la tiene o 404 si no existe.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Resource> getPicture(@PathVariable Long id,
+                                               @RequestParam(required = false) PictureVariant variant,
+                                               WebRequest webRequest, HttpServletRequest request) {
+        Optional<ServedPictureDTO> servedPicture = pictureService.getPictureFile(id, variant);
+        if (servedPicture.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        PictureFileDTO picture = servedPicture.get().file();
+        CacheControl cacheControl = servedPicture.get().pendingVariant() ? PENDING_VARIANT : IMMUTABLE;
+        String eTag = "\"" + picture.fileHash() + "\"";
+        // Responde 304 sin leer el archivo si el cliente ya tiene esta versión
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        Optional<Resource> content = pictureService.loadContent(picture.fileHash());
+        if (content.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Las respuestas parciales se registran con el tamaño completo de la imagen
+        servedBytes.record(picture.fileSize());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(picture.fileContentType()))
+                .eTag(eTag)
+                .cacheControl(cacheControl);
+
+        Optional<File> sendfile = sendfileCandidate(request, content.get());
+        if (sendfile.isPresent()) {
+            request.setAttribute(SENDFILE_FILENAME, sendfile.get().getAbsolutePath());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, picture.fileSize());
+            return response.contentLength(picture.fileSize()).build();
+        }
+        return response.body(content.get());
+    }
+
+    /**
+     * Determina si la respuesta completa se puede delegar en el sendfile del contenedor.
+     * Las peticiones parciales se dejan a Spring, que resuelve los rangos sobre el recurso.
+     */
+    private static Optional<File> sendfileCandidate(HttpServletRequest request, Resource content) {
+        if (!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))
+                || request.getHeader(HttpHeaders.RANGE) != null
+                || !content.isFile()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(content.getFile());
+        } catch (IOException ioe) {
+            return Optional.empty();
+        }
+    }
+}
@@ -4,12 +4,16 @@ import jakarta.validation.Valid;
 import org.project.airbnb.listing.application.TenantService;
 import org.project.airbnb.listing.application.dto.DisplayCardListingDTO;
 import org.project.airbnb.listing.application.dto.DisplayListingDTO;
+import org.project.airbnb.listing.application.dto.ListingFacetsDTO;
 import org.project.airbnb.listing.application.dto.SearchDTO;
+import org.project.airbnb.listing.application.dto.TextSearchDTO;
 import org.project.airbnb.listing.domain.BookingCategory;
+import org.project.airbnb.sharedkernel.service.CursorPageDTO;
 import org.project.airbnb.sharedkernel.service.State;
 import org.project.airbnb.sharedkernel.service.StatusNotification;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
@@ -49,6 +53,42 @@ public class TenantResource {
         return ResponseEntity.ok(tenantService.getAllByCategory(pageable, category));
     }
 
+    /**
+     * Obtiene los anuncios de una categoría de reserva con paginación por cursor, del más reciente al más antiguo.
+     * A diferencia de {@link #findAllByBookingCategory}, el coste de cada página no depende de su profundidad
+     * y la respuesta no incluye el total de elementos.
+     *
+     * @param category Categoría de reserva para filtrar los anuncios.
+     * @param cursor   Cursor devuelto por la página anterior; se omite para pedir la primera página.
+     * @param size     Número de anuncios por página.
+     * @return Respuesta HTTP con la página de anuncios o un detalle del problema si el cursor o el tamaño no son válidos.
+     */
+    @GetMapping("/get-all-by-category-cursor")
+    public ResponseEntity<CursorPageDTO<DisplayCardListingDTO>> findAllByBookingCategoryWithCursor(
+            @RequestParam BookingCategory category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        State<CursorPageDTO<DisplayCardListingDTO>, String> pageState = tenantService.getAllByCategory(category, cursor, size);
+        if (pageState.getStatus().equals(StatusNotification.OK)) {
+            return ResponseEntity.ok(pageState.getValue());
+        } else {
+            ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, pageState.getError());
+            return ResponseEntity.of(problemDetail).build();
+        }
+    }
+
+    /**
+     * Obtiene los recuentos de anuncios por categoría, tramo de precio y número de dormitorios de la navegación
+     * por categorías. Los recuentos por categoría cubren todo el catálogo; los demás se limitan a la categoría.
+     *
+     * @param category Categoría de reserva seleccionada.
+     * @return Respuesta HTTP con las facetas.
+     */
+    @GetMapping("/get-facets-by-category")
+    public ResponseEntity<ListingFacetsDTO> getFacetsByCategory(@RequestParam BookingCategory category) {
+        return ResponseEntity.ok(tenantService.getFacetsByCategory(category));
+    }
+
     /**
      * Obtiene un anuncio específico por su ID público.
      *
@@ -81,4 +121,30 @@ public class TenantResource {
         // Realiza la búsqueda y retorna el resultado
         return ResponseEntity.ok(tenantService.search(pageable, searchDTO));
     }
+
+    /**
+     * Obtiene los recuentos por categoría, tramo de precio y número de dormitorios de los anuncios que
+     * coinciden con los criterios de búsqueda, para mostrarlos junto a los resultados de {@link #search}.
+     *
+     * @param searchDTO DTO que contiene los criterios de búsqueda.
+     * @return Respuesta HTTP con las facetas de la búsqueda.
+     */
+    @PostMapping("/search-facets")
+    public ResponseEntity<ListingFacetsDTO> searchFacets(@Valid @RequestBody SearchDTO searchDTO) {
+        return ResponseEntity.ok(tenantService.searchFacets(searchDTO));
+    }
+
+    /**
+     * Realiza una búsqueda de texto de anuncios, ordenada por relevancia, con filtros opcionales de huéspedes,
+     * dormitorios y precio. Tolera prefijos y pequeños errores tipográficos.
+     *
+     * @param pageable      Paginación; la ordenación se ignora.
+     * @param textSearchDTO DTO que contiene el texto y los filtros de la búsqueda.
+     * @return Respuesta HTTP con una porción de DTOs de anuncios, del más relevante al menos relevante.
+     */
+    @PostMapping("/search-text")
+    public ResponseEntity<Slice<DisplayCardListingDTO>> searchText(Pageable pageable,
+                                                                   @Valid @RequestBody TextSearchDTO textSearchDTO) {
+        return ResponseEntity.ok(tenantService.searchText(pageable, textSearchDTO));
+    }
 }
@@ -0,0 +1,52 @@
+package org.project.airbnb.listing.repository;
+
+import org.project.airbnb.listing.domain.Listing;
+import org.project.airbnb.listing.domain.ListingCardView;
+import org.project.airbnb.listing.domain.ListingFacetCount;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Fragmento de {@link ListingRepository} para las búsquedas de tarjetas y los recuentos de facetas con criterios variables.
+ */
+public interface ListingCardSearchRepository {
+
+    /**
+     * Pagina las tarjetas de las propiedades con portada que cumplen la especificación.
+     * Las columnas de la tarjeta, la portada y los filtros se resuelven en una única consulta; el total se
+     * obtiene con una consulta de conteo con los mismos filtros, solo cuando la página no basta para deducirlo.
+     *
+     * @param specification Criterios de búsqueda, por ejemplo los de {@link ListingSpecifications}.
+     * @param pageable Información de paginación y ordenación.
+     * @return Página de tarjetas de las propiedades que cumplen los criterios.
+     */
+    Page<ListingCardView> findAllCards(Specification<Listing> specification, Pageable pageable);
+
+    /**
+     * Pagina las tarjetas de las propiedades con portada que cumplen la especificación, obteniendo el total
+     * con la función indicada en lugar de con la consulta de conteo. Permite reutilizar una consulta que el
+     * llamador necesita de todos modos, como la agregación de facetas de la búsqueda.
+     *
+     * @param specification Criterios de búsqueda, por ejemplo los de {@link ListingSpecifications}.
+     * @param pageable Información de paginación y ordenación.
+     * @param total Cálculo del número total de propiedades que cumplen la especificación; solo se invoca
+     *              cuando la página no basta para deducirlo.
+     * @return Página de tarjetas de las propiedades que cumplen los criterios.
+     */
+    Page<ListingCardView> findAllCards(Specification<Listing> specification, Pageable pageable, LongSupplier total);
+
+    /**
+     * Cuenta, en una única consulta agrupada, las propiedades con portada que cumplen la especificación
+     * por categoría de reserva, tramo de precio y número de dormitorios. Cada faceta se obtiene sumando las
+     * filas sobre las otras dos dimensiones.
+     *
+     * @param specification    Criterios de búsqueda, por ejemplo los de {@link ListingSpecifications}.
+     * @param priceBucketWidth Ancho de los tramos de precio por noche.
+     * @return Una fila por cada combinación con al menos una propiedad.
+     */
+    List<ListingFacetCount> countFacets(Specification<Listing> specification, int priceBucketWidth);
+}
@@ -0,0 +1,100 @@
+package org.project.airbnb.listing.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.project.airbnb.listing.domain.Listing;
+import org.project.airbnb.listing.domain.BookingCategory;
+import org.project.airbnb.listing.domain.ListingCardView;
+import org.project.airbnb.listing.domain.ListingFacetCount;
+import org.project.airbnb.listing.domain.ListingPicture;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Implementación de {@link ListingCardSearchRepository} con la API Criteria de JPA.
+ * Construye la misma proyección que {@link ListingRepository#CARD_SELECT} con los filtros de la especificación.
+ */
+class ListingCardSearchRepositoryImpl implements ListingCardSearchRepository {
+
+    private final EntityManager entityManager;
+
+    ListingCardSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<ListingCardView> findAllCards(Specification<Listing> specification, Pageable pageable) {
+        return findAllCards(specification, pageable, () -> count(specification));
+    }
+
+    @Override
+    public Page<ListingCardView> findAllCards(Specification<Listing> specification, Pageable pageable, LongSupplier total) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<ListingCardView> query = criteriaBuilder.createQuery(ListingCardView.class);
+        Root<Listing> listing = query.from(Listing.class);
+        Join<Listing, ListingPicture> picture = listing.join("pictures");
+        query.select(criteriaBuilder.construct(ListingCardView.class,
+                        listing.get("id"), listing.get("publicId"), listing.get("price"), listing.get("location"),
+                        listing.get("bookingCategory"), listing.get("bedrooms"), picture.get("id"),
+                        listing.get("createdDate")))
+                .where(coverAnd(specification, listing, picture, query, criteriaBuilder))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), listing, criteriaBuilder));
+        TypedQuery<ListingCardView> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<ListingCardView> cards = typedQuery.getResultList();
+
+        return PageableExecutionUtils.getPage(cards, pageable, total);
+    }
+
+    private long count(Specification<Listing> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Listing> listing = query.from(Listing.class);
+        Join<Listing, ListingPicture> picture = listing.join("pictures");
+        query.select(criteriaBuilder.count(listing))
+                .where(coverAnd(specification, listing, picture, query, criteriaBuilder));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public List<ListingFacetCount> countFacets(Specification<Listing> specification, int priceBucketWidth) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = criteriaBuilder.createQuery(Object[].class);
+        Root<Listing> listing = query.from(Listing.class);
+        Join<Listing, ListingPicture> picture = listing.join("pictures");
+        // El ancho va como literal y no como parámetro para que la expresión del SELECT y la del GROUP BY coincidan
+        Expression<Number> priceBucket = criteriaBuilder.quot(listing.get("price"), criteriaBuilder.literal(priceBucketWidth));
+        query.multiselect(listing.get("bookingCategory"), priceBucket, listing.get("bedrooms"), criteriaBuilder.count(listing))
+                .where(coverAnd(specification, listing, picture, query, criteriaBuilder))
+                .groupBy(listing.get("bookingCategory"), priceBucket, listing.get("bedrooms"));
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(row -> new ListingFacetCount((BookingCategory) row[0], ((Number) row[1]).intValue(),
+                        ((Number) row[2]).intValue(), ((Number) row[3]).longValue()))
+                .toList();
+    }
+
+    // Restringe a la imagen de portada y a la especificación; una especificación vacía no añade ningún predicado
+    private static Predicate coverAnd(Specification<Listing> specification, Root<Listing> listing,
+                                      Join<Listing, ListingPicture> picture, CriteriaQuery<?> query,
+                                      CriteriaBuilder criteriaBuilder) {
+        Predicate cover = criteriaBuilder.isTrue(picture.get("isCover"));
+        Predicate filters = specification.toPredicate(listing, query, criteriaBuilder);
+        return filters == null ? cover : criteriaBuilder.and(cover, filters);
+    }
+}
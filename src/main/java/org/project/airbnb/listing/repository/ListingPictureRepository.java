@@ -1,13 +1,61 @@
 package org.project.airbnb.listing.repository;
 
 import org.project.airbnb.listing.domain.ListingPicture;
+import org.project.airbnb.listing.domain.PictureFileView;
+import org.project.airbnb.listing.domain.PictureVariant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * Repositorio para gestionar las operaciones CRUD sobre entidades de tipo ListingPicture.
  * Extiende JpaRepository para proporcionar métodos de acceso a la base de datos.
  */
 public interface ListingPictureRepository extends JpaRepository<ListingPicture, Long> {
-    // JpaRepository ya proporciona los métodos básicos para operaciones CRUD y paginación.
-    // No es necesario definir métodos adicionales a menos que se requiera funcionalidad específica.
+
+    /**
+     * De los contenidos del almacenamiento indicados, obtiene los que todavía referencia alguna imagen o variante guardada.
+     *
+     * @param fileHashes los hashes SHA-256 de los contenidos.
+     * @return los hashes que siguen referenciados.
+     */
+    @Query("SELECT picture.fileHash FROM ListingPicture picture WHERE picture.fileHash IN :fileHashes" +
+            " UNION SELECT variant.fileHash FROM ListingPictureVariant variant WHERE variant.fileHash IN :fileHashes")
+    Set<String> findReferencedFileHashes(Collection<String> fileHashes);
+
+    /**
+     * Obtiene los hashes del contenido de las imágenes de un listado y de sus variantes.
+     * Se utiliza antes de eliminar el listado para poder borrar después su contenido del almacenamiento.
+     *
+     * @param listingPublicId el identificador público del listado.
+     * @param landlordPublicId el identificador público del arrendador propietario.
+     * @return los hashes del contenido de las imágenes y variantes del listado.
+     */
+    @Query("SELECT picture.fileHash FROM ListingPicture picture" +
+            " WHERE picture.listing.publicId = :listingPublicId AND picture.listing.landlordPublicId = :landlordPublicId" +
+            " AND picture.fileHash IS NOT NULL" +
+            " UNION SELECT variant.fileHash FROM ListingPictureVariant variant JOIN ListingPicture picture" +
+            " ON variant.pictureId = picture.id" +
+            " WHERE picture.listing.publicId = :listingPublicId AND picture.listing.landlordPublicId = :landlordPublicId")
+    List<String> findAllFileHashesByListing(UUID listingPublicId, UUID landlordPublicId);
+
+    /**
+     * Obtiene los metadatos de una imagen y, en la misma consulta, los de una de sus variantes si ya se ha generado.
+     *
+     * @param id      el identificador de la imagen.
+     * @param variant la variante buscada, o null para obtener solo la imagen original.
+     * @return los metadatos, o vacío si la imagen no existe.
+     */
+    @Query("SELECT new org.project.airbnb.listing.domain.PictureFileView(" +
+            "picture.fileHash, picture.fileSize, picture.fileContentType," +
+            " variant.fileHash, variant.fileSize, variant.fileContentType)" +
+            " FROM ListingPicture picture LEFT JOIN ListingPictureVariant variant" +
+            " ON variant.pictureId = picture.id AND variant.variant = :variant" +
+            " WHERE picture.id = :id")
+    Optional<PictureFileView> findFileWithVariant(Long id, PictureVariant variant);
 }
@@ -0,0 +1,23 @@
+package org.project.airbnb.listing.repository;
+
+import org.project.airbnb.listing.domain.ListingPictureVariant;
+import org.project.airbnb.listing.domain.PictureVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+/**
+ * Repositorio para gestionar las variantes redimensionadas de las imágenes de los listados.
+ */
+public interface ListingPictureVariantRepository extends JpaRepository<ListingPictureVariant, Long> {
+
+    /**
+     * Indica si una imagen ya tiene generada una variante concreta.
+     *
+     * @param pictureId el identificador de la imagen original.
+     * @param variant la variante buscada.
+     * @return true si la variante existe, false en caso contrario.
+     */
+    boolean existsByPictureIdAndVariant(Long pictureId, PictureVariant variant);
+
+}
@@ -1,61 +1,166 @@
 package org.project.airbnb.listing.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.project.airbnb.listing.domain.Listing;
+import org.project.airbnb.listing.domain.ListingCardView;
 import org.project.airbnb.listing.domain.BookingCategory;
+import org.project.airbnb.listing.domain.ListingSearchDocument;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para gestionar las operaciones CRUD sobre entidades de tipo Listing.
- * Extiende JpaRepository para proporcionar métodos de acceso a la base de datos.
+ * Extiende JpaRepository para proporcionar métodos de acceso a la base de datos y
+ * {@link ListingCardSearchRepository} para las búsquedas con criterios variables.
  */
-public interface ListingRepository extends JpaRepository<Listing, Long> {
+public interface ListingRepository extends JpaRepository<Listing, Long>, ListingCardSearchRepository {
 
     /**
-     * Encuentra todas las propiedades de un arrendador específico y recupera solo las imágenes de portada.
+     * Columnas de las consultas de tarjetas: solo las de la tarjeta y la referencia a la portada.
+     */
+    String CARD_COLUMNS = "SELECT new org.project.airbnb.listing.domain.ListingCardView(" +
+            "listing.id, listing.publicId, listing.price, listing.location, listing.bookingCategory," +
+            " listing.bedrooms, picture.id, listing.createdDate)";
+
+    /**
+     * Selección de las tarjetas del catálogo público. Solo se publican los listados con imagen de portada,
+     * por lo que la unión con la portada descarta los que no la tienen.
+     */
+    String CARD_SELECT = CARD_COLUMNS +
+            " FROM Listing listing JOIN listing.pictures picture WHERE picture.isCover = true";
+
+    /**
+     * Selección de las tarjetas de un listado concreto, para su arrendador o para las reservas que lo referencian.
+     * Un listado sin portada también se devuelve, con la portada vacía; las consultas añaden su condición con WHERE.
+     */
+    String CARD_WITH_OPTIONAL_COVER_SELECT = CARD_COLUMNS +
+            " FROM Listing listing LEFT JOIN listing.pictures picture ON picture.isCover = true";
+
+    /**
+     * Filtro de los listados que tienen imagen de portada, para las consultas que solo leen la tabla listing.
+     */
+    String HAS_COVER = "EXISTS (SELECT picture.id FROM ListingPicture picture" +
+            " WHERE picture.listing = listing AND picture.isCover = true)";
+
+    /**
+     * Encuentra las tarjetas de todas las propiedades de un arrendador específico.
      *
      * @param landlordPublicId Identificador público del arrendador.
-     * @return Lista de propiedades con la imagen de portada cargada.
+     * @return Lista de tarjetas de las propiedades.
      */
-    @Query("SELECT listing FROM Listing listing LEFT JOIN FETCH listing.pictures picture" +
-            " WHERE listing.landlordPublicId = :landlordPublicId AND picture.isCover = true")
-    List<Listing> findAllByLandlordPublicIdFetchCoverPicture(UUID landlordPublicId);
+    @Query(CARD_WITH_OPTIONAL_COVER_SELECT + " WHERE listing.landlordPublicId = :landlordPublicId")
+    List<ListingCardView> findAllCardsByLandlordPublicId(UUID landlordPublicId);
 
     /**
      * Elimina una propiedad basada en su identificador público y el identificador del arrendador.
      *
      * @param publicId Identificador público de la propiedad.
      * @param landlordPublicId Identificador público del arrendador.
-     * @return Número de entidades eliminadas.
+     * @return Propiedades eliminadas.
      */
-    long deleteByPublicIdAndLandlordPublicId(UUID publicId, UUID landlordPublicId);
+    List<Listing> deleteByPublicIdAndLandlordPublicId(UUID publicId, UUID landlordPublicId);
 
     /**
-     * Encuentra todas las propiedades por categoría de reserva y recupera solo las imágenes de portada.
+     * Pagina los identificadores de las propiedades con portada de una categoría de reserva.
+     * Es la primera fase de la navegación por categorías: el orden, el LIMIT y el OFFSET se aplican en la
+     * base de datos sobre la tabla listing, sin unir ni cargar las imágenes.
      *
      * @param pageable Información de paginación.
      * @param bookingCategory Categoría de reserva.
-     * @return Página de propiedades con imagen de portada.
+     * @return Página de identificadores de propiedades.
      */
-    @Query("SELECT listing from Listing listing LEFT JOIN FETCH listing.pictures picture" +
-            " WHERE picture.isCover = true AND listing.bookingCategory = :bookingCategory")
-    Page<Listing> findAllByBookingCategoryWithCoverOnly(Pageable pageable, BookingCategory bookingCategory);
+    @Query(value = "SELECT listing.id FROM Listing listing" +
+            " WHERE listing.bookingCategory = :bookingCategory AND " + HAS_COVER,
+            countQuery = "SELECT count(listing) FROM Listing listing" +
+                    " WHERE listing.bookingCategory = :bookingCategory AND " + HAS_COVER)
+    Page<Long> findAllIdsByBookingCategory(Pageable pageable, BookingCategory bookingCategory);
 
     /**
-     * Encuentra todas las propiedades y recupera solo las imágenes de portada.
+     * Pagina los identificadores de todas las propiedades con portada.
+     * Es la primera fase de la navegación por categorías (ver {@link #findAllIdsByBookingCategory}).
      *
      * @param pageable Información de paginación.
-     * @return Página de propiedades con imagen de portada.
+     * @return Página de identificadores de propiedades.
+     */
+    @Query(value = "SELECT listing.id FROM Listing listing WHERE " + HAS_COVER,
+            countQuery = "SELECT count(listing) FROM Listing listing WHERE " + HAS_COVER)
+    Page<Long> findAllIds(Pageable pageable);
+
+    /**
+     * Orden de la paginación por cursor: más recientes primero, desempatando por identificador.
+     */
+    String NEWEST_FIRST = " ORDER BY listing.createdDate DESC, listing.id DESC";
+
+    /**
+     * Condición de la paginación por cursor: elementos posteriores, en el orden {@link #NEWEST_FIRST}, al cursor dado.
+     * La comparación de tuplas permite a PostgreSQL continuar el recorrido del índice justo tras el cursor.
+     */
+    String OLDER_THAN_CURSOR = " AND (listing.createdDate, listing.id) < (:createdDate, :id)";
+
+    /**
+     * Obtiene la primera página de tarjetas de todas las propiedades para la paginación por cursor.
+     *
+     * @param limit Número máximo de tarjetas.
+     * @return Tarjetas ordenadas de más reciente a más antigua.
+     */
+    @Query(CARD_SELECT + NEWEST_FIRST)
+    List<ListingCardView> findCardsNewestFirst(Limit limit);
+
+    /**
+     * Obtiene las tarjetas de todas las propiedades que siguen al cursor indicado.
+     *
+     * @param createdDate Fecha de creación del cursor.
+     * @param id Identificador del cursor.
+     * @param limit Número máximo de tarjetas.
+     * @return Tarjetas ordenadas de más reciente a más antigua.
+     */
+    @Query(CARD_SELECT + OLDER_THAN_CURSOR + NEWEST_FIRST)
+    List<ListingCardView> findCardsNewestFirstAfter(Instant createdDate, Long id, Limit limit);
+
+    /**
+     * Obtiene la primera página de tarjetas de una categoría de reserva para la paginación por cursor.
+     *
+     * @param bookingCategory Categoría de reserva.
+     * @param limit Número máximo de tarjetas.
+     * @return Tarjetas ordenadas de más reciente a más antigua.
+     */
+    @Query(CARD_SELECT + " AND listing.bookingCategory = :bookingCategory" + NEWEST_FIRST)
+    List<ListingCardView> findCardsByBookingCategoryNewestFirst(BookingCategory bookingCategory, Limit limit);
+
+    /**
+     * Obtiene las tarjetas de una categoría de reserva que siguen al cursor indicado.
+     *
+     * @param bookingCategory Categoría de reserva.
+     * @param createdDate Fecha de creación del cursor.
+     * @param id Identificador del cursor.
+     * @param limit Número máximo de tarjetas.
+     * @return Tarjetas ordenadas de más reciente a más antigua.
      */
-    @Query("SELECT listing from Listing listing LEFT JOIN FETCH listing.pictures picture" +
-            " WHERE picture.isCover = true")
-    Page<Listing> findAllWithCoverOnly(Pageable pageable);
+    @Query(CARD_SELECT + " AND listing.bookingCategory = :bookingCategory" + OLDER_THAN_CURSOR + NEWEST_FIRST)
+    List<ListingCardView> findCardsByBookingCategoryNewestFirstAfter(BookingCategory bookingCategory,
+                                                                     Instant createdDate, Long id, Limit limit);
+
+    /**
+     * Encuentra las tarjetas de las propiedades con los identificadores indicados.
+     * Es la segunda fase de la navegación por categorías; el resultado no sigue ningún orden concreto.
+     *
+     * @param ids Identificadores de las propiedades.
+     * @return Lista de tarjetas de propiedades.
+     */
+    @Query(CARD_SELECT + " AND listing.id IN :ids")
+    List<ListingCardView> findAllCardsByIdIn(List<Long> ids);
 
     /**
      * Encuentra una propiedad por su identificador público.
@@ -66,34 +171,44 @@ public interface ListingRepository extends JpaRepository<Listing, Long> {
     Optional<Listing> findByPublicId(UUID publicId);
 
     /**
-     * Encuentra todas las propiedades cuyos identificadores públicos están en la lista proporcionada.
+     * Encuentra una propiedad por su identificador público junto con sus imágenes, en una sola consulta.
+     *
+     * @param publicId Identificador público de la propiedad.
+     * @return Propiedad con sus imágenes si se encuentra, vacío si no.
+     */
+    @EntityGraph(attributePaths = "pictures")
+    Optional<Listing> findWithPicturesByPublicId(UUID publicId);
+
+    /**
+     * Encuentra las tarjetas de las propiedades cuyos identificadores públicos están en la lista proporcionada.
      *
      * @param allListingPublicIDs Lista de identificadores públicos de las propiedades.
-     * @return Lista de propiedades.
+     * @return Lista de tarjetas de propiedades.
      */
-    List<Listing> findAllByPublicIdIn(List<UUID> allListingPublicIDs);
+    @Query(CARD_WITH_OPTIONAL_COVER_SELECT + " WHERE listing.publicId IN :allListingPublicIDs")
+    List<ListingCardView> findAllCardsByPublicIdIn(List<UUID> allListingPublicIDs);
 
     /**
-     * Encuentra una propiedad por su identificador público y el identificador del arrendador.
+     * Encuentra la tarjeta de una propiedad por su identificador público y el identificador del arrendador.
      *
      * @param listingPublicId Identificador público de la propiedad.
      * @param landlordPublicId Identificador público del arrendador.
-     * @return Propiedad si se encuentra, vacío si no.
+     * @return Tarjeta de la propiedad si se encuentra, vacío si no.
      */
-    Optional<Listing> findOneByPublicIdAndLandlordPublicId(UUID listingPublicId, UUID landlordPublicId);
+    @Query(CARD_WITH_OPTIONAL_COVER_SELECT +
+            " WHERE listing.publicId = :listingPublicId AND listing.landlordPublicId = :landlordPublicId")
+    Optional<ListingCardView> findCardByPublicIdAndLandlordPublicId(UUID listingPublicId, UUID landlordPublicId);
 
     /**
-     * Encuentra todas las propiedades que coinciden con los criterios de búsqueda especificados.
+     * Recorre los documentos de búsqueda de todas las propiedades con portada, para cargar el índice de búsqueda de texto.
+     * Las filas se leen por lotes con un cursor de servidor, por lo que debe consumirse dentro de una transacción
+     * y cerrarse al terminar.
      *
-     * @param pageable Información de paginación.
-     * @param location Ubicación de la propiedad.
-     * @param bathrooms Número de baños.
-     * @param bedrooms Número de dormitorios.
-     * @param guests Número de huéspedes.
-     * @param beds Número de camas.
-     * @return Página de propiedades que coinciden con los criterios.
-     */
-    Page<Listing> findAllByLocationAndBathroomsAndBedroomsAndGuestsAndBeds(
-            Pageable pageable, String location, int bathrooms, int bedrooms, int guests, int beds
-    );
+     * @return Flujo de documentos de búsqueda, ordenado por identificador.
+     */
+    @Query("SELECT new org.project.airbnb.listing.domain.ListingSearchDocument(" +
+            "listing.id, listing.title, listing.description, listing.location, listing.guests, listing.bedrooms, listing.price)" +
+            " FROM Listing listing WHERE " + HAS_COVER + " ORDER BY listing.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    Stream<ListingSearchDocument> streamAllSearchDocuments();
 }
@@ -0,0 +1,119 @@
+package org.project.airbnb.listing.repository;
+
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.project.airbnb.booking.domain.Booking;
+import org.project.airbnb.listing.domain.Listing;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criterios de búsqueda de listados, expresados como especificaciones de la API Criteria de JPA.
+ * Se combinan con {@link Specification#allOf} y se ejecutan en una sola consulta con
+ * {@link ListingCardSearchRepository#findAllCards}.
+ * <p>
+ * Los criterios de ubicación, capacidad y precio se resuelven con el índice idx_listing_search_filters.
+ */
+public final class ListingSpecifications {
+
+    private ListingSpecifications() {
+    }
+
+    /**
+     * Listados de una ubicación.
+     *
+     * @param location la ubicación exacta
+     * @return la especificación
+     */
+    public static Specification<Listing> locatedIn(String location) {
+        return (listing, query, criteriaBuilder) -> criteriaBuilder.equal(listing.get("location"), location);
+    }
+
+    /**
+     * Listados que admiten al menos el número de huéspedes indicado.
+     *
+     * @param guests el número mínimo de huéspedes
+     * @return la especificación
+     */
+    public static Specification<Listing> withAtLeastGuests(int guests) {
+        return atLeast("guests", guests);
+    }
+
+    /**
+     * Listados con al menos el número de dormitorios indicado.
+     *
+     * @param bedrooms el número mínimo de dormitorios
+     * @return la especificación
+     */
+    public static Specification<Listing> withAtLeastBedrooms(int bedrooms) {
+        return atLeast("bedrooms", bedrooms);
+    }
+
+    /**
+     * Listados con al menos el número de camas indicado.
+     *
+     * @param beds el número mínimo de camas
+     * @return la especificación
+     */
+    public static Specification<Listing> withAtLeastBeds(int beds) {
+        return atLeast("beds", beds);
+    }
+
+    /**
+     * Listados con al menos el número de baños indicado.
+     *
+     * @param bathrooms el número mínimo de baños
+     * @return la especificación
+     */
+    public static Specification<Listing> withAtLeastBathrooms(int bathrooms) {
+        return atLeast("bathrooms", bathrooms);
+    }
+
+    /**
+     * Listados cuyo precio por noche está en el intervalo [minPrice, maxPrice]. Un límite nulo no restringe.
+     *
+     * @param minPrice el precio mínimo, o null
+     * @param maxPrice el precio máximo, o null
+     * @return la especificación
+     */
+    public static Specification<Listing> pricedBetween(Integer minPrice, Integer maxPrice) {
+        return (listing, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>(2);
+            if (minPrice != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(listing.get("price"), minPrice));
+            }
+            if (maxPrice != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(listing.get("price"), maxPrice));
+            }
+            return criteriaBuilder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Listados sin ninguna reserva que se solape con el intervalo [startDate, endDate) (anti-join NOT EXISTS,
+     * resuelto con el índice idx_booking_listing_dates).
+     *
+     * @param startDate la fecha de inicio de la estancia
+     * @param endDate   la fecha de fin de la estancia
+     * @return la especificación
+     */
+    public static Specification<Listing> availableBetween(OffsetDateTime startDate, OffsetDateTime endDate) {
+        return (listing, query, criteriaBuilder) -> {
+            Subquery<Long> overlapping = query.subquery(Long.class);
+            Root<Booking> booking = overlapping.from(Booking.class);
+            overlapping.select(booking.get("id")).where(
+                    criteriaBuilder.equal(booking.get("fkListing"), listing.get("publicId")),
+                    criteriaBuilder.greaterThan(booking.get("endDate"), startDate),
+                    criteriaBuilder.lessThan(booking.get("startDate"), endDate));
+            return criteriaBuilder.not(criteriaBuilder.exists(overlapping));
+        };
+    }
+
+    private static Specification<Listing> atLeast(String attribute, int minimum) {
+        return (listing, query, criteriaBuilder) -> criteriaBuilder.greaterThanOrEqualTo(listing.get(attribute), minimum);
+    }
+}
@@ -0,0 +1,15 @@
+package org.project.airbnb.sharedkernel.service;
+
+import java.util.List;
+
+/**
+ * Página de una paginación por cursor. A diferencia de {@code Page}, no incluye el total de elementos,
+ * por lo que obtenerla no requiere ninguna consulta de conteo.
+ *
+ * @param content    Elementos de la página.
+ * @param nextCursor Cursor para pedir la página siguiente, o null si no hay más elementos.
+ * @param hasNext    Indica si existe una página siguiente.
+ * @param <T>        Tipo de los elementos.
+ */
+public record CursorPageDTO<T>(List<T> content, String nextCursor, boolean hasNext) {
+}
@@ -0,0 +1,51 @@
+package org.project.airbnb.sharedkernel.service;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Posición de una paginación por clave (keyset) ordenada por un instante y un identificador: los valores
+ * de ambos en el último elemento devuelto. Se intercambia con el cliente como un texto opaco en base64url.
+ *
+ * @param instant Instante por el que se ordena (p. ej. la fecha de creación) del último elemento de la página.
+ * @param id      Identificador del último elemento de la página, que desempata elementos con el mismo instante.
+ */
+public record KeysetCursor(Instant instant, long id) {
+
+    private static final int ENCODED_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    /**
+     * Codifica el cursor como texto opaco.
+     *
+     * @return El cursor codificado en base64url sin relleno.
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES)
+                .putLong(instant.getEpochSecond())
+                .putInt(instant.getNano())
+                .putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente.
+     *
+     * @param encoded Cursor codificado.
+     * @return El cursor, o vacío si el texto no es un cursor válido.
+     */
+    public static Optional<KeysetCursor> decode(String encoded) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(encoded);
+            if (bytes.length != ENCODED_BYTES) {
+                return Optional.empty();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            Instant instant = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+            return Optional.of(new KeysetCursor(instant, buffer.getLong()));
+        } catch (IllegalArgumentException | java.time.DateTimeException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -3,88 +3,148 @@ package org.project.airbnb.user.application;
 import com.auth0.client.auth.AuthAPI;
 import com.auth0.client.mgmt.ManagementAPI;
 import com.auth0.client.mgmt.filter.FieldsFilter;
+import com.auth0.exception.APIException;
 import com.auth0.exception.Auth0Exception;
 import com.auth0.json.auth.TokenHolder;
 import com.auth0.json.mgmt.users.User;
 import com.auth0.net.Response;
-import com.auth0.net.TokenRequest;
+import com.auth0.net.client.Auth0HttpClient;
+import com.auth0.net.client.DefaultHttpClient;
 import org.project.airbnb.infrastructure.config.SecurityUtils;
 import org.project.airbnb.user.application.dto.ReadUserDTO;
+import org.project.airbnb.user.repository.RoleAssignmentRepository;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class Auth0Service {
 
-    @Value("${okta.oauth2.client-id}")
-    private String clientId; // ID del cliente para autenticación en Auth0
+    // Margen con el que se renueva el token de la Management API antes de que caduque
+    private static final Duration TOKEN_EXPIRY_MARGIN = Duration.ofMinutes(1);
 
-    @Value("${okta.oauth2.client-secret}")
-    private String clientSecret; // Secreto del cliente para autenticación en Auth0
+    private final String domain; // Dominio de Auth0
+    private final String roleLandlordId; // ID del rol de "landlord" en Auth0
+    private final RoleAssignmentRepository roleAssignmentRepository;
 
-    @Value("${okta.oauth2.issuer}")
-    private String domain; // Dominio de Auth0
+    // Cliente HTTP compartido por la Authentication API y la Management API
+    private final Auth0HttpClient httpClient = DefaultHttpClient.newBuilder().build();
+    private final AuthAPI authAPI;
 
-    @Value("${application.auth0.role-landlord-id}")
-    private String roleLandlordId; // ID del rol de "landlord" en Auth0
+    // Cliente de la Management API y caducidad de su token, protegidos por tokenLock
+    private final Lock tokenLock = new ReentrantLock();
+    private ManagementAPI managementAPI;
+    private Instant tokenRenewAt = Instant.MIN;
 
     /**
-     * Asigna el rol de "landlord" al usuario si aún no lo tiene.
+     * Constructor que inicializa el servicio con las credenciales de Auth0.
+     *
+     * @param clientId                 ID del cliente para autenticación en Auth0.
+     * @param clientSecret             Secreto del cliente para autenticación en Auth0.
+     * @param domain                   Dominio de Auth0.
+     * @param roleLandlordId           ID del rol de "landlord" en Auth0.
+     * @param roleAssignmentRepository Repositorio de la bandeja de salida de asignaciones de rol.
+     */
+    public Auth0Service(@Value("${okta.oauth2.client-id}") String clientId,
+                        @Value("${okta.oauth2.client-secret}") String clientSecret,
+                        @Value("${okta.oauth2.issuer}") String domain,
+                        @Value("${application.auth0.role-landlord-id}") String roleLandlordId,
+                        RoleAssignmentRepository roleAssignmentRepository) {
+        this.domain = domain;
+        this.roleLandlordId = roleLandlordId;
+        this.roleAssignmentRepository = roleAssignmentRepository;
+        this.authAPI = AuthAPI.newBuilder(domain, clientId)
+                .withClientSecret(clientSecret)
+                .withHttpClient(httpClient)
+                .build();
+    }
+
+    /**
+     * Solicita la asignación del rol de "landlord" al usuario si aún no lo tiene.
+     * La asignación se registra en la bandeja de salida dentro de la transacción en curso y
+     * {@link RoleAssignmentWorker} la envía a Auth0 en segundo plano, reintentando si falla.
      *
      * @param readUserDTO DTO que representa al usuario.
      */
     public void addLandlordRoleToUser(ReadUserDTO readUserDTO) {
-        // Verifica si el usuario ya tiene el rol de landlord
+        // Si el usuario aún no tiene el rol de landlord, registra la asignación salvo que ya haya una pendiente
         if (readUserDTO.authorities().stream().noneMatch(role -> role.equals(SecurityUtils.ROLE_LANDLORD))) {
-            try {
-                // Obtiene el token de acceso para interactuar con la API de Auth0
-                String accessToken = this.getAccessToken();
-                // Asigna el rol de landlord al usuario
-                assignRoleById(accessToken, readUserDTO.email(), readUserDTO.publicId(), roleLandlordId);
-            } catch (Auth0Exception a) {
-                // Lanza una excepción si no se puede asignar el rol
-                throw new UserException(String.format("not possible to assign %s to %s", roleLandlordId, readUserDTO.publicId()));
-            }
+            roleAssignmentRepository.insertPendingIfAbsent(readUserDTO.publicId(), readUserDTO.email(), roleLandlordId,
+                    Instant.now());
         }
     }
 
     /**
-     * Asigna un rol a un usuario en Auth0 mediante su ID.
+     * Asigna un rol a un usuario en Auth0 buscándolo por su correo electrónico.
      *
-     * @param accessToken   Token de acceso para autenticar la solicitud.
-     * @param email         Correo electrónico del usuario.
-     * @param publicId      ID público del usuario.
-     * @param roleIdToAdd   ID del rol a asignar.
+     * @param email       Correo electrónico del usuario.
+     * @param publicId    ID público del usuario.
+     * @param roleIdToAdd ID del rol a asignar.
      * @throws Auth0Exception Si ocurre un error al interactuar con Auth0.
      */
-    private void assignRoleById(String accessToken, String email, UUID publicId, String roleIdToAdd) throws Auth0Exception {
-        // Crea una instancia de ManagementAPI con el token de acceso
-        ManagementAPI mgmt = ManagementAPI.newBuilder(domain, accessToken).build();
-        // Obtiene el usuario por su correo electrónico
-        Response<List<User>> auth0userByEmail = mgmt.users().listByEmail(email, new FieldsFilter()).execute();
-        // Encuentra el usuario correspondiente al ID público
-        User user = auth0userByEmail.getBody()
-                .stream().findFirst()
-                .orElseThrow(() -> new UserException(String.format("Cannot find user with public id %s", publicId)));
-        // Asigna el rol al usuario
-        mgmt.roles().assignUsers(roleIdToAdd, List.of(user.getId())).execute();
+    public void assignRoleByEmail(String email, UUID publicId, String roleIdToAdd) throws Auth0Exception {
+        ManagementAPI mgmt = getManagementAPI();
+        try {
+            // Obtiene el usuario por su correo electrónico
+            Response<List<User>> auth0userByEmail = mgmt.users().listByEmail(email, new FieldsFilter()).execute();
+            // Encuentra el usuario correspondiente al ID público
+            User user = auth0userByEmail.getBody()
+                    .stream().findFirst()
+                    .orElseThrow(() -> new UserException(String.format("Cannot find user with public id %s", publicId)));
+            // Asigna el rol al usuario
+            mgmt.roles().assignUsers(roleIdToAdd, List.of(user.getId())).execute();
+        } catch (APIException e) {
+            if (e.getStatusCode() == HttpStatus.UNAUTHORIZED.value()) {
+                // El token fue revocado o rechazado: se solicitará uno nuevo en el siguiente intento
+                expireToken();
+            }
+            throw e;
+        }
     }
 
     /**
-     * Obtiene un token de acceso para interactuar con la API de Auth0.
+     * Obtiene el cliente compartido de la Management API con un token vigente.
+     * El token se solicita solo cuando no existe o está a punto de caducar; el cerrojo garantiza
+     * que los hilos concurrentes no soliciten varios tokens a la vez.
      *
-     * @return Token de acceso.
+     * @return Cliente de la Management API.
      * @throws Auth0Exception Si ocurre un error al obtener el token.
      */
-    private String getAccessToken() throws Auth0Exception {
-        // Crea una instancia de AuthAPI con las credenciales del cliente
-        AuthAPI authAPI = AuthAPI.newBuilder(domain, clientId, clientSecret).build();
-        // Solicita un token de acceso
-        TokenRequest tokenRequest = authAPI.requestToken(domain + "api/v2/");
-        TokenHolder holder = tokenRequest.execute().getBody();
-        return holder.getAccessToken();
+    private ManagementAPI getManagementAPI() throws Auth0Exception {
+        tokenLock.lock();
+        try {
+            if (managementAPI == null || !Instant.now().isBefore(tokenRenewAt)) {
+                // Solicita un token de acceso para la Management API
+                TokenHolder holder = authAPI.requestToken(domain + "api/v2/").execute().getBody();
+                tokenRenewAt = Instant.now().plusSeconds(holder.getExpiresIn()).minus(TOKEN_EXPIRY_MARGIN);
+                if (managementAPI == null) {
+                    managementAPI = ManagementAPI.newBuilder(domain, holder.getAccessToken())
+                            .withHttpClient(httpClient)
+                            .build();
+                } else {
+                    managementAPI.setApiToken(holder.getAccessToken());
+                }
+            }
+            return managementAPI;
+        } finally {
+            tokenLock.unlock();
+        }
+    }
+
+    // Fuerza la renovación del token en la siguiente llamada
+    private void expireToken() {
+        tokenLock.lock();
+        try {
+            tokenRenewAt = Instant.MIN;
+        } finally {
+            tokenLock.unlock();
+        }
     }
 }
@@ -0,0 +1,92 @@
+package org.project.airbnb.user.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.project.airbnb.user.application.dto.ReadUserDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Caché del usuario autenticado, en dos niveles:
+ * <ul>
+ *     <li>Por petición: el usuario resuelto se guarda como atributo de la petición HTTP, de modo que las
+ *     distintas capas que lo piden durante una misma petición reciben la misma instancia.</li>
+ *     <li>Entre peticiones: una caché Caffeine acotada y con caducidad, indexada por el correo del
+ *     usuario (el identificador con el que se busca en la base de datos).</li>
+ * </ul>
+ * La sincronización con el proveedor de identidad invalida la entrada del usuario.
+ * Las métricas de la caché se publican con el nombre {@value #CACHE_NAME}.
+ */
+@Component
+public class AuthenticatedUserCache implements MeterBinder {
+
+    static final String CACHE_NAME = "user.authenticated";
+
+    private static final String REQUEST_ATTRIBUTE = AuthenticatedUserCache.class.getName() + ".user";
+
+    private final Cache<String, ReadUserDTO> cache;
+
+    // Constructor para la inyección de la configuración
+    public AuthenticatedUserCache(@Value("${application.authenticated-user-cache.ttl:5m}") Duration ttl,
+                                  @Value("${application.authenticated-user-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Obtiene el usuario con el correo indicado, buscándolo con el cargador solo si no está en caché.
+     *
+     * @param email  Correo electrónico del usuario.
+     * @param loader Búsqueda del usuario en la base de datos.
+     * @return DTO del usuario.
+     * @throws NoSuchElementException si el usuario no existe.
+     */
+    public ReadUserDTO get(String email, Function<String, Optional<ReadUserDTO>> loader) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null
+                && request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof ReadUserDTO user
+                && user.email().equals(email)) {
+            return user;
+        }
+
+        ReadUserDTO user = cache.get(email, key -> loader.apply(key).orElse(null));
+        if (user == null) {
+            throw new NoSuchElementException("No user found for email: " + email);
+        }
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    /**
+     * Elimina el usuario de la caché, tanto de la petición en curso como entre peticiones.
+     *
+     * @param email Correo electrónico del usuario.
+     */
+    public void invalidate(String email) {
+        cache.invalidate(email);
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.removeAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+}
@@ -0,0 +1,126 @@
+package org.project.airbnb.user.application;
+
+import com.auth0.exception.Auth0Exception;
+import org.project.airbnb.user.domain.RoleAssignment;
+import org.project.airbnb.user.repository.RoleAssignmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Proceso en segundo plano que envía a Auth0 las asignaciones de rol de la bandeja de salida.
+ * <p>
+ * Las asignaciones completadas se eliminan; las fallidas se reintentan con espera exponencial
+ * hasta agotar el número máximo de intentos, momento en el que quedan marcadas como fallidas.
+ * <p>
+ * Ninguna transacción queda abierta durante las llamadas a Auth0: las asignaciones se reclaman en una
+ * transacción corta que aplaza su siguiente intento el tiempo de la concesión (lease), de modo que otras
+ * instancias no las toman mientras tanto, y cada una se elimina o se reprograma después en su propia
+ * transacción. Si la instancia se detiene a mitad, la concesión vence y otra instancia la reintenta.
+ */
+@Component
+public class RoleAssignmentWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(RoleAssignmentWorker.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final RoleAssignmentRepository roleAssignmentRepository;
+    private final Auth0Service auth0Service;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    // Constructor para la inyección de dependencias
+    public RoleAssignmentWorker(RoleAssignmentRepository roleAssignmentRepository, Auth0Service auth0Service,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${application.auth0.role-assignment.batch-size:20}") int batchSize,
+                                @Value("${application.auth0.role-assignment.max-attempts:10}") int maxAttempts,
+                                @Value("${application.auth0.role-assignment.initial-backoff:10s}") Duration initialBackoff,
+                                @Value("${application.auth0.role-assignment.max-backoff:1h}") Duration maxBackoff,
+                                @Value("${application.auth0.role-assignment.lease:5m}") Duration lease) {
+        this.roleAssignmentRepository = roleAssignmentRepository;
+        this.auth0Service = auth0Service;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+    }
+
+    // Procesa las asignaciones pendientes cuyo siguiente intento ya ha llegado
+    @Scheduled(fixedDelayString = "${application.auth0.role-assignment.poll-interval-ms:5000}")
+    public void processDueAssignments() {
+        Instant now = Instant.now();
+        for (RoleAssignment roleAssignment : claimDue(now)) {
+            process(roleAssignment, now);
+        }
+    }
+
+    // Reclama las asignaciones pendientes: las bloquea, aplaza su siguiente intento hasta el fin de la concesión y confirma
+    private List<RoleAssignment> claimDue(Instant now) {
+        return transactionTemplate.execute(status -> {
+            List<RoleAssignment> due = roleAssignmentRepository.lockDue(now, batchSize);
+            due.forEach(roleAssignment -> roleAssignment.setNextAttemptAt(now.plus(lease)));
+            return due;
+        });
+    }
+
+    // Envía la asignación a Auth0 sin transacción abierta y registra el resultado en una transacción propia
+    private void process(RoleAssignment roleAssignment, Instant now) {
+        Exception failure = null;
+        try {
+            auth0Service.assignRoleByEmail(roleAssignment.getEmail(), roleAssignment.getUserPublicId(),
+                    roleAssignment.getRoleId());
+        } catch (Auth0Exception | RuntimeException e) {
+            failure = e;
+        }
+        try {
+            if (failure == null) {
+                transactionTemplate.executeWithoutResult(status -> roleAssignmentRepository.delete(roleAssignment));
+            } else {
+                recordFailure(roleAssignment, failure, now);
+                transactionTemplate.executeWithoutResult(status -> roleAssignmentRepository.save(roleAssignment));
+            }
+        } catch (RuntimeException e) {
+            // La concesión vencerá y la asignación se reintentará; asignar un rol dos veces en Auth0 no tiene efecto
+            log.warn("Cannot record the result of assigning role {} to user {}",
+                    roleAssignment.getRoleId(), roleAssignment.getUserPublicId(), e);
+        }
+    }
+
+    // Registra el fallo y programa el siguiente intento, o marca la asignación como fallida
+    private void recordFailure(RoleAssignment roleAssignment, Exception e, Instant now) {
+        String error = String.valueOf(e.getMessage());
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        int failures = roleAssignment.getAttempts() + 1;
+        if (failures >= maxAttempts) {
+            roleAssignment.recordFailure(error, null);
+            log.error("Giving up assigning role {} to user {} after {} attempts",
+                    roleAssignment.getRoleId(), roleAssignment.getUserPublicId(), roleAssignment.getAttempts(), e);
+        } else {
+            roleAssignment.recordFailure(error, now.plus(backoff(failures)));
+            log.warn("Cannot assign role {} to user {}, retrying at {}",
+                    roleAssignment.getRoleId(), roleAssignment.getUserPublicId(), roleAssignment.getNextAttemptAt(), e);
+        }
+    }
+
+    // Espera exponencial tras el fallo número n: initialBackoff, 2 x initialBackoff, 4 x initialBackoff... hasta maxBackoff
+    Duration backoff(int failures) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(Math.max(failures - 1, 0), 30));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
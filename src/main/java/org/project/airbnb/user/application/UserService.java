@@ -7,6 +7,7 @@ import org.project.airbnb.user.mapper.UserMapper;
 import org.project.airbnb.user.repository.UserRepository;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,28 +22,36 @@ public class UserService {
     private static final String UPDATED_AT_KEY = "updated_at";
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final AuthenticatedUserCache authenticatedUserCache;
 
     /**
      * Constructor que inicializa el servicio de usuario con el repositorio y el mapper.
      *
      * @param userRepository Repositorio para operaciones con la entidad User.
      * @param userMapper Mapper para convertir entre entidades User y DTOs.
+     * @param authenticatedUserCache Caché del usuario autenticado.
      */
-    public UserService(UserRepository userRepository, UserMapper userMapper) {
+    public UserService(UserRepository userRepository, UserMapper userMapper, AuthenticatedUserCache authenticatedUserCache) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
 
     /**
      * Obtiene el usuario autenticado desde el contexto de seguridad.
+     * El usuario se resuelve una sola vez por petición y se mantiene en caché entre peticiones
+     * hasta que caduca o se sincroniza con el proveedor de identidad.
+     * Admite tanto la sesión del inicio de sesión OAuth2 como un token JWT de portador.
      *
      * @return DTO del usuario autenticado.
      */
-    @Transactional(readOnly = true)
     public ReadUserDTO getAuthenticatedUserFromSecurityContext() {
-        OAuth2User principal = (OAuth2User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        User user = SecurityUtils.mapOauth2AttributesToUser(principal.getAttributes());
-        return getByEmail(user.getEmail()).orElseThrow();
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        Map<String, Object> attributes = principal instanceof Jwt jwt
+                ? jwt.getClaims()
+                : ((OAuth2User) principal).getAttributes();
+        User user = SecurityUtils.mapOauth2AttributesToUser(attributes);
+        return authenticatedUserCache.get(user.getEmail(), this::getByEmail);
     }
 
     /**
@@ -83,6 +92,8 @@ public class UserService {
         } else {
             userRepository.saveAndFlush(user);
         }
+        // La próxima lectura del usuario autenticado refleja los datos sincronizados
+        authenticatedUserCache.invalidate(user.getEmail());
     }
 
     /**
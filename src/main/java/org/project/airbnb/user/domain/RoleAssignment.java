@@ -0,0 +1,150 @@
+package org.project.airbnb.user.domain;
+
+import jakarta.persistence.*;
+import org.project.airbnb.sharedkernel.domain.AbstractAuditingEntity;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Entidad de la bandeja de salida (outbox) de asignaciones de rol en el proveedor de identidad.
+ * Cada fila es una asignación que todavía no se ha confirmado en Auth0; se elimina cuando se completa.
+ */
+@Entity
+@Table(name = "role_assignment")
+public class RoleAssignment extends AbstractAuditingEntity<Long> {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "roleAssignmentSequenceGenerator")
+    @SequenceGenerator(name = "roleAssignmentSequenceGenerator", sequenceName = "role_assignment_generator", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "user_public_id")
+    private UUID userPublicId;
+
+    @Column(name = "email")
+    private String email;
+
+    @Column(name = "role_id")
+    private String roleId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private RoleAssignmentStatus status = RoleAssignmentStatus.PENDING;
+
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt = Instant.now();
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    /**
+     * Registra un intento fallido.
+     *
+     * @param error         Descripción del error.
+     * @param nextAttemptAt Momento del siguiente intento, o null si no se reintentará.
+     */
+    public void recordFailure(String error, Instant nextAttemptAt) {
+        this.attempts++;
+        this.lastError = error;
+        if (nextAttemptAt == null) {
+            this.status = RoleAssignmentStatus.FAILED;
+        } else {
+            this.nextAttemptAt = nextAttemptAt;
+        }
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public UUID getUserPublicId() {
+        return userPublicId;
+    }
+
+    public void setUserPublicId(UUID userPublicId) {
+        this.userPublicId = userPublicId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getRoleId() {
+        return roleId;
+    }
+
+    public void setRoleId(String roleId) {
+        this.roleId = roleId;
+    }
+
+    public RoleAssignmentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(RoleAssignmentStatus status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RoleAssignment that = (RoleAssignment) o;
+        return Objects.equals(userPublicId, that.userPublicId) && Objects.equals(roleId, that.roleId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userPublicId, roleId);
+    }
+
+    @Override
+    public String toString() {
+        return "RoleAssignment{" +
+                "userPublicId=" + userPublicId +
+                ", roleId='" + roleId + '\'' +
+                ", status=" + status +
+                ", attempts=" + attempts +
+                ", nextAttemptAt=" + nextAttemptAt +
+                '}';
+    }
+}
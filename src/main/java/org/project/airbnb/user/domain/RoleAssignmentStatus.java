@@ -0,0 +1,9 @@
+package org.project.airbnb.user.domain;
+
+/**
+ * Estado de una asignación de rol pendiente de enviar al proveedor de identidad.
+ */
+public enum RoleAssignmentStatus {
+    PENDING, // Pendiente de enviar o de reintentar.
+    FAILED   // Se agotaron los reintentos; requiere revisión manual.
+}
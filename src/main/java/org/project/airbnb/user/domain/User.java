@@ -18,7 +18,7 @@ public class User extends AbstractAuditingEntity<Long> {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "userSequenceGenerator")
-    @SequenceGenerator(name = "userSequenceGenerator", sequenceName = "user_generator", allocationSize = 1)
+    @SequenceGenerator(name = "userSequenceGenerator", sequenceName = "user_generator", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -0,0 +1,47 @@
+package org.project.airbnb.user.repository;
+
+import org.project.airbnb.user.domain.RoleAssignment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repositorio de la bandeja de salida de asignaciones de rol.
+ */
+public interface RoleAssignmentRepository extends JpaRepository<RoleAssignment, Long> {
+
+    /**
+     * Registra una asignación pendiente del rol al usuario, salvo que ya exista una.
+     * El índice único parcial sobre las asignaciones pendientes resuelve las peticiones concurrentes:
+     * la segunda no inserta nada en lugar de fallar y deshacer la transacción en curso.
+     *
+     * @param userPublicId ID público del usuario.
+     * @param email        Correo electrónico del usuario en Auth0.
+     * @param roleId       ID del rol en Auth0.
+     * @param now          Instante actual, primer intento y fecha de auditoría.
+     * @return Número de asignaciones registradas: 1, o 0 si ya había una pendiente.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO {h-schema}role_assignment" +
+            " (id, user_public_id, email, role_id, status, attempts, next_attempt_at, created_date, last_modified_date)" +
+            " VALUES (nextval('{h-schema}role_assignment_generator'), :userPublicId, :email, :roleId, 'PENDING', 0, :now, :now, :now)" +
+            " ON CONFLICT (user_public_id, role_id) WHERE status = 'PENDING' DO NOTHING", nativeQuery = true)
+    int insertPendingIfAbsent(UUID userPublicId, String email, String roleId, Instant now);
+
+    /**
+     * Obtiene y bloquea las asignaciones pendientes cuyo siguiente intento ya ha llegado.
+     * Las filas bloqueadas por otra instancia se omiten (SKIP LOCKED), de modo que varias instancias
+     * pueden procesar la bandeja a la vez sin enviar dos veces la misma asignación.
+     *
+     * @param now   Instante actual.
+     * @param limit Número máximo de asignaciones.
+     * @return Asignaciones pendientes, de la más antigua a la más reciente.
+     */
+    @Query(value = "SELECT * FROM {h-schema}role_assignment WHERE status = 'PENDING' AND next_attempt_at <= :now" +
+            " ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<RoleAssignment> lockDue(Instant now, int limit);
+}
@@ -1,6 +1,7 @@
 package org.project.airbnb.user.repository;
 
 import org.project.airbnb.user.domain.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
@@ -13,17 +14,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     /**
      * Busca un usuario por su correo electrónico.
+     * Las autoridades se cargan en la misma consulta, de modo que el usuario se puede mapear fuera de una transacción.
      *
      * @param email El correo electrónico del usuario.
      * @return Un `Optional` que contiene el usuario si se encuentra, o vacío si no existe.
      */
+    @EntityGraph(attributePaths = "authorities")
     Optional<User> findOneByEmail(String email);
 
     /**
      * Busca un usuario por su identificador público.
+     * Las autoridades se cargan en la misma consulta, igual que en {@link #findOneByEmail(String)}.
      *
      * @param publicId El identificador público del usuario.
      * @return Un `Optional` que contiene el usuario si se encuentra, o vacío si no existe.
      */
+    @EntityGraph(attributePaths = "authorities")
     Optional<User> findOneByPublicId(UUID publicId);
 }
@@ -0,0 +1,32 @@
+package org.project.airbnb;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Fechas de las reservas de las pruebas, calculadas a partir del día de ejecución. Una fecha fija acaba quedando
+ * en el pasado o fuera del horizonte del calendario de disponibilidad ({@code application.availability-calendar.horizon},
+ * 730 días), y las pruebas que dependen de ella empiezan a fallar con el paso del tiempo.
+ */
+public final class BookingDates {
+
+    private BookingDates() {
+    }
+
+    /**
+     * El lunes a medianoche (UTC) que cae un número de semanas después del próximo lunes.
+     *
+     * @param weeks Semanas que se suman al próximo lunes; 0 es el próximo lunes.
+     * @return El inicio del día de ese lunes.
+     */
+    public static OffsetDateTime mondayInWeeks(int weeks) {
+        return LocalDate.now(ZoneOffset.UTC)
+                .with(TemporalAdjusters.next(DayOfWeek.MONDAY))
+                .plusWeeks(weeks)
+                .atStartOfDay()
+                .atOffset(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,44 @@
+package org.project.airbnb;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StatementInspector de pruebas que guarda el SQL que Hibernate envía a la base de datos, para poder
+ * comprobar la forma de las consultas generadas. Se activa con la propiedad
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class CapturedStatements implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (STATEMENTS) {
+            STATEMENTS.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Descarta el SQL capturado hasta el momento.
+     */
+    public static void clear() {
+        synchronized (STATEMENTS) {
+            STATEMENTS.clear();
+        }
+    }
+
+    /**
+     * Obtiene el SQL capturado desde la última limpieza.
+     *
+     * @return una copia de las sentencias capturadas, en orden de ejecución.
+     */
+    public static List<String> statements() {
+        synchronized (STATEMENTS) {
+            return List.copyOf(STATEMENTS);
+        }
+    }
+}
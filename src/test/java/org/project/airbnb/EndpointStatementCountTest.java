@@ -0,0 +1,286 @@
+package org.project.airbnb;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.booking.application.AvailabilityCalendar;
+import org.project.airbnb.infrastructure.config.SecurityUtils;
+import org.project.airbnb.infrastructure.storage.PictureStorage;
+import org.project.airbnb.listing.application.ListingSearchIndex;
+import org.project.airbnb.loadtest.MarketplaceDataGenerator;
+import org.project.airbnb.loadtest.MarketplaceDataGenerator.Marketplace;
+import org.project.airbnb.loadtest.StubIdentityProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fija el número de sentencias SQL de cada endpoint de la API.
+ * <p>
+ * La aplicación arranca con el presupuesto de sentencias en modo {@code REJECT}, con un proveedor de identidad
+ * simulado y sin las cachés de usuarios y de páginas, de modo que cada petición ejecuta todas sus consultas.
+ * Cada endpoint se llama una vez y se compara la diferencia de la distribución {@code airbnb.http.server.statements}
+ * con el número esperado: un cambio que añada consultas, como un N+1, hace fallar la prueba aunque siga dentro
+ * del presupuesto. {@code /api/auth/get-authenticated-user} no se incluye porque necesita una sesión de OAuth2.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "management.server.port=0",
+        "okta.oauth2.client-id=statement-count",
+        "okta.oauth2.client-secret=statement-count",
+        // El emisor se conoce después de leer la configuración de Okta, que sin él validaría los tokens por introspección
+        "spring.security.oauth2.resourceserver.opaquetoken.introspection-uri=",
+        "application.sql-budget.mode=REJECT",
+        "application.authenticated-user-cache.ttl=0s",
+        "application.category-page-cache.cached-pages=0"
+})
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class EndpointStatementCountTest {
+
+    private static final String CSRF_TOKEN = UUID.randomUUID().toString();
+
+    private static Path workDirectory;
+    private static StubIdentityProvider identityProvider;
+
+    private final Map<String, Long> counted = new LinkedHashMap<>();
+
+    private HttpClient httpClient;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PictureStorage pictureStorage;
+
+    @Autowired
+    private AvailabilityCalendar availabilityCalendar;
+
+    @Autowired
+    private ListingSearchIndex listingSearchIndex;
+
+    @DynamicPropertySource
+    static void identityProvider(DynamicPropertyRegistry registry) throws IOException {
+        workDirectory = Files.createTempDirectory("statement-count");
+        identityProvider = new StubIdentityProvider(workDirectory);
+        registry.add("okta.oauth2.issuer", identityProvider::issuer);
+        registry.add("application.picture-storage.root",
+                () -> workDirectory.resolve("pictures").toString());
+    }
+
+    // El cliente se crea después del proveedor de identidad, que configura el almacén de confianza de TLS
+    @BeforeEach
+    void createHttpClient() {
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    static void stopIdentityProvider() {
+        identityProvider.close();
+    }
+
+    @Test
+    void endpointsPrepareTheExpectedNumberOfStatements() throws Exception {
+        MarketplaceDataGenerator generator = new MarketplaceDataGenerator(jdbcTemplate, new TransactionTemplate(transactionManager), pictureStorage);
+        generator.deleteGenerated();
+        Marketplace marketplace = generator.generate(20, 20, 2, 2);
+        // El calendario y el índice de búsqueda se cargaron al arrancar, antes de generar los datos
+        availabilityCalendar.afterSingletonsInstantiated();
+        listingSearchIndex.afterSingletonsInstantiated();
+        String tenantEmail = marketplace.tenantEmails().getFirst();
+        String tenant = identityProvider.issue(tenantEmail, List.of(SecurityUtils.ROLE_TENANT));
+        String landlord = identityProvider.issue(marketplace.landlordEmails().getFirst(),
+                List.of(SecurityUtils.ROLE_TENANT, SecurityUtils.ROLE_LANDLORD));
+        UUID listing = marketplace.listingPublicIds().getFirst();
+        // Fecha posterior a las dos semanas de reservas generadas y dentro del horizonte del calendario de disponibilidad,
+        // que responde sin consultar la base de datos
+        OffsetDateTime freeDate = BookingDates.mondayInWeeks(9);
+
+        // Navegación anónima
+        send("GET", "/api/tenant-listing/get-all-by-category", "?category=ALL&page=0&size=20", null, null);
+        send("GET", "/api/tenant-listing/get-all-by-category-cursor", "?category=ALL&size=20", null, null);
+        String search = """
+                {"dates":{"startDate":"%s","endDate":"%s"},"infos":{"guests":{"value":1},"bedrooms":{"value":1},\
+                "beds":{"value":1},"baths":{"value":1}},"location":"%s","price":{"min":0,"max":1000}}""".formatted(freeDate, freeDate.plusDays(2),
+                jdbcTemplate.queryForObject("SELECT location FROM airbnb.listing WHERE public_id = ?", String.class, listing));
+        send("POST", "/api/tenant-listing/search", "?page=0&size=20", null, search);
+        send("POST", "/api/tenant-listing/search-facets", "", null, search);
+        send("GET", "/api/tenant-listing/get-facets-by-category", "?category=ALL", null, null);
+        send("POST", "/api/tenant-listing/search-text", "?page=0&size=20", null, """
+                {"query":"listng","minGuests":1}""");
+        send("GET", "/api/tenant-listing/get-one", "?publicId=" + listing, null, null);
+        send("GET", "/api/booking/check-availability", "?listingPublicId=" + listing, null, null);
+        send("GET", "/api/picture/{id}", "/" + marketplace.coverPictureIds().getFirst(), null, null);
+        // Las imágenes generadas no tienen variantes: se sirve el original mientras la variante está pendiente
+        send("GET", "/api/picture/{id}", "/" + marketplace.coverPictureIds().getFirst() + "?variant=CARD", null, null);
+
+        // Reservas del inquilino
+        send("POST", "/api/booking/create", "", tenant, """
+                {"startDate":"%s","endDate":"%s","listingPublicId":"%s"}""".formatted(freeDate, freeDate.plusDays(3), listing));
+        JsonNode bookings = send("GET", "/api/booking/get-booked-listing", "", tenant, null);
+        JsonNode booking = bookings.get(bookings.size() - 1);
+        send("DELETE", "/api/booking/cancel", "?bookingPublicId=" + booking.path("bookingPublicId").asText()
+                + "&listingPublicId=" + booking.path("listingPublicId").asText() + "&byLandlord=false", tenant, null);
+
+        // Panel del arrendador
+        send("GET", "/api/booking/get-booked-listing-for-landlord", "", landlord, null);
+        send("GET", "/api/booking/get-booked-listing-for-landlord-page", "?size=20", landlord, null);
+        send("GET", "/api/landlord-listing/get-all", "", landlord, null);
+        JsonNode created = createListing(landlord);
+        send("DELETE", "/api/landlord-listing/delete", "?publicId=" + created.path("publicId").asText(), landlord, null);
+
+        send("POST", "/api/auth/logout", "", tenant, null);
+
+        assertThat(counted).containsExactlyEntriesOf(expectedStatements());
+    }
+
+    // Número de sentencias de cada endpoint, en el orden en que se llaman. Incluyen la búsqueda del usuario autenticado,
+    // que en producción suele estar en caché, y el primer nextval de cada secuencia, que reserva un bloque de identificadores
+    private static Map<String, Long> expectedStatements() {
+        Map<String, Long> expected = new LinkedHashMap<>();
+        expected.put("GET /api/tenant-listing/get-all-by-category", 3L);
+        expected.put("GET /api/tenant-listing/get-all-by-category-cursor", 1L);
+        expected.put("POST /api/tenant-listing/search", 1L);
+        // La búsqueda anterior ya dejó la agregación de sus facetas en caché
+        expected.put("POST /api/tenant-listing/search-facets", 0L);
+        expected.put("GET /api/tenant-listing/get-facets-by-category", 1L);
+        expected.put("POST /api/tenant-listing/search-text", 1L);
+        expected.put("GET /api/tenant-listing/get-one", 2L);
+        expected.put("GET /api/booking/check-availability", 0L);
+        expected.put("GET /api/picture/{id}", 1L);
+        expected.put("GET /api/picture/{id}?variant=CARD", 1L);
+        expected.put("POST /api/booking/create", 4L);
+        expected.put("GET /api/booking/get-booked-listing", 3L);
+        expected.put("DELETE /api/booking/cancel", 3L);
+        expected.put("GET /api/booking/get-booked-listing-for-landlord", 3L);
+        expected.put("GET /api/booking/get-booked-listing-for-landlord-page", 3L);
+        expected.put("GET /api/landlord-listing/get-all", 2L);
+        expected.put("POST /api/landlord-listing/create", 5L);
+        expected.put("DELETE /api/landlord-listing/delete", 7L);
+        expected.put("POST /api/auth/logout", 0L);
+        return expected;
+    }
+
+    private JsonNode createListing(String landlord) throws IOException {
+        String dto = """
+                {"category":"AMAZING_VIEWS","location":"Spain","infos":{"guests":{"value":2},"bedrooms":{"value":1},\
+                "beds":{"value":1},"baths":{"value":1}},"description":{"title":{"value":"Statement count"},\
+                "description":{"value":"Listing created by the statement count test"}},"price":{"value":100}}""";
+        String boundary = UUID.randomUUID().toString();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"dto\"\r\n"
+                + "Content-Type: application/json\r\n\r\n" + dto + "\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"picture-0\"; filename=\"cover.jpg\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(jpeg());
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return send("POST", "/api/landlord-listing/create", "", landlord,
+                HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()), "multipart/form-data; boundary=" + boundary);
+    }
+
+    private static byte[] jpeg() throws IOException {
+        BufferedImage image = new BufferedImage(320, 240, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", output);
+        return output.toByteArray();
+    }
+
+    private JsonNode send(String method, String endpoint, String query, String token, String json) {
+        return send(method, endpoint, query, token, json == null ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(json), json == null ? null : "application/json");
+    }
+
+    // Envía una petición, comprueba que es correcta y guarda las sentencias que ha preparado
+    private JsonNode send(String method, String endpoint, String query, String token,
+                          HttpRequest.BodyPublisher body, String contentType) {
+        String path = endpoint.contains("{id}") ? endpoint.replace("/{id}", query) : endpoint + query;
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, body);
+        if (contentType != null) {
+            request.header("Content-Type", contentType);
+        }
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (!method.equals("GET")) {
+            // La aplicación compara la cabecera con la cookie XSRF-TOKEN
+            request.header("Cookie", "XSRF-TOKEN=" + CSRF_TOKEN).header("X-XSRF-TOKEN", CSRF_TOKEN);
+        }
+
+        DistributionSummary summary = DistributionSummary.builder("airbnb.http.server.statements")
+                .tag("method", method)
+                .tag("uri", endpoint)
+                .register(meterRegistry);
+        long requests = summary.count();
+        double statements = summary.totalAmount();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        assertThat(response.statusCode()).as("%s %s", method, endpoint).isEqualTo(200);
+
+        // La distribución se actualiza al salir del filtro, que puede terminar después de enviar la respuesta
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (summary.count() == requests && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        // Las peticiones a un mismo patrón con distintos parámetros se cuentan por separado
+        String parameters = endpoint.contains("{id}") && query.contains("?") ? query.substring(query.indexOf('?')) : "";
+        counted.put(method + " " + endpoint + parameters, Math.round(summary.totalAmount() - statements));
+        try {
+            boolean hasJson = response.headers().firstValue("Content-Type").orElse("").contains("json");
+            return hasJson ? objectMapper.readTree(response.body()) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
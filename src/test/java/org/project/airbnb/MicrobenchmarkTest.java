@@ -0,0 +1,37 @@
+package org.project.airbnb;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ejecuta los microbenchmarks JMH del proyecto (las clases terminadas en {@code Benchmark}) con el perfilador de
+ * memoria, que añade la tasa de asignación ({@code gc.alloc.rate.norm}, bytes por operación) al rendimiento.
+ * Los resultados se guardan en {@code target/jmh-result.json} para compararlos entre versiones.
+ * Se ejecuta con {@code mvn test -Pbenchmark -Dtest=MicrobenchmarkTest}; {@code -Djmh.include} filtra los benchmarks.
+ */
+@Tag("benchmark")
+class MicrobenchmarkTest {
+
+    @Test
+    void hotPaths() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("jmh.include", "org\\.project\\.airbnb\\..*Benchmark\\."))
+                .addProfiler(GCProfiler.class)
+                .result("target/jmh-result.json")
+                .resultFormat(ResultFormatType.JSON)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+        assertThat(results).isNotEmpty();
+    }
+}
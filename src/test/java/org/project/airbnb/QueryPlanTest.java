@@ -0,0 +1,278 @@
+package org.project.airbnb;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.booking.repository.BookingRepository;
+import org.project.airbnb.listing.domain.BookingCategory;
+import org.project.airbnb.listing.domain.PictureVariant;
+import org.project.airbnb.listing.repository.ListingPictureRepository;
+import org.project.airbnb.listing.repository.ListingRepository;
+import org.project.airbnb.listing.repository.ListingSpecifications;
+import org.project.airbnb.listing.repository.ListingTestData;
+import org.project.airbnb.user.repository.RoleAssignmentRepository;
+import org.project.airbnb.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Comprueba los planes de las consultas de los repositorios sobre una base de datos poblada.
+ * <p>
+ * Cada consulta se ejecuta a través de su repositorio, se captura el SQL generado y se obtiene su plan
+ * genérico con {@code EXPLAIN (GENERIC_PLAN)} de PostgreSQL 16. La prueba falla si algún plan recorre
+ * secuencialmente una tabla con más de {@value #SEQ_SCAN_ROW_THRESHOLD} filas.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=org.project.airbnb.CapturedStatements")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+
+    private static final int SEQ_SCAN_ROW_THRESHOLD = 1_000;
+    private static final int USERS = 400;
+    private static final int LISTINGS = 20_000;
+    private static final OffsetDateTime SEASON_START = BookingDates.mondayInWeeks(0);
+    private static final Pattern PARAMETER = Pattern.compile("\\?");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> violations = new ArrayList<>();
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private ListingPictureRepository listingPictureRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleAssignmentRepository roleAssignmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void repositoryQueriesDoNotScanLargeTables() {
+        seed();
+        UUID landlord = jdbcTemplate.queryForObject("SELECT landlord_public_id FROM airbnb.listing LIMIT 1", UUID.class);
+        List<UUID> listings = jdbcTemplate.queryForList("SELECT public_id FROM airbnb.listing WHERE landlord_public_id = ?", UUID.class, landlord);
+        List<Long> listingIds = jdbcTemplate.queryForList("SELECT id FROM airbnb.listing WHERE landlord_public_id = ?", Long.class, landlord);
+        UUID tenant = jdbcTemplate.queryForObject("SELECT fk_tenant FROM airbnb.booking LIMIT 1", UUID.class);
+        String email = jdbcTemplate.queryForObject("SELECT email FROM airbnb.airbnb_user WHERE public_id = ?", String.class, tenant);
+        OffsetDateTime from = SEASON_START.plusWeeks(1);
+        OffsetDateTime to = from.plusWeeks(2);
+        BookingCategory category = BookingCategory.values()[2];
+
+        // Listados
+        check("ListingRepository.findAllCardsByLandlordPublicId", Set.of(),
+                () -> listingRepository.findAllCardsByLandlordPublicId(landlord));
+        // El recuento de una categoría comprueba la portada de miles de listados: recorrer las portadas de una vez
+        // es más barato que buscarlas una a una
+        check("ListingRepository.findAllIdsByBookingCategory", Set.of("listing_picture"),
+                () -> listingRepository.findAllIdsByBookingCategory(
+                        PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdDate", "id")), category));
+        // Contar todos los listados con portada recorre los listados y las portadas completos por definición
+        check("ListingRepository.findAllIds", Set.of("listing", "listing_picture"),
+                () -> listingRepository.findAllIds(PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdDate", "id"))));
+        check("ListingRepository.findCardsNewestFirst", Set.of(),
+                () -> listingRepository.findCardsNewestFirst(Limit.of(21)));
+        check("ListingRepository.findCardsNewestFirstAfter", Set.of(),
+                () -> listingRepository.findCardsNewestFirstAfter(Instant.now().minusSeconds(5_000), Long.MAX_VALUE, Limit.of(21)));
+        check("ListingRepository.findCardsByBookingCategoryNewestFirst", Set.of(),
+                () -> listingRepository.findCardsByBookingCategoryNewestFirst(category, Limit.of(21)));
+        check("ListingRepository.findCardsByBookingCategoryNewestFirstAfter", Set.of(),
+                () -> listingRepository.findCardsByBookingCategoryNewestFirstAfter(category, Instant.now().minusSeconds(5_000),
+                        Long.MAX_VALUE, Limit.of(21)));
+        check("ListingRepository.findAllCardsByIdIn", Set.of(),
+                () -> listingRepository.findAllCardsByIdIn(listingIds));
+        check("ListingRepository.findByPublicId", Set.of(),
+                () -> listingRepository.findByPublicId(listings.getFirst()));
+        check("ListingRepository.findWithPicturesByPublicId", Set.of(),
+                () -> listingRepository.findWithPicturesByPublicId(listings.getFirst()));
+        check("ListingRepository.findAllCardsByPublicIdIn", Set.of(),
+                () -> listingRepository.findAllCardsByPublicIdIn(listings));
+        check("ListingRepository.findCardByPublicIdAndLandlordPublicId", Set.of(),
+                () -> listingRepository.findCardByPublicIdAndLandlordPublicId(listings.getFirst(), landlord));
+        check("ListingRepository.findAllCards", Set.of(),
+                () -> listingRepository.findAllCards(Specification.allOf(
+                        ListingSpecifications.locatedIn(ListingTestData.LOCATIONS[1]),
+                        ListingSpecifications.withAtLeastGuests(2),
+                        ListingSpecifications.withAtLeastBedrooms(2),
+                        ListingSpecifications.withAtLeastBeds(2),
+                        ListingSpecifications.withAtLeastBathrooms(2),
+                        ListingSpecifications.pricedBetween(100, 300),
+                        ListingSpecifications.availableBetween(from, to)),
+                        PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdDate", "id"))));
+        check("ListingRepository.countFacets", Set.of(),
+                () -> listingRepository.countFacets(Specification.allOf(
+                        ListingSpecifications.locatedIn(ListingTestData.LOCATIONS[1]),
+                        ListingSpecifications.withAtLeastGuests(2),
+                        ListingSpecifications.pricedBetween(100, 300),
+                        ListingSpecifications.availableBetween(from, to)), 50));
+        // Las facetas de la navegación agregan el catálogo completo por definición
+        check("ListingRepository.countFacets (browse)", Set.of("listing", "listing_picture"),
+                () -> listingRepository.countFacets(Specification.allOf(), 50));
+        check("ListingPictureRepository.findFileWithVariant", Set.of(),
+                () -> listingPictureRepository.findFileWithVariant(1L, PictureVariant.CARD));
+
+        // Reservas
+        check("BookingRepository.bookingExistsAtInterval", Set.of(),
+                () -> bookingRepository.bookingExistsAtInterval(from, to, listings.getFirst()));
+        check("BookingRepository.findAllByFkListing", Set.of(),
+                () -> bookingRepository.findAllByFkListing(listings.getFirst()));
+        check("BookingRepository.findAllByFkTenant", Set.of(),
+                () -> bookingRepository.findAllByFkTenant(tenant));
+        check("BookingRepository.findAllByFkListingIn", Set.of(),
+                () -> bookingRepository.findAllByFkListingIn(listings));
+        check("BookingRepository.findWindowByFkListingIn", Set.of(),
+                () -> bookingRepository.findWindowByFkListingIn(listings, from, to, Limit.of(21)));
+        check("BookingRepository.findWindowByFkListingInAfter", Set.of(),
+                () -> bookingRepository.findWindowByFkListingInAfter(listings, from, to, from, 1L, Limit.of(21)));
+        check("BookingRepository.findWindowByLandlordPublicId", Set.of(),
+                () -> bookingRepository.findWindowByLandlordPublicId(landlord, from, to, Limit.of(21)));
+        check("BookingRepository.findWindowByLandlordPublicIdAfter", Set.of(),
+                () -> bookingRepository.findWindowByLandlordPublicIdAfter(landlord, from, to, from, 1L, Limit.of(21)));
+        // La ventana de un arrendador recorre las reservas de cada uno de sus listados, no todas en orden de fecha
+        checkIndex("BookingRepository.findWindowByLandlordPublicId", "idx_booking_listing_start_date_id",
+                () -> bookingRepository.findWindowByLandlordPublicId(landlord, from, to, Limit.of(21)));
+        checkIndex("BookingRepository.findWindowByLandlordPublicIdAfter", "idx_booking_listing_start_date_id",
+                () -> bookingRepository.findWindowByLandlordPublicIdAfter(landlord, from, to, from, 1L, Limit.of(21)));
+
+        // Usuarios
+        check("UserRepository.findOneByEmail", Set.of(),
+                () -> userRepository.findOneByEmail(email));
+        check("UserRepository.findOneByPublicId", Set.of(),
+                () -> userRepository.findOneByPublicId(tenant));
+        check("RoleAssignmentRepository.lockDue", Set.of(),
+                () -> roleAssignmentRepository.lockDue(Instant.now(), 20));
+
+        assertThat(violations).isEmpty();
+    }
+
+    // Ejecuta la consulta, obtiene el plan de cada sentencia generada y registra los recorridos secuenciales no permitidos
+    private void check(String query, Set<String> allowedSeqScans, Runnable invocation) {
+        CapturedStatements.clear();
+        invocation.run();
+        List<String> statements = CapturedStatements.statements();
+        assertThat(statements).as("SQL captured for %s", query).isNotEmpty();
+        for (String sql : statements) {
+            collectSeqScans(query, explain(query, sql), allowedSeqScans);
+        }
+    }
+
+    // Ejecuta la consulta y registra las sentencias generadas cuyo plan no recorre el índice indicado
+    private void checkIndex(String query, String index, Runnable invocation) {
+        CapturedStatements.clear();
+        invocation.run();
+        List<String> statements = CapturedStatements.statements();
+        assertThat(statements).as("SQL captured for %s", query).isNotEmpty();
+        for (String sql : statements) {
+            Set<String> indexes = new HashSet<>();
+            collectIndexes(explain(query, sql), indexes);
+            if (!indexes.contains(index)) {
+                violations.add(String.format("%s: does not use %s (uses %s)", query, index, indexes));
+            }
+        }
+    }
+
+    private JsonNode explain(String query, String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numberParameters(sql), String.class);
+        try {
+            return objectMapper.readTree(plan).get(0).get("Plan");
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot read the plan of " + query, e);
+        }
+    }
+
+    private void collectSeqScans(String query, JsonNode node, Set<String> allowedSeqScans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            String relation = node.path("Relation Name").asText();
+            long rows = rowsOf(relation);
+            if (rows > SEQ_SCAN_ROW_THRESHOLD && !allowedSeqScans.contains(relation)) {
+                violations.add(String.format("%s: Seq Scan on %s (%,d rows)", query, relation, rows));
+            }
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(query, child, allowedSeqScans);
+        }
+    }
+
+    private void collectIndexes(JsonNode node, Set<String> indexes) {
+        if (node.has("Index Name")) {
+            indexes.add(node.get("Index Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectIndexes(child, indexes);
+        }
+    }
+
+    private long rowsOf(String relation) {
+        Long rows = jdbcTemplate.queryForObject("SELECT reltuples::bigint FROM pg_class WHERE oid = ('airbnb.' || ?)::regclass",
+                Long.class, relation);
+        return rows == null ? 0 : rows;
+    }
+
+    // Sustituye los parámetros JDBC (?) por parámetros posicionales de PostgreSQL ($1, $2...)
+    private static String numberParameters(String sql) {
+        Matcher matcher = PARAMETER.matcher(sql);
+        StringBuilder numbered = new StringBuilder();
+        int index = 0;
+        while (matcher.find()) {
+            matcher.appendReplacement(numbered, Matcher.quoteReplacement("$" + (++index)));
+        }
+        matcher.appendTail(numbered);
+        return numbered.toString();
+    }
+
+    // Puebla la base de datos con muchos arrendadores, inquilinos, listados y reservas
+    private void seed() {
+        UUID seedLandlord = ListingTestData.insertLandlord(jdbcTemplate);
+        ListingTestData.insertListings(jdbcTemplate, seedLandlord, LISTINGS, 2);
+        jdbcTemplate.update("INSERT INTO airbnb.airbnb_user (id, public_id, first_name, last_name, email, created_date, last_modified_date)" +
+                " SELECT nextval('airbnb.user_generator'), gen_random_uuid(), 'User', 'Number ' || n, 'user' || n || '@test.local', now(), now()" +
+                " FROM generate_series(0, ?) AS n", USERS - 1);
+        // Reparte los listados entre los usuarios, de modo que cada arrendador tenga unas pocas decenas. Se numeran las
+        // filas en lugar de usar el id, que avanza en bloques de la secuencia y solo alcanzaría a unos pocos usuarios
+        jdbcTemplate.update("UPDATE airbnb.listing listing SET landlord_public_id = users.public_id" +
+                " FROM (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM airbnb.listing) numbered," +
+                " (SELECT public_id, row_number() OVER (ORDER BY id) - 1 AS n FROM airbnb.airbnb_user" +
+                " WHERE email LIKE 'user%@test.local') users WHERE numbered.id = listing.id AND users.n = numbered.n % ?", USERS);
+        // Cuatro reservas semanales por listado, repartidas entre los usuarios como inquilinos
+        jdbcTemplate.update("INSERT INTO airbnb.booking (id, public_id, start_date, end_date, total_price, nb_of_travelers," +
+                " fk_listing, fk_tenant, created_date, last_modified_date)" +
+                " SELECT nextval('airbnb.booking_generator'), gen_random_uuid()," +
+                " ?::timestamptz + make_interval(weeks => w), ?::timestamptz + make_interval(weeks => w, days => 3), 300, 2," +
+                " listing.public_id, users.public_id, now(), now()" +
+                " FROM (SELECT public_id, row_number() OVER (ORDER BY id) - 1 AS n FROM airbnb.listing) listing" +
+                " CROSS JOIN generate_series(0, 3) AS w" +
+                " JOIN (SELECT public_id, row_number() OVER (ORDER BY id) - 1 AS n FROM airbnb.airbnb_user" +
+                " WHERE email LIKE 'user%@test.local') users ON users.n = (listing.n + w) % ?", SEASON_START, SEASON_START, USERS);
+        for (String table : List.of("airbnb_user", "listing", "listing_picture", "booking")) {
+            jdbcTemplate.execute("ANALYZE airbnb." + table);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.project.airbnb;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Configuración de pruebas que arranca un PostgreSQL real en un contenedor y conecta con él el datasource
+ * de la aplicación. Liquibase aplica el esquema completo al arrancar el contexto.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class TestcontainersConfiguration {
+
+    /**
+     * Contenedor de PostgreSQL compartido por todas las pruebas que importan esta configuración.
+     *
+     * @return el contenedor configurado.
+     */
+    @Bean
+    @ServiceConnection
+    public PostgreSQLContainer<?> postgresContainer() {
+        return new PostgreSQLContainer<>("postgres:16-alpine")
+                .withInitScript("testcontainers/init-schema.sql");
+    }
+}
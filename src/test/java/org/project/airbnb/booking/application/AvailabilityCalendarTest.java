@@ -0,0 +1,89 @@
+package org.project.airbnb.booking.application;
+
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.booking.domain.BookingInterval;
+import org.project.airbnb.booking.repository.BookingRepository;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AvailabilityCalendarTest {
+
+    private static final OffsetDateTime NEXT_MONTH = OffsetDateTime.now(ZoneOffset.UTC).plusMonths(1);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final AvailabilityCalendar calendar = new AvailabilityCalendar(bookingRepository, Duration.ofDays(365));
+    private final UUID listing = UUID.randomUUID();
+
+    @Test
+    void reloadReplacesTheIndexWithTheBookingsOfTheWindow() {
+        BookingInterval local = interval(NEXT_MONTH);
+        BookingInterval otherInstance = interval(NEXT_MONTH.plusDays(10));
+        calendar.reserve(local);
+        // La reserva local se canceló en otra instancia y otra instancia escribió una nueva
+        when(bookingRepository.findAllIntervalsOverlapping(any(), any())).thenReturn(List.of(otherInstance));
+
+        calendar.reload();
+
+        assertThat(calendar.isBooked(listing, NEXT_MONTH, NEXT_MONTH.plusDays(1))).isFalse();
+        assertThat(calendar.isBooked(listing, NEXT_MONTH.plusDays(10), NEXT_MONTH.plusDays(11))).isTrue();
+        assertThat(calendar.getBookedDates(listing)).hasSize(1);
+    }
+
+    @Test
+    void keepsWritesConfirmedWhileReloading() {
+        BookingInterval kept = interval(NEXT_MONTH);
+        BookingInterval cancelled = interval(NEXT_MONTH.plusDays(10));
+        BookingInterval confirmed = interval(NEXT_MONTH.plusDays(20));
+        when(bookingRepository.findAllIntervalsOverlapping(any(), any())).thenAnswer(invocation -> {
+            // Escrituras confirmadas después de leer la base de datos
+            calendar.reserve(confirmed);
+            calendar.release(cancelled.bookingPublicId());
+            return List.of(kept, cancelled);
+        });
+
+        calendar.reload();
+
+        assertThat(calendar.getBookedDates(listing)).extracting(date -> date.startDate())
+                .containsExactly(kept.startDate(), confirmed.startDate());
+    }
+
+    @Test
+    void aFailedReloadKeepsTheIndexAndStopsJournaling() {
+        calendar.reserve(interval(NEXT_MONTH));
+        when(bookingRepository.findAllIntervalsOverlapping(any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("Connection is not available"));
+
+        assertThatThrownBy(calendar::reload).isInstanceOf(DataAccessResourceFailureException.class);
+        calendar.reserve(interval(NEXT_MONTH.plusDays(10)));
+
+        // Las escrituras posteriores ya no se anotan para una recarga que no terminará
+        assertThat(ReflectionTestUtils.getField(calendar, "journal")).isNull();
+        assertThat(calendar.getBookedDates(listing)).hasSize(2);
+    }
+
+    @Test
+    void reportsIntervalsBeyondTheHorizonAsPossiblyBooked() {
+        OffsetDateTime farAway = NEXT_MONTH.plusYears(2);
+
+        calendar.reserve(interval(farAway));
+
+        assertThat(calendar.getBookedDates(listing)).isEmpty();
+        assertThat(calendar.isBooked(UUID.randomUUID(), farAway, farAway.plusDays(2))).isTrue();
+    }
+
+    private BookingInterval interval(OffsetDateTime start) {
+        return new BookingInterval(UUID.randomUUID(), listing, start, start.plusDays(3));
+    }
+}
@@ -0,0 +1,75 @@
+package org.project.airbnb.booking.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.booking.domain.Booking;
+import org.project.airbnb.booking.mapper.BookingMapperImpl;
+import org.project.airbnb.listing.application.LandlordService;
+import org.project.airbnb.listing.application.dto.DisplayCardListingDTO;
+import org.project.airbnb.user.application.UserService;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Benchmark del mapeo de reservas a tarjetas de la pantalla de reservas de un arrendador con 500 listados
+ * y 20.000 reservas. Compara el hash join actual con el recorrido lineal por reserva que se usaba antes.
+ * Se ejecuta con {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class BookedListingBenchmarkTest {
+
+    private static final int LISTINGS = 500;
+    private static final int BOOKINGS = 20_000;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    private final BookingService bookingService = new BookingService(null, new BookingMapperImpl(),
+            mock(UserService.class), mock(LandlordService.class), mock(AvailabilityCalendar.class), new ListingLocks(),
+            mock(TransactionTemplate.class), new SimpleMeterRegistry());
+
+    @Test
+    void landlordWithManyListingsAndBookings() {
+        List<DisplayCardListingDTO> listings = new ArrayList<>();
+        for (int i = 0; i < LISTINGS; i++) {
+            listings.add(BookingServiceBookedListingTest.card("Location " + i));
+        }
+        List<Booking> bookings = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookings.add(BookingServiceBookedListingTest.booking(listings.get(random.nextInt(LISTINGS)).publicId(), i % 300));
+        }
+
+        double hashJoin = averageMillis(() -> bookingService.mapBookingToBookedListing(bookings, listings));
+        double linearScan = averageMillis(() -> linearScan(bookings, listings));
+        System.out.printf("%,d listings, %,d bookings: hash join %.2f ms, linear scan %.2f ms%n",
+                LISTINGS, BOOKINGS, hashJoin, linearScan);
+
+        assertThat(bookingService.mapBookingToBookedListing(bookings, listings)).hasSize(BOOKINGS);
+    }
+
+    // Reproduce el emparejamiento anterior, que recorría todos los listados por cada reserva
+    private static List<DisplayCardListingDTO> linearScan(List<Booking> bookings, List<DisplayCardListingDTO> listings) {
+        return bookings.stream().map(booking -> listings.stream()
+                .filter(listing -> listing.publicId().equals(booking.getFkListing()))
+                .findFirst()
+                .orElseThrow()).toList();
+    }
+
+    private static double averageMillis(Runnable mapping) {
+        for (int i = 0; i < WARMUP; i++) {
+            mapping.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapping.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000d / ITERATIONS;
+    }
+}
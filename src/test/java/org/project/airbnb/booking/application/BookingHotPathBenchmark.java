@@ -0,0 +1,101 @@
+package org.project.airbnb.booking.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.project.airbnb.booking.application.dto.BookedListingDTO;
+import org.project.airbnb.booking.domain.Booking;
+import org.project.airbnb.booking.domain.BookingInterval;
+import org.project.airbnb.booking.mapper.BookingMapperImpl;
+import org.project.airbnb.booking.repository.BookingRepository;
+import org.project.airbnb.listing.application.LandlordService;
+import org.project.airbnb.listing.application.dto.DisplayCardListingDTO;
+import org.project.airbnb.user.application.UserService;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Microbenchmark JMH de las rutas críticas de reservas: el emparejamiento de reservas con tarjetas de la
+ * pantalla de reservas de un arrendador y la comprobación de disponibilidad en AvailabilityCalendar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingHotPathBenchmark {
+
+    private static final int LISTINGS = 50;
+    private static final int BOOKINGS = 500;
+    private static final int BOOKINGS_PER_CALENDAR = 100;
+
+    private BookingService bookingService;
+    private List<Booking> bookings;
+    private List<DisplayCardListingDTO> listings;
+    private AvailabilityCalendar availabilityCalendar;
+    private UUID calendarListing;
+    private OffsetDateTime freeStart;
+    private OffsetDateTime bookedStart;
+
+    @Setup
+    public void setUp() {
+        bookingService = new BookingService(null, new BookingMapperImpl(), mock(UserService.class),
+                mock(LandlordService.class), mock(AvailabilityCalendar.class), new ListingLocks(),
+                mock(TransactionTemplate.class), new SimpleMeterRegistry());
+        listings = new ArrayList<>(LISTINGS);
+        for (int i = 0; i < LISTINGS; i++) {
+            listings.add(BookingServiceBookedListingTest.card("Location " + i));
+        }
+        bookings = new ArrayList<>(BOOKINGS);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookings.add(BookingServiceBookedListingTest.booking(listings.get(random.nextInt(LISTINGS)).publicId(), i % 300));
+        }
+
+        // Un listado con reservas semanales de tres noches: los huecos quedan libres
+        availabilityCalendar = new AvailabilityCalendar(mock(BookingRepository.class), Duration.ofDays(730));
+        calendarListing = UUID.randomUUID();
+        for (int i = 0; i < BOOKINGS_PER_CALENDAR; i++) {
+            Booking booking = BookingServiceBookedListingTest.booking(calendarListing, i * 7);
+            availabilityCalendar.reserve(new BookingInterval(booking.getPublicId(), calendarListing,
+                    booking.getStartDate(), booking.getEndDate()));
+            if (i == BOOKINGS_PER_CALENDAR / 2) {
+                bookedStart = booking.getStartDate();
+                freeStart = booking.getEndDate().plusDays(1);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<BookedListingDTO> mapBookingToBookedListing() {
+        return bookingService.mapBookingToBookedListing(bookings, listings);
+    }
+
+    @Benchmark
+    public boolean availabilityCheckBooked() {
+        return availabilityCalendar.isBooked(calendarListing, bookedStart, bookedStart.plusDays(2));
+    }
+
+    @Benchmark
+    public boolean availabilityCheckFree() {
+        return availabilityCalendar.isBooked(calendarListing, freeStart, freeStart.plusDays(2));
+    }
+}
@@ -0,0 +1,149 @@
+package org.project.airbnb.booking.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.BookingDates;
+import org.project.airbnb.TestcontainersConfiguration;
+import org.project.airbnb.booking.application.dto.NewBookingDTO;
+import org.project.airbnb.booking.mapper.BookingMapperImpl;
+import org.project.airbnb.booking.repository.BookingRepository;
+import org.project.airbnb.listing.application.LandlordService;
+import org.project.airbnb.listing.application.dto.ListingCreateBookingDTO;
+import org.project.airbnb.listing.application.dto.vo.PriceVO;
+import org.project.airbnb.listing.repository.ListingTestData;
+import org.project.airbnb.sharedkernel.service.State;
+import org.project.airbnb.sharedkernel.service.StatusNotification;
+import org.project.airbnb.user.application.UserService;
+import org.project.airbnb.user.application.dto.ReadUserDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de BookingService.create contra la restricción de exclusión booking_no_overlap de un PostgreSQL real.
+ * Cada servicio tiene su propio calendario y sus propios cerrojos, como dos instancias de la aplicación,
+ * de modo que solo la base de datos puede detectar el solapamiento.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Cada reserva se confirma en su propia transacción
+class BookingOverlapConstraintTest {
+
+    private static final OffsetDateTime START = BookingDates.mondayInWeeks(1);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final UserService userService = mock(UserService.class);
+    private UUID listing;
+
+    @BeforeEach
+    void setUp() {
+        // El pool no confirma automáticamente: los datos de prueba se confirman en su propia transacción
+        UUID tenantPublicId = new TransactionTemplate(transactionManager).execute(status -> {
+            UUID landlordPublicId = ListingTestData.insertLandlord(jdbcTemplate);
+            ListingTestData.insertListings(jdbcTemplate, landlordPublicId, 1, 1);
+            listing = jdbcTemplate.queryForObject("SELECT public_id FROM airbnb.listing WHERE landlord_public_id = ?",
+                    UUID.class, landlordPublicId);
+            return ListingTestData.insertLandlord(jdbcTemplate);
+        });
+        when(userService.getAuthenticatedUserFromSecurityContext()).thenReturn(
+                new ReadUserDTO(tenantPublicId, "Tenant", "Test", "tenant@test.com", null, Set.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> jdbcTemplate.execute(
+                "TRUNCATE airbnb.booking, airbnb.listing_picture, airbnb.listing, airbnb.airbnb_user CASCADE"));
+    }
+
+    @Test
+    void concurrentOverlappingInsertsFromTwoInstancesAreRejectedByTheConstraint() throws Exception {
+        List<BookingService> instances = List.of(newInstance(), newInstance());
+        ExecutorService executor = Executors.newFixedThreadPool(instances.size());
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<State<Void, String>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < instances.size(); i++) {
+                BookingService instance = instances.get(i);
+                OffsetDateTime startDate = START.plusDays(i);
+                results.add(executor.submit(() -> {
+                    startGate.await();
+                    return instance.create(new NewBookingDTO(startDate, startDate.plusDays(3), listing));
+                }));
+            }
+            startGate.countDown();
+
+            List<State<Void, String>> states = new ArrayList<>();
+            for (Future<State<Void, String>> result : results) {
+                states.add(result.get());
+            }
+
+            assertThat(states).extracting(State::getStatus)
+                    .containsExactlyInAnyOrder(StatusNotification.OK, StatusNotification.ERROR);
+            assertThat(states).filteredOn(state -> state.getStatus() == StatusNotification.ERROR)
+                    .extracting(State::getError).containsExactly("One booking already exists");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM airbnb.booking WHERE fk_listing = ?",
+                Long.class, listing)).isEqualTo(1);
+    }
+
+    @Test
+    void otherIntegrityViolationsAreNotReportedAsConflicts() {
+        // El inquilino no existe: la clave foránea fk_tenant rechaza la reserva
+        when(userService.getAuthenticatedUserFromSecurityContext()).thenReturn(
+                new ReadUserDTO(UUID.randomUUID(), "Ghost", "Test", "ghost@test.com", null, Set.of()));
+
+        assertThatThrownBy(() -> newInstance().create(new NewBookingDTO(START, START.plusDays(3), listing)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private BookingService newInstance() {
+        LandlordService landlordService = mock(LandlordService.class);
+        when(landlordService.getByListingPublicId(any(UUID.class))).thenAnswer(invocation ->
+                Optional.of(new ListingCreateBookingDTO(invocation.getArgument(0), new PriceVO(100))));
+
+        return new BookingService(bookingRepository, new BookingMapperImpl(), userService, landlordService,
+                new AvailabilityCalendar(bookingRepository, Duration.ofDays(730)), new ListingLocks(),
+                new TransactionTemplate(transactionManager), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,167 @@
+package org.project.airbnb.booking.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.BookingDates;
+import org.project.airbnb.booking.application.dto.BookedListingDTO;
+import org.project.airbnb.booking.domain.Booking;
+import org.project.airbnb.booking.mapper.BookingMapperImpl;
+import org.project.airbnb.booking.repository.BookingRepository;
+import org.project.airbnb.listing.application.LandlordService;
+import org.project.airbnb.listing.application.dto.DisplayCardListingDTO;
+import org.project.airbnb.listing.application.dto.sub.DisplayPictureDTO;
+import org.project.airbnb.listing.application.dto.vo.PriceVO;
+import org.project.airbnb.listing.domain.BookingCategory;
+import org.project.airbnb.sharedkernel.service.CursorPageDTO;
+import org.project.airbnb.sharedkernel.service.State;
+import org.project.airbnb.sharedkernel.service.StatusNotification;
+import org.project.airbnb.user.application.UserService;
+import org.project.airbnb.user.application.dto.ReadUserDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingServiceBookedListingTest {
+
+    private static final OffsetDateTime START = BookingDates.mondayInWeeks(1);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final LandlordService landlordService = mock(LandlordService.class);
+    private final UserService userService = mock(UserService.class);
+    private final ReadUserDTO connectedUser = new ReadUserDTO(UUID.randomUUID(), "User", "Test", "user@test.com", null, Set.of());
+
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        when(userService.getAuthenticatedUserFromSecurityContext()).thenReturn(connectedUser);
+        bookingService = new BookingService(bookingRepository, new BookingMapperImpl(), userService, landlordService,
+                mock(AvailabilityCalendar.class), new ListingLocks(), mock(TransactionTemplate.class),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void joinsEachBookingWithItsListing() {
+        DisplayCardListingDTO beach = card("Spain");
+        DisplayCardListingDTO cabin = card("Chile");
+        Booking first = booking(cabin.publicId(), 0);
+        Booking second = booking(beach.publicId(), 10);
+        Booking third = booking(cabin.publicId(), 20);
+        when(landlordService.getAllProperties(connectedUser)).thenReturn(List.of(beach, cabin));
+        when(bookingRepository.findAllByFkListingIn(any())).thenReturn(List.of(first, second, third));
+
+        List<BookedListingDTO> booked = bookingService.getBookedListingForLandlord();
+
+        assertThat(booked).extracting(BookedListingDTO::bookingPublicId)
+                .containsExactly(first.getPublicId(), second.getPublicId(), third.getPublicId());
+        assertThat(booked).extracting(BookedListingDTO::location).containsExactly("Chile", "Spain", "Chile");
+        assertThat(booked).extracting(BookedListingDTO::cover).containsExactly(cabin.cover(), beach.cover(), cabin.cover());
+    }
+
+    @Test
+    void requestsEachTenantListingOnce() {
+        DisplayCardListingDTO cabin = card("Chile");
+        when(bookingRepository.findAllByFkTenant(connectedUser.publicId()))
+                .thenReturn(List.of(booking(cabin.publicId(), 0), booking(cabin.publicId(), 10)));
+        when(landlordService.getCardDisplayByListingPublicId(List.of(cabin.publicId()))).thenReturn(List.of(cabin));
+
+        List<BookedListingDTO> booked = bookingService.getBookedListing();
+
+        assertThat(booked).hasSize(2).extracting(BookedListingDTO::listingPublicId).containsOnly(cabin.publicId());
+        verify(landlordService).getCardDisplayByListingPublicId(List.of(cabin.publicId()));
+    }
+
+    @Test
+    void pagesLandlordBookingsWithACursor() {
+        DisplayCardListingDTO cabin = card("Chile");
+        DisplayCardListingDTO beach = card("Spain");
+        List<Booking> bookings = List.of(booking(cabin.publicId(), 0), booking(cabin.publicId(), 10), booking(beach.publicId(), 20));
+        for (int i = 0; i < bookings.size(); i++) {
+            bookings.get(i).setId((long) i + 1);
+        }
+        when(bookingRepository.findWindowByLandlordPublicId(eq(connectedUser.publicId()), any(), any(), eq(Limit.of(3))))
+                .thenReturn(bookings);
+        when(bookingRepository.findWindowByLandlordPublicIdAfter(eq(connectedUser.publicId()), any(), any(),
+                eq(bookings.get(1).getStartDate()), eq(2L), eq(Limit.of(3))))
+                .thenReturn(bookings.subList(2, 3));
+        when(landlordService.getCardDisplayByListingPublicId(List.of(cabin.publicId()))).thenReturn(List.of(cabin));
+        when(landlordService.getCardDisplayByListingPublicId(List.of(beach.publicId()))).thenReturn(List.of(beach));
+
+        CursorPageDTO<BookedListingDTO> first = bookingService.getBookedListingForLandlord(null, null, null, null, 2).getValue();
+        CursorPageDTO<BookedListingDTO> second = bookingService.getBookedListingForLandlord(null, null, null, first.nextCursor(), 2).getValue();
+
+        assertThat(first.hasNext()).isTrue();
+        assertThat(first.content()).extracting(BookedListingDTO::bookingPublicId)
+                .containsExactly(bookings.get(0).getPublicId(), bookings.get(1).getPublicId());
+        assertThat(second.hasNext()).isFalse();
+        assertThat(second.nextCursor()).isNull();
+        assertThat(second.content()).extracting(BookedListingDTO::bookingPublicId).containsExactly(bookings.get(2).getPublicId());
+        assertThat(second.content()).extracting(BookedListingDTO::location).containsExactly("Spain");
+        // Solo se leen las tarjetas de los listados de cada página, nunca todas las propiedades del arrendador
+        verify(landlordService, never()).getAllProperties(any());
+    }
+
+    @Test
+    void pagesTheBookingsOfOneLandlordListing() {
+        DisplayCardListingDTO cabin = card("Chile");
+        Booking booking = booking(cabin.publicId(), 0);
+        when(landlordService.getByPublicIdAndLandlordPublicId(cabin.publicId(), connectedUser.publicId()))
+                .thenReturn(Optional.of(cabin));
+        when(bookingRepository.findWindowByFkListingIn(eq(List.of(cabin.publicId())), any(), any(), eq(Limit.of(21))))
+                .thenReturn(List.of(booking));
+
+        CursorPageDTO<BookedListingDTO> page =
+                bookingService.getBookedListingForLandlord(null, null, cabin.publicId(), null, 20).getValue();
+
+        assertThat(page.content()).extracting(BookedListingDTO::bookingPublicId).containsExactly(booking.getPublicId());
+        verify(landlordService, never()).getCardDisplayByListingPublicId(any());
+    }
+
+    @Test
+    void rejectsListingsOfOtherLandlords() {
+        State<CursorPageDTO<BookedListingDTO>, String> state =
+                bookingService.getBookedListingForLandlord(null, null, UUID.randomUUID(), null, 20);
+
+        assertThat(state.getStatus()).isEqualTo(StatusNotification.ERROR);
+        verify(bookingRepository, never()).findWindowByFkListingIn(any(), any(), any(), any());
+        verify(bookingRepository, never()).findWindowByLandlordPublicId(any(), any(), any(), any());
+    }
+
+    @Test
+    void rejectsAnEmptyDateWindow() {
+        State<CursorPageDTO<BookedListingDTO>, String> state =
+                bookingService.getBookedListingForLandlord(START.plusDays(1), START, null, null, 20);
+
+        assertThat(state.getStatus()).isEqualTo(StatusNotification.ERROR);
+    }
+
+    static DisplayCardListingDTO card(String location) {
+        UUID publicId = UUID.randomUUID();
+        return new DisplayCardListingDTO(new PriceVO(100), location,
+                new DisplayPictureDTO("/api/pictures/" + publicId, "image/jpeg", true), BookingCategory.BEACH, publicId);
+    }
+
+    static Booking booking(UUID listingPublicId, int dayOffset) {
+        Booking booking = new Booking();
+        booking.setPublicId(UUID.randomUUID());
+        booking.setFkListing(listingPublicId);
+        booking.setStartDate(START.plusDays(dayOffset));
+        booking.setEndDate(START.plusDays(dayOffset + 3));
+        booking.setTotalPrice(300);
+        return booking;
+    }
+}
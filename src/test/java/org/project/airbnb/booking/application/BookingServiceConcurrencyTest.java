@@ -0,0 +1,138 @@
+package org.project.airbnb.booking.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.BookingDates;
+import org.project.airbnb.booking.application.dto.NewBookingDTO;
+import org.project.airbnb.booking.domain.Booking;
+import org.project.airbnb.booking.mapper.BookingMapperImpl;
+import org.project.airbnb.booking.repository.BookingRepository;
+import org.project.airbnb.listing.application.LandlordService;
+import org.project.airbnb.listing.application.dto.ListingCreateBookingDTO;
+import org.project.airbnb.listing.application.dto.vo.PriceVO;
+import org.project.airbnb.sharedkernel.service.State;
+import org.project.airbnb.sharedkernel.service.StatusNotification;
+import org.project.airbnb.user.application.UserService;
+import org.project.airbnb.user.application.dto.ReadUserDTO;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Prueba de estrés de BookingService.create: miles de reservas solapadas lanzadas en paralelo
+ * sobre unos pocos listados no deben producir nunca dos reservas que se solapen.
+ * El repositorio está simulado, por lo que solo comprueba la serialización en memoria de una instancia;
+ * la restricción de exclusión de la base de datos se prueba en {@link BookingOverlapConstraintTest}.
+ */
+class BookingServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int REQUESTS = 4_000;
+    private static final OffsetDateTime SEASON_START = BookingDates.mondayInWeeks(1);
+
+    private final List<UUID> listings = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+    private final Queue<Booking> savedBookings = new ConcurrentLinkedQueue<>();
+
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            booking.setPublicId(UUID.randomUUID());
+            savedBookings.add(booking);
+            return booking;
+        });
+
+        LandlordService landlordService = mock(LandlordService.class);
+        when(landlordService.getByListingPublicId(any(UUID.class))).thenAnswer(invocation ->
+                Optional.of(new ListingCreateBookingDTO(invocation.getArgument(0), new PriceVO(100))));
+
+        UserService userService = mock(UserService.class);
+        when(userService.getAuthenticatedUserFromSecurityContext()).thenReturn(
+                new ReadUserDTO(UUID.randomUUID(), "Tenant", "Test", "tenant@test.com", null, Set.of()));
+
+        // Los conflictos del calendario se confirman en la base de datos, simulada con las reservas guardadas
+        when(bookingRepository.bookingExistsAtInterval(any(OffsetDateTime.class), any(OffsetDateTime.class), any(UUID.class)))
+                .thenAnswer(invocation -> savedBookings.stream().anyMatch(booking ->
+                        booking.getFkListing().equals(invocation.getArgument(2))
+                                && booking.getEndDate().isAfter(invocation.getArgument(0))
+                                && booking.getStartDate().isBefore(invocation.getArgument(1))));
+
+        AvailabilityCalendar availabilityCalendar = new AvailabilityCalendar(bookingRepository, Duration.ofDays(730));
+        availabilityCalendar.afterSingletonsInstantiated();
+
+        bookingService = new BookingService(bookingRepository, new BookingMapperImpl(), userService, landlordService,
+                availabilityCalendar, new ListingLocks(), new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void concurrentOverlappingRequestsNeverDoubleBook() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<State<Void, String>>> results = new ArrayList<>(REQUESTS);
+        try {
+            for (int i = 0; i < REQUESTS; i++) {
+                results.add(executor.submit(() -> {
+                    startGate.await();
+                    return bookingService.create(randomBooking());
+                }));
+            }
+            startGate.countDown();
+
+            int accepted = 0;
+            for (Future<State<Void, String>> result : results) {
+                if (result.get().getStatus() == StatusNotification.OK) {
+                    accepted++;
+                }
+            }
+
+            assertThat(accepted).isPositive().isEqualTo(savedBookings.size());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<UUID, List<Booking>> bookingsByListing = savedBookings.stream()
+                .collect(Collectors.groupingBy(Booking::getFkListing));
+        bookingsByListing.values().forEach(bookings -> {
+            List<Booking> sorted = bookings.stream().sorted(Comparator.comparing(Booking::getStartDate)).toList();
+            for (int i = 1; i < sorted.size(); i++) {
+                assertThat(sorted.get(i).getStartDate())
+                        .as("booking %s overlaps %s", sorted.get(i), sorted.get(i - 1))
+                        .isAfterOrEqualTo(sorted.get(i - 1).getEndDate());
+            }
+        });
+    }
+
+    private NewBookingDTO randomBooking() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        OffsetDateTime startDate = SEASON_START.plusDays(random.nextInt(90));
+        OffsetDateTime endDate = startDate.plusDays(1 + random.nextInt(5));
+        return new NewBookingDTO(startDate, endDate, listings.get(random.nextInt(listings.size())));
+    }
+}
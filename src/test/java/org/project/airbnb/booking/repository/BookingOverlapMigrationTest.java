@@ -0,0 +1,128 @@
+package org.project.airbnb.booking.repository;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.BookingDates;
+import org.project.airbnb.TestcontainersConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pruebas de la migración 00000000000004 sobre una base de datos que ya tiene reservas. Se migra un esquema
+ * propio, se retira la restricción booking_no_overlap y se olvidan sus changesets, de modo que la siguiente
+ * migración se comporta como en una base de datos anterior a la restricción.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Liquibase confirma sus propias transacciones
+class BookingOverlapMigrationTest {
+
+    private static final String SCHEMA = "booking_overlap_migration";
+
+    private static final OffsetDateTime START = BookingDates.mondayInWeeks(1);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID listingPublicId;
+
+    private UUID tenantPublicId;
+
+    @BeforeEach
+    void setUp() throws LiquibaseException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA));
+        migrate();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE " + SCHEMA + ".booking DROP CONSTRAINT booking_no_overlap");
+            jdbcTemplate.update("DELETE FROM " + SCHEMA + ".databasechangelog WHERE id LIKE '00000000000004-no-overlap%'");
+
+            tenantPublicId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO " + SCHEMA + ".airbnb_user (id, public_id, first_name, last_name, email)" +
+                    " VALUES (1, ?, 'Test', 'Tenant', 'tenant@test.local')", tenantPublicId);
+            listingPublicId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO " + SCHEMA + ".listing (id, public_id, title, description, guests, bedrooms," +
+                    " beds, bathrooms, price, category, location, landlord_public_id, created_date)" +
+                    " VALUES (1, ?, 'Listing', 'Description', 2, 1, 1, 1, 100, 'AMAZING_VIEWS', 'Spain', ?, now())",
+                    listingPublicId, tenantPublicId);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                jdbcTemplate.execute("DROP SCHEMA " + SCHEMA + " CASCADE"));
+    }
+
+    @Test
+    void overlappingBookingsHaltTheMigrationBeforeTheConstraint() {
+        insertBooking(1, START, START.plusDays(7));
+        insertBooking(2, START.plusDays(4), START.plusDays(9));
+
+        assertThatThrownBy(this::migrate)
+                .hasMessageContaining("resolve the overlapping or inverted bookings");
+        assertThat(noOverlapConstraintExists()).isFalse();
+    }
+
+    @Test
+    void adjacentBookingsLetTheMigrationAddTheConstraint() throws LiquibaseException {
+        insertBooking(1, START, START.plusDays(7));
+        insertBooking(2, START.plusDays(7), START.plusDays(9));
+
+        migrate();
+
+        assertThat(noOverlapConstraintExists()).isTrue();
+    }
+
+    private void migrate() throws LiquibaseException {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.setChangeLog("classpath:db/changelog/master.xml");
+        liquibase.setContexts("dev");
+        liquibase.setDefaultSchema(SCHEMA);
+        liquibase.afterPropertiesSet();
+    }
+
+    private void insertBooking(long id, OffsetDateTime startDate, OffsetDateTime endDate) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                jdbcTemplate.update("INSERT INTO " + SCHEMA + ".booking (id, start_date, end_date, total_price," +
+                        " nb_of_travelers, public_id, fk_listing, fk_tenant)" +
+                        " VALUES (?, ?, ?, 100, 1, ?, ?, ?)",
+                        id, startDate, endDate, UUID.randomUUID(), listingPublicId, tenantPublicId));
+    }
+
+    private boolean noOverlapConstraintExists() {
+        Integer constraints = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_constraint" +
+                " WHERE conname = 'booking_no_overlap' AND connamespace = ?::regnamespace", Integer.class, SCHEMA);
+        return constraints != null && constraints > 0;
+    }
+}
@@ -0,0 +1,126 @@
+package org.project.airbnb.booking.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.BookingDates;
+import org.project.airbnb.TestcontainersConfiguration;
+import org.project.airbnb.booking.domain.Booking;
+import org.project.airbnb.listing.repository.ListingTestData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas de las consultas por intervalo de fechas y cursor de BookingRepository contra un PostgreSQL real.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class BookingRepositoryTest {
+
+    private static final OffsetDateTime SEASON_START = BookingDates.mondayInWeeks(0);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID landlordPublicId;
+    private List<UUID> listings;
+
+    @BeforeEach
+    void setUp() {
+        landlordPublicId = ListingTestData.insertLandlord(jdbcTemplate);
+        ListingTestData.insertListings(jdbcTemplate, landlordPublicId, 5, 1);
+        insertWeeklyBookings(landlordPublicId);
+        listings = jdbcTemplate.queryForList("SELECT public_id FROM airbnb.listing WHERE landlord_public_id = ?",
+                UUID.class, landlordPublicId);
+    }
+
+    @Test
+    void returnsBookingsOverlappingTheWindowOrderedByStartDate() {
+        OffsetDateTime from = SEASON_START.plusWeeks(10).plusDays(1);
+        OffsetDateTime to = SEASON_START.plusWeeks(12);
+
+        List<Booking> bookings = bookingRepository.findWindowByFkListingIn(listings, from, to, Limit.of(100));
+
+        // Semanas 10 (termina después de from) y 11, para los cinco listados
+        assertThat(bookings).hasSize(10);
+        assertThat(bookings).extracting(Booking::getStartDate)
+                .isSortedAccordingTo(OffsetDateTime::compareTo)
+                .allSatisfy(start -> assertThat(start).isBefore(to));
+    }
+
+    @Test
+    void walksTheWindowWithTheCursorWithoutGapsOrRepeats() {
+        OffsetDateTime from = SEASON_START;
+        OffsetDateTime to = SEASON_START.plusWeeks(8);
+        List<Long> expected = jdbcTemplate.queryForList("SELECT id FROM airbnb.booking WHERE start_date < ?" +
+                " ORDER BY start_date, id", Long.class, to);
+
+        List<Long> walked = new ArrayList<>();
+        List<Booking> page = bookingRepository.findWindowByFkListingIn(listings, from, to, Limit.of(7));
+        while (!page.isEmpty()) {
+            page.forEach(booking -> walked.add(booking.getId()));
+            Booking last = page.getLast();
+            page = bookingRepository.findWindowByFkListingInAfter(listings, from, to, last.getStartDate(), last.getId(), Limit.of(7));
+        }
+
+        assertThat(walked).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void walksTheLandlordWindowWithoutTheBookingsOfOtherLandlords() {
+        UUID otherLandlordPublicId = ListingTestData.insertLandlord(jdbcTemplate);
+        ListingTestData.insertListings(jdbcTemplate, otherLandlordPublicId, 2, 1);
+        insertWeeklyBookings(otherLandlordPublicId);
+        OffsetDateTime from = SEASON_START;
+        OffsetDateTime to = SEASON_START.plusWeeks(8);
+        List<Long> expected = jdbcTemplate.queryForList("SELECT booking.id FROM airbnb.booking booking" +
+                " JOIN airbnb.listing listing ON listing.public_id = booking.fk_listing" +
+                " WHERE listing.landlord_public_id = ? AND booking.start_date < ? ORDER BY booking.start_date, booking.id",
+                Long.class, landlordPublicId, to);
+
+        List<Long> walked = new ArrayList<>();
+        List<Booking> page = bookingRepository.findWindowByLandlordPublicId(landlordPublicId, from, to, Limit.of(7));
+        while (!page.isEmpty()) {
+            page.forEach(booking -> walked.add(booking.getId()));
+            Booking last = page.getLast();
+            page = bookingRepository.findWindowByLandlordPublicIdAfter(landlordPublicId, from, to,
+                    last.getStartDate(), last.getId(), Limit.of(7));
+        }
+
+        assertThat(walked).hasSize(5 * 8).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void filtersBySingleListing() {
+        List<Booking> bookings = bookingRepository.findWindowByFkListingIn(List.of(listings.getFirst()),
+                SEASON_START, SEASON_START.plusYears(1), Limit.of(100));
+
+        assertThat(bookings).hasSize(52).extracting(Booking::getFkListing).containsOnly(listings.getFirst());
+    }
+
+    // Cada listado del arrendador tiene una reserva de tres noches cada semana durante un año; todas empiezan el mismo día
+    private void insertWeeklyBookings(UUID landlordPublicId) {
+        jdbcTemplate.update("INSERT INTO airbnb.booking (id, public_id, start_date, end_date, total_price, nb_of_travelers," +
+                " fk_listing, fk_tenant, created_date, last_modified_date)" +
+                " SELECT nextval('airbnb.booking_generator'), gen_random_uuid(), ?::timestamptz + make_interval(weeks => w)," +
+                " ?::timestamptz + make_interval(weeks => w, days => 3), 300, 2, listing.public_id, ?, now(), now()" +
+                " FROM airbnb.listing listing CROSS JOIN generate_series(0, 51) AS w WHERE listing.landlord_public_id = ?",
+                SEASON_START, SEASON_START, landlordPublicId, landlordPublicId);
+    }
+}
@@ -0,0 +1,127 @@
+package org.project.airbnb.infrastructure.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private static final String GET_ONE = "/api/tenant-listing/get-one";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void servesRequestsWithinTheLimit() throws Exception {
+        ConcurrencyLimitFilter filter = filter(2, 0, Duration.ZERO);
+
+        assertThat(request(filter).getStatus()).isEqualTo(200);
+        assertThat(request(filter).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get(ConcurrencyLimitFilter.REJECTED_COUNTER_NAME).counter().count()).isZero();
+    }
+
+    @Test
+    void rejectsAtOnceWhenTheQueueIsFull() throws Exception {
+        ConcurrencyLimitFilter filter = filter(1, 0, Duration.ofMinutes(1));
+
+        try (InFlightRequest inFlight = new InFlightRequest(filter)) {
+            long start = System.nanoTime();
+            MockHttpServletResponse response = request(filter);
+
+            assertThat(response.getStatus()).isEqualTo(503);
+            assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+        }
+        assertThat(meterRegistry.get(ConcurrencyLimitFilter.REJECTED_COUNTER_NAME).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsQueuedRequestsAfterTheQueueTimeout() throws Exception {
+        ConcurrencyLimitFilter filter = filter(1, 1, Duration.ofMillis(50));
+
+        try (InFlightRequest inFlight = new InFlightRequest(filter)) {
+            assertThat(request(filter).getStatus()).isEqualTo(503);
+        }
+    }
+
+    @Test
+    void queuedRequestsAreServedWhenATurnIsReleased() throws Exception {
+        ConcurrencyLimitFilter filter = filter(1, 1, Duration.ofMinutes(1));
+        AtomicReference<MockHttpServletResponse> response = new AtomicReference<>();
+
+        Thread queued;
+        try (InFlightRequest inFlight = new InFlightRequest(filter)) {
+            queued = Thread.ofPlatform().start(() -> {
+                try {
+                    response.set(request(filter));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            // La petición espera turno en el semáforo hasta que se libera el de la petición en curso
+            while (queued.getState() != Thread.State.TIMED_WAITING) {
+                Thread.sleep(1);
+            }
+        }
+        queued.join();
+
+        assertThat(response.get().getStatus()).isEqualTo(200);
+    }
+
+    private ConcurrencyLimitFilter filter(int maxConcurrentRequests, int maxQueuedRequests, Duration queueTimeout) {
+        return new ConcurrencyLimitFilter(
+                new ConcurrencyLimitProperties(maxConcurrentRequests, maxQueuedRequests, queueTimeout), meterRegistry);
+    }
+
+    private static MockHttpServletResponse request(ConcurrencyLimitFilter filter) throws Exception {
+        return request(filter, (request, response) -> {
+        });
+    }
+
+    private static MockHttpServletResponse request(ConcurrencyLimitFilter filter, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", GET_ONE), response, chain);
+        return response;
+    }
+
+    // Petición que ocupa un turno del filtro hasta que se cierra
+    private static final class InFlightRequest implements AutoCloseable {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch finish = new CountDownLatch(1);
+        private final Thread thread;
+
+        InFlightRequest(ConcurrencyLimitFilter filter) throws InterruptedException {
+            thread = Thread.ofVirtual().start(() -> {
+                try {
+                    request(filter, (request, response) -> {
+                        started.countDown();
+                        try {
+                            finish.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Override
+        public void close() throws InterruptedException {
+            finish.countDown();
+            thread.join();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.project.airbnb.infrastructure.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.project.airbnb.user.domain.User;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark JMH de la lectura de los atributos y reclamaciones del token, que se ejecuta en cada
+ * petición autenticada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityUtilsBenchmark {
+
+    private final Map<String, Object> claims = Map.of(
+            "sub", "auth0|6650b6c0f6f0c1a2b3c4d5e6",
+            "preferred_username", "Jane.Doe@Example.com",
+            "given_name", "Jane",
+            "family_name", "Doe",
+            "email", "jane.doe@example.com",
+            "picture", "https://example.com/jane.png",
+            SecurityUtils.CLAIMS_NAMESPACE, List.of(SecurityUtils.ROLE_TENANT, SecurityUtils.ROLE_LANDLORD, "offline_access"));
+
+    @Benchmark
+    public User mapOauth2AttributesToUser() {
+        return SecurityUtils.mapOauth2AttributesToUser(claims);
+    }
+
+    @Benchmark
+    public List<SimpleGrantedAuthority> extractAuthorityFromClaims() {
+        return SecurityUtils.extractAuthorityFromClaims(claims);
+    }
+}
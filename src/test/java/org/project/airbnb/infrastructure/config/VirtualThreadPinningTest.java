@@ -0,0 +1,47 @@
+package org.project.airbnb.infrastructure.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Comprueba que el código de la aplicación no usa {@code synchronized}. Un hilo virtual que se bloquea
+ * dentro de un bloque o método sincronizado queda fijado a su hilo portador, por lo que los bloqueos
+ * deben hacerse con {@link java.util.concurrent.locks.ReentrantLock}.
+ * Los fijados en librerías se diagnostican en ejecución con el perfil {@code virtual-threads}.
+ */
+class VirtualThreadPinningTest {
+
+    private static final Path SOURCES = Path.of("src", "main", "java");
+    private static final Pattern SYNCHRONIZED = Pattern.compile("\\bsynchronized\\b");
+
+    @Test
+    void applicationCodeDoesNotSynchronize() throws IOException {
+        try (Stream<Path> files = Files.walk(SOURCES)) {
+            List<String> offenders = files
+                    .filter(file -> file.toString().endsWith(".java"))
+                    .filter(VirtualThreadPinningTest::synchronizes)
+                    .map(Path::toString)
+                    .toList();
+            assertThat(offenders).isEmpty();
+        }
+    }
+
+    private static boolean synchronizes(Path file) {
+        try {
+            return Files.readAllLines(file).stream()
+                    .map(String::strip)
+                    .filter(line -> !line.startsWith("//") && !line.startsWith("*"))
+                    .anyMatch(line -> SYNCHRONIZED.matcher(line).find());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + file, e);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package org.project.airbnb.infrastructure.config;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.AirbnbBackApplication;
+import org.project.airbnb.infrastructure.storage.PictureStorage;
+import org.project.airbnb.loadtest.MarketplaceDataGenerator;
+import org.project.airbnb.loadtest.StubIdentityProvider;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Benchmark de carga del perfil {@code virtual-threads} frente a la configuración por defecto, con el pool de hilos
+ * de plataforma de Tomcat. Arranca la aplicación completa en cada modo sobre la misma base de datos, con un mercado
+ * sintético generado una sola vez, y mide el rendimiento y el p99 de {@value #ENDPOINT}, que lee el listado y su
+ * arrendador de PostgreSQL en cada petición, con 1.000, 5.000 y 10.000 conexiones concurrentes; los niveles que no
+ * caben en el límite de descriptores de fichero del proceso se omiten.
+ * Con hilos virtuales las peticiones que superan el límite de concurrencia se rechazan con 503 y se cuentan aparte;
+ * los demás fallos (errores 500 por falta de conexiones, tiempos de espera agotados) no pueden superar
+ * {@value #MAX_ERROR_RATE} de las peticiones.
+ * El cliente, la aplicación y la base de datos comparten la máquina, por lo que los resultados solo son comparables
+ * entre sí. Los niveles se cambian con {@code -Dbenchmark.concurrency=1000,5000}; con
+ * {@code -Dbenchmark.database=local} se usa la base de datos del perfil {@code dev} en lugar de un contenedor.
+ * Se ejecuta con {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class VirtualThreadsLoadBenchmarkTest {
+
+    private static final String ENDPOINT = "GET /api/tenant-listing/get-one";
+    private static final int USERS = 200;
+    private static final int LISTINGS = 2_000;
+    private static final int WARMUP_CONNECTIONS = 100;
+    private static final int REQUESTS_PER_CONNECTION = 5;
+    private static final double MAX_ERROR_RATE = 0.01;
+    private static final int FILE_DESCRIPTOR_MARGIN = 2_000;
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        int[] levels = Arrays.stream(System.getProperty("benchmark.concurrency", "1000,5000,10000").split(","))
+                .map(String::strip)
+                .mapToInt(Integer::parseInt)
+                .filter(VirtualThreadsLoadBenchmarkTest::fitsFileDescriptorLimit)
+                .toArray();
+        boolean container = !"local".equals(System.getProperty("benchmark.database", "container"));
+        assumeTrue(!container || DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+
+        Path workDirectory = Files.createTempDirectory("virtual-threads-benchmark");
+        // La aplicación se arranca dentro de este proceso y no debe reiniciarse con devtools
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (PostgreSQLContainer<?> postgres = container
+                ? new PostgreSQLContainer<>("postgres:16-alpine").withInitScript("testcontainers/init-schema.sql")
+                : null;
+             StubIdentityProvider identityProvider = new StubIdentityProvider(workDirectory)) {
+            List<String> arguments = new ArrayList<>(List.of(
+                    "--server.port=0",
+                    "--management.server.port=0",
+                    "--okta.oauth2.issuer=" + identityProvider.issuer(),
+                    "--okta.oauth2.client-id=benchmark",
+                    "--okta.oauth2.client-secret=benchmark",
+                    "--application.picture-storage.root=" + Files.createDirectories(workDirectory.resolve("pictures")),
+                    "--logging.level.org.hibernate.SQL=INFO",
+                    "--logging.level.org.project.airbnb=INFO"));
+            if (postgres != null) {
+                postgres.start();
+                arguments.add("--spring.datasource.url=" + postgres.getJdbcUrl());
+                arguments.add("--spring.datasource.username=" + postgres.getUsername());
+                arguments.add("--spring.datasource.password=" + postgres.getPassword());
+            }
+
+            List<UUID> listings;
+            Map<Integer, Result> platform;
+            try (ConfigurableApplicationContext context = start(arguments, false)) {
+                listings = generateMarketplace(context);
+                platform = measure(context, listings, levels);
+            }
+            Map<Integer, Result> virtual;
+            try (ConfigurableApplicationContext context = start(arguments, true)) {
+                virtual = measure(context, listings, levels);
+            }
+
+            System.out.println(ENDPOINT);
+            for (int concurrency : levels) {
+                Result platformResult = platform.get(concurrency);
+                Result virtualResult = virtual.get(concurrency);
+                System.out.printf("%,6d connections: platform %,8.0f req/s p99 %,6d ms (%d errors) | virtual %,8.0f req/s p99 %,6d ms (%d errors, %d rejected)%n",
+                        concurrency, platformResult.throughput(), platformResult.p99Millis(), platformResult.errors(),
+                        virtualResult.throughput(), virtualResult.p99Millis(), virtualResult.errors(), virtualResult.rejected());
+                assertThat(virtualResult.throughput()).isPositive();
+                assertThat(virtualResult.errorRate())
+                        .as("error rate with virtual threads and %,d connections", concurrency)
+                        .isLessThanOrEqualTo(MAX_ERROR_RATE);
+            }
+        }
+    }
+
+    // El cliente y el servidor abren un socket por conexión en este mismo proceso: si no caben en el límite de
+    // descriptores, los fallos serían del propio benchmark y no de la aplicación
+    private static boolean fitsFileDescriptorLimit(int concurrency) {
+        if (!(ManagementFactory.getOperatingSystemMXBean() instanceof UnixOperatingSystemMXBean os)) {
+            return true;
+        }
+        long required = 2L * concurrency + FILE_DESCRIPTOR_MARGIN;
+        if (required <= os.getMaxFileDescriptorCount()) {
+            return true;
+        }
+        System.out.printf("Skipping %,d connections: they need about %,d file descriptors and the limit is %,d%n",
+                concurrency, required, os.getMaxFileDescriptorCount());
+        return false;
+    }
+
+    // Arranca la aplicación con la configuración por defecto o con el perfil virtual-threads
+    private static ConfigurableApplicationContext start(List<String> arguments, boolean virtualThreads) {
+        List<String> modeArguments = new ArrayList<>(arguments);
+        if (virtualThreads) {
+            modeArguments.add("--spring.profiles.active=dev,virtual-threads");
+        }
+        ConfigurableApplicationContext context = SpringApplication.from(AirbnbBackApplication::main)
+                .run(modeArguments.toArray(String[]::new))
+                .getApplicationContext();
+        assertThat(context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false))
+                .isEqualTo(virtualThreads);
+        return context;
+    }
+
+    private static List<UUID> generateMarketplace(ConfigurableApplicationContext context) throws IOException {
+        MarketplaceDataGenerator generator = new MarketplaceDataGenerator(
+                context.getBean(JdbcTemplate.class),
+                new TransactionTemplate(context.getBean(PlatformTransactionManager.class)),
+                context.getBean(PictureStorage.class));
+        generator.deleteGenerated();
+        return generator.generate(USERS, LISTINGS, 1, 1).listingPublicIds();
+    }
+
+    private static Map<Integer, Result> measure(ConfigurableApplicationContext context, List<UUID> listings,
+                                                int[] levels) throws InterruptedException {
+        String baseUrl = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        Map<Integer, Result> results = new LinkedHashMap<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder().executor(clients).connectTimeout(Duration.ofSeconds(30)).build()) {
+            // Calienta el JIT, el pool de conexiones y las cachés de sentencias antes de medir
+            run(httpClient, baseUrl, listings, WARMUP_CONNECTIONS);
+            for (int concurrency : levels) {
+                results.put(concurrency, run(httpClient, baseUrl, listings, concurrency));
+            }
+        }
+        return results;
+    }
+
+    private static Result run(HttpClient httpClient, String baseUrl, List<UUID> listings, int concurrency)
+            throws InterruptedException {
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        long start = System.nanoTime();
+        List<Thread> connections = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            connections.add(Thread.ofVirtual().start(() -> {
+                for (int r = 0; r < REQUESTS_PER_CONNECTION; r++) {
+                    UUID listing = listings.get(ThreadLocalRandom.current().nextInt(listings.size()));
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/tenant-listing/get-one?publicId=" + listing))
+                            .timeout(Duration.ofSeconds(60))
+                            .build();
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 503) {
+                            rejected.incrementAndGet();
+                        } else if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException | InterruptedException e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies.add(System.nanoTime() - sent);
+                }
+            }));
+        }
+        for (Thread connection : connections) {
+            connection.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        long p99 = sorted[(int) Math.ceil(sorted.length * 0.99) - 1] / 1_000_000;
+        return new Result(sorted.length, sorted.length / seconds, p99, errors.get(), rejected.get());
+    }
+
+    private record Result(int requests, double throughput, long p99Millis, int errors, int rejected) {
+
+        double errorRate() {
+            return (double) errors / requests;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.project.airbnb.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark JMH del coste de la instrumentación en las rutas críticas: la llamada a un servicio medido por
+ * {@link ServiceTimingAspect} frente a la llamada directa, y el registro de un contador, de una distribución y
+ * del recuento de sentencias SQL. Las métricas se publican en un registro de Prometheus con histograma de
+ * percentiles, como en la aplicación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstrumentationOverheadBenchmark {
+
+    private final RequestStatementCounter statementCounter = new RequestStatementCounter();
+    private final SqlBudgetProperties budget = new SqlBudgetProperties(SqlBudgetProperties.Mode.LOG, 10, 3, null);
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tenant-listing/get-one");
+
+    private PricingService direct;
+    private PricingService timed;
+    private Counter counter;
+    private DistributionSummary summary;
+    private int nights;
+
+    @Setup
+    public void setUp() {
+        PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        // Equivale a management.metrics.distribution.percentiles-histogram
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+            }
+        });
+        direct = new PricingService();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new PricingService());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ServiceTimingAspect(meterRegistry));
+        timed = proxyFactory.getProxy();
+        counter = meterRegistry.counter("airbnb.booking.conflicts");
+        summary = meterRegistry.summary("airbnb.picture.served");
+        nights = 3;
+    }
+
+    @Benchmark
+    public int directServiceCall() {
+        return direct.totalPrice(nights, 120);
+    }
+
+    @Benchmark
+    public int timedServiceCall() {
+        return timed.totalPrice(nights, 120);
+    }
+
+    @Benchmark
+    public void counterIncrement() {
+        counter.increment();
+    }
+
+    @Benchmark
+    public void summaryRecord() {
+        summary.record(276_802);
+    }
+
+    @Benchmark
+    public int statementCount() {
+        RequestStatements statements = new RequestStatements(request, budget);
+        RequestStatementCounter.start(statements);
+        statementCounter.inspect("select 1");
+        RequestStatementCounter.stop();
+        return statements.count();
+    }
+
+    /**
+     * Servicio mínimo que mide el aspecto, con un método de coste despreciable.
+     */
+    @Service
+    public static class PricingService {
+
+        public int totalPrice(int nights, int pricePerNight) {
+            return nights * pricePerNight;
+        }
+    }
+}
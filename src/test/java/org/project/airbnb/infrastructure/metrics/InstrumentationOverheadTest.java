@@ -0,0 +1,43 @@
+package org.project.airbnb.infrastructure.metrics;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Comprueba con {@link InstrumentationOverheadBenchmark} que la instrumentación añade menos de 1 µs a cada
+ * operación medida: la llamada a un servicio a través de {@link ServiceTimingAspect} respecto a la llamada directa,
+ * y cada registro de contador, distribución o recuento de sentencias.
+ * Se ejecuta con {@code mvn test -Pbenchmark -Dtest=InstrumentationOverheadTest}.
+ */
+@Tag("benchmark")
+class InstrumentationOverheadTest {
+
+    private static final double MAX_OVERHEAD_NANOS = 1_000;
+
+    @Test
+    void recordingCostsLessThanOneMicrosecond() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(InstrumentationOverheadBenchmark.class.getName() + "\\.")
+                .build();
+        Map<String, Double> nanosPerOperation = new Runner(options).run().stream()
+                .collect(Collectors.toMap(result -> result.getParams().getBenchmark().replaceAll(".*\\.", ""),
+                        (RunResult result) -> result.getPrimaryResult().getScore()));
+
+        double aspectOverhead = nanosPerOperation.get("timedServiceCall") - nanosPerOperation.get("directServiceCall");
+        System.out.printf("Service timing overhead: %.1f ns/call%n", aspectOverhead);
+        assertThat(aspectOverhead).isLessThan(MAX_OVERHEAD_NANOS);
+        assertThat(nanosPerOperation.get("counterIncrement")).isLessThan(MAX_OVERHEAD_NANOS);
+        assertThat(nanosPerOperation.get("summaryRecord")).isLessThan(MAX_OVERHEAD_NANOS);
+        assertThat(nanosPerOperation.get("statementCount")).isLessThan(MAX_OVERHEAD_NANOS);
+    }
+}
@@ -0,0 +1,81 @@
+package org.project.airbnb.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServiceTimingAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void timesEachPublicServiceMethod() {
+        SampleService service = proxy(new SampleService());
+
+        service.find();
+        service.find();
+        service.save();
+
+        assertThat(timer("find").count()).isEqualTo(2);
+        assertThat(timer("save").count()).isEqualTo(1);
+    }
+
+    @Test
+    void timesMethodsThatThrow() {
+        SampleService service = proxy(new SampleService());
+
+        assertThatThrownBy(service::fail).isInstanceOf(IllegalStateException.class);
+
+        assertThat(timer("fail").count()).isEqualTo(1);
+    }
+
+    @Test
+    void ignoresClassesThatAreNotServices() {
+        SampleHelper helper = proxy(new SampleHelper());
+
+        helper.help();
+
+        assertThat(meterRegistry.find(ServiceTimingAspect.TIMER_NAME).timers()).isEmpty();
+    }
+
+    private Timer timer(String method) {
+        return meterRegistry.get(ServiceTimingAspect.TIMER_NAME)
+                .tag("service", "SampleService")
+                .tag("method", method)
+                .timer();
+    }
+
+    private <T> T proxy(T target) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ServiceTimingAspect(meterRegistry));
+        return proxyFactory.getProxy();
+    }
+
+    @Service
+    static class SampleService {
+
+        public String find() {
+            return "found";
+        }
+
+        public void save() {
+        }
+
+        public void fail() {
+            throw new IllegalStateException("failure");
+        }
+    }
+
+    static class SampleHelper {
+
+        public String help() {
+            return "help";
+        }
+    }
+}
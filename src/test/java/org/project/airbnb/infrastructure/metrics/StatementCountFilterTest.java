@@ -0,0 +1,101 @@
+package org.project.airbnb.infrastructure.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(OutputCaptureExtension.class)
+class StatementCountFilterTest {
+
+    private static final String GET_ONE = "/api/tenant-listing/get-one";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestStatementCounter statementCounter = new RequestStatementCounter();
+
+    @Test
+    void recordsTheStatementsOfEachRequestByUriTemplate() throws Exception {
+        StatementCountFilter filter = filter(SqlBudgetProperties.Mode.LOG);
+
+        request(filter, GET_ONE, "select listing", "select user");
+        request(filter, GET_ONE, "select listing");
+
+        DistributionSummary summary = meterRegistry.get(StatementCountFilter.SUMMARY_NAME)
+                .tag("method", "GET")
+                .tag("uri", GET_ONE)
+                .summary();
+        assertThat(summary.count()).isEqualTo(2);
+        assertThat(summary.totalAmount()).isEqualTo(3);
+        assertThat(summary.max()).isEqualTo(2);
+    }
+
+    @Test
+    void ignoresRequestsWithoutHandler() throws Exception {
+        request(filter(SqlBudgetProperties.Mode.LOG), null, "select 1");
+
+        assertThat(meterRegistry.find(StatementCountFilter.SUMMARY_NAME).summaries()).isEmpty();
+    }
+
+    @Test
+    void doesNotCountStatementsOutsideRequests() throws Exception {
+        statementCounter.inspect("select 1");
+        request(filter(SqlBudgetProperties.Mode.LOG), "/api/booking/check-availability");
+
+        assertThat(meterRegistry.get(StatementCountFilter.SUMMARY_NAME).summary().totalAmount()).isZero();
+    }
+
+    @Test
+    void logsRequestsOverTheirEndpointBudget(CapturedOutput output) throws Exception {
+        request(filter(SqlBudgetProperties.Mode.LOG), GET_ONE, "select listing", "select picture", "select user");
+
+        assertThat(output).contains("GET " + GET_ONE + " prepared 3 SQL statements, over its budget of 2");
+    }
+
+    @Test
+    void rejectsTheStatementThatExceedsTheBudget() {
+        StatementCountFilter filter = filter(SqlBudgetProperties.Mode.REJECT);
+
+        assertThatThrownBy(() -> request(filter, GET_ONE, "select listing", "select picture", "select user"))
+                .isInstanceOf(SqlBudgetExceededException.class)
+                .hasMessage("GET " + GET_ONE + " exceeded its budget of 2 SQL statements");
+        assertThat(meterRegistry.get(StatementCountFilter.SUMMARY_NAME).summary().max()).isEqualTo(3);
+    }
+
+    @Test
+    void reportsRepeatedStatementsAsPossibleNPlusOne(CapturedOutput output) throws Exception {
+        String pictures = "select picture from listing_picture where listing_fk=?";
+
+        request(filter(SqlBudgetProperties.Mode.LOG), "/api/booking/get-booked-listing",
+                "select booking", pictures, pictures, pictures);
+
+        assertThat(output).contains("Possible N+1 query in GET /api/booking/get-booked-listing: the same statement was prepared 3 times: "
+                + pictures);
+    }
+
+    private StatementCountFilter filter(SqlBudgetProperties.Mode mode) {
+        return new StatementCountFilter(meterRegistry, new SqlBudgetProperties(mode, 10, 3, Map.of(GET_ONE, 2)));
+    }
+
+    // Simula una petición cuyo controlador, ya resuelto, prepara las sentencias indicadas
+    private void request(StatementCountFilter filter, String uriTemplate, String... statements) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/anything");
+        filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+            if (uriTemplate != null) {
+                servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, uriTemplate);
+            }
+            for (String sql : statements) {
+                statementCounter.inspect(sql);
+            }
+        });
+    }
+}
@@ -0,0 +1,140 @@
+package org.project.airbnb.listing.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.TestcontainersConfiguration;
+import org.project.airbnb.listing.domain.BookingCategory;
+import org.project.airbnb.listing.mapper.ListingMapper;
+import org.project.airbnb.listing.mapper.ListingMapperImpl;
+import org.project.airbnb.listing.mapper.ListingPictureMapperImpl;
+import org.project.airbnb.listing.repository.ListingRepository;
+import org.project.airbnb.listing.repository.ListingTestData;
+import org.project.airbnb.user.application.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga de la navegación por categorías con y sin {@link CategoryPageCache}.
+ * Varios hilos piden concurrentemente las primeras páginas de unas pocas categorías, como el tráfico anónimo,
+ * y se comparan los percentiles de latencia. Se ejecuta con {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TestcontainersConfiguration.class, ListingMapperImpl.class, ListingPictureMapperImpl.class})
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Los hilos de la carga deben ver los datos confirmados
+class CategoryBrowseLoadBenchmarkTest {
+
+    private static final int LISTINGS = 50_000;
+    private static final int THREADS = 32;
+    private static final int REQUESTS_PER_THREAD = 300;
+    private static final int PAGE_SIZE = 20;
+    private static final BookingCategory[] HOT_CATEGORIES = {
+            BookingCategory.ALL, BookingCategory.values()[1], BookingCategory.values()[2], BookingCategory.values()[3]};
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private ListingMapper listingMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private UserService userService;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE airbnb.listing_picture, airbnb.listing, airbnb.airbnb_user CASCADE");
+    }
+
+    @Test
+    void firstPagesLatencyUnderConcurrency() throws Exception {
+        ListingTestData.insertListings(jdbcTemplate, ListingTestData.insertLandlord(jdbcTemplate), LISTINGS, 3);
+
+        CategoryPageCache disabled = new CategoryPageCache(0, 0, Duration.ofMinutes(10));
+        CategoryPageCache enabled = new CategoryPageCache(3, 20_000, Duration.ofMinutes(10));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        enabled.bindTo(registry);
+
+        long[] uncached = run(new TenantService(listingRepository, listingMapper, userService, disabled, null, null,
+                new TransactionTemplate(transactionManager)));
+        long[] cached = run(new TenantService(listingRepository, listingMapper, userService, enabled, null, null,
+                new TransactionTemplate(transactionManager)));
+
+        System.out.printf("%10s %10s %10s %10s%n", "cache", "p50 (ms)", "p99 (ms)", "max (ms)");
+        print("off", uncached);
+        print("on", cached);
+        double hits = registry.get("cache.gets").tag("result", "hit").functionCounter().count();
+        double misses = registry.get("cache.gets").tag("result", "miss").functionCounter().count();
+        System.out.printf("hit ratio: %.4f%n", hits / (hits + misses));
+
+        assertThat(hits / (hits + misses)).isGreaterThan(0.95);
+    }
+
+    private long[] run(TenantService tenantService) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    long[] latencies = new long[REQUESTS_PER_THREAD];
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                        BookingCategory category = HOT_CATEGORIES[random.nextInt(HOT_CATEGORIES.length)];
+                        PageRequest page = PageRequest.of(random.nextInt(3), PAGE_SIZE);
+                        long start = System.nanoTime();
+                        tenantService.getAllByCategory(page, category);
+                        latencies[i] = System.nanoTime() - start;
+                    }
+                    return latencies;
+                }));
+            }
+            long[] all = new long[THREADS * REQUESTS_PER_THREAD];
+            for (int t = 0; t < THREADS; t++) {
+                System.arraycopy(futures.get(t).get(), 0, all, t * REQUESTS_PER_THREAD, REQUESTS_PER_THREAD);
+            }
+            Arrays.sort(all);
+            return all;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void print(String label, long[] sorted) {
+        System.out.printf("%10s %10.2f %10.2f %10.2f%n", label,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), sorted[sorted.length - 1] / 1_000_000d);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1_000_000d;
+    }
+}
@@ -0,0 +1,92 @@
+package org.project.airbnb.listing.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.listing.application.dto.DisplayCardListingDTO;
+import org.project.airbnb.listing.domain.BookingCategory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryPageCacheTest {
+
+    private final CategoryPageCache cache = new CategoryPageCache(2, 1_000, Duration.ofMinutes(10));
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void servesFirstPagesFromCache() {
+        load(BookingCategory.AMAZING_VIEWS, 0);
+        load(BookingCategory.AMAZING_VIEWS, 0);
+        load(BookingCategory.AMAZING_VIEWS, 1);
+        load(BookingCategory.AMAZING_VIEWS, 1);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void neverCachesDeeperPages() {
+        load(BookingCategory.AMAZING_VIEWS, 2);
+        load(BookingCategory.AMAZING_VIEWS, 2);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidatesOnlyTheChangedCategoryAndAll() {
+        load(BookingCategory.AMAZING_VIEWS, 0);
+        load(BookingCategory.OMG, 0);
+        load(BookingCategory.ALL, 0);
+
+        cache.onListingChanged(new ListingChangedEvent(BookingCategory.AMAZING_VIEWS));
+        load(BookingCategory.AMAZING_VIEWS, 0);
+        load(BookingCategory.OMG, 0);
+        load(BookingCategory.ALL, 0);
+
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void pageComputedDuringInvalidationIsNotServedAfterwards() {
+        cache.get(BookingCategory.OMG, PageRequest.of(0, 20), () -> {
+            // Un listado de la categoría cambia mientras se calcula la página
+            cache.invalidate(BookingCategory.OMG);
+            return page();
+        });
+        load(BookingCategory.OMG, 0);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void publishesHitAndMissMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        load(BookingCategory.ALL, 0);
+        load(BookingCategory.ALL, 0);
+        load(BookingCategory.ALL, 0);
+
+        assertThat(registry.get("cache.gets").tag("cache", CategoryPageCache.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("cache.gets").tag("cache", CategoryPageCache.CACHE_NAME).tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    private void load(BookingCategory category, int pageNumber) {
+        cache.get(category, PageRequest.of(pageNumber, 20), () -> {
+            loads.incrementAndGet();
+            return page();
+        });
+    }
+
+    private static Page<DisplayCardListingDTO> page() {
+        return new PageImpl<>(List.of());
+    }
+}
@@ -0,0 +1,155 @@
+package org.project.airbnb.listing.application;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.project.airbnb.TestcontainersConfiguration;
+import org.project.airbnb.booking.application.AvailabilityCalendar;
+import org.project.airbnb.infrastructure.storage.FileSystemPictureStorage;
+import org.project.airbnb.infrastructure.storage.PictureStorage;
+import org.project.airbnb.listing.mapper.ListingMapper;
+import org.project.airbnb.listing.mapper.ListingPictureMapper;
+import org.project.airbnb.listing.repository.ListingPictureRepository;
+import org.project.airbnb.listing.repository.ListingPictureVariantRepository;
+import org.project.airbnb.listing.repository.ListingRepository;
+import org.project.airbnb.listing.repository.ListingTestData;
+import org.project.airbnb.sharedkernel.service.State;
+import org.project.airbnb.sharedkernel.service.StatusNotification;
+import org.project.airbnb.user.application.Auth0Service;
+import org.project.airbnb.user.application.UserService;
+import org.project.airbnb.user.application.dto.ReadUserDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Pruebas de LandlordService.delete contra un PostgreSQL real: al eliminar un listado se borra del almacenamiento
+ * el contenido de sus imágenes y variantes, salvo el que sigue referenciando otro listado.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // El contenido se borra después de confirmar la eliminación
+class LandlordServiceDeleteTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private ListingPictureRepository listingPictureRepository;
+
+    @Autowired
+    private ListingPictureVariantRepository listingPictureVariantRepository;
+
+    @TempDir
+    private Path storageRoot;
+
+    private TransactionTemplate transactionTemplate;
+    private PictureStorage pictureStorage;
+    private LandlordService landlordService;
+    private UUID landlordPublicId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        pictureStorage = new FileSystemPictureStorage(storageRoot);
+        PictureService pictureService = new PictureService(listingPictureRepository, mock(ListingPictureMapper.class),
+                listingPictureVariantRepository, pictureStorage, mock(ApplicationEventPublisher.class));
+        landlordService = new LandlordService(listingRepository, mock(ListingMapper.class), mock(UserService.class),
+                mock(Auth0Service.class), pictureService, mock(AvailabilityCalendar.class),
+                mock(ApplicationEventPublisher.class), mock(ListingSearchIndex.class));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            landlordPublicId = ListingTestData.insertLandlord(jdbcTemplate);
+            ListingTestData.insertListings(jdbcTemplate, landlordPublicId, 2, 2);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute(
+                "TRUNCATE airbnb.listing_picture, airbnb.listing, airbnb.airbnb_user CASCADE"));
+    }
+
+    @Test
+    void deleteRemovesTheContentOnlyTheDeletedListingReferences() throws IOException {
+        List<Long> pictureIds = jdbcTemplate.queryForList("SELECT picture.id FROM airbnb.listing_picture picture" +
+                " JOIN airbnb.listing listing ON listing.id = picture.listing_fk ORDER BY listing.id, picture.id", Long.class);
+        UUID deletedListing = jdbcTemplate.queryForObject(
+                "SELECT public_id FROM airbnb.listing ORDER BY id LIMIT 1", UUID.class);
+
+        // El listado eliminado tiene una imagen propia con una variante y otra que comparte con el segundo listado
+        String cover = store("cover");
+        String coverVariant = store("cover-card");
+        String shared = store("shared");
+        String other = store("other");
+        transactionTemplate.executeWithoutResult(status -> {
+            setFileHash(pictureIds.get(0), cover);
+            setFileHash(pictureIds.get(1), shared);
+            setFileHash(pictureIds.get(2), shared);
+            setFileHash(pictureIds.get(3), other);
+            jdbcTemplate.update("INSERT INTO airbnb.listing_picture_variant (id, picture_fk, variant, file_hash," +
+                    " file_size, file_content_type, width, height)" +
+                    " VALUES (nextval('airbnb.listing_picture_variant_generator'), ?, 'CARD', ?, 10, 'image/jpeg', 480, 320)",
+                    pictureIds.get(0), coverVariant);
+        });
+
+        State<UUID, String> state = transactionTemplate.execute(status -> landlordService.delete(deletedListing,
+                new ReadUserDTO(landlordPublicId, "Test", "Landlord", "landlord@test.local", null, Set.of())));
+
+        assertThat(state.getStatus()).isEqualTo(StatusNotification.OK);
+        assertThat(pictureStorage.load(cover)).isEmpty();
+        assertThat(pictureStorage.load(coverVariant)).isEmpty();
+        assertThat(pictureStorage.load(shared)).isPresent();
+        assertThat(pictureStorage.load(other)).isPresent();
+    }
+
+    @Test
+    void deleteByAnotherLandlordKeepsTheContent() throws IOException {
+        Long pictureId = jdbcTemplate.queryForObject("SELECT min(id) FROM airbnb.listing_picture", Long.class);
+        UUID listingPublicId = jdbcTemplate.queryForObject("SELECT listing.public_id FROM airbnb.listing listing" +
+                " JOIN airbnb.listing_picture picture ON picture.listing_fk = listing.id WHERE picture.id = ?", UUID.class, pictureId);
+        String cover = store("cover");
+        transactionTemplate.executeWithoutResult(status -> setFileHash(pictureId, cover));
+
+        State<UUID, String> state = transactionTemplate.execute(status -> landlordService.delete(listingPublicId,
+                new ReadUserDTO(UUID.randomUUID(), "Other", "Landlord", "other@test.local", null, Set.of())));
+
+        assertThat(state.getStatus()).isEqualTo(StatusNotification.UNAUTHORIZED);
+        assertThat(pictureStorage.load(cover)).isPresent();
+    }
+
+    private String store(String content) throws IOException {
+        return pictureStorage.store(new ByteArrayInputStream(content.getBytes())).hash();
+    }
+
+    private void setFileHash(Long pictureId, String fileHash) {
+        jdbcTemplate.update("UPDATE airbnb.listing_picture SET file_hash = ? WHERE id = ?", fileHash, pictureId);
+    }
+}
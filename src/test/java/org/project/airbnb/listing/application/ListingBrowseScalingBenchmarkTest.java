@@ -0,0 +1,84 @@
+package org.project.airbnb.listing.application;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.TestcontainersConfiguration;
+import org.project.airbnb.listing.domain.BookingCategory;
+import org.project.airbnb.listing.mapper.ListingMapperImpl;
+import org.project.airbnb.listing.mapper.ListingPictureMapperImpl;
+import org.project.airbnb.listing.repository.ListingTestData;
+import org.project.airbnb.user.application.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de la navegación por categorías con catálogos de 10k, 100k y 1M listados.
+ * Mide la latencia media de la primera página y de una página intermedia, para todas las categorías
+ * y para una categoría concreta. Se ejecuta con {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = "application.category-page-cache.cached-pages=0")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TestcontainersConfiguration.class, TenantService.class, CategoryPageCache.class, ListingFacetCache.class, ListingMapperImpl.class, ListingPictureMapperImpl.class})
+@Testcontainers(disabledWithoutDocker = true)
+class ListingBrowseScalingBenchmarkTest {
+
+    private static final int[] CATALOGUE_SIZES = {10_000, 100_000, 1_000_000};
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP = 10;
+    private static final int ITERATIONS = 30;
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private ListingSearchIndex listingSearchIndex;
+
+    @Test
+    void browseLatencyAcrossCatalogueSizes() {
+        UUID landlordPublicId = ListingTestData.insertLandlord(jdbcTemplate);
+        BookingCategory category = BookingCategory.values()[1];
+        int inserted = 0;
+
+        System.out.printf("%10s %18s %18s %18s%n", "listings", "ALL first (ms)", "ALL page 50 (ms)", category + " first (ms)");
+        for (int size : CATALOGUE_SIZES) {
+            ListingTestData.insertListings(jdbcTemplate, landlordPublicId, size - inserted, 3);
+            inserted = size;
+
+            double first = averageMillis(0, BookingCategory.ALL);
+            double middle = averageMillis(50, BookingCategory.ALL);
+            double categoryFirst = averageMillis(0, category);
+            System.out.printf("%,10d %18.2f %18.2f %18.2f%n", size, first, middle, categoryFirst);
+        }
+
+        assertThat(tenantService.getAllByCategory(PageRequest.of(0, PAGE_SIZE), BookingCategory.ALL).getTotalElements())
+                .isEqualTo(CATALOGUE_SIZES[CATALOGUE_SIZES.length - 1]);
+    }
+
+    private double averageMillis(int page, BookingCategory category) {
+        for (int i = 0; i < WARMUP; i++) {
+            tenantService.getAllByCategory(PageRequest.of(page, PAGE_SIZE), category);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            tenantService.getAllByCategory(PageRequest.of(page, PAGE_SIZE), category);
+        }
+        return (System.nanoTime() - start) / 1_000_000d / ITERATIONS;
+    }
+}
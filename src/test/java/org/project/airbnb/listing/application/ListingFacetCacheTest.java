@@ -0,0 +1,129 @@
+package org.project.airbnb.listing.application;
+
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.listing.application.dto.ListingFacetsDTO;
+import org.project.airbnb.listing.application.dto.sub.PriceBucketDTO;
+import org.project.airbnb.listing.domain.BookingCategory;
+import org.project.airbnb.listing.domain.ListingCardView;
+import org.project.airbnb.listing.domain.ListingFacetCount;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class ListingFacetCacheTest {
+
+    private static final List<ListingFacetCount> COUNTS = List.of(
+            new ListingFacetCount(BookingCategory.AMAZING_VIEWS, 0, 1, 2),
+            new ListingFacetCount(BookingCategory.AMAZING_VIEWS, 1, 2, 3),
+            new ListingFacetCount(BookingCategory.OMG, 1, 1, 4),
+            new ListingFacetCount(BookingCategory.OMG, 7, 3, 1));
+
+    private final ListingFacetCache cache = new ListingFacetCache(100, 3, 100, Duration.ofMinutes(1));
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void summarizesEveryFacetFromTheGroupedCounts() {
+        ListingFacetsDTO facets = cache.summarize(COUNTS, BookingCategory.ALL);
+
+        assertThat(facets.total()).isEqualTo(10);
+        assertThat(facets.categories())
+                .containsEntry(BookingCategory.ALL, 10L)
+                .containsEntry(BookingCategory.AMAZING_VIEWS, 5L)
+                .containsEntry(BookingCategory.OMG, 5L)
+                .containsEntry(BookingCategory.BEACH, 0L)
+                .hasSize(BookingCategory.values().length);
+        // El último tramo acumula los precios superiores
+        assertThat(facets.prices()).containsExactly(
+                new PriceBucketDTO(0, 100, 2), new PriceBucketDTO(100, 200, 7), new PriceBucketDTO(200, null, 1));
+        assertThat(facets.bedrooms()).containsExactly(entry(1, 6L), entry(2, 3L), entry(3, 1L));
+    }
+
+    @Test
+    void limitsPriceAndBedroomFacetsToTheCategoryButCountsEveryCategory() {
+        ListingFacetsDTO facets = cache.summarize(COUNTS, BookingCategory.OMG);
+
+        assertThat(facets.total()).isEqualTo(5);
+        assertThat(facets.categories())
+                .containsEntry(BookingCategory.ALL, 10L)
+                .containsEntry(BookingCategory.AMAZING_VIEWS, 5L);
+        assertThat(facets.prices()).extracting(PriceBucketDTO::count).containsExactly(0L, 4L, 1L);
+        assertThat(facets.bedrooms()).containsExactly(entry(1, 4L), entry(3, 1L));
+    }
+
+    @Test
+    void aggregatesEachQueryOnceForEveryCategory() {
+        load("beach", BookingCategory.ALL);
+        load("beach", BookingCategory.OMG);
+        load("mountain", BookingCategory.ALL);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidatesEveryQueryWhenAListingChanges() {
+        load("beach", BookingCategory.ALL);
+        load("mountain", BookingCategory.ALL);
+
+        cache.onListingChanged(new ListingChangedEvent(BookingCategory.OMG));
+        load("beach", BookingCategory.ALL);
+        load("mountain", BookingCategory.ALL);
+
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void countsComputedDuringInvalidationAreNotServedAfterwards() {
+        cache.get("beach", BookingCategory.ALL, () -> {
+            // Un listado cambia mientras se calcula la agregación
+            cache.invalidate();
+            return COUNTS;
+        });
+
+        load("beach", BookingCategory.ALL);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void refreshesTheCountsOfASearchFromItsCountOrFromAllItsCards() {
+        long total = cache.refresh("beach").total(() -> COUNTS);
+        cache.refresh("mountain").completeWith(List.of(card(BookingCategory.OMG, 150, 2),
+                card(BookingCategory.OMG, 120, 2), card(BookingCategory.BEACH, 350, 1)));
+
+        assertThat(total).isEqualTo(10);
+        assertThat(load("beach", BookingCategory.ALL).total()).isEqualTo(10);
+        ListingFacetsDTO mountain = load("mountain", BookingCategory.ALL);
+        assertThat(loads).hasValue(0);
+        assertThat(mountain.prices()).extracting(PriceBucketDTO::count).containsExactly(0L, 2L, 1L);
+        assertThat(mountain.bedrooms()).containsExactly(entry(1, 1L), entry(2, 2L));
+    }
+
+    @Test
+    void refreshesStartedBeforeAnInvalidationAreNotServedAfterwards() {
+        ListingFacetCache.Refresh refresh = cache.refresh("beach");
+        cache.invalidate();
+        refresh.total(() -> COUNTS);
+
+        load("beach", BookingCategory.ALL);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    private static ListingCardView card(BookingCategory category, int price, int bedrooms) {
+        return new ListingCardView(1L, UUID.randomUUID(), price, "Spain", category, bedrooms, 1L, Instant.now());
+    }
+
+    private ListingFacetsDTO load(String query, BookingCategory category) {
+        return cache.get(query, category, () -> {
+            loads.incrementAndGet();
+            return COUNTS;
+        });
+    }
+}
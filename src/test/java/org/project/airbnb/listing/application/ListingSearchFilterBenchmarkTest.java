@@ -0,0 +1,189 @@
+package org.project.airbnb.listing.application;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.BookingDates;
+import org.project.airbnb.TestcontainersConfiguration;
+import org.project.airbnb.booking.application.dto.BookedDateDTO;
+import org.project.airbnb.listing.application.dto.SearchDTO;
+import org.project.airbnb.listing.application.dto.sub.ListingInfoDTO;
+import org.project.airbnb.listing.application.dto.sub.PriceRangeDTO;
+import org.project.airbnb.listing.application.dto.vo.BathsVO;
+import org.project.airbnb.listing.application.dto.vo.BedroomsVO;
+import org.project.airbnb.listing.application.dto.vo.BedsVO;
+import org.project.airbnb.listing.application.dto.vo.GuestsVO;
+import org.project.airbnb.listing.mapper.ListingMapperImpl;
+import org.project.airbnb.listing.mapper.ListingPictureMapperImpl;
+import org.project.airbnb.listing.repository.ListingTestData;
+import org.project.airbnb.user.application.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de la búsqueda con filtros de capacidad mínima, intervalo de precios y disponibilidad sobre un millón
+ * de listados con capacidades y precios independientes, un tercio de ellos reservados en las fechas buscadas.
+ * Compara combinaciones de filtros de selectividad creciente: amplia (casi todo el catálogo de una ubicación),
+ * media, estrecha y sin resultados. Para cada combinación mide también las facetas de la búsqueda con la caché
+ * vacía: solas y como las pide el cliente, después de la primera página de la búsqueda, que deja la agregación
+ * en {@link ListingFacetCache}, calculada como total o a partir de las tarjetas si caben en una página. Se ejecuta con {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TestcontainersConfiguration.class, TenantService.class, CategoryPageCache.class, ListingFacetCache.class, ListingMapperImpl.class, ListingPictureMapperImpl.class})
+@Testcontainers(disabledWithoutDocker = true)
+class ListingSearchFilterBenchmarkTest {
+
+    private static final int LISTINGS = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP = 10;
+    private static final int ITERATIONS = 30;
+    private static final OffsetDateTime FROM = BookingDates.mondayInWeeks(8);
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private ListingFacetCache listingFacetCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private ListingSearchIndex listingSearchIndex;
+
+    @Test
+    void searchLatencyAcrossSelectivityMixes() {
+        UUID landlordPublicId = ListingTestData.insertLandlord(jdbcTemplate);
+        // Las capacidades y el precio se reparten de forma independiente, a diferencia de ListingTestData
+        jdbcTemplate.update("INSERT INTO airbnb.listing (id, public_id, title, description, guests, bedrooms, beds, bathrooms," +
+                " price, category, location, landlord_public_id, created_date, last_modified_date)" +
+                " SELECT nextval('airbnb.listing_generator'), gen_random_uuid(), 'Listing ' || n, 'Description ' || n," +
+                " 1 + floor(random() * 8), 1 + floor(random() * 4), 1 + floor(random() * 6), 1 + floor(random() * 3)," +
+                " 50 + floor(random() * 450), 'AMAZING_VIEWS', (?::text[])[1 + n % cardinality(?::text[])]," +
+                " ?, now() - make_interval(secs => n), now()" +
+                " FROM generate_series(1, ?) AS n", ListingTestData.LOCATIONS, ListingTestData.LOCATIONS,
+                landlordPublicId, LISTINGS);
+        jdbcTemplate.update("INSERT INTO airbnb.listing_picture (id, listing_fk, file_hash, file_size, is_cover," +
+                " file_content_type, created_date, last_modified_date)" +
+                " SELECT nextval('airbnb.listing_picture_generator'), id, md5(id::text) || md5(public_id::text), 200000," +
+                " true, 'image/jpeg', now(), now() FROM airbnb.listing");
+        jdbcTemplate.execute("ANALYZE airbnb.listing");
+        jdbcTemplate.execute("ANALYZE airbnb.listing_picture");
+        jdbcTemplate.update("INSERT INTO airbnb.booking (id, public_id, start_date, end_date, total_price, nb_of_travelers," +
+                " fk_listing, fk_tenant, created_date, last_modified_date)" +
+                " SELECT nextval('airbnb.booking_generator'), gen_random_uuid(), ?, ?, price * 3, 1, public_id, ?, now(), now()" +
+                " FROM airbnb.listing WHERE id % 3 = 0", FROM.minusDays(1), FROM.plusDays(2), landlordPublicId);
+        jdbcTemplate.execute("ANALYZE airbnb.booking");
+
+        String location = ListingTestData.LOCATIONS[0];
+        Map<String, SearchDTO> mixes = new LinkedHashMap<>();
+        mixes.put("broad", search(location, 1, 1, 1, 1, null, null));
+        mixes.put("medium", search(location, 4, 2, 3, 2, 100, 300));
+        mixes.put("narrow", search(location, 8, 4, 6, 3, 450, 499));
+        mixes.put("empty", search(location, 1, 1, 1, 1, 1_000, null));
+
+        System.out.printf("%-8s %12s %16s %16s %16s %18s %22s%n", "mix", "matches", "first p50 (ms)", "first p95 (ms)",
+                "page 10 p95 (ms)", "facets p50 (ms)", "search+facets (+%)");
+        mixes.forEach((mix, search) -> {
+            long matches = tenantService.search(PageRequest.of(0, PAGE_SIZE), search).getTotalElements();
+            long[] first = latencies(0, search);
+            long[] tenth = latencies(10, search);
+            long[] facets = facetLatencies(search);
+            long[][] missPath = missPathLatencies(search);
+            // Coste añadido por las facetas a una búsqueda nueva, con la caché vacía antes de cada búsqueda
+            double overhead = 100 * (percentile(missPath[1], 0.50) / percentile(missPath[0], 0.50) - 1);
+            System.out.printf("%-8s %,12d %16.2f %16.2f %16.2f %18.2f %22.2f%n", mix, matches,
+                    percentile(first, 0.50), percentile(first, 0.95), percentile(tenth, 0.95),
+                    percentile(facets, 0.50), overhead);
+            assertThat(overhead).isLessThan(10);
+        });
+
+        assertThat(tenantService.search(PageRequest.of(0, PAGE_SIZE), mixes.get("empty")).getTotalElements()).isZero();
+    }
+
+    private long[] latencies(int page, SearchDTO search) {
+        for (int i = 0; i < WARMUP; i++) {
+            tenantService.search(PageRequest.of(page, PAGE_SIZE), search);
+        }
+        long[] latencies = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            tenantService.search(PageRequest.of(page, PAGE_SIZE), search);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    // Latencias de las facetas de la búsqueda con la caché vacía
+    private long[] facetLatencies(SearchDTO search) {
+        tenantService.searchFacets(search);
+        long[] latencies = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            listingFacetCache.invalidate();
+            long start = System.nanoTime();
+            tenantService.searchFacets(search);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    // Latencias de la primera página de la búsqueda sola y seguida de sus facetas, con la caché vacía.
+    // Se alternan, y también su orden, para que las variaciones de la máquina afecten por igual a ambas
+    private long[][] missPathLatencies(SearchDTO search) {
+        long[] searchOnly = new long[ITERATIONS];
+        long[] searchAndFacets = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            if (i % 2 == 0) {
+                searchOnly[i] = missPathLatency(search, false);
+                searchAndFacets[i] = missPathLatency(search, true);
+            } else {
+                searchAndFacets[i] = missPathLatency(search, true);
+                searchOnly[i] = missPathLatency(search, false);
+            }
+        }
+        Arrays.sort(searchOnly);
+        Arrays.sort(searchAndFacets);
+        return new long[][]{searchOnly, searchAndFacets};
+    }
+
+    private long missPathLatency(SearchDTO search, boolean withFacets) {
+        listingFacetCache.invalidate();
+        long start = System.nanoTime();
+        tenantService.search(PageRequest.of(0, PAGE_SIZE), search);
+        if (withFacets) {
+            tenantService.searchFacets(search);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static SearchDTO search(String location, int guests, int bedrooms, int beds, int baths,
+                                    Integer minPrice, Integer maxPrice) {
+        return new SearchDTO(new BookedDateDTO(FROM, FROM.plusDays(3)),
+                new ListingInfoDTO(new GuestsVO(guests), new BedroomsVO(bedrooms), new BedsVO(beds), new BathsVO(baths)),
+                location, new PriceRangeDTO(minPrice, maxPrice));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1_000_000d;
+    }
+}
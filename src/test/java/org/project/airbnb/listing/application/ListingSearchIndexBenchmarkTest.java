@@ -0,0 +1,204 @@
+package org.project.airbnb.listing.application;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.listing.application.ListingSearchIndex.Criteria;
+import org.project.airbnb.listing.domain.ListingSearchDocument;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mide la latencia de {@link ListingSearchIndex} con un millón de listados de texto realista: títulos del tipo
+ * "adjetivo + tipo de alojamiento + lugar", ubicaciones de unas decenas de ciudades y descripciones con palabras
+ * frecuentes (distribución de Zipf) y nombres de barrios poco frecuentes. Las consultas combinan términos
+ * frecuentes y raros, prefijos, errores tipográficos y filtros. Se ejecuta con {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ListingSearchIndexBenchmarkTest {
+
+    private static final int LISTINGS = 1_000_000;
+    private static final int WARMUP_QUERIES = 2_000;
+    private static final int MEASURED_QUERIES = 5_000;
+    private static final int PAGE_SIZE = 20;
+
+    private static final String[] ADJECTIVES = {"cozy", "bright", "spacious", "charming", "modern", "rustic", "quiet",
+            "luxury", "sunny", "elegant", "historic", "stylish", "peaceful", "romantic", "private", "renovated",
+            "minimalist", "colorful", "tranquil", "secluded", "panoramic", "traditional", "contemporary", "airy",
+            "family", "boutique", "central", "hidden", "lovely", "designer"};
+    private static final String[] TYPES = {"apartment", "studio", "loft", "villa", "cabin", "cottage", "house", "flat",
+            "bungalow", "chalet", "townhouse", "penthouse", "farmhouse", "room", "suite", "guesthouse", "castle",
+            "treehouse", "houseboat", "condo"};
+    private static final String[] PLACES = {"near the beach", "by the park", "in the old town", "at the harbour",
+            "in the mountains", "by the lake", "on the river", "next to the market", "close to the station",
+            "among vineyards"};
+    private static final String[] CITIES = {"Lisbon, Portugal", "Porto, Portugal", "Madrid, Spain",
+            "Barcelona, Spain", "Seville, Spain", "Valencia, Spain", "Málaga, Spain", "Paris, France", "Nice, France",
+            "Lyon, France", "Marseille, France", "Rome, Italy", "Florence, Italy", "Venice, Italy", "Milan, Italy",
+            "Naples, Italy", "Berlin, Germany", "Munich, Germany", "Hamburg, Germany", "Amsterdam, Netherlands",
+            "Brussels, Belgium", "Vienna, Austria", "Prague, Czechia", "Budapest, Hungary", "Kraków, Poland",
+            "Athens, Greece", "Santorini, Greece", "Dubrovnik, Croatia", "Split, Croatia", "London, United Kingdom",
+            "Edinburgh, United Kingdom", "Dublin, Ireland", "Copenhagen, Denmark", "Stockholm, Sweden",
+            "Oslo, Norway", "Helsinki, Finland", "Reykjavík, Iceland", "Istanbul, Turkey", "Marrakesh, Morocco",
+            "Cape Town, South Africa", "New York, United States", "Miami, United States", "Austin, United States",
+            "San Francisco, United States", "Mexico City, Mexico", "Tulum, Mexico", "Buenos Aires, Argentina",
+            "Mendoza, Argentina", "Córdoba, Argentina", "Rio de Janeiro, Brazil", "São Paulo, Brazil",
+            "Santiago, Chile", "Lima, Peru", "Cusco, Peru", "Bogotá, Colombia", "Cartagena, Colombia",
+            "Tokyo, Japan", "Kyoto, Japan", "Bali, Indonesia", "Sydney, Australia"};
+    private static final String[] FEATURES = {"wifi", "kitchen", "washer", "balcony", "terrace", "pool", "garden",
+            "parking", "air", "conditioning", "heating", "fireplace", "view", "sea", "mountain", "city", "center",
+            "walking", "distance", "restaurants", "shops", "metro", "bus", "airport", "quiet", "street", "bright",
+            "living", "room", "bedroom", "bathroom", "shower", "bathtub", "queen", "king", "bed", "sofa", "desk",
+            "workspace", "tv", "netflix", "coffee", "machine", "dishwasher", "oven", "fridge", "microwave", "towels",
+            "linens", "breakfast", "included", "pets", "allowed", "family", "friendly", "children", "crib",
+            "elevator", "stairs", "floor", "rooftop", "bbq", "hot", "tub", "sauna", "gym", "bikes", "kayak",
+            "hiking", "trails", "beach", "minutes", "away", "self", "check", "in", "host", "nearby", "sunset",
+            "wine", "tasting", "surfing", "skiing"};
+    private static final String[] SYLLABLES = {"ba", "be", "bo", "ca", "ce", "co", "da", "de", "do", "fa", "fe", "ga",
+            "go", "la", "le", "lo", "ma", "me", "mo", "na", "ne", "no", "pa", "pe", "ra", "re", "ro", "sa", "se", "ta",
+            "te", "to", "va", "ve", "za"};
+    private static final int NEIGHBOURHOODS = 30_000;
+
+    @Test
+    void searchLatencyWithOneMillionListings() {
+        Random random = new Random(42);
+        String[] neighbourhoods = neighbourhoods(random);
+        double[] featureWeights = zipf(FEATURES.length);
+
+        ListingSearchIndex index = new ListingSearchIndex(null, null);
+        long loadStart = System.nanoTime();
+        for (long id = 1; id <= LISTINGS; id++) {
+            index.add(listing(id, random, neighbourhoods, featureWeights));
+        }
+        long loadMillis = (System.nanoTime() - loadStart) / 1_000_000;
+        System.out.printf("indexed %d listings in %d ms%n", index.size(), loadMillis);
+
+        Map<String, List<Criteria>> queries = queries(neighbourhoods);
+        List<String> classes = new ArrayList<>(queries.keySet());
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            search(index, pick(queries, classes, random));
+        }
+
+        Map<String, List<Long>> latenciesByClass = new LinkedHashMap<>();
+        long[] all = new long[MEASURED_QUERIES];
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            String queryClass = classes.get(random.nextInt(classes.size()));
+            List<Criteria> candidates = queries.get(queryClass);
+            Criteria criteria = candidates.get(random.nextInt(candidates.size()));
+            long start = System.nanoTime();
+            search(index, criteria);
+            all[i] = System.nanoTime() - start;
+            latenciesByClass.computeIfAbsent(queryClass, key -> new ArrayList<>()).add(all[i]);
+        }
+
+        System.out.printf("%-14s %8s %10s %10s %10s%n", "query", "count", "p50 (ms)", "p95 (ms)", "p99 (ms)");
+        latenciesByClass.forEach((queryClass, latencies) ->
+                print(queryClass, latencies.stream().mapToLong(Long::longValue).toArray()));
+        print("all", all);
+
+        assertThat(percentile(sorted(all), 0.95)).isLessThan(20);
+    }
+
+    private static List<Long> search(ListingSearchIndex index, Criteria criteria) {
+        // La misma petición que hace TenantService para la primera página
+        return index.search(criteria, PAGE_SIZE + 1);
+    }
+
+    private static Criteria pick(Map<String, List<Criteria>> queries, List<String> classes, Random random) {
+        List<Criteria> candidates = queries.get(classes.get(random.nextInt(classes.size())));
+        return candidates.get(random.nextInt(candidates.size()));
+    }
+
+    private static Map<String, List<Criteria>> queries(String[] neighbourhoods) {
+        Map<String, List<Criteria>> queries = new LinkedHashMap<>();
+        queries.put("common term", List.of(Criteria.of("apartment"), Criteria.of("wifi"), Criteria.of("kitchen"),
+                Criteria.of("spain"), Criteria.of("beach")));
+        queries.put("two terms", List.of(Criteria.of("cozy cabin"), Criteria.of("villa lisbon"),
+                Criteria.of("loft berlin"), Criteria.of("wifi kitchen"), Criteria.of("pool garden")));
+        queries.put("three terms", List.of(Criteria.of("modern loft barcelona"), Criteria.of("beach house pool"),
+                Criteria.of("quiet studio paris"), Criteria.of("family villa italy")));
+        queries.put("rare term", List.of(Criteria.of(neighbourhoods[17]), Criteria.of(neighbourhoods[2_500]),
+                Criteria.of(neighbourhoods[1_000] + " apartment")));
+        queries.put("prefix", List.of(Criteria.of("apart"), Criteria.of("barc"), Criteria.of("penth"),
+                Criteria.of("cozy vill"), Criteria.of("sea")));
+        queries.put("typo", List.of(Criteria.of("lisbn"), Criteria.of("apratment"), Criteria.of("barcleona"),
+                Criteria.of("cotage madrid"), Criteria.of("bungalo bali")));
+        queries.put("filters", List.of(new Criteria("apartment", 4, 2, 0, Integer.MAX_VALUE),
+                new Criteria("villa pool", 6, 3, 100, 400), new Criteria("studio", 0, 0, 30, 60),
+                new Criteria("house garden", 8, 4, 0, 250)));
+        return queries;
+    }
+
+    private static ListingSearchDocument listing(long id, Random random, String[] neighbourhoods, double[] featureWeights) {
+        String title = capitalize(ADJECTIVES[random.nextInt(ADJECTIVES.length)]) + " "
+                + TYPES[random.nextInt(TYPES.length)] + " " + PLACES[random.nextInt(PLACES.length)];
+        String location = CITIES[random.nextInt(CITIES.length)];
+        StringBuilder description = new StringBuilder();
+        int words = 15 + random.nextInt(20);
+        for (int i = 0; i < words; i++) {
+            description.append(FEATURES[sample(featureWeights, random)]).append(' ');
+        }
+        description.append("in ").append(capitalize(neighbourhoods[random.nextInt(neighbourhoods.length)]));
+        int guests = 1 + random.nextInt(10);
+        return new ListingSearchDocument(id, title, description.toString(), location,
+                guests, 1 + guests / 3, 20 + random.nextInt(500));
+    }
+
+    private static String[] neighbourhoods(Random random) {
+        String[] neighbourhoods = new String[NEIGHBOURHOODS];
+        for (int i = 0; i < neighbourhoods.length; i++) {
+            StringBuilder name = new StringBuilder();
+            int syllables = 3 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            neighbourhoods[i] = name.toString();
+        }
+        return neighbourhoods;
+    }
+
+    // Pesos acumulados de una distribución de Zipf con exponente 1
+    private static double[] zipf(int size) {
+        double[] cumulative = new double[size];
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += 1d / (i + 1);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int sample(double[] cumulative, Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static void print(String label, long[] latencies) {
+        long[] sorted = sorted(latencies);
+        System.out.printf("%-14s %8d %10.2f %10.2f %10.2f%n", label, sorted.length,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99));
+    }
+
+    private static long[] sorted(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1_000_000d;
+    }
+}
@@ -0,0 +1,132 @@
+package org.project.airbnb.listing.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.listing.application.ListingSearchIndex.Criteria;
+import org.project.airbnb.listing.domain.ListingSearchDocument;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ListingSearchIndexTest {
+
+    private final ListingSearchIndex index = new ListingSearchIndex(null, null);
+
+    @Test
+    void ranksTitleMatchesAboveLocationAndDescriptionMatches() {
+        index.add(document(1L, "Quiet flat", "Cozy rooms next to the beach", "Lisbon, Portugal"));
+        index.add(document(2L, "Beach house", "Bright rooms", "Porto, Portugal"));
+        index.add(document(3L, "Loft", "Industrial loft", "Beach Road, Sydney"));
+
+        assertThat(index.search(Criteria.of("beach"), 10)).containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    void requiresEveryQueryTerm() {
+        index.add(document(1L, "Beach house", "Pool and garden", "Lisbon, Portugal"));
+        index.add(document(2L, "Beach house", "Garden", "Porto, Portugal"));
+
+        assertThat(index.search(Criteria.of("beach pool"), 10)).containsExactly(1L);
+        assertThat(index.search(Criteria.of("beach sauna"), 10)).isEmpty();
+    }
+
+    @Test
+    void matchesPrefixesBelowExactTerms() {
+        index.add(document(1L, "Apartments downtown", "", "Madrid, Spain"));
+        index.add(document(2L, "Apart hotel", "", "Madrid, Spain"));
+
+        assertThat(index.search(Criteria.of("apart"), 10)).containsExactly(2L, 1L);
+        assertThat(index.search(Criteria.of("ap"), 10)).isEmpty();
+    }
+
+    @Test
+    void toleratesTyposWhenNoTermMatches() {
+        index.add(document(1L, "Loft", "", "Lisbon, Portugal"));
+        index.add(document(2L, "Apartment", "", "Barcelona, Spain"));
+
+        assertThat(index.search(Criteria.of("lisbn"), 10)).containsExactly(1L);
+        assertThat(index.search(Criteria.of("barcleona"), 10)).containsExactly(2L);
+        assertThat(index.search(Criteria.of("apratment"), 10)).containsExactly(2L);
+        assertThat(index.search(Criteria.of("lsbn"), 10)).isEmpty();
+    }
+
+    @Test
+    void ignoresCaseAndAccents() {
+        index.add(document(1L, "Casa en la playa", "", "Cádiz, España"));
+
+        assertThat(index.search(Criteria.of("CADIZ espana"), 10)).containsExactly(1L);
+    }
+
+    @Test
+    void appliesGuestBedroomAndPriceFilters() {
+        index.add(new ListingSearchDocument(1L, "Beach house", "", "Lisbon", 2, 1, 80));
+        index.add(new ListingSearchDocument(2L, "Beach house", "", "Lisbon", 6, 3, 200));
+        index.add(new ListingSearchDocument(3L, "Beach house", "", "Lisbon", 8, 4, 500));
+
+        assertThat(index.search(new Criteria("beach", 4, 0, 0, Integer.MAX_VALUE), 10)).containsExactly(3L, 2L);
+        assertThat(index.search(new Criteria("beach", 0, 4, 0, Integer.MAX_VALUE), 10)).containsExactly(3L);
+        assertThat(index.search(new Criteria("beach", 0, 0, 100, 300), 10)).containsExactly(2L);
+    }
+
+    @Test
+    void keepsOnlyTheBestResultsUpToTheLimit() {
+        for (long id = 1; id <= 50; id++) {
+            index.add(document(id, id % 10 == 0 ? "Beach villa" : "Villa", "Near the beach", "Nice, France"));
+        }
+
+        assertThat(index.search(Criteria.of("beach villa"), 3)).containsExactly(50L, 40L, 30L);
+    }
+
+    @Test
+    void forgetsRemovedListingsAndReplacesUpdatedOnes() {
+        index.add(document(1L, "Beach house", "", "Lisbon"));
+        index.add(document(2L, "Beach house", "", "Porto"));
+
+        index.remove(1L);
+        index.add(document(2L, "Mountain cabin", "", "Porto"));
+
+        assertThat(index.search(Criteria.of("beach"), 10)).isEmpty();
+        assertThat(index.search(Criteria.of("cabin"), 10)).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void compactsOnceRemovedListingsPassTheThreshold() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        index.bindTo(registry);
+        for (long id = 1; id <= 8; id++) {
+            index.add(document(id, id <= 2 ? "Mountain cabin" : "Beach house", "", "Lisbon"));
+        }
+
+        index.remove(1L);
+        assertThat(registry.get("airbnb.listing.search.removed").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("airbnb.listing.search.terms").gauge().value()).isEqualTo(5);
+
+        // Dos borrados de ocho documentos alcanzan el umbral: los términos que solo tenían ellos desaparecen
+        index.remove(2L);
+        assertThat(registry.get("airbnb.listing.search.removed").gauge().value()).isZero();
+        assertThat(registry.get("airbnb.listing.search.terms").gauge().value()).isEqualTo(3);
+        assertThat(registry.get("airbnb.listing.search.documents").gauge().value()).isEqualTo(6);
+
+        // Los documentos renumerados conservan su orden y sus filtros
+        index.add(new ListingSearchDocument(9L, "Beach house", "", "Lisbon", 6, 3, 100));
+        assertThat(index.search(Criteria.of("beach"), 10)).containsExactly(9L, 8L, 7L, 6L, 5L, 4L, 3L);
+        assertThat(index.search(new Criteria("beach", 4, 0, 0, Integer.MAX_VALUE), 10)).containsExactly(9L);
+        assertThat(index.search(Criteria.of("cabin"), 10)).isEmpty();
+        index.remove(5L);
+        assertThat(index.search(Criteria.of("beach"), 10)).containsExactly(9L, 8L, 7L, 6L, 4L, 3L);
+    }
+
+    @Test
+    void measuresDamerauLevenshteinDistance() {
+        assertThat(ListingSearchIndex.withinEdits("lisbon", "lisbon", 0)).isTrue();
+        assertThat(ListingSearchIndex.withinEdits("lisbon", "lisbn", 1)).isTrue();
+        assertThat(ListingSearchIndex.withinEdits("lisbon", "lsibon", 1)).isTrue();
+        assertThat(ListingSearchIndex.withinEdits("lisbon", "lisben", 1)).isTrue();
+        assertThat(ListingSearchIndex.withinEdits("lisbon", "lsbn", 1)).isFalse();
+        assertThat(ListingSearchIndex.withinEdits("lisbon", "london", 1)).isFalse();
+    }
+
+    private static ListingSearchDocument document(Long id, String title, String description, String location) {
+        return new ListingSearchDocument(id, title, description, location, 2, 1, 100);
+    }
+}
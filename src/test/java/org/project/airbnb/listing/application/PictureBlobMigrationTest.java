@@ -0,0 +1,153 @@
+package org.project.airbnb.listing.application;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.project.airbnb.TestcontainersConfiguration;
+import org.project.airbnb.infrastructure.storage.FileSystemPictureStorage;
+import org.project.airbnb.infrastructure.storage.PictureStorage;
+import org.project.airbnb.infrastructure.storage.StoredPicture;
+import org.project.airbnb.listing.repository.ListingTestData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pruebas de {@link PictureBlobMigration} contra un PostgreSQL real: el contenido se copia por fragmentos
+ * y cada imagen se traslada en su propia transacción.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Cada imagen se confirma en su propia transacción
+class PictureBlobMigrationTest {
+
+    // Más de un fragmento de lectura, y no múltiplo de su tamaño
+    private static final int LARGE_PICTURE = 2 * 1024 * 1024 + 12_345;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path storageRoot;
+
+    private TransactionTemplate transactionTemplate;
+    private List<Long> pictureIds;
+    private Map<Long, byte[]> contents;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        Random random = new Random(42);
+        byte[] large = new byte[LARGE_PICTURE];
+        byte[] small = new byte[100];
+        random.nextBytes(large);
+        random.nextBytes(small);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            ListingTestData.insertListings(jdbcTemplate, ListingTestData.insertLandlord(jdbcTemplate), 1, 2);
+            pictureIds = jdbcTemplate.queryForList("SELECT id FROM airbnb.listing_picture ORDER BY id", Long.class);
+            contents = Map.of(pictureIds.get(0), large, pictureIds.get(1), small);
+            contents.forEach((id, content) -> jdbcTemplate.update(
+                    "UPDATE airbnb.listing_picture SET file = lo_from_bytea(0, ?), file_hash = NULL, file_size = NULL WHERE id = ?", content, id));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute(
+                "TRUNCATE airbnb.listing_picture, airbnb.listing, airbnb.airbnb_user CASCADE"));
+    }
+
+    @Test
+    void movesEveryPictureAndIsIdempotent() throws Exception {
+        PictureStorage storage = new FileSystemPictureStorage(storageRoot);
+        List<Long> largeObjects = jdbcTemplate.queryForList("SELECT file FROM airbnb.listing_picture", Long.class);
+
+        migration(storage).run(null);
+        migration(storage).run(null);
+
+        // Los objetos grandes trasladados se eliminan
+        assertThat(largeObjects).allSatisfy(oid -> assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_largeobject_metadata WHERE oid = ?::oid", Long.class, oid)).isZero());
+
+        for (Long id : pictureIds) {
+            Map<String, Object> row = jdbcTemplate.queryForMap(
+                    "SELECT file, file_hash, file_size FROM airbnb.listing_picture WHERE id = ?", id);
+            assertThat(row.get("file")).isNull();
+            assertThat(row.get("file_hash")).isEqualTo(sha256(contents.get(id)));
+            assertThat(row.get("file_size")).isEqualTo((long) contents.get(id).length);
+            try (InputStream stored = storage.load((String) row.get("file_hash")).orElseThrow().getInputStream()) {
+                assertThat(stored.readAllBytes()).isEqualTo(contents.get(id));
+            }
+        }
+    }
+
+    @Test
+    void aFailedPictureKeepsItsContentAndTheOthersStayMoved() throws Exception {
+        PictureStorage delegate = new FileSystemPictureStorage(storageRoot);
+        AtomicInteger stores = new AtomicInteger();
+        PictureStorage failingOnSecond = new PictureStorage() {
+            @Override
+            public StoredPicture store(InputStream content) throws IOException {
+                if (stores.incrementAndGet() == 2) {
+                    throw new IOException("disk full");
+                }
+                return delegate.store(content);
+            }
+
+            @Override
+            public Optional<Resource> load(String hash) {
+                return delegate.load(hash);
+            }
+
+            @Override
+            public void delete(String hash) throws IOException {
+                delegate.delete(hash);
+            }
+        };
+
+        assertThatThrownBy(() -> migration(failingOnSecond).run(null)).hasRootCauseMessage("disk full");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT file_hash FROM airbnb.listing_picture WHERE id = ?",
+                String.class, pictureIds.get(0))).isEqualTo(sha256(contents.get(pictureIds.get(0))));
+        assertThat(jdbcTemplate.queryForObject("SELECT lo_get(file) FROM airbnb.listing_picture WHERE id = ?",
+                byte[].class, pictureIds.get(1))).isEqualTo(contents.get(pictureIds.get(1)));
+    }
+
+    private PictureBlobMigration migration(PictureStorage storage) {
+        return new PictureBlobMigration(jdbcTemplate, transactionTemplate, storage, "airbnb");
+    }
+
+    private static String sha256(byte[] content) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
@@ -0,0 +1,107 @@
+package org.project.airbnb.listing.application;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.project.airbnb.TestcontainersConfiguration;
+import org.project.airbnb.infrastructure.storage.PictureStorage;
+import org.project.airbnb.listing.application.dto.sub.PictureDTO;
+import org.project.airbnb.listing.domain.BookingCategory;
+import org.project.airbnb.listing.domain.Listing;
+import org.project.airbnb.listing.mapper.ListingPictureMapperImpl;
+import org.project.airbnb.listing.repository.ListingRepository;
+import org.project.airbnb.listing.repository.ListingTestData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas de la escritura de un listado con sus imágenes: gracias a la reserva de identificadores por bloques
+ * y a los lotes JDBC, el número de sentencias no depende del número de imágenes.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TestcontainersConfiguration.class, PictureService.class, ListingPictureMapperImpl.class})
+@Testcontainers(disabledWithoutDocker = true)
+class PictureServiceBatchInsertTest {
+
+    // nextval y INSERT del listado, nextval y lote de INSERT de las imágenes
+    private static final long MAX_STATEMENTS = 4;
+
+    @Autowired
+    private PictureService pictureService;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private PictureStorage pictureStorage;
+
+    private UUID landlordPublicId;
+
+    @BeforeEach
+    void setUp() {
+        landlordPublicId = ListingTestData.insertLandlord(jdbcTemplate);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 40})
+    void createsListingWithPicturesInConstantStatements(int pictureCount) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Listing listing = listingRepository.saveAndFlush(newListing());
+        pictureService.saveAll(pictures(pictureCount), listing);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1 + pictureCount);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_STATEMENTS);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM airbnb.listing_picture WHERE listing_fk = ?",
+                Integer.class, listing.getId())).isEqualTo(pictureCount);
+    }
+
+    private Listing newListing() {
+        Listing listing = new Listing();
+        listing.setPublicId(UUID.randomUUID());
+        listing.setTitle("Listing");
+        listing.setDescription("Description");
+        listing.setGuests(2);
+        listing.setBedrooms(1);
+        listing.setBeds(1);
+        listing.setBathrooms(1);
+        listing.setPrice(100);
+        listing.setBookingCategory(BookingCategory.values()[1]);
+        listing.setLocation(ListingTestData.LOCATIONS[0]);
+        listing.setLandlordPublicId(landlordPublicId);
+        return listing;
+    }
+
+    private static List<PictureDTO> pictures(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new PictureDTO(UUID.randomUUID().toString().replace("-", ""), 1024L, "image/jpeg", false))
+                .toList();
+    }
+}
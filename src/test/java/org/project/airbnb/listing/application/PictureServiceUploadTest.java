@@ -0,0 +1,148 @@
+package org.project.airbnb.listing.application;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.project.airbnb.infrastructure.storage.FileSystemPictureStorage;
+import org.project.airbnb.infrastructure.storage.PictureStorage;
+import org.project.airbnb.listing.application.dto.sub.PictureDTO;
+import org.project.airbnb.listing.mapper.ListingPictureMapper;
+import org.project.airbnb.listing.repository.ListingPictureRepository;
+import org.project.airbnb.listing.repository.ListingPictureVariantRepository;
+import org.project.airbnb.sharedkernel.service.State;
+import org.project.airbnb.sharedkernel.service.StatusNotification;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de la subida de imágenes en PictureService: el contenido se guarda leyendo un flujo con un
+ * búfer acotado, el formato se valida por la firma del archivo y las imágenes descartadas se eliminan.
+ */
+class PictureServiceUploadTest {
+
+    private static final byte[] JPEG_HEADER = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0};
+
+    @TempDir
+    Path storageRoot;
+
+    private final ListingPictureRepository listingPictureRepository = mock(ListingPictureRepository.class);
+    private PictureStorage pictureStorage;
+    private PictureService pictureService;
+
+    @BeforeEach
+    void setUp() {
+        pictureStorage = new FileSystemPictureStorage(storageRoot);
+        pictureService = new PictureService(listingPictureRepository, mock(ListingPictureMapper.class),
+                mock(ListingPictureVariantRepository.class), pictureStorage, mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void storesLargeUploadWithBoundedAllocation() throws IOException {
+        long size = 32L * 1024 * 1024;
+        // Calentamiento para que la carga de clases no cuente en la medición
+        pictureService.store(new SyntheticPicture(1024 * 1024), "warm-up.jpg");
+
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threadMXBean.getCurrentThreadAllocatedBytes();
+        State<PictureDTO, String> state = pictureService.store(new SyntheticPicture(size), "large.jpg");
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(state.getStatus()).isEqualTo(StatusNotification.OK);
+        assertThat(state.getValue().fileSize()).isEqualTo(size);
+        assertThat(state.getValue().fileContentType()).isEqualTo("image/jpeg");
+        assertThat(allocated).isLessThan(8L * 1024 * 1024);
+    }
+
+    @Test
+    void deduplicatesIdenticalUploads() throws IOException {
+        PictureDTO first = pictureService.store(new SyntheticPicture(100_000), "a.jpg").getValue();
+        PictureDTO second = pictureService.store(new SyntheticPicture(100_000), "b.jpg").getValue();
+
+        assertThat(second.fileHash()).isEqualTo(first.fileHash());
+    }
+
+    @Test
+    void rejectsContentThatIsNotAPicture() throws IOException {
+        State<PictureDTO, String> state = pictureService.store(
+                new ByteArrayInputStream("<html><script>alert(1)</script></html>".getBytes()), "fake.jpg");
+
+        assertThat(state.getStatus()).isEqualTo(StatusNotification.ERROR);
+        assertThat(state.getError()).contains("fake.jpg");
+    }
+
+    @Test
+    void discardDeletesOnlyContentThatNoSavedPictureReferences() throws IOException {
+        PictureDTO orphan = pictureService.store(new SyntheticPicture(10_000), "orphan.jpg").getValue();
+        PictureDTO shared = pictureService.store(new SyntheticPicture(20_000), "shared.jpg").getValue();
+        when(listingPictureRepository.findReferencedFileHashes(List.of(orphan.fileHash(), shared.fileHash())))
+                .thenReturn(Set.of(shared.fileHash()));
+
+        pictureService.discard(List.of(orphan, shared));
+
+        assertThat(pictureStorage.load(orphan.fileHash())).isEmpty();
+        assertThat(pictureStorage.load(shared.fileHash())).isPresent();
+    }
+
+    @Test
+    void contentOfAnUploadInFlightIsNotDeleted() throws IOException {
+        PictureDTO uploading = pictureService.store(new SyntheticPicture(30_000), "uploading.jpg").getValue();
+        PictureDTO discarded = pictureService.store(new SyntheticPicture(30_000), "discarded.jpg").getValue();
+
+        // Otra petición descarta el mismo contenido, y se elimina un listado que lo referenciaba, mientras la primera
+        // subida todavía no ha confirmado su imagen
+        pictureService.discard(List.of(discarded));
+        pictureService.deleteContent(List.of(uploading.fileHash()));
+        assertThat(pictureStorage.load(uploading.fileHash())).isPresent();
+
+        // Confirmada la imagen, el contenido vuelve a poder borrarse cuando deja de estar referenciado
+        pictureService.release(List.of(uploading));
+        pictureService.deleteContent(List.of(uploading.fileHash()));
+        assertThat(pictureStorage.load(uploading.fileHash())).isEmpty();
+    }
+
+    /**
+     * Flujo que genera bajo demanda un contenido con cabecera JPEG del tamaño indicado, sin reservarlo en memoria.
+     */
+    private static final class SyntheticPicture extends InputStream {
+
+        private final long size;
+        private long position;
+
+        SyntheticPicture(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public int read() {
+            if (position >= size) {
+                return -1;
+            }
+            int value = position < JPEG_HEADER.length ? JPEG_HEADER[(int) position] & 0xFF : (int) (position & 0x7F);
+            position++;
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position >= size) {
+                return -1;
+            }
+            int count = (int) Math.min(length, size - position);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = (byte) read();
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.project.airbnb.listing.application;
+
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.listing.application.PictureVariantEncoder.EncodedVariant;
+import org.project.airbnb.listing.domain.PictureVariant;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas de PictureVariantEncoder: tamaño de cada variante, conservación de la proporción
+ * y ausencia de metadatos en los JPEG generados.
+ */
+class PictureVariantEncoderTest {
+
+    private final PictureVariantEncoder encoder = new PictureVariantEncoder();
+
+    @Test
+    void generatesEveryVariantBoundedByItsMaxDimension() throws IOException {
+        List<EncodedVariant> variants = encoder.encode(new ByteArrayInputStream(png(4000, 3000)));
+
+        Map<PictureVariant, EncodedVariant> byVariant = variants.stream()
+                .collect(Collectors.toMap(EncodedVariant::variant, variant -> variant));
+        assertThat(byVariant).containsOnlyKeys(PictureVariant.values());
+        for (EncodedVariant variant : variants) {
+            assertThat(variant.width()).isEqualTo(variant.variant().getMaxDimension());
+            assertThat(variant.height()).isEqualTo(variant.variant().getMaxDimension() * 3 / 4);
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(variant.content()));
+            assertThat(decoded.getWidth()).isEqualTo(variant.width());
+            assertThat(decoded.getHeight()).isEqualTo(variant.height());
+        }
+        assertThat(byVariant.get(PictureVariant.CARD).content().length)
+                .isLessThan(byVariant.get(PictureVariant.FULL).content().length);
+    }
+
+    @Test
+    void doesNotUpscaleSmallPictures() throws IOException {
+        List<EncodedVariant> variants = encoder.encode(new ByteArrayInputStream(png(300, 200)));
+
+        assertThat(variants).allSatisfy(variant -> {
+            assertThat(variant.width()).isEqualTo(300);
+            assertThat(variant.height()).isEqualTo(200);
+        });
+    }
+
+    @Test
+    void writesJpegWithoutMetadataSegments() throws IOException {
+        byte[] content = encoder.encode(new ByteArrayInputStream(png(800, 600))).getFirst().content();
+
+        // Recorre los segmentos del JPEG hasta el inicio de los datos de imagen (SOS)
+        assertThat(content[0] & 0xFF).isEqualTo(0xFF);
+        assertThat(content[1] & 0xFF).isEqualTo(0xD8);
+        int offset = 2;
+        while ((content[offset + 1] & 0xFF) != 0xDA) {
+            int marker = content[offset + 1] & 0xFF;
+            // APP1 (EXIF/XMP) y APP2 (ICC) no deben aparecer
+            assertThat(marker).isNotIn(0xE1, 0xE2);
+            int length = ((content[offset + 2] & 0xFF) << 8) | (content[offset + 3] & 0xFF);
+            offset += 2 + length;
+        }
+    }
+
+    @Test
+    void returnsNoVariantsForUndecodableContent() throws IOException {
+        assertThat(encoder.encode(new ByteArrayInputStream("not a picture".getBytes()))).isEmpty();
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y += 7) {
+            for (int x = 0; x < width; x += 7) {
+                image.setRGB(x, y, 0xFF000000 | (x * 31 + y * 17));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
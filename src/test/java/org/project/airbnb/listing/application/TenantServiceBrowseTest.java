@@ -0,0 +1,98 @@
+package org.project.airbnb.listing.application;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.CapturedStatements;
+import org.project.airbnb.TestcontainersConfiguration;
+import org.project.airbnb.listing.application.dto.DisplayCardListingDTO;
+import org.project.airbnb.listing.domain.BookingCategory;
+import org.project.airbnb.listing.mapper.ListingMapperImpl;
+import org.project.airbnb.listing.mapper.ListingPictureMapperImpl;
+import org.project.airbnb.listing.repository.ListingTestData;
+import org.project.airbnb.user.application.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas de regresión de la navegación por categorías de TenantService: la paginación se aplica en SQL
+ * (LIMIT/OFFSET) sobre los identificadores y las tarjetas conservan el orden de la página.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=org.project.airbnb.CapturedStatements",
+        // Estas pruebas verifican las consultas, por lo que la caché de páginas queda desactivada
+        "application.category-page-cache.cached-pages=0"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TestcontainersConfiguration.class, TenantService.class, CategoryPageCache.class, ListingFacetCache.class, ListingMapperImpl.class, ListingPictureMapperImpl.class})
+@Testcontainers(disabledWithoutDocker = true)
+class TenantServiceBrowseTest {
+
+    private static final int LISTINGS = 120;
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private ListingSearchIndex listingSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        ListingTestData.insertListings(jdbcTemplate, ListingTestData.insertLandlord(jdbcTemplate), LISTINGS, 3);
+        CapturedStatements.clear();
+    }
+
+    @Test
+    void pagesListingIdsWithSqlLimitAndOffset() {
+        Page<DisplayCardListingDTO> page = tenantService.getAllByCategory(PageRequest.of(3, 10), BookingCategory.ALL);
+
+        assertThat(page.getContent()).hasSize(10);
+        List<String> statements = CapturedStatements.statements();
+        // La consulta de identificadores limita y desplaza en la base de datos
+        assertThat(statements)
+                .anySatisfy(sql -> assertThat(sql).containsIgnoringCase("offset").containsPattern("(?i)(fetch first|limit)"));
+        // Solo tres consultas: identificadores de la página, conteo y tarjetas de esos identificadores
+        assertThat(statements).hasSize(3);
+        assertThat(statements).anySatisfy(sql -> assertThat(sql).containsIgnoringCase(" in ("));
+    }
+
+    @Test
+    void returnsCardsInPageOrderNewestFirst() {
+        List<UUID> expected = jdbcTemplate.queryForList("SELECT public_id FROM airbnb.listing" +
+                " ORDER BY created_date DESC, id DESC LIMIT 10 OFFSET 20", UUID.class);
+
+        Page<DisplayCardListingDTO> page = tenantService.getAllByCategory(PageRequest.of(2, 10), BookingCategory.ALL);
+
+        assertThat(page.getTotalElements()).isEqualTo(LISTINGS);
+        assertThat(page.getContent()).extracting(DisplayCardListingDTO::publicId).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void filtersByCategoryBeforePaging() {
+        BookingCategory category = BookingCategory.values()[2];
+        List<UUID> expected = jdbcTemplate.queryForList("SELECT public_id FROM airbnb.listing WHERE category = ?" +
+                " ORDER BY created_date DESC, id DESC LIMIT 5", UUID.class, category.name());
+
+        Page<DisplayCardListingDTO> page = tenantService.getAllByCategory(PageRequest.of(0, 5), category);
+
+        assertThat(page.getContent()).extracting(DisplayCardListingDTO::publicId).containsExactlyElementsOf(expected);
+        assertThat(page.getContent()).extracting(DisplayCardListingDTO::bookingCategory).containsOnly(category);
+    }
+}
@@ -0,0 +1,136 @@
+package org.project.airbnb.listing.application;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.project.airbnb.BookingDates;
+import org.project.airbnb.booking.application.dto.BookedDateDTO;
+import org.project.airbnb.listing.application.dto.ListingFacetsDTO;
+import org.project.airbnb.listing.application.dto.SearchDTO;
+import org.project.airbnb.listing.application.dto.sub.ListingInfoDTO;
+import org.project.airbnb.listing.application.dto.vo.BathsVO;
+import org.project.airbnb.listing.application.dto.vo.BedroomsVO;
+import org.project.airbnb.listing.application.dto.vo.BedsVO;
+import org.project.airbnb.listing.application.dto.vo.GuestsVO;
+import org.project.airbnb.listing.domain.BookingCategory;
+import org.project.airbnb.listing.domain.ListingCardView;
+import org.project.airbnb.listing.domain.ListingFacetCount;
+import org.project.airbnb.listing.mapper.ListingMapper;
+import org.project.airbnb.listing.repository.ListingRepository;
+import org.project.airbnb.user.application.UserService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de las lecturas cacheadas de TenantService: un acierto de caché no abre ninguna transacción,
+ * por lo que no toma una conexión del pool; solo la carga desde la base de datos se ejecuta en una transacción.
+ * Las facetas de una búsqueda reutilizan la agregación con la que la búsqueda calculó su total, o sus tarjetas
+ * si todos los resultados caben en una página.
+ */
+class TenantServiceCacheTransactionTest {
+
+    private final ListingRepository listingRepository = mock(ListingRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private TenantService tenantService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(listingRepository.findAllIds(any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+        tenantService = new TenantService(listingRepository, mock(ListingMapper.class), mock(UserService.class),
+                new CategoryPageCache(3, 1_000, Duration.ofMinutes(10)), mock(ListingSearchIndex.class),
+                new ListingFacetCache(50, 10, 1_000, Duration.ofMinutes(1)), new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void categoryPageCacheHitDoesNotOpenATransaction() {
+        tenantService.getAllByCategory(PageRequest.of(0, 20), BookingCategory.ALL);
+        tenantService.getAllByCategory(PageRequest.of(0, 20), BookingCategory.ALL);
+
+        verify(listingRepository, times(1)).findAllIds(any(Pageable.class));
+        verify(transactionManager, times(1)).getTransaction(any(TransactionDefinition.class));
+        assertThat(transactionDefinitions()).allSatisfy(definition -> assertThat(definition.isReadOnly()).isTrue());
+    }
+
+    @Test
+    void facetCacheHitDoesNotOpenATransaction() {
+        tenantService.getFacetsByCategory(BookingCategory.ALL);
+        tenantService.getFacetsByCategory(BookingCategory.AMAZING_VIEWS);
+
+        verify(listingRepository, times(1)).countFacets(any(), anyInt());
+        verify(transactionManager, times(1)).getTransaction(any(TransactionDefinition.class));
+        assertThat(transactionDefinitions()).allSatisfy(definition -> assertThat(definition.isReadOnly()).isTrue());
+    }
+
+    @Test
+    void searchFacetsReuseTheAggregationOfTheSearchCount() {
+        List<ListingFacetCount> counts = List.of(new ListingFacetCount(BookingCategory.AMAZING_VIEWS, 2, 3, 30),
+                new ListingFacetCount(BookingCategory.LAKE, 4, 1, 12));
+        when(listingRepository.countFacets(any(), anyInt())).thenReturn(counts);
+        // El repositorio necesita el total: la página está completa y no basta para deducirlo
+        when(listingRepository.findAllCards(any(), any(Pageable.class), any(LongSupplier.class))).thenAnswer(invocation ->
+                new PageImpl<>(List.of(), invocation.getArgument(1), invocation.<LongSupplier>getArgument(2).getAsLong()));
+
+        Page<?> page = tenantService.search(PageRequest.of(0, 20), search());
+        ListingFacetsDTO facets = tenantService.searchFacets(search());
+
+        assertThat(page.getTotalElements()).isEqualTo(42);
+        assertThat(facets.total()).isEqualTo(42);
+        assertThat(facets.bedrooms()).containsEntry(3, 30L).containsEntry(1, 12L);
+        verify(listingRepository, times(1)).countFacets(any(), anyInt());
+        verify(listingRepository, never()).findAllCards(any(), any(Pageable.class));
+    }
+
+    @Test
+    void searchFacetsOfASinglePageComeFromItsCards() {
+        List<ListingCardView> cards = List.of(
+                new ListingCardView(1L, UUID.randomUUID(), 120, "Spain", BookingCategory.LAKE, 2, 10L, Instant.now()),
+                new ListingCardView(2L, UUID.randomUUID(), 80, "Spain", BookingCategory.LAKE, 1, 20L, Instant.now()));
+        // Todos los resultados caben en la primera página: el total se deduce sin invocar el conteo
+        when(listingRepository.findAllCards(any(), any(Pageable.class), any(LongSupplier.class))).thenAnswer(invocation ->
+                new PageImpl<>(cards, invocation.getArgument(1), cards.size()));
+
+        tenantService.search(PageRequest.of(0, 20), search());
+        ListingFacetsDTO facets = tenantService.searchFacets(search());
+
+        assertThat(facets.total()).isEqualTo(2);
+        assertThat(facets.categories()).containsEntry(BookingCategory.LAKE, 2L);
+        assertThat(facets.bedrooms()).containsEntry(1, 1L).containsEntry(2, 1L);
+        verify(listingRepository, never()).countFacets(any(), anyInt());
+    }
+
+    private static SearchDTO search() {
+        OffsetDateTime from = BookingDates.mondayInWeeks(8);
+        return new SearchDTO(new BookedDateDTO(from, from.plusDays(3)),
+                new ListingInfoDTO(new GuestsVO(2), new BedroomsVO(1), new BedsVO(1), new BathsVO(1)), "Spain", null);
+    }
+
+    private List<TransactionDefinition> transactionDefinitions() {
+        ArgumentCaptor<TransactionDefinition> captor = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, atLeastOnce()).getTransaction(captor.capture());
+        return captor.getAllValues();
+    }
+}
@@ -0,0 +1,111 @@
+package org.project.airbnb.listing.application;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.CapturedStatements;
+import org.project.airbnb.TestcontainersConfiguration;
+import org.project.airbnb.listing.application.dto.DisplayCardListingDTO;
+import org.project.airbnb.listing.domain.BookingCategory;
+import org.project.airbnb.listing.mapper.ListingMapperImpl;
+import org.project.airbnb.listing.mapper.ListingPictureMapperImpl;
+import org.project.airbnb.listing.repository.ListingTestData;
+import org.project.airbnb.sharedkernel.service.CursorPageDTO;
+import org.project.airbnb.sharedkernel.service.State;
+import org.project.airbnb.sharedkernel.service.StatusNotification;
+import org.project.airbnb.user.application.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas de la paginación por cursor de TenantService: recorrer todas las páginas devuelve cada listado
+ * una sola vez y en orden, y ninguna página ejecuta consultas de conteo ni OFFSET.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=org.project.airbnb.CapturedStatements")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TestcontainersConfiguration.class, TenantService.class, CategoryPageCache.class, ListingFacetCache.class, ListingMapperImpl.class, ListingPictureMapperImpl.class})
+@Testcontainers(disabledWithoutDocker = true)
+class TenantServiceCursorTest {
+
+    private static final int LISTINGS = 95;
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private ListingSearchIndex listingSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        ListingTestData.insertListings(jdbcTemplate, ListingTestData.insertLandlord(jdbcTemplate), LISTINGS, 2);
+        // Varios listados con la misma fecha obligan a desempatar por identificador
+        jdbcTemplate.update("UPDATE airbnb.listing SET created_date = date_trunc('minute', created_date)");
+        CapturedStatements.clear();
+    }
+
+    @Test
+    void walksEveryListingOnceNewestFirst() {
+        List<UUID> expected = jdbcTemplate.queryForList("SELECT public_id FROM airbnb.listing" +
+                " ORDER BY created_date DESC, id DESC", UUID.class);
+
+        List<UUID> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CapturedStatements.clear();
+            CursorPageDTO<DisplayCardListingDTO> page = tenantService.getAllByCategory(BookingCategory.ALL, cursor, 10).getValue();
+            page.content().forEach(card -> walked.add(card.publicId()));
+            cursor = page.nextCursor();
+            pages++;
+
+            // Una sola consulta por página, sin conteo; Spring Data aplica el Limit como OFFSET 0 y es la condición
+            // del cursor la que sitúa cada página siguiente
+            boolean firstPage = pages == 1;
+            assertThat(CapturedStatements.statements()).singleElement()
+                    .satisfies(sql -> assertThat(sql).doesNotContainIgnoringCase("count("))
+                    .satisfies(sql -> assertThat(sql.replace(" ", "").contains("(l1_0.created_date,l1_0.id)<(")).isNotEqualTo(firstPage));
+        } while (cursor != null);
+
+        assertThat(walked).containsExactlyElementsOf(expected);
+        assertThat(pages).isEqualTo((expected.size() + 9) / 10);
+    }
+
+    @Test
+    void filtersByCategory() {
+        BookingCategory category = BookingCategory.values()[3];
+        List<UUID> expected = jdbcTemplate.queryForList("SELECT public_id FROM airbnb.listing WHERE category = ?" +
+                " ORDER BY created_date DESC, id DESC", UUID.class, category.name());
+
+        // Los listados se reparten entre todas las categorías: cada una tiene unos pocos
+        CursorPageDTO<DisplayCardListingDTO> first = tenantService.getAllByCategory(category, null, 2).getValue();
+        CursorPageDTO<DisplayCardListingDTO> second = tenantService.getAllByCategory(category, first.nextCursor(), 2).getValue();
+
+        assertThat(expected).hasSizeGreaterThan(4);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(first.content()).extracting(DisplayCardListingDTO::publicId).containsExactlyElementsOf(expected.subList(0, 2));
+        assertThat(second.content()).extracting(DisplayCardListingDTO::publicId).containsExactlyElementsOf(expected.subList(2, 4));
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        State<CursorPageDTO<DisplayCardListingDTO>, String> state = tenantService.getAllByCategory(BookingCategory.ALL, "not-a-cursor", 10);
+
+        assertThat(state.getStatus()).isEqualTo(StatusNotification.ERROR);
+    }
+}
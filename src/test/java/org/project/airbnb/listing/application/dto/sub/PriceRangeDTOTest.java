@@ -0,0 +1,42 @@
+package org.project.airbnb.listing.application.dto.sub;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceRangeDTOTest {
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void rejectsAnInvertedRange() {
+        assertThat(validator.validate(new PriceRangeDTO(200, 100)))
+                .extracting(violation -> violation.getPropertyPath().toString())
+                .containsExactly("ordered");
+    }
+
+    @Test
+    void acceptsOrderedAndOpenRanges() {
+        assertThat(validator.validate(new PriceRangeDTO(100, 100))).isEmpty();
+        assertThat(validator.validate(new PriceRangeDTO(null, 100))).isEmpty();
+        assertThat(validator.validate(new PriceRangeDTO(200, null))).isEmpty();
+        assertThat(validator.validate(new PriceRangeDTO(null, null))).isEmpty();
+    }
+}
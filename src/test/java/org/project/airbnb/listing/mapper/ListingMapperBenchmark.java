@@ -0,0 +1,110 @@
+package org.project.airbnb.listing.mapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.project.airbnb.listing.application.dto.DisplayCardListingDTO;
+import org.project.airbnb.listing.application.dto.DisplayListingDTO;
+import org.project.airbnb.listing.application.dto.sub.PictureDTO;
+import org.project.airbnb.listing.application.dto.sub.PictureFileDTO;
+import org.project.airbnb.listing.domain.BookingCategory;
+import org.project.airbnb.listing.domain.Listing;
+import org.project.airbnb.listing.domain.ListingCardView;
+import org.project.airbnb.listing.domain.ListingPicture;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark JMH de las conversiones MapStruct de ListingMapper y ListingPictureMapper: una página de
+ * tarjetas, la ficha de un listado con sus imágenes y las imágenes de una subida.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListingMapperBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int PICTURES = 10;
+
+    private ListingMapper listingMapper;
+    private ListingPictureMapper listingPictureMapper;
+    private List<ListingCardView> cards;
+    private Listing listing;
+    private List<ListingPicture> pictures;
+    private List<PictureDTO> uploadedPictures;
+
+    @Setup
+    public void setUp() {
+        listingPictureMapper = new ListingPictureMapperImpl();
+        listingMapper = new ListingMapperImpl();
+        ReflectionTestUtils.setField(listingMapper, "listingPictureMapper", listingPictureMapper);
+
+        cards = new ArrayList<>(PAGE_SIZE);
+        for (long i = 0; i < PAGE_SIZE; i++) {
+            cards.add(new ListingCardView(i, UUID.randomUUID(), 100, "Location " + i, BookingCategory.BEACH,
+                    2, i, Instant.now()));
+        }
+
+        listing = new Listing();
+        listing.setPublicId(UUID.randomUUID());
+        listing.setTitle("Listing");
+        listing.setDescription("Description");
+        listing.setGuests(4);
+        listing.setBedrooms(2);
+        listing.setBeds(2);
+        listing.setBathrooms(1);
+        listing.setPrice(100);
+        listing.setBookingCategory(BookingCategory.BEACH);
+        listing.setLocation("Location");
+        pictures = new ArrayList<>(PICTURES);
+        uploadedPictures = new ArrayList<>(PICTURES);
+        for (long i = 0; i < PICTURES; i++) {
+            ListingPicture picture = new ListingPicture();
+            picture.setId(i);
+            picture.setListing(listing);
+            picture.setFileHash(UUID.randomUUID().toString());
+            picture.setFileSize(1024L);
+            picture.setFileContentType("image/jpeg");
+            picture.setCover(i == 0);
+            pictures.add(picture);
+            uploadedPictures.add(new PictureDTO(picture.getFileHash(), 1024L, "image/jpeg", false));
+        }
+        listing.setPictures(new HashSet<>(pictures));
+    }
+
+    @Benchmark
+    public List<DisplayCardListingDTO> cardPage() {
+        return listingMapper.listingCardViewsToDisplayCardListingDTOs(cards);
+    }
+
+    @Benchmark
+    public DisplayListingDTO listingDetail() {
+        return listingMapper.listingToDisplayListingDTO(listing);
+    }
+
+    @Benchmark
+    public List<PictureFileDTO> pictureFiles() {
+        return listingPictureMapper.listingPicturesToPictureFileDTOs(pictures);
+    }
+
+    @Benchmark
+    public List<ListingPicture> uploadedPictures() {
+        return uploadedPictures.stream().map(listingPictureMapper::pictureDTOToListingPicture).toList();
+    }
+}
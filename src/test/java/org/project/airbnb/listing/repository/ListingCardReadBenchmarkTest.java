@@ -0,0 +1,120 @@
+package org.project.airbnb.listing.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.TestcontainersConfiguration;
+import org.project.airbnb.listing.application.dto.DisplayCardListingDTO;
+import org.project.airbnb.listing.application.dto.sub.DisplayPictureDTO;
+import org.project.airbnb.listing.application.dto.vo.PriceVO;
+import org.project.airbnb.listing.domain.Listing;
+import org.project.airbnb.listing.domain.ListingPicture;
+import org.project.airbnb.listing.mapper.ListingMapper;
+import org.project.airbnb.listing.mapper.ListingMapperImpl;
+import org.project.airbnb.listing.mapper.ListingPictureMapperImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de la lectura de tarjetas de listados: compara la ruta anterior (entidades Listing completas con
+ * JOIN FETCH de las imágenes, mapeadas a DTO) con la proyección ListingCardView.
+ * Mide filas por segundo y bytes reservados por página. Se ejecuta con {@code mvn test -Pbenchmark}.
+ * La ruta anterior pagina en memoria, por lo que la prueba desactiva la protección de Hibernate que lo impide.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.query.fail_on_pagination_over_collection_fetch=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TestcontainersConfiguration.class, ListingMapperImpl.class, ListingPictureMapperImpl.class})
+@Testcontainers(disabledWithoutDocker = true)
+class ListingCardReadBenchmarkTest {
+
+    private static final int LISTINGS = 20_000;
+    private static final int PICTURES_PER_LISTING = 5;
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP_PAGES = 50;
+    private static final int MEASURED_PAGES = 200;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private ListingMapper listingMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cardProjectionReadsPagesFasterAndWithLessAllocationThanEntities() {
+        ListingTestData.insertListings(jdbcTemplate, ListingTestData.insertLandlord(jdbcTemplate), LISTINGS, PICTURES_PER_LISTING);
+
+        Result entities = measure("entity + JOIN FETCH", this::readPageWithEntities);
+        Result projection = measure("ListingCardView", this::readPageWithProjection);
+
+        System.out.println(entities);
+        System.out.println(projection);
+        assertThat(projection.bytesPerPage()).isLessThan(entities.bytesPerPage());
+    }
+
+    // Ruta anterior: carga las entidades completas con sus imágenes y construye la tarjeta a partir de ellas
+    private List<DisplayCardListingDTO> readPageWithEntities(int page) {
+        List<Listing> listings = entityManager.createQuery("SELECT listing FROM Listing listing" +
+                        " LEFT JOIN FETCH listing.pictures picture WHERE picture.isCover = true", Listing.class)
+                .setFirstResult(page * PAGE_SIZE)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList();
+        return listings.stream().map(listing -> {
+            ListingPicture cover = listing.getPictures().iterator().next();
+            return new DisplayCardListingDTO(new PriceVO(listing.getPrice()), listing.getLocation(),
+                    new DisplayPictureDTO("/api/picture/" + cover.getId(), cover.getFileContentType(), true),
+                    listing.getBookingCategory(), listing.getPublicId());
+        }).toList();
+    }
+
+    private List<DisplayCardListingDTO> readPageWithProjection(int page) {
+        List<Long> ids = listingRepository.findAllIds(PageRequest.of(page, PAGE_SIZE)).getContent();
+        return listingRepository.findAllCardsByIdIn(ids).stream()
+                .map(listingMapper::listingCardViewToDisplayCardListingDTO)
+                .toList();
+    }
+
+    private Result measure(String name, IntFunction<List<DisplayCardListingDTO>> readPage) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int pages = LISTINGS / PAGE_SIZE;
+        for (int i = 0; i < WARMUP_PAGES; i++) {
+            readPage.apply(i % pages);
+            entityManager.clear();
+        }
+
+        long rows = 0;
+        long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_PAGES; i++) {
+            rows += readPage.apply((i * 7) % pages).size();
+            entityManager.clear();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Result(name, rows * 1_000_000_000d / elapsed, allocated / MEASURED_PAGES);
+    }
+
+    private record Result(String name, double rowsPerSecond, long bytesPerPage) {
+        @Override
+        public String toString() {
+            return String.format("%-20s %,12.0f rows/s %,14d bytes/page", name, rowsPerSecond, bytesPerPage);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.project.airbnb.listing.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.BookingDates;
+import org.project.airbnb.TestcontainersConfiguration;
+import org.project.airbnb.listing.domain.BookingCategory;
+import org.project.airbnb.listing.domain.Listing;
+import org.project.airbnb.listing.domain.ListingCardView;
+import org.project.airbnb.listing.domain.ListingFacetCount;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.DataClassRowMapper;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas de las consultas de tarjetas de ListingRepository contra un PostgreSQL real.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class ListingRepositoryTest {
+
+    private static final int LISTINGS = 50;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID landlordPublicId;
+
+    @BeforeEach
+    void setUp() {
+        landlordPublicId = ListingTestData.insertLandlord(jdbcTemplate);
+        ListingTestData.insertListings(jdbcTemplate, landlordPublicId, LISTINGS, 3);
+    }
+
+    @Test
+    void findAllIdsPagesListingsWithCoverInTheRequestedOrder() {
+        List<Long> expected = jdbcTemplate.queryForList(
+                "SELECT id FROM airbnb.listing ORDER BY created_date DESC, id DESC LIMIT 20 OFFSET 20", Long.class);
+
+        Page<Long> page = listingRepository.findAllIds(
+                PageRequest.of(1, 20, Sort.by(Sort.Direction.DESC, "createdDate", "id")));
+
+        assertThat(page.getTotalElements()).isEqualTo(LISTINGS);
+        assertThat(page.getContent()).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void findAllIdsByBookingCategoryFiltersAndCounts() {
+        BookingCategory category = BookingCategory.values()[1];
+        Long expected = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM airbnb.listing WHERE category = ?", Long.class, category.name());
+
+        Page<Long> page = listingRepository.findAllIdsByBookingCategory(PageRequest.of(0, 100), category);
+
+        assertThat(page.getTotalElements()).isEqualTo(expected);
+        assertThat(listingRepository.findAllCardsByIdIn(page.getContent()))
+                .extracting(ListingCardView::bookingCategory)
+                .containsOnly(category);
+    }
+
+    @Test
+    void findAllCardsByIdInReturnsEachListingWithItsCover() {
+        List<Long> ids = listingRepository.findAllIds(PageRequest.of(0, 20)).getContent();
+
+        List<ListingCardView> cards = listingRepository.findAllCardsByIdIn(ids);
+
+        assertThat(cards).extracting(ListingCardView::id).containsExactlyInAnyOrderElementsOf(ids);
+        assertThat(cards).allSatisfy(card -> {
+            Boolean isCover = jdbcTemplate.queryForObject(
+                    "SELECT is_cover FROM airbnb.listing_picture WHERE id = ?", Boolean.class, card.coverId());
+            assertThat(isCover).isTrue();
+        });
+    }
+
+    @Test
+    void findCardsByLandlordAndPublicIds() {
+        List<ListingCardView> landlordCards = listingRepository.findAllCardsByLandlordPublicId(landlordPublicId);
+        assertThat(landlordCards).hasSize(LISTINGS);
+
+        List<UUID> publicIds = landlordCards.stream().limit(5).map(ListingCardView::publicId).toList();
+        assertThat(listingRepository.findAllCardsByPublicIdIn(publicIds))
+                .extracting(ListingCardView::publicId)
+                .containsExactlyInAnyOrderElementsOf(publicIds);
+
+        assertThat(listingRepository.findCardByPublicIdAndLandlordPublicId(publicIds.getFirst(), landlordPublicId)).isPresent();
+        assertThat(listingRepository.findCardByPublicIdAndLandlordPublicId(publicIds.getFirst(), UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void landlordLookupsKeepListingsWithoutCoverThatTheCatalogHides() {
+        UUID withoutCover = jdbcTemplate.queryForObject("SELECT public_id FROM airbnb.listing" +
+                " WHERE landlord_public_id = ? ORDER BY created_date DESC, id DESC LIMIT 1", UUID.class, landlordPublicId);
+        jdbcTemplate.update("DELETE FROM airbnb.listing_picture" +
+                " WHERE listing_fk = (SELECT id FROM airbnb.listing WHERE public_id = ?)", withoutCover);
+
+        assertThat(listingRepository.findAllCardsByLandlordPublicId(landlordPublicId))
+                .hasSize(LISTINGS)
+                .filteredOn(card -> card.publicId().equals(withoutCover))
+                .singleElement()
+                .extracting(ListingCardView::coverId).isNull();
+        assertThat(listingRepository.findCardByPublicIdAndLandlordPublicId(withoutCover, landlordPublicId)).isPresent();
+        assertThat(listingRepository.findAllCardsByPublicIdIn(List.of(withoutCover))).hasSize(1);
+        assertThat(listingRepository.findCardsNewestFirst(Limit.of(10)))
+                .extracting(ListingCardView::publicId)
+                .doesNotContain(withoutCover);
+    }
+
+    @Test
+    void findAllCardsAppliesMinimumCapacitiesPriceRangeAndAvailability() {
+        String location = ListingTestData.LOCATIONS[5];
+        OffsetDateTime from = BookingDates.mondayInWeeks(4);
+        OffsetDateTime to = from.plusDays(3);
+        // Reserva el listado más reciente de la ubicación en las fechas de la búsqueda
+        UUID booked = jdbcTemplate.queryForObject("SELECT public_id FROM airbnb.listing WHERE location = ?" +
+                " ORDER BY created_date DESC, id DESC LIMIT 1", UUID.class, location);
+        jdbcTemplate.update("INSERT INTO airbnb.booking (id, public_id, start_date, end_date, total_price, nb_of_travelers," +
+                " fk_listing, fk_tenant, created_date, last_modified_date)" +
+                " VALUES (nextval('airbnb.booking_generator'), gen_random_uuid(), ?, ?, 300, 2, ?, ?, now(), now())",
+                from.plusDays(1), from.plusDays(5), booked, landlordPublicId);
+        List<UUID> expected = jdbcTemplate.queryForList("SELECT public_id FROM airbnb.listing WHERE location = ?" +
+                " AND guests >= 2 AND bedrooms >= 1 AND beds >= 1 AND bathrooms >= 1 AND price BETWEEN 60 AND 400" +
+                " AND public_id <> ? ORDER BY created_date DESC, id DESC", UUID.class, location, booked);
+
+        Page<ListingCardView> page = listingRepository.findAllCards(Specification.allOf(
+                        ListingSpecifications.locatedIn(location),
+                        ListingSpecifications.withAtLeastGuests(2),
+                        ListingSpecifications.withAtLeastBedrooms(1),
+                        ListingSpecifications.withAtLeastBeds(1),
+                        ListingSpecifications.withAtLeastBathrooms(1),
+                        ListingSpecifications.pricedBetween(60, 400),
+                        ListingSpecifications.availableBetween(from, to)),
+                PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "createdDate", "id")));
+
+        // Los listados de la ubicación admiten más de 2 huéspedes, por lo que una búsqueda por igualdad no encontraría ninguno
+        assertThat(expected).isNotEmpty();
+        assertThat(page.getContent()).extracting(ListingCardView::publicId).containsExactlyElementsOf(expected);
+        assertThat(page.getTotalElements()).isEqualTo(expected.size());
+    }
+
+    @Test
+    void findAllCardsCountsAllMatchesWhenThePageIsFull() {
+        Specification<Listing> cheap = ListingSpecifications.pricedBetween(null, 80);
+        Long expected = jdbcTemplate.queryForObject("SELECT count(*) FROM airbnb.listing WHERE price <= 80", Long.class);
+
+        Page<ListingCardView> page = listingRepository.findAllCards(cheap, PageRequest.of(0, 5, Sort.by("price")));
+
+        assertThat(page.getContent()).hasSize(5).extracting(ListingCardView::price).isSorted().allMatch(price -> price <= 80);
+        assertThat(page.getTotalElements()).isEqualTo(expected);
+    }
+
+    @Test
+    void countFacetsGroupsMatchesByCategoryPriceBucketAndBedrooms() {
+        // Un listado sin portada no aparece en los resultados ni en las facetas
+        jdbcTemplate.update("UPDATE airbnb.listing_picture SET is_cover = false WHERE listing_fk =" +
+                " (SELECT max(id) FROM airbnb.listing WHERE price >= 70)");
+        List<ListingFacetCount> expected = jdbcTemplate.query("SELECT category AS booking_category," +
+                " price / 10 AS price_bucket, bedrooms, count(*) AS count FROM airbnb.listing" +
+                " WHERE price >= 70 AND EXISTS (SELECT 1 FROM airbnb.listing_picture picture" +
+                " WHERE picture.listing_fk = listing.id AND picture.is_cover)" +
+                " GROUP BY 1, 2, 3", new DataClassRowMapper<>(ListingFacetCount.class));
+
+        List<ListingFacetCount> counts = listingRepository.countFacets(ListingSpecifications.pricedBetween(70, null), 10);
+
+        assertThat(expected).hasSizeGreaterThan(1);
+        assertThat(counts).containsExactlyInAnyOrderElementsOf(expected);
+    }
+}
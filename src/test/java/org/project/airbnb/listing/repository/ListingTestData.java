@@ -0,0 +1,70 @@
+package org.project.airbnb.listing.repository;
+
+import org.project.airbnb.listing.domain.BookingCategory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+/**
+ * Genera datos de prueba directamente con SQL (generate_series) para poder poblar la base de datos
+ * con cientos de miles de listados en pocos segundos.
+ */
+public final class ListingTestData {
+
+    public static final String[] LOCATIONS = {"Argentina", "Spain", "France", "Italy", "Japan", "Mexico", "Chile", "Portugal"};
+
+    private ListingTestData() {
+    }
+
+    /**
+     * Crea un arrendador.
+     *
+     * @param jdbcTemplate acceso JDBC a la base de datos de pruebas.
+     * @return el identificador público del arrendador.
+     */
+    public static UUID insertLandlord(JdbcTemplate jdbcTemplate) {
+        UUID publicId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO airbnb.airbnb_user (id, public_id, first_name, last_name, email, created_date, last_modified_date)" +
+                " VALUES (nextval('airbnb.user_generator'), ?, 'Test', 'Landlord', ?, now(), now())",
+                publicId, publicId + "@test.local");
+        return publicId;
+    }
+
+    /**
+     * Crea listados con valores repartidos de forma determinista entre ubicaciones, categorías y capacidades,
+     * cada uno con el número indicado de imágenes, la primera de ellas marcada como portada.
+     *
+     * @param jdbcTemplate acceso JDBC a la base de datos de pruebas.
+     * @param landlordPublicId arrendador propietario de los listados.
+     * @param count número de listados.
+     * @param picturesPerListing número de imágenes de cada listado.
+     */
+    public static void insertListings(JdbcTemplate jdbcTemplate, UUID landlordPublicId, int count, int picturesPerListing) {
+        String locations = "ARRAY['" + String.join("','", LOCATIONS) + "']";
+        StringBuilder categories = new StringBuilder("ARRAY[");
+        BookingCategory[] values = BookingCategory.values();
+        for (int i = 1; i < values.length; i++) {
+            categories.append(i > 1 ? "," : "").append('\'').append(values[i].name()).append('\'');
+        }
+        categories.append(']');
+
+        jdbcTemplate.update("INSERT INTO airbnb.listing (id, public_id, title, description, guests, bedrooms, beds, bathrooms," +
+                " price, category, location, landlord_public_id, created_date, last_modified_date)" +
+                " SELECT nextval('airbnb.listing_generator'), gen_random_uuid(), 'Listing ' || n, 'Description ' || n," +
+                " 1 + n % 8, 1 + n % 4, 1 + n % 6, 1 + n % 3, 50 + n % 450," +
+                " (" + categories + ")[1 + n % " + (values.length - 1) + "]," +
+                " (" + locations + ")[1 + n % " + LOCATIONS.length + "]," +
+                " ?, now() - make_interval(secs => n), now()" +
+                " FROM generate_series(1, ?) AS n", landlordPublicId, count);
+
+        jdbcTemplate.update("INSERT INTO airbnb.listing_picture (id, listing_fk, file_hash, file_size, is_cover," +
+                " file_content_type, created_date, last_modified_date)" +
+                " SELECT nextval('airbnb.listing_picture_generator'), listing.id, md5(listing.id::text || '-' || p)" +
+                " || md5(p::text || '-' || listing.id), 200000, p = 1, 'image/jpeg', now(), now()" +
+                " FROM airbnb.listing listing CROSS JOIN generate_series(1, ?) AS p" +
+                " WHERE listing.landlord_public_id = ?", picturesPerListing, landlordPublicId);
+
+        jdbcTemplate.execute("ANALYZE airbnb.listing");
+        jdbcTemplate.execute("ANALYZE airbnb.listing_picture");
+    }
+}
@@ -0,0 +1,154 @@
+package org.project.airbnb.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.project.airbnb.AirbnbBackApplication;
+import org.project.airbnb.TestcontainersConfiguration;
+import org.project.airbnb.booking.application.AvailabilityCalendar;
+import org.project.airbnb.infrastructure.storage.PictureStorage;
+import org.project.airbnb.listing.application.ListingSearchIndex;
+import org.project.airbnb.loadtest.LoadTestHarness.EndpointReport;
+import org.project.airbnb.loadtest.LoadTestHarness.LoadTestReport;
+import org.project.airbnb.loadtest.MarketplaceDataGenerator.Marketplace;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Prueba de carga de extremo a extremo: arranca la aplicación con un proveedor de identidad simulado, genera un
+ * mercado sintético, ejecuta los escenarios de {@link LoadTestHarness} y guarda un informe JSON por endpoint.
+ * <p>
+ * Por defecto la base de datos es un PostgreSQL en un contenedor; con {@code -Dloadtest.database=local} se usa la
+ * base de datos del perfil {@code dev}. Se ejecuta con:
+ * <pre>
+ * mvn spring-boot:test-run -Dspring-boot.run.main-class=org.project.airbnb.loadtest.LoadTestApplication \
+ *     -Dspring-boot.run.jvmArguments="-Dloadtest.users=2000 -Dloadtest.listings=20000 -Dloadtest.concurrency=200"
+ * </pre>
+ */
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestReport report = run(Options.fromSystemProperties());
+        System.out.println(report.toTable());
+        System.exit(0);
+    }
+
+    /**
+     * Ejecuta una prueba de carga completa.
+     *
+     * @param options volumen de datos, concurrencia y duración de la prueba.
+     * @return el informe, que también se guarda en {@link Options#report()}.
+     * @throws Exception si la aplicación no arranca o no se pueden generar los datos.
+     */
+    public static LoadTestReport run(Options options) throws Exception {
+        Path workDirectory = Files.createTempDirectory("load-test");
+        Path pictureRoot = Files.createDirectories(workDirectory.resolve("pictures"));
+        // La aplicación se arranca dentro de este proceso y no debe reiniciarse con devtools
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (StubIdentityProvider identityProvider = new StubIdentityProvider(workDirectory)) {
+            SpringApplication.Augmented application = SpringApplication.from(AirbnbBackApplication::main);
+            if (options.container()) {
+                application = application.with(TestcontainersConfiguration.class);
+            }
+            try (ConfigurableApplicationContext context = application.run(
+                    "--server.port=0",
+                    "--management.server.port=0",
+                    "--okta.oauth2.issuer=" + identityProvider.issuer(),
+                    "--okta.oauth2.client-id=load-test",
+                    "--okta.oauth2.client-secret=load-test",
+                    "--application.picture-storage.root=" + pictureRoot,
+                    "--logging.level.org.hibernate.SQL=INFO",
+                    "--logging.level.org.project.airbnb=INFO").getApplicationContext()) {
+
+                MarketplaceDataGenerator generator = new MarketplaceDataGenerator(
+                        context.getBean(JdbcTemplate.class),
+                        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)),
+                        context.getBean(PictureStorage.class));
+                generator.deleteGenerated();
+                Marketplace marketplace = generator.generate(options.users(), options.listings(),
+                        options.picturesPerListing(), options.bookingsPerListing());
+                // El calendario y el índice de búsqueda se cargaron al arrancar, antes de generar los datos
+                context.getBean(AvailabilityCalendar.class).afterSingletonsInstantiated();
+                context.getBean(ListingSearchIndex.class).afterSingletonsInstantiated();
+
+                ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+                int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                Instant startedAt = Instant.now();
+                List<EndpointReport> endpoints;
+                try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+                     HttpClient httpClient = HttpClient.newBuilder().executor(clientExecutor).build()) {
+                    endpoints = new LoadTestHarness(httpClient, "http://localhost:" + port, identityProvider, marketplace, objectMapper)
+                            .run(options.concurrency(), options.duration());
+                }
+
+                Map<String, Object> dataset = new LinkedHashMap<>();
+                dataset.put("users", options.users());
+                dataset.put("listings", options.listings());
+                dataset.put("picturesPerListing", options.picturesPerListing());
+                dataset.put("bookingsPerListing", options.bookingsPerListing());
+                dataset.put("averagePictureBytes", marketplace.averagePictureSize());
+                LoadTestReport report = new LoadTestReport(startedAt, options.duration(), options.concurrency(), dataset, endpoints);
+                write(objectMapper, report, options.report());
+                return report;
+            }
+        }
+    }
+
+    private static void write(ObjectMapper objectMapper, LoadTestReport report, Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        objectMapper.copy()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .writerWithDefaultPrettyPrinter()
+                .writeValue(path.toFile(), report);
+    }
+
+    /**
+     * Parámetros de una prueba de carga.
+     *
+     * @param users              usuarios generados; un décimo son arrendadores.
+     * @param listings           listados generados.
+     * @param picturesPerListing imágenes de cada listado.
+     * @param bookingsPerListing reservas generadas de cada listado.
+     * @param concurrency        usuarios virtuales simultáneos.
+     * @param duration           duración de la prueba.
+     * @param container          si es true se usa un PostgreSQL en un contenedor; si no, la base de datos del perfil dev.
+     * @param report             archivo en el que se guarda el informe JSON.
+     */
+    public record Options(int users, int listings, int picturesPerListing, int bookingsPerListing, int concurrency,
+                          Duration duration, boolean container, Path report) {
+
+        /**
+         * Lee los parámetros de las propiedades del sistema {@code loadtest.*}.
+         *
+         * @return los parámetros, con valores por defecto para los que no se indican.
+         */
+        public static Options fromSystemProperties() {
+            return new Options(
+                    Integer.getInteger("loadtest.users", 2_000),
+                    Integer.getInteger("loadtest.listings", 20_000),
+                    Integer.getInteger("loadtest.pictures-per-listing", 5),
+                    Integer.getInteger("loadtest.bookings-per-listing", 4),
+                    Integer.getInteger("loadtest.concurrency", 200),
+                    Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                    !"local".equals(System.getProperty("loadtest.database", "container")),
+                    Path.of(System.getProperty("loadtest.report", "target/load-test-report.json")));
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package org.project.airbnb.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.project.airbnb.infrastructure.config.SecurityUtils;
+import org.project.airbnb.listing.domain.BookingCategory;
+import org.project.airbnb.listing.repository.ListingTestData;
+import org.project.airbnb.loadtest.MarketplaceDataGenerator.Marketplace;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ejecuta los escenarios de carga contra la aplicación en marcha con un número fijo de usuarios virtuales.
+ * <p>
+ * Cada usuario virtual elige un escenario al azar según su peso y lo repite hasta que termina la prueba:
+ * navegar por categorías, buscar con fechas, ver un listado, reservar, cancelar una reserva y consultar el
+ * panel de arrendador. Cada petición se registra con su endpoint, su latencia y si ha fallado.
+ */
+public class LoadTestHarness {
+
+    private static final String CSRF_TOKEN = UUID.randomUUID().toString();
+
+    private final List<Scenario> scenarios = List.of(
+            new Scenario("browse-categories", 35, this::browseCategories),
+            new Scenario("search-with-dates", 20, this::searchWithDates),
+            new Scenario("view-listing", 25, this::viewListing),
+            new Scenario("book", 8, this::book),
+            new Scenario("cancel", 5, this::cancel),
+            new Scenario("landlord-dashboard", 7, this::landlordDashboard));
+    private final int totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final StubIdentityProvider identityProvider;
+    private final Marketplace marketplace;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final AtomicLong bookingSlots = new AtomicLong();
+    private final OffsetDateTime firstFreeDate;
+
+    /**
+     * @param httpClient       cliente HTTP compartido por los usuarios virtuales.
+     * @param baseUrl          URL base de la aplicación, por ejemplo {@code http://localhost:8080}.
+     * @param identityProvider proveedor que emite los tokens de los usuarios.
+     * @param marketplace      datos generados sobre los que se ejecutan los escenarios.
+     * @param objectMapper     lector de las respuestas JSON.
+     */
+    public LoadTestHarness(HttpClient httpClient, String baseUrl, StubIdentityProvider identityProvider,
+                           Marketplace marketplace, ObjectMapper objectMapper) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.identityProvider = identityProvider;
+        this.marketplace = marketplace;
+        this.objectMapper = objectMapper;
+        this.firstFreeDate = MarketplaceDataGenerator.FIRST_BOOKING.plusWeeks(marketplace.bookingsPerListing() + 1L);
+    }
+
+    /**
+     * Ejecuta la prueba de carga.
+     *
+     * @param concurrency número de usuarios virtuales simultáneos.
+     * @param duration    duración de la prueba.
+     * @return las estadísticas por endpoint.
+     * @throws InterruptedException si se interrumpe la espera a los usuarios virtuales.
+     */
+    public List<EndpointReport> run(int concurrency, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService virtualUsers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                virtualUsers.submit(() -> {
+                    String tenant = pick(marketplace.tenantEmails());
+                    while (System.nanoTime() < deadline) {
+                        nextScenario().action().run(tenant);
+                    }
+                });
+            }
+        }
+        double seconds = duration.toNanos() / 1_000_000_000d;
+        return stats.entrySet().stream()
+                .map(entry -> entry.getValue().report(entry.getKey(), seconds))
+                .sorted(Comparator.comparing(EndpointReport::endpoint))
+                .toList();
+    }
+
+    private Scenario nextScenario() {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            ticket -= scenario.weight();
+            if (ticket < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.getLast();
+    }
+
+    // Primera página de una categoría con paginación por offset y sus facetas, y dos páginas con paginación por cursor
+    private void browseCategories(String tenant) {
+        BookingCategory category = pick(List.of(BookingCategory.values()));
+        get("/api/tenant-listing/get-all-by-category", "?category=" + category + "&page=0&size=20", null);
+        get("/api/tenant-listing/get-facets-by-category", "?category=" + category, null);
+        JsonNode page = get("/api/tenant-listing/get-all-by-category-cursor", "?category=" + category + "&size=20", null);
+        if (page != null && page.path("hasNext").asBoolean()) {
+            get("/api/tenant-listing/get-all-by-category-cursor", "?category=" + category + "&size=20&cursor="
+                    + URLEncoder.encode(page.path("nextCursor").asText(), StandardCharsets.UTF_8), null);
+        }
+    }
+
+    private void searchWithDates(String tenant) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        OffsetDateTime start = firstFreeDate.minusWeeks(random.nextInt(1, marketplace.bookingsPerListing() + 2)).plusDays(random.nextInt(7));
+        int minPrice = 50 * random.nextInt(0, 8);
+        String body = """
+                {"dates":{"startDate":"%s","endDate":"%s"},"infos":{"guests":{"value":%d},"bedrooms":{"value":%d},\
+                "beds":{"value":%d},"baths":{"value":%d}},"location":"%s","price":{"min":%d,"max":%d}}""".formatted(
+                start, start.plusDays(2), random.nextInt(1, 5), random.nextInt(1, 4), random.nextInt(1, 5),
+                random.nextInt(1, 3), pick(List.of(ListingTestData.LOCATIONS)), minPrice, minPrice + 200);
+        send("POST", "/api/tenant-listing/search", "?page=0&size=20", null, body);
+        send("POST", "/api/tenant-listing/search-facets", "", null, body);
+    }
+
+    private void viewListing(String tenant) {
+        UUID listing = pick(marketplace.listingPublicIds());
+        get("/api/tenant-listing/get-one", "?publicId=" + listing, null);
+        get("/api/booking/check-availability", "?listingPublicId=" + listing, null);
+        get("/api/picture/{id}", pick(marketplace.coverPictureIds()).toString(), null);
+    }
+
+    // Cada reserva usa una franja distinta posterior a las reservas generadas, por lo que nunca se solapan
+    private void book(String tenant) {
+        OffsetDateTime start = firstFreeDate.plusDays(bookingSlots.getAndIncrement() * 4);
+        String body = """
+                {"startDate":"%s","endDate":"%s","listingPublicId":"%s"}""".formatted(start, start.plusDays(3),
+                pick(marketplace.listingPublicIds()));
+        send("POST", "/api/booking/create", "", token(tenant, false), body);
+    }
+
+    private void cancel(String tenant) {
+        JsonNode bookings = get("/api/booking/get-booked-listing", "", token(tenant, false));
+        if (bookings != null && !bookings.isEmpty()) {
+            JsonNode booking = bookings.get(bookings.size() - 1);
+            send("DELETE", "/api/booking/cancel", "?bookingPublicId=" + booking.path("bookingPublicId").asText()
+                    + "&listingPublicId=" + booking.path("listingPublicId").asText() + "&byLandlord=false", token(tenant, false), null);
+        }
+    }
+
+    private void landlordDashboard(String tenant) {
+        String landlord = token(pick(marketplace.landlordEmails()), true);
+        get("/api/landlord-listing/get-all", "", landlord);
+        get("/api/booking/get-booked-listing-for-landlord-page", "?size=20", landlord);
+    }
+
+    private JsonNode get(String endpoint, String query, String token) {
+        return send("GET", endpoint, query, token, null);
+    }
+
+    // Envía una petición y la registra; devuelve el cuerpo JSON de las respuestas correctas
+    private JsonNode send(String method, String endpoint, String query, String token, String body) {
+        String path = endpoint.contains("{id}") ? endpoint.replace("{id}", query) : endpoint + query;
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (!method.equals("GET")) {
+            // La aplicación compara la cabecera con la cookie XSRF-TOKEN
+            request.header("Cookie", "XSRF-TOKEN=" + CSRF_TOKEN).header("X-XSRF-TOKEN", CSRF_TOKEN);
+        }
+        EndpointStats endpointStats = stats.computeIfAbsent(method + " " + endpoint, key -> new EndpointStats());
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            boolean failed = response.statusCode() >= 400;
+            endpointStats.record(System.nanoTime() - start, failed);
+            boolean json = response.headers().firstValue("Content-Type").orElse("").contains("json");
+            return failed || !json ? null : objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            endpointStats.record(System.nanoTime() - start, true);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private String token(String email, boolean landlord) {
+        return tokens.computeIfAbsent(email, key -> identityProvider.issue(key, landlord
+                ? List.of(SecurityUtils.ROLE_TENANT, SecurityUtils.ROLE_LANDLORD)
+                : List.of(SecurityUtils.ROLE_TENANT)));
+    }
+
+    private static <T> T pick(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    private record Scenario(String name, int weight, ScenarioAction action) {
+    }
+
+    @FunctionalInterface
+    private interface ScenarioAction {
+        void run(String tenant);
+    }
+
+    // Latencias y errores de un endpoint
+    private static final class EndpointStats {
+
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final LongAdder errors = new LongAdder();
+
+        void record(long nanos, boolean failed) {
+            latencies.add(nanos);
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        EndpointReport report(String endpoint, double seconds) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            long failed = errors.sum();
+            return new EndpointReport(endpoint, sorted.length, failed, (double) failed / sorted.length, sorted.length / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted[sorted.length - 1] / 1_000_000d);
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            return sorted[(int) Math.ceil(sorted.length * percentile) - 1] / 1_000_000d;
+        }
+    }
+
+    /**
+     * Estadísticas de un endpoint durante la prueba de carga. Las latencias están en milisegundos.
+     *
+     * @param endpoint   método y ruta del endpoint.
+     * @param requests   peticiones enviadas.
+     * @param errors     peticiones fallidas (estado 4xx/5xx o error de red).
+     * @param errorRate  proporción de peticiones fallidas.
+     * @param throughput peticiones por segundo.
+     * @param p50        mediana de la latencia.
+     * @param p95        percentil 95 de la latencia.
+     * @param p99        percentil 99 de la latencia.
+     * @param max        latencia máxima.
+     */
+    public record EndpointReport(String endpoint, long requests, long errors, double errorRate, double throughput,
+                                 double p50, double p95, double p99, double max) {
+    }
+
+    /**
+     * Informe completo de una prueba de carga.
+     *
+     * @param startedAt   inicio de la prueba.
+     * @param duration    duración de la prueba.
+     * @param concurrency usuarios virtuales simultáneos.
+     * @param dataset     volumen de datos generados.
+     * @param endpoints   estadísticas por endpoint.
+     */
+    public record LoadTestReport(Instant startedAt, Duration duration, int concurrency, Map<String, Object> dataset,
+                                 List<EndpointReport> endpoints) {
+
+        /**
+         * @return las estadísticas en forma de tabla legible.
+         */
+        public String toTable() {
+            List<String> lines = new ArrayList<>();
+            lines.add(String.format("%-62s %9s %7s %9s %9s %9s %9s", "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms"));
+            endpoints.forEach(endpoint -> lines.add(String.format("%-62s %9d %7d %9.1f %9.1f %9.1f %9.1f", endpoint.endpoint(),
+                    endpoint.requests(), endpoint.errors(), endpoint.throughput(), endpoint.p50(), endpoint.p95(), endpoint.p99())));
+            return String.join(System.lineSeparator(), lines);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.project.airbnb.loadtest;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.project.airbnb.loadtest.LoadTestApplication.Options;
+import org.project.airbnb.loadtest.LoadTestHarness.EndpointReport;
+import org.project.airbnb.loadtest.LoadTestHarness.LoadTestReport;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ejecución corta de la prueba de carga sobre un PostgreSQL en un contenedor, con un volumen de datos reducido.
+ * Comprueba que todos los escenarios llegan a sus endpoints sin errores y que se guarda el informe.
+ * Se ejecuta con {@code mvn test -Pbenchmark}; la prueba completa se lanza con {@link LoadTestApplication}.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class LoadTestHarnessTest {
+
+    @Test
+    void allScenariosCompleteWithoutErrors(@TempDir Path directory) throws Exception {
+        Path reportFile = directory.resolve("load-test-report.json");
+
+        LoadTestReport report = LoadTestApplication.run(
+                new Options(200, 2_000, 3, 2, 20, Duration.ofSeconds(15), true, reportFile));
+        System.out.println(report.toTable());
+
+        assertThat(report.endpoints())
+                .extracting(EndpointReport::endpoint)
+                .contains("GET /api/tenant-listing/get-all-by-category",
+                        "GET /api/tenant-listing/get-all-by-category-cursor",
+                        "GET /api/tenant-listing/get-facets-by-category",
+                        "POST /api/tenant-listing/search",
+                        "POST /api/tenant-listing/search-facets",
+                        "GET /api/tenant-listing/get-one",
+                        "GET /api/picture/{id}",
+                        "POST /api/booking/create",
+                        "DELETE /api/booking/cancel",
+                        "GET /api/landlord-listing/get-all",
+                        "GET /api/booking/get-booked-listing-for-landlord-page");
+        assertThat(report.endpoints()).allSatisfy(endpoint -> assertThat(endpoint.errors())
+                .as(endpoint.endpoint())
+                .isZero());
+        assertThat(reportFile).exists();
+    }
+}
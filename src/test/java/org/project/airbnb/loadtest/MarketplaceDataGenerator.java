@@ -0,0 +1,225 @@
+package org.project.airbnb.loadtest;
+
+import org.project.airbnb.BookingDates;
+import org.project.airbnb.infrastructure.config.SecurityUtils;
+import org.project.airbnb.infrastructure.storage.PictureStorage;
+import org.project.airbnb.infrastructure.storage.StoredPicture;
+import org.project.airbnb.listing.domain.BookingCategory;
+import org.project.airbnb.listing.repository.ListingTestData;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Genera un mercado sintético para las pruebas de carga: usuarios (un décimo de ellos arrendadores), listados
+ * repartidos entre ubicaciones y categorías, imágenes con el tamaño de una foto real y reservas semanales.
+ * <p>
+ * Las imágenes se generan una vez, se guardan en el almacenamiento de la aplicación y se reparten entre los
+ * listados; las filas se insertan con SQL (generate_series) para poblar decenas de miles de listados en segundos.
+ * Las conexiones del pool no confirman automáticamente, así que cada operación se ejecuta en su propia transacción.
+ */
+public class MarketplaceDataGenerator {
+
+    /**
+     * Número de imágenes distintas que comparten los listados.
+     */
+    static final int PICTURE_POOL = 12;
+
+    /**
+     * Primer día de las reservas generadas, una semana después del próximo lunes; las reservas de las
+     * pruebas de carga empiezan después de la última.
+     */
+    static final OffsetDateTime FIRST_BOOKING = BookingDates.mondayInWeeks(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactionOperations;
+    private final PictureStorage pictureStorage;
+
+    /**
+     * @param jdbcTemplate          acceso JDBC a la base de datos de la aplicación.
+     * @param transactionOperations transacciones en las que se insertan y se borran los datos.
+     * @param pictureStorage        almacenamiento en el que se guardan las imágenes.
+     */
+    public MarketplaceDataGenerator(JdbcTemplate jdbcTemplate, TransactionOperations transactionOperations,
+                                    PictureStorage pictureStorage) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+        this.pictureStorage = pictureStorage;
+    }
+
+    /**
+     * Puebla la base de datos.
+     *
+     * @param users              número total de usuarios.
+     * @param listings           número de listados.
+     * @param picturesPerListing imágenes de cada listado; la primera es la portada.
+     * @param bookingsPerListing reservas semanales de cada listado.
+     * @return los datos que necesitan los escenarios de carga.
+     * @throws IOException si no se pueden guardar las imágenes.
+     */
+    public Marketplace generate(int users, int listings, int picturesPerListing, int bookingsPerListing) throws IOException {
+        int landlords = Math.max(1, users / 10);
+        List<StoredPicture> pictures = storePictures();
+        transactionOperations.executeWithoutResult(status -> {
+            insertUsers(users, landlords);
+            insertListings(listings, landlords, picturesPerListing, pictures);
+            insertBookings(bookingsPerListing, users - landlords);
+            for (String table : List.of("airbnb_user", "user_authority", "listing", "listing_picture", "booking")) {
+                jdbcTemplate.execute("ANALYZE airbnb." + table);
+            }
+        });
+
+        return transactionOperations.execute(status -> new Marketplace(
+                jdbcTemplate.queryForList("SELECT email FROM airbnb.airbnb_user WHERE email LIKE 'tenant-%@loadtest.local'", String.class),
+                jdbcTemplate.queryForList("SELECT email FROM airbnb.airbnb_user WHERE email LIKE 'landlord-%@loadtest.local'", String.class),
+                jdbcTemplate.queryForList("SELECT public_id FROM airbnb.listing", UUID.class),
+                jdbcTemplate.queryForList("SELECT id FROM airbnb.listing_picture WHERE is_cover", Long.class),
+                bookingsPerListing,
+                pictures.stream().mapToLong(StoredPicture::size).sum() / pictures.size()));
+    }
+
+    /**
+     * Elimina los datos de una ejecución anterior, de modo que la prueba puede repetirse sobre una base de datos local.
+     * Solo se borran los usuarios generados y sus listados, reservas e imágenes.
+     */
+    public void deleteGenerated() {
+        transactionOperations.executeWithoutResult(status -> deleteGeneratedRows());
+    }
+
+    private void deleteGeneratedRows() {
+        String generatedUsers = "SELECT public_id FROM airbnb.airbnb_user WHERE email LIKE '%@loadtest.local'";
+        String generatedListings = "SELECT public_id FROM airbnb.listing WHERE landlord_public_id IN (" + generatedUsers + ")";
+        jdbcTemplate.update("DELETE FROM airbnb.role_assignment WHERE email LIKE '%@loadtest.local'");
+        jdbcTemplate.update("DELETE FROM airbnb.booking WHERE fk_tenant IN (" + generatedUsers + ") OR fk_listing IN (" + generatedListings + ")");
+        jdbcTemplate.update("DELETE FROM airbnb.listing_picture_variant WHERE picture_fk IN (SELECT picture.id FROM airbnb.listing_picture picture" +
+                " JOIN airbnb.listing listing ON listing.id = picture.listing_fk WHERE listing.public_id IN (" + generatedListings + "))");
+        jdbcTemplate.update("DELETE FROM airbnb.listing_picture WHERE listing_fk IN (SELECT id FROM airbnb.listing" +
+                " WHERE public_id IN (" + generatedListings + "))");
+        jdbcTemplate.update("DELETE FROM airbnb.listing WHERE public_id IN (" + generatedListings + ")");
+        jdbcTemplate.update("DELETE FROM airbnb.user_authority WHERE user_id IN (SELECT id FROM airbnb.airbnb_user WHERE email LIKE '%@loadtest.local')");
+        jdbcTemplate.update("DELETE FROM airbnb.airbnb_user WHERE email LIKE '%@loadtest.local'");
+    }
+
+    private void insertUsers(int users, int landlords) {
+        jdbcTemplate.update("INSERT INTO airbnb.airbnb_user (id, public_id, first_name, last_name, email, created_date, last_modified_date)" +
+                " SELECT nextval('airbnb.user_generator'), gen_random_uuid(), 'User', 'Number ' || n," +
+                " CASE WHEN n < ? THEN 'landlord-' ELSE 'tenant-' END || n || '@loadtest.local', now(), now()" +
+                " FROM generate_series(0, ?) AS n", landlords, users - 1);
+        jdbcTemplate.update("INSERT INTO airbnb.user_authority (user_id, authority_name)" +
+                " SELECT id, ? FROM airbnb.airbnb_user WHERE email LIKE '%@loadtest.local'", SecurityUtils.ROLE_TENANT);
+        jdbcTemplate.update("INSERT INTO airbnb.user_authority (user_id, authority_name)" +
+                " SELECT id, ? FROM airbnb.airbnb_user WHERE email LIKE 'landlord-%@loadtest.local'", SecurityUtils.ROLE_LANDLORD);
+    }
+
+    // Fotos de 1600x1067 con ruido, que en JPEG ocupan entre unos cientos de KB y algo más de 1 MB
+    private List<StoredPicture> storePictures() throws IOException {
+        Random random = new Random(42);
+        List<StoredPicture> pictures = new ArrayList<>(PICTURE_POOL);
+        for (int i = 0; i < PICTURE_POOL; i++) {
+            BufferedImage image = new BufferedImage(1600, 1067, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = image.createGraphics();
+            graphics.setPaint(new GradientPaint(0, 0, new Color(random.nextInt(0xFFFFFF)), 1600, 1067, new Color(random.nextInt(0xFFFFFF))));
+            graphics.fillRect(0, 0, 1600, 1067);
+            graphics.dispose();
+            int noise = 8 + i * 4;
+            for (int y = 0; y < image.getHeight(); y++) {
+                for (int x = 0; x < image.getWidth(); x++) {
+                    int rgb = image.getRGB(x, y);
+                    int delta = random.nextInt(noise) - noise / 2;
+                    image.setRGB(x, y, (clamp((rgb >> 16 & 0xFF) + delta) << 16) | (clamp((rgb >> 8 & 0xFF) + delta) << 8) | clamp((rgb & 0xFF) + delta));
+                }
+            }
+            ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+            ImageIO.write(image, "jpg", jpeg);
+            pictures.add(pictureStorage.store(new ByteArrayInputStream(jpeg.toByteArray())));
+        }
+        return pictures;
+    }
+
+    private void insertListings(int listings, int landlords, int picturesPerListing, List<StoredPicture> pictures) {
+        String[] categories = Arrays.stream(BookingCategory.values())
+                .filter(category -> category != BookingCategory.ALL)
+                .map(Enum::name)
+                .toArray(String[]::new);
+        jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement("INSERT INTO airbnb.listing (id, public_id, title, description, guests," +
+                    " bedrooms, beds, bathrooms, price, category, location, landlord_public_id, created_date, last_modified_date)" +
+                    " SELECT nextval('airbnb.listing_generator'), gen_random_uuid(), 'Listing ' || n, 'Description ' || n," +
+                    " 1 + n % 4, 1 + n % 3, 1 + n % 4, 1 + n % 2, 50 + n % 450," +
+                    " (?::text[])[1 + n % cardinality(?::text[])], (?::text[])[1 + n % cardinality(?::text[])]," +
+                    " landlord.public_id, now() - make_interval(secs => n), now()" +
+                    " FROM generate_series(0, ?) AS n" +
+                    " JOIN (SELECT public_id, row_number() OVER (ORDER BY id) - 1 AS rank FROM airbnb.airbnb_user" +
+                    " WHERE email LIKE 'landlord-%@loadtest.local') landlord ON landlord.rank = n % ?");
+            statement.setArray(1, connection.createArrayOf("text", categories));
+            statement.setArray(2, connection.createArrayOf("text", categories));
+            statement.setArray(3, connection.createArrayOf("text", ListingTestData.LOCATIONS));
+            statement.setArray(4, connection.createArrayOf("text", ListingTestData.LOCATIONS));
+            statement.setInt(5, listings - 1);
+            statement.setInt(6, landlords);
+            return statement;
+        });
+        jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement("INSERT INTO airbnb.listing_picture (id, listing_fk, file_hash, file_size," +
+                    " is_cover, file_content_type, created_date, last_modified_date)" +
+                    " SELECT nextval('airbnb.listing_picture_generator'), listing.id," +
+                    " (?::text[])[1 + (listing.id + p) % cardinality(?::text[])], (?::bigint[])[1 + (listing.id + p) % cardinality(?::bigint[])]," +
+                    " p = 0, 'image/jpeg', now(), now()" +
+                    " FROM airbnb.listing listing CROSS JOIN generate_series(0, ?) AS p");
+            Object[] hashes = pictures.stream().map(StoredPicture::hash).toArray();
+            Object[] sizes = pictures.stream().map(StoredPicture::size).toArray();
+            statement.setArray(1, connection.createArrayOf("text", hashes));
+            statement.setArray(2, connection.createArrayOf("text", hashes));
+            statement.setArray(3, connection.createArrayOf("bigint", sizes));
+            statement.setArray(4, connection.createArrayOf("bigint", sizes));
+            statement.setInt(5, picturesPerListing - 1);
+            return statement;
+        });
+    }
+
+    // Reservas semanales de tres noches, repartidas entre los inquilinos
+    private void insertBookings(int bookingsPerListing, int tenants) {
+        jdbcTemplate.update("INSERT INTO airbnb.booking (id, public_id, start_date, end_date, total_price, nb_of_travelers," +
+                " fk_listing, fk_tenant, created_date, last_modified_date)" +
+                " SELECT nextval('airbnb.booking_generator'), gen_random_uuid()," +
+                " ?::timestamptz + make_interval(weeks => w)," +
+                " ?::timestamptz + make_interval(weeks => w, days => 3), listing.price * 3, 1," +
+                " listing.public_id, tenant.public_id, now(), now()" +
+                " FROM airbnb.listing listing CROSS JOIN generate_series(0, ?) AS w" +
+                " JOIN (SELECT public_id, row_number() OVER (ORDER BY id) - 1 AS rank FROM airbnb.airbnb_user" +
+                " WHERE email LIKE 'tenant-%@loadtest.local') tenant ON tenant.rank = (listing.id + w) % ?",
+                FIRST_BOOKING, FIRST_BOOKING, bookingsPerListing - 1, tenants);
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+
+    /**
+     * Datos generados que usan los escenarios de carga.
+     *
+     * @param tenantEmails       correos de los inquilinos.
+     * @param landlordEmails     correos de los arrendadores.
+     * @param listingPublicIds   identificadores públicos de los listados.
+     * @param coverPictureIds    identificadores de las imágenes de portada.
+     * @param bookingsPerListing reservas generadas por listado.
+     * @param averagePictureSize tamaño medio en bytes de las imágenes.
+     */
+    public record Marketplace(List<String> tenantEmails, List<String> landlordEmails, List<UUID> listingPublicIds,
+                              List<Long> coverPictureIds, int bookingsPerListing, long averagePictureSize) {
+    }
+}
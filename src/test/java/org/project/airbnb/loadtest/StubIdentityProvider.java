@@ -0,0 +1,193 @@
+package org.project.airbnb.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import org.project.airbnb.infrastructure.config.SecurityUtils;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Proveedor de identidad simulado que sustituye a Auth0 durante las pruebas de carga.
+ * <p>
+ * Publica el documento de descubrimiento OpenID y las claves públicas, por lo que la aplicación valida los tokens
+ * con su configuración real, y emite tokens JWT firmados para los usuarios generados. También responde a las
+ * llamadas de la Management API que realiza la asignación de roles en segundo plano.
+ * <p>
+ * Okta exige que el emisor use HTTPS, así que el proveedor se sirve con un certificado autofirmado para localhost
+ * que se registra como almacén de confianza de la JVM; por eso debe crearse antes de arrancar la aplicación.
+ */
+public class StubIdentityProvider implements AutoCloseable {
+
+    private static final Duration TOKEN_VALIDITY = Duration.ofHours(12);
+    private static final String KEY_STORE_PASSWORD = "load-test";
+
+    private final HttpsServer server;
+    private final RSAKey signingKey;
+    private final String issuer;
+
+    /**
+     * Arranca el proveedor en un puerto libre de localhost.
+     *
+     * @param workDirectory directorio en el que se genera el almacén con el certificado del servidor.
+     * @throws IOException si no se puede generar el certificado o abrir el puerto.
+     */
+    public StubIdentityProvider(Path workDirectory) throws IOException {
+        try {
+            signingKey = new RSAKeyGenerator(2048).keyID("load-test").generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Cannot generate the signing key", e);
+        }
+        Path keyStore = generateKeyStore(workDirectory);
+        trust(keyStore);
+        server = HttpsServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setHttpsConfigurator(new HttpsConfigurator(sslContext(keyStore)));
+        issuer = "https://localhost:" + server.getAddress().getPort() + "/";
+
+        server.createContext("/.well-known/openid-configuration", exchange -> respond(exchange, """
+                {"issuer":"%1$s","authorization_endpoint":"%1$sauthorize","token_endpoint":"%1$soauth/token",
+                "userinfo_endpoint":"%1$suserinfo","jwks_uri":"%1$s","subject_types_supported":["public"],
+                "response_types_supported":["code"],"id_token_signing_alg_values_supported":["RS256"]}""".formatted(issuer)));
+        server.createContext("/oauth/token", exchange -> respond(exchange,
+                "{\"access_token\":\"management-token\",\"token_type\":\"Bearer\",\"expires_in\":86400}"));
+        server.createContext("/api/v2/users-by-email", exchange -> respond(exchange,
+                "[{\"user_id\":\"auth0|load-test\",\"email\":\"load-test@loadtest.local\"}]"));
+        server.createContext("/api/v2/roles/", exchange -> respond(exchange, "{}"));
+        // La aplicación usa el emisor como URI del conjunto de claves
+        server.createContext("/", exchange -> respond(exchange, new JWKSet(signingKey.toPublicJWK()).toString()));
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    /**
+     * @return el emisor de los tokens, que la aplicación usa como {@code okta.oauth2.issuer}.
+     */
+    public String issuer() {
+        return issuer;
+    }
+
+    /**
+     * Emite un token de acceso para un usuario.
+     *
+     * @param email correo electrónico del usuario, con el que la aplicación lo busca.
+     * @param roles roles del usuario.
+     * @return el token JWT firmado.
+     */
+    public String issue(String email, List<String> roles) {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject("auth0|" + email)
+                .claim("email", email)
+                .claim(SecurityUtils.CLAIMS_NAMESPACE, roles)
+                // El conversor JWT de Okta obtiene las autoridades de la reclamación de grupos
+                .claim("groups", roles)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(TOKEN_VALIDITY)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(), claims);
+        try {
+            jwt.sign(new RSASSASigner(signingKey));
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Cannot sign the token", e);
+        }
+        return jwt.serialize();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    // Genera con keytool un certificado autofirmado válido para localhost
+    private static Path generateKeyStore(Path workDirectory) throws IOException {
+        Path keyStore = workDirectory.resolve("identity-provider.p12");
+        Path keytool = Path.of(System.getProperty("java.home"), "bin", "keytool");
+        Process process = new ProcessBuilder(keytool.toString(), "-genkeypair", "-alias", "localhost",
+                "-keyalg", "RSA", "-keysize", "2048", "-validity", "2", "-dname", "CN=localhost",
+                "-ext", "SAN=dns:localhost,ip:127.0.0.1", "-storetype", "PKCS12",
+                "-keystore", keyStore.toString(), "-storepass", KEY_STORE_PASSWORD)
+                .redirectErrorStream(true)
+                .start();
+        try {
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if (process.waitFor() != 0) {
+                throw new IOException("keytool failed: " + output);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating the certificate", e);
+        }
+        return keyStore;
+    }
+
+    // Los clientes HTTP de la aplicación (descubrimiento OpenID, claves públicas y Management API) usan el
+    // almacén de confianza por defecto de la JVM
+    // El contexto TLS por defecto puede haberse creado ya en la JVM, por lo que además de las propiedades se sustituye
+    private static void trust(Path keyStore) throws IOException {
+        System.setProperty("javax.net.ssl.trustStore", keyStore.toString());
+        System.setProperty("javax.net.ssl.trustStoreType", "PKCS12");
+        System.setProperty("javax.net.ssl.trustStorePassword", KEY_STORE_PASSWORD);
+        try (InputStream input = Files.newInputStream(keyStore)) {
+            KeyStore store = KeyStore.getInstance("PKCS12");
+            store.load(input, KEY_STORE_PASSWORD.toCharArray());
+            TrustManagerFactory trustManagers = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            trustManagers.init(store);
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(null, trustManagers.getTrustManagers(), null);
+            SSLContext.setDefault(context);
+            HttpsURLConnection.setDefaultSSLSocketFactory(context.getSocketFactory());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot trust the server certificate", e);
+        }
+    }
+
+    private static SSLContext sslContext(Path keyStore) throws IOException {
+        try (InputStream input = Files.newInputStream(keyStore)) {
+            KeyStore store = KeyStore.getInstance("PKCS12");
+            store.load(input, KEY_STORE_PASSWORD.toCharArray());
+            KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keyManagers.init(store, KEY_STORE_PASSWORD.toCharArray());
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(keyManagers.getKeyManagers(), null, null);
+            return context;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot load the server certificate", e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
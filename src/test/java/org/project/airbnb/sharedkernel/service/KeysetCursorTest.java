@@ -0,0 +1,31 @@
+package org.project.airbnb.sharedkernel.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsThroughItsEncodedForm() {
+        KeysetCursor cursor = new KeysetCursor(Instant.parse("2024-07-01T10:15:30.123456Z"), 42L);
+
+        assertThat(KeysetCursor.decode(cursor.encode())).contains(cursor);
+    }
+
+    @Test
+    void encodedFormIsUrlSafe() {
+        String encoded = new KeysetCursor(Instant.MAX, Long.MAX_VALUE).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        assertThat(KeysetCursor.decode("not a cursor")).isEmpty();
+        assertThat(KeysetCursor.decode("AAAA")).isEmpty();
+        assertThat(KeysetCursor.decode("")).isEmpty();
+    }
+}
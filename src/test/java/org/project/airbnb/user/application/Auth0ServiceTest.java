@@ -0,0 +1,141 @@
+package org.project.airbnb.user.application;
+
+import com.auth0.exception.APIException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.infrastructure.config.SecurityUtils;
+import org.project.airbnb.user.application.dto.ReadUserDTO;
+import org.project.airbnb.user.repository.RoleAssignmentRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Pruebas de Auth0Service contra un proveedor de identidad simulado en un servidor HTTP local.
+ */
+class Auth0ServiceTest {
+
+    private static final String ROLE_ID = "rol_landlord";
+    private static final String EMAIL = "landlord@example.com";
+
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private final List<String> managementAuthorizations = new CopyOnWriteArrayList<>();
+    private final List<String> roleAssignments = new CopyOnWriteArrayList<>();
+    private final RoleAssignmentRepository roleAssignmentRepository = mock(RoleAssignmentRepository.class);
+
+    private volatile int tokenExpiresIn = 86_400;
+    private volatile int managementStatus = 200;
+    private HttpServer idp;
+    private Auth0Service auth0Service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        idp = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        idp.createContext("/oauth/token", exchange -> {
+            int token = tokenRequests.incrementAndGet();
+            respond(exchange, 200, "{\"access_token\":\"token-" + token + "\",\"token_type\":\"Bearer\",\"expires_in\":" + tokenExpiresIn + "}");
+        });
+        idp.createContext("/api/v2/users-by-email", exchange -> {
+            managementAuthorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            if (managementStatus != 200) {
+                respond(exchange, managementStatus, "{\"statusCode\":" + managementStatus + ",\"error\":\"Unauthorized\",\"message\":\"Invalid token\"}");
+            } else {
+                respond(exchange, 200, "[{\"user_id\":\"auth0|42\",\"email\":\"" + EMAIL + "\"}]");
+            }
+        });
+        idp.createContext("/api/v2/roles/", exchange -> {
+            managementAuthorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            roleAssignments.add(exchange.getRequestURI().getPath() + " " + new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            respond(exchange, 200, "{}");
+        });
+        idp.start();
+
+        String domain = "http://localhost:" + idp.getAddress().getPort() + "/";
+        auth0Service = new Auth0Service("client", "secret", domain, ROLE_ID, roleAssignmentRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        idp.stop(0);
+    }
+
+    @Test
+    void reusesTheManagementTokenUntilItExpires() throws Exception {
+        auth0Service.assignRoleByEmail(EMAIL, UUID.randomUUID(), ROLE_ID);
+        auth0Service.assignRoleByEmail(EMAIL, UUID.randomUUID(), ROLE_ID);
+
+        assertThat(tokenRequests).hasValue(1);
+        assertThat(managementAuthorizations).containsOnly("Bearer token-1");
+        assertThat(roleAssignments).hasSize(2)
+                .allSatisfy(request -> assertThat(request).startsWith("/api/v2/roles/" + ROLE_ID + "/users").contains("auth0|42"));
+    }
+
+    @Test
+    void renewsTheTokenShortlyBeforeItExpires() throws Exception {
+        // Un token que caduca dentro del margen de renovación se solicita de nuevo en cada llamada
+        tokenExpiresIn = 30;
+
+        auth0Service.assignRoleByEmail(EMAIL, UUID.randomUUID(), ROLE_ID);
+        auth0Service.assignRoleByEmail(EMAIL, UUID.randomUUID(), ROLE_ID);
+
+        assertThat(tokenRequests).hasValue(2);
+        assertThat(managementAuthorizations).contains("Bearer token-1", "Bearer token-2");
+    }
+
+    @Test
+    void renewsARejectedToken() throws Exception {
+        managementStatus = 401;
+        assertThatThrownBy(() -> auth0Service.assignRoleByEmail(EMAIL, UUID.randomUUID(), ROLE_ID))
+                .isInstanceOf(APIException.class);
+
+        managementStatus = 200;
+        auth0Service.assignRoleByEmail(EMAIL, UUID.randomUUID(), ROLE_ID);
+
+        assertThat(tokenRequests).hasValue(2);
+    }
+
+    @Test
+    void queuesTheLandlordRoleWithoutCallingTheIdp() {
+        UUID publicId = UUID.randomUUID();
+
+        auth0Service.addLandlordRoleToUser(new ReadUserDTO(publicId, "Land", "Lord", EMAIL, null, Set.of(SecurityUtils.ROLE_TENANT)));
+
+        verify(roleAssignmentRepository).insertPendingIfAbsent(eq(publicId), eq(EMAIL), eq(ROLE_ID), any());
+        assertThat(tokenRequests).hasValue(0);
+        assertThat(roleAssignments).isEmpty();
+    }
+
+    @Test
+    void skipsUsersThatAreAlreadyLandlords() {
+        auth0Service.addLandlordRoleToUser(new ReadUserDTO(UUID.randomUUID(), "Land", "Lord", EMAIL, null, Set.of(SecurityUtils.ROLE_LANDLORD)));
+
+        verify(roleAssignmentRepository, never()).insertPendingIfAbsent(any(), any(), any(), any());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.project.airbnb.user.application;
+
+import com.auth0.exception.Auth0Exception;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.project.airbnb.user.domain.RoleAssignment;
+import org.project.airbnb.user.domain.RoleAssignmentStatus;
+import org.project.airbnb.user.repository.RoleAssignmentRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoleAssignmentWorkerTest {
+
+    private final RoleAssignmentRepository roleAssignmentRepository = mock(RoleAssignmentRepository.class);
+    private final Auth0Service auth0Service = mock(Auth0Service.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final RoleAssignmentWorker worker = new RoleAssignmentWorker(roleAssignmentRepository, auth0Service,
+            new TransactionTemplate(transactionManager), 20, 3, Duration.ofSeconds(10), Duration.ofSeconds(25),
+            Duration.ofMinutes(5));
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void removesCompletedAssignments() throws Exception {
+        RoleAssignment roleAssignment = roleAssignment();
+        when(roleAssignmentRepository.lockDue(any(), anyInt())).thenReturn(List.of(roleAssignment));
+
+        worker.processDueAssignments();
+
+        verify(auth0Service).assignRoleByEmail(roleAssignment.getEmail(), roleAssignment.getUserPublicId(), "rol_landlord");
+        verify(roleAssignmentRepository).delete(roleAssignment);
+    }
+
+    @Test
+    void retriesFailedAssignmentsWithBackoffUntilGivingUp() throws Exception {
+        RoleAssignment roleAssignment = roleAssignment();
+        when(roleAssignmentRepository.lockDue(any(), anyInt())).thenReturn(List.of(roleAssignment));
+        doThrow(new Auth0Exception("IdP unavailable")).when(auth0Service).assignRoleByEmail(any(), any(), any());
+
+        Instant before = Instant.now();
+        worker.processDueAssignments();
+        assertThat(roleAssignment.getStatus()).isEqualTo(RoleAssignmentStatus.PENDING);
+        assertThat(roleAssignment.getAttempts()).isEqualTo(1);
+        assertThat(roleAssignment.getNextAttemptAt()).isBetween(before.plusSeconds(10), Instant.now().plusSeconds(10));
+        assertThat(roleAssignment.getLastError()).isEqualTo("IdP unavailable");
+
+        worker.processDueAssignments();
+        worker.processDueAssignments();
+        assertThat(roleAssignment.getStatus()).isEqualTo(RoleAssignmentStatus.FAILED);
+        assertThat(roleAssignment.getAttempts()).isEqualTo(3);
+        verify(roleAssignmentRepository, never()).delete(any());
+    }
+
+    @Test
+    void callsAuth0OutsideTheClaimTransactionAndRecordsEachResultInItsOwn() throws Exception {
+        RoleAssignment completed = roleAssignment();
+        RoleAssignment failed = roleAssignment();
+        when(roleAssignmentRepository.lockDue(any(), anyInt())).thenReturn(List.of(failed, completed));
+        doThrow(new Auth0Exception("IdP unavailable")).when(auth0Service)
+                .assignRoleByEmail(any(), eq(failed.getUserPublicId()), any());
+
+        Instant before = Instant.now();
+        worker.processDueAssignments();
+
+        // La reclamación se confirma, con la concesión, antes de la primera llamada a Auth0
+        InOrder order = inOrder(roleAssignmentRepository, transactionManager, auth0Service);
+        order.verify(roleAssignmentRepository).lockDue(any(), anyInt());
+        order.verify(transactionManager).commit(any(TransactionStatus.class));
+        order.verify(auth0Service).assignRoleByEmail(any(), eq(failed.getUserPublicId()), any());
+        order.verify(roleAssignmentRepository).save(failed);
+        order.verify(transactionManager).commit(any(TransactionStatus.class));
+        order.verify(auth0Service).assignRoleByEmail(any(), eq(completed.getUserPublicId()), any());
+        order.verify(roleAssignmentRepository).delete(completed);
+        order.verify(transactionManager).commit(any(TransactionStatus.class));
+        assertThat(completed.getNextAttemptAt()).isAfterOrEqualTo(before.plus(Duration.ofMinutes(5)));
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void doublesTheBackoffUpToTheMaximum() {
+        assertThat(worker.backoff(1)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(worker.backoff(2)).isEqualTo(Duration.ofSeconds(20));
+        assertThat(worker.backoff(3)).isEqualTo(Duration.ofSeconds(25));
+        assertThat(worker.backoff(64)).isEqualTo(Duration.ofSeconds(25));
+    }
+
+    private static RoleAssignment roleAssignment() {
+        RoleAssignment roleAssignment = new RoleAssignment();
+        roleAssignment.setUserPublicId(UUID.randomUUID());
+        roleAssignment.setEmail("landlord@example.com");
+        roleAssignment.setRoleId("rol_landlord");
+        return roleAssignment;
+    }
+}
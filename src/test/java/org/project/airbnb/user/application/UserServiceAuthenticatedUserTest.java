@@ -0,0 +1,114 @@
+package org.project.airbnb.user.application;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project.airbnb.user.application.dto.ReadUserDTO;
+import org.project.airbnb.user.domain.User;
+import org.project.airbnb.user.mapper.UserMapper;
+import org.project.airbnb.user.repository.UserRepository;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceAuthenticatedUserTest {
+
+    private static final String EMAIL = "tenant@example.com";
+    private static final Map<String, Object> ATTRIBUTES = Map.of("sub", "auth0|42", "email", EMAIL);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserMapper userMapper = mock(UserMapper.class);
+    private final UserService userService = new UserService(userRepository, userMapper,
+            new AuthenticatedUserCache(Duration.ofMinutes(5), 100));
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail(EMAIL);
+        when(userRepository.findOneByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(userMapper.readUserDTOToUser(any())).thenAnswer(invocation -> new ReadUserDTO(
+                UUID.randomUUID(), "Tenant", "Test", EMAIL, null, Set.of()));
+        authenticateAs(new DefaultOAuth2User(List.of(), ATTRIBUTES, "sub"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void resolvesTheUserOncePerRequest() {
+        startRequest();
+
+        ReadUserDTO first = userService.getAuthenticatedUserFromSecurityContext();
+        ReadUserDTO second = userService.getAuthenticatedUserFromSecurityContext();
+
+        assertThat(second).isSameAs(first);
+        verify(userRepository, times(1)).findOneByEmail(EMAIL);
+    }
+
+    @Test
+    void reusesTheUserAcrossRequests() {
+        startRequest();
+        userService.getAuthenticatedUserFromSecurityContext();
+        startRequest();
+        userService.getAuthenticatedUserFromSecurityContext();
+
+        verify(userRepository, times(1)).findOneByEmail(EMAIL);
+    }
+
+    @Test
+    void syncWithIdpInvalidatesTheCachedUser() {
+        startRequest();
+        ReadUserDTO beforeSync = userService.getAuthenticatedUserFromSecurityContext();
+
+        userService.syncWithIdp(new DefaultOAuth2User(List.of(), ATTRIBUTES, "sub"), false);
+        ReadUserDTO afterSync = userService.getAuthenticatedUserFromSecurityContext();
+
+        assertThat(afterSync).isNotSameAs(beforeSync);
+    }
+
+    @Test
+    void resolvesJwtPrincipals() {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "none").claims(claims -> claims.putAll(ATTRIBUTES)).build();
+        authenticateAs(jwt);
+
+        assertThat(userService.getAuthenticatedUserFromSecurityContext().email()).isEqualTo(EMAIL);
+    }
+
+    @Test
+    void failsWhenTheUserDoesNotExist() {
+        when(userRepository.findOneByEmail(EMAIL)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(userService::getAuthenticatedUserFromSecurityContext).isInstanceOf(NoSuchElementException.class);
+    }
+
+    private static void authenticateAs(Object principal) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(principal, null));
+    }
+
+    private static void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+}
@@ -0,0 +1,2 @@
+-- Crea el esquema de la aplicación antes de que Liquibase aplique los cambios
+CREATE SCHEMA IF NOT EXISTS airbnb;